@@ -23,24 +23,35 @@ import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.Stage;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.luke.app.DirectoryObserver;
 import org.apache.lucene.luke.app.IndexObserver;
 import org.apache.lucene.luke.app.LukeState;
+import org.apache.lucene.luke.app.controllers.dialog.commits.CommitDiffController;
+import org.apache.lucene.luke.app.controllers.dialog.commits.FileSizesController;
+import org.apache.lucene.luke.app.controllers.dialog.commits.MergeSimulationController;
+import org.apache.lucene.luke.app.controllers.dialog.commits.SegmentTimelineController;
 import org.apache.lucene.luke.app.controllers.dto.commits.File;
 import org.apache.lucene.luke.app.controllers.dto.commits.Segment;
+import org.apache.lucene.luke.app.util.DialogOpener;
+import org.apache.lucene.luke.app.util.MessageUtils;
 import org.apache.lucene.luke.models.LukeException;
 import org.apache.lucene.luke.models.commits.Commit;
+import org.apache.lucene.luke.models.commits.CommitDiff;
 import org.apache.lucene.luke.models.commits.Commits;
 import org.apache.lucene.luke.models.commits.CommitsFactory;
+import org.apache.lucene.luke.models.commits.FileSizeRollup;
+import org.apache.lucene.luke.models.commits.SegmentTimeline;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.apache.lucene.luke.app.util.ExceptionHandler.runnableWrapper;
 
-public class CommitsController implements IndexObserver, DirectoryObserver {
+public class CommitsController extends ChildTabController implements IndexObserver, DirectoryObserver {
 
   private final CommitsFactory commitsFactory;
 
@@ -51,6 +62,12 @@ public class CommitsController implements IndexObserver, DirectoryObserver {
 
   private ObservableList<Long> generationList;
 
+  @FXML
+  private ChoiceBox<Long> diffGeneration;
+
+  @FXML
+  private Button diffBtn;
+
   @FXML
   private Label deleted;
 
@@ -125,11 +142,15 @@ public class CommitsController implements IndexObserver, DirectoryObserver {
     generationList = FXCollections.observableArrayList();
     generation.setItems(generationList);
     generation.setOnAction(e -> runnableWrapper(this::selectCommit));
+    diffGeneration.setItems(generationList);
+    diffBtn.setDisable(true);
+    diffBtn.setOnAction(e -> runnableWrapper(this::showCommitDiff));
 
     fileNameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
     fileSizeColumn.setCellValueFactory(new PropertyValueFactory<>("size"));
     fileList = FXCollections.observableArrayList();
     filesTable.setItems(fileList);
+    filesTable.setContextMenu(createFilesTableMenu());
 
     segNameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
     maxDocColumn.setCellValueFactory(new PropertyValueFactory<>("maxDoc"));
@@ -144,6 +165,7 @@ public class CommitsController implements IndexObserver, DirectoryObserver {
       setDisableRadios(false);
       runnableWrapper(this::showSegmentDetails);
     });
+    segmentsTable.setContextMenu(createSegmentsTableMenu());
 
     diagRadio.setSelected(true);
     diagRadio.setOnAction(e -> runnableWrapper(this::showSegmentDetails));
@@ -189,6 +211,8 @@ public class CommitsController implements IndexObserver, DirectoryObserver {
     segCount.setText("");
     userData.setText("");
     generation.setValue(null);
+    diffGeneration.setValue(null);
+    diffBtn.setDisable(true);
     generationList.clear();
     fileList.clear();
     segmentList.clear();
@@ -202,6 +226,10 @@ public class CommitsController implements IndexObserver, DirectoryObserver {
     if (generationList.size() > 0) {
       generation.setValue(generationList.get(0));
     }
+    if (generationList.size() > 1) {
+      diffGeneration.setValue(generationList.get(1));
+    }
+    diffBtn.setDisable(generationList.size() < 2);
   }
 
   private void selectCommit() throws LukeException {
@@ -219,6 +247,8 @@ public class CommitsController implements IndexObserver, DirectoryObserver {
     setDisableRadios(true);
 
     long commitGen = generation.getValue();
+    // segment infos are parsed in background while the files are listed
+    commitsModel.prefetchSegments(commitGen);
     commitsModel.getCommit(commitGen).ifPresent(commit -> {
       deleted.setText(String.valueOf(commit.isDeleted()));
       segCount.setText(String.valueOf(commit.getSegCount()));
@@ -275,6 +305,117 @@ public class CommitsController implements IndexObserver, DirectoryObserver {
 
   }
 
+  private Stage commitDiffDialog;
+
+  private void showCommitDiff() throws Exception {
+    if (generation.getValue() == null || diffGeneration.getValue() == null) {
+      return;
+    }
+    long fromGen = Math.min(generation.getValue(), diffGeneration.getValue());
+    long toGen = Math.max(generation.getValue(), diffGeneration.getValue());
+    if (fromGen == toGen) {
+      throw new LukeException("Select two different generations to compare.");
+    }
+
+    CommitDiff diff = commitsModel.diff(fromGen, toGen)
+        .orElseThrow(() -> new LukeException(String.format("Commit generation %d or %d not exists.", fromGen, toGen)));
+    commitDiffDialog = new DialogOpener<CommitDiffController>(getParent()).show(
+        commitDiffDialog,
+        "Commit Diff",
+        "/fxml/dialog/commits/commit_diff.fxml",
+        800, 550,
+        (controller) -> controller.setDiff(diff)
+    );
+  }
+
+  private Stage fileSizesDialog;
+
+  private void showFileSizes() throws Exception {
+    if (generation.getValue() == null) {
+      return;
+    }
+    long commitGen = generation.getValue();
+    List<FileSizeRollup> rollups = commitsModel.getFileSizeRollup(commitGen);
+    fileSizesDialog = new DialogOpener<FileSizesController>(getParent()).show(
+        fileSizesDialog,
+        "File Sizes",
+        "/fxml/dialog/commits/file_sizes.fxml",
+        600, 450,
+        (controller) -> controller.setRollups(commitGen, rollups)
+    );
+  }
+
+  private Stage mergeSimulationDialog;
+
+  private void showMergeSimulation() throws Exception {
+    if (generation.getValue() == null) {
+      return;
+    }
+    long commitGen = generation.getValue();
+    mergeSimulationDialog = new DialogOpener<MergeSimulationController>(getParent()).show(
+        mergeSimulationDialog,
+        "Merge Simulation",
+        "/fxml/dialog/commits/merge_simulation.fxml",
+        900, 600,
+        (controller) -> controller.setCommit(commitsModel, commitGen)
+    );
+  }
+
+  private Stage segmentTimelineDialog;
+
+  private void showSegmentTimeline() throws Exception {
+    if (generation.getValue() == null) {
+      return;
+    }
+    long commitGen = generation.getValue();
+    SegmentTimeline timeline = commitsModel.getSegmentTimeline(commitGen)
+        .orElseThrow(() -> new LukeException(String.format("Commit generation %d not exists.", commitGen)));
+    segmentTimelineDialog = new DialogOpener<SegmentTimelineController>(getParent()).show(
+        segmentTimelineDialog,
+        "Segment Timeline",
+        "/fxml/dialog/commits/segment_timeline.fxml",
+        900, 700,
+        (controller) -> controller.setTimeline(timeline)
+    );
+  }
+
+  private ContextMenu createFilesTableMenu() {
+    ContextMenu menu = new ContextMenu();
+    MenuItem item1 = new MenuItem(MessageUtils.getLocalizedMessage("commits.files.menu.sizes"));
+    item1.setOnAction(e -> runnableWrapper(this::showFileSizes));
+    menu.getItems().add(item1);
+    return menu;
+  }
+
+  private ContextMenu createSegmentsTableMenu() {
+    ContextMenu menu = new ContextMenu();
+    MenuItem item1 = new MenuItem(MessageUtils.getLocalizedMessage("commits.segments.menu.execution"));
+    item1.setOnAction(e -> runnableWrapper(() -> {
+      Segment segment = segmentsTable.getSelectionModel().getSelectedItem();
+      if (segment != null) {
+        getSearchController().showSegmentExecution(segment.getName());
+      }
+    }));
+
+    MenuItem item2 = new MenuItem(MessageUtils.getLocalizedMessage("commits.segments.menu.restrict"));
+    item2.setOnAction(e -> runnableWrapper(() -> {
+      Segment segment = segmentsTable.getSelectionModel().getSelectedItem();
+      if (segment != null) {
+        getSearchController().restrictToSegment(segment.getName());
+        switchTab(LukeController.Tab.SEARCH);
+      }
+    }));
+
+    MenuItem item3 = new MenuItem(MessageUtils.getLocalizedMessage("commits.segments.menu.simulate"));
+    item3.setOnAction(e -> runnableWrapper(this::showMergeSimulation));
+
+    MenuItem item4 = new MenuItem(MessageUtils.getLocalizedMessage("commits.segments.menu.timeline"));
+    item4.setOnAction(e -> runnableWrapper(this::showSegmentTimeline));
+
+    menu.getItems().addAll(item1, item2, item3, item4);
+    return menu;
+  }
+
   private void setDisableRadios(boolean value) {
     diagRadio.setDisable(value);
     attRadio.setDisable(value);
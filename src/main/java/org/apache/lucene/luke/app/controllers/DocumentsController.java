@@ -51,6 +51,7 @@ import org.apache.lucene.luke.app.IndexObserver;
 import org.apache.lucene.luke.app.LukeState;
 import org.apache.lucene.luke.app.controllers.dialog.documents.AddDocumentController;
 import org.apache.lucene.luke.app.controllers.dialog.documents.DocValuesController;
+import org.apache.lucene.luke.app.controllers.dialog.documents.ImportDocumentsController;
 import org.apache.lucene.luke.app.controllers.dialog.HelpController;
 import org.apache.lucene.luke.app.controllers.dialog.documents.StoredValueController;
 import org.apache.lucene.luke.app.controllers.dialog.documents.TermVectorController;
@@ -90,6 +91,9 @@ public class DocumentsController extends ChildTabController implements IndexObse
   @FXML
   private Button addDoc;
 
+  @FXML
+  private Button importDocs;
+
   @FXML
   private Label maxDocs;
 
@@ -213,6 +217,7 @@ public class DocumentsController extends ChildTabController implements IndexObse
     }));
 
     addDoc.setOnAction(e -> runnableWrapper(this::showAddDocumentDialog));
+    importDocs.setOnAction(e -> runnableWrapper(this::showImportDocumentsDialog));
   }
 
   @Override
@@ -220,6 +225,7 @@ public class DocumentsController extends ChildTabController implements IndexObse
     documentsModel = documentsFactory.newInstance(state.getIndexReader());
 
     addDoc.setDisable(state.readOnly() || !state.hasDirectoryReader());
+    importDocs.setDisable(state.readOnly() || !state.hasDirectoryReader());
 
     int maxDoc = documentsModel.getMaxDoc();
     maxDocs.setText(String.format("in %d docs", maxDoc));
@@ -282,6 +288,8 @@ public class DocumentsController extends ChildTabController implements IndexObse
             .collect(Collectors.toList());
     documentFieldList.addAll(doc);
     clearStatusMessage();
+
+    documentsModel.prefetchAdjacentDocuments(docid);
   }
 
   private void showFirstTerm() {
@@ -420,6 +428,21 @@ public class DocumentsController extends ChildTabController implements IndexObse
     );
   }
 
+  private Stage importDocumentsDialog;
+
+  private void showImportDocumentsDialog() throws Exception {
+    importDocumentsDialog = new DialogOpener<ImportDocumentsController>(getParent()).show(
+        importDocumentsDialog,
+        "Import Documents",
+        "/fxml/dialog/documents/import_documents.fxml",
+        700, 650,
+        (controller) -> {
+          controller.setDocumentsController(this);
+          controller.setAnalyzer(currentAnalyzer);
+        }
+    );
+  }
+
   private Stage flagsHelpDialog;
 
   private void showFlagsHelpDialog() throws Exception {
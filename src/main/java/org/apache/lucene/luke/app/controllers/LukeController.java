@@ -99,6 +99,7 @@ public class LukeController implements IndexObserver, DirectoryObserver {
     documentsController.setParent(this);
     searchController.setParent(this);
     analysisController.setParent(this);
+    commitsController.setParent(this);
 
     directoryHandler.addObserver(menubarController);
     directoryHandler.addObserver(commitsController);
@@ -153,7 +153,7 @@ public class MenubarController implements IndexObserver, DirectoryObserver {
         checkIndexDialog,
         "Check index",
         "/fxml/dialog/menubar/checkindex.fxml",
-        600, 600,
+        700, 750,
         (controller) -> {}
     );
   }
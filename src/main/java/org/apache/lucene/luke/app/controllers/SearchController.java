@@ -21,11 +21,13 @@ import com.google.common.base.Strings;
 import com.google.inject.Inject;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.Accordion;
 import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.ContextMenu;
+import javafx.scene.control.Hyperlink;
 import javafx.scene.control.Label;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.ScrollPane;
@@ -35,6 +37,8 @@ import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 import javafx.scene.control.TitledPane;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
 import javafx.util.converter.IntegerStringConverter;
 import org.apache.lucene.analysis.Analyzer;
@@ -43,22 +47,40 @@ import org.apache.lucene.luke.app.IndexHandler;
 import org.apache.lucene.luke.app.IndexObserver;
 import org.apache.lucene.luke.app.LukeState;
 import org.apache.lucene.luke.app.controllers.dialog.ConfirmController;
+import org.apache.lucene.luke.app.controllers.dialog.search.BatchExplanationController;
+import org.apache.lucene.luke.app.controllers.dialog.search.BenchmarkController;
+import org.apache.lucene.luke.app.controllers.dialog.search.CostController;
 import org.apache.lucene.luke.app.controllers.dialog.search.ExplanationController;
+import org.apache.lucene.luke.app.controllers.dialog.search.ExportController;
+import org.apache.lucene.luke.app.controllers.dialog.search.MLTBatchController;
+import org.apache.lucene.luke.app.controllers.dialog.search.ProfileController;
+import org.apache.lucene.luke.app.controllers.dialog.search.ScoreStatsController;
+import org.apache.lucene.luke.app.controllers.dialog.search.SegmentExecutionController;
 import org.apache.lucene.luke.app.controllers.dto.search.SearchResult;
 import org.apache.lucene.luke.app.controllers.fragments.search.AnalyzerController;
+import org.apache.lucene.luke.app.controllers.fragments.search.CostGuardController;
 import org.apache.lucene.luke.app.controllers.fragments.search.FieldValuesController;
+import org.apache.lucene.luke.app.controllers.fragments.search.HistogramController;
 import org.apache.lucene.luke.app.controllers.fragments.search.MLTController;
 import org.apache.lucene.luke.app.controllers.fragments.search.QueryParserController;
 import org.apache.lucene.luke.app.controllers.fragments.search.SimilarityController;
 import org.apache.lucene.luke.app.controllers.fragments.search.SortController;
+import org.apache.lucene.luke.app.controllers.fragments.search.TermsAggregationController;
 import org.apache.lucene.luke.app.util.DialogOpener;
+import org.apache.lucene.luke.app.util.ExceptionHandler;
+import org.apache.lucene.luke.app.util.IndexTask;
 import org.apache.lucene.luke.app.util.IntegerTextFormatter;
 import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.search.CostGuardConfig;
 import org.apache.lucene.luke.models.search.MLTConfig;
+import org.apache.lucene.luke.models.search.QueryCost;
+import org.apache.lucene.luke.models.search.QueryProfile;
 import org.apache.lucene.luke.models.search.QueryParserConfig;
+import org.apache.lucene.luke.models.search.ScoreStats;
 import org.apache.lucene.luke.models.search.Search;
 import org.apache.lucene.luke.models.search.SearchFactory;
 import org.apache.lucene.luke.models.search.SearchResults;
+import org.apache.lucene.luke.models.search.SegmentExecution;
 import org.apache.lucene.luke.models.search.SimilarityConfig;
 import org.apache.lucene.luke.models.tools.IndexTools;
 import org.apache.lucene.luke.app.util.MessageUtils;
@@ -67,17 +89,31 @@ import org.apache.lucene.search.Explanation;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.TermQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import static org.apache.lucene.luke.app.util.ExceptionHandler.runnableWrapper;
 
 public class SearchController extends ChildTabController implements IndexObserver {
 
+  private static final Logger logger = LoggerFactory.getLogger(SearchController.class);
+
   private static final int DEFAULT_PAGE_SIZE = 10;
 
+  private static final int SCORE_STATS_BUCKETS = 20;
+
+  private static final int DEFAULT_TIMEOUT_MILLIS = 30_000;
+
   private final SearchFactory searchFactory;
 
   private final IndexToolsFactory toolsFactory;
@@ -132,6 +168,24 @@ public class SearchController extends ChildTabController implements IndexObserve
   @FXML
   private MLTController mltController;
 
+  @FXML
+  private ScrollPane guard;
+
+  @FXML
+  private CostGuardController guardController;
+
+  @FXML
+  private ScrollPane aggregation;
+
+  @FXML
+  private TermsAggregationController aggregationController;
+
+  @FXML
+  private AnchorPane histogram;
+
+  @FXML
+  private HistogramController histogramController;
+
   @FXML
   private CheckBox termQuery;
 
@@ -150,15 +204,57 @@ public class SearchController extends ChildTabController implements IndexObserve
   @FXML
   private Button searchBtn;
 
+  @FXML
+  private Button cancelBtn;
+
+  @FXML
+  private TextField timeout;
+
+  @FXML
+  private Button profileBtn;
+
+  @FXML
+  private Button costBtn;
+
+  @FXML
+  private Button benchmarkBtn;
+
+  @FXML
+  private Button exportBtn;
+
   @FXML
   private Button mltBtn;
 
   @FXML
   private TextField mltDoc;
 
+  @FXML
+  private Button mltBatchBtn;
+
   @FXML
   private Label totalHits;
 
+  @FXML
+  private Label partial;
+
+  @FXML
+  private Hyperlink scoreStats;
+
+  @FXML
+  private Label scoreSummary;
+
+  @FXML
+  private Hyperlink segmentsLink;
+
+  @FXML
+  private Label segmentFilter;
+
+  @FXML
+  private Hyperlink clearSegmentFilter;
+
+  @FXML
+  private Pane indicatorPane;
+
   @FXML
   private Label start;
 
@@ -200,12 +296,29 @@ public class SearchController extends ChildTabController implements IndexObserve
     settings.setExpandedPane(parserPane);
     parseBtn.setOnAction(e -> runnableWrapper(this::execParse));
     searchBtn.setOnAction(e -> runnableWrapper(this::execSearch));
+    cancelBtn.setDisable(true);
+    cancelBtn.setOnAction(e -> searchModel.cancel());
+    timeout.setTextFormatter(new IntegerTextFormatter(new IntegerStringConverter(), DEFAULT_TIMEOUT_MILLIS));
+    profileBtn.setOnAction(e -> runnableWrapper(this::execProfile));
+    costBtn.setOnAction(e -> runnableWrapper(this::showCost));
+    benchmarkBtn.setOnAction(e -> runnableWrapper(this::showBenchmarkDialog));
+    exportBtn.setOnAction(e -> runnableWrapper(this::showExportDialog));
     termQuery.setOnAction(e -> toggleTermQuery());
 
     mltDoc.setTextFormatter(new IntegerTextFormatter(new IntegerStringConverter(), 0));
     mltBtn.setOnAction(e -> runnableWrapper(this::execMLTSearch));
+    mltBatchBtn.setOnAction(e -> runnableWrapper(this::showMLTBatchDialog));
 
     totalHits.setText("0");
+    partial.setText("");
+    scoreStats.setDisable(true);
+    scoreStats.setOnAction(e -> runnableWrapper(this::showScoreStats));
+    scoreSummary.setText("");
+    segmentsLink.setDisable(true);
+    segmentsLink.setOnAction(e -> runnableWrapper(() -> showSegmentExecution(null)));
+    segmentFilter.setText("");
+    clearSegmentFilter.setVisible(false);
+    clearSegmentFilter.setOnAction(e -> runnableWrapper(() -> restrictToSegment(null)));
     start.setText("0");
     end.setText("0");
 
@@ -234,6 +347,7 @@ public class SearchController extends ChildTabController implements IndexObserve
       rewrite.setDisable(true);
       mltBtn.setDisable(true);
       mltDoc.setDisable(true);
+      mltBatchBtn.setDisable(true);
       parsedQuery.setText("");
     } else {
       settings.setDisable(false);
@@ -241,6 +355,7 @@ public class SearchController extends ChildTabController implements IndexObserve
       rewrite.setDisable(false);
       mltBtn.setDisable(false);
       mltDoc.setDisable(false);
+      mltBatchBtn.setDisable(false);
     }
   }
 
@@ -249,12 +364,16 @@ public class SearchController extends ChildTabController implements IndexObserve
     searchModel = searchFactory.newInstance(state.getIndexReader());
     toolsModel = toolsFactory.newInstance(state.getIndexReader(), state.useCompound(), state.keepAllCommits());
     sortController.setSearchModel(searchModel);
+    aggregationController.setSearchModel(searchModel);
+    histogramController.setSearchModel(searchModel);
 
     queryExpr.setText("*:*");
     parserController.populateFields(searchModel.getSearchableFieldNames(), searchModel.getRangeSearchableFieldNames());
     sortController.populateFields(searchModel.getSortableFieldNames());
     valuesController.populateFields(searchModel.getFieldNames());
     mltController.populateFields(searchModel.getFieldNames());
+    aggregationController.populateFields(searchModel.getAggregatableFieldNames());
+    histogramController.populateFields(searchModel.getHistogramFieldNames());
   }
 
   @Override
@@ -265,12 +384,20 @@ public class SearchController extends ChildTabController implements IndexObserve
     queryExpr.setText("");
     parsedQuery.setText("");
     totalHits.setText("0");
+    partial.setText("");
+    scoreStats.setDisable(true);
+    scoreSummary.setText("");
+    segmentsLink.setDisable(true);
+    segmentFilter.setText("");
+    clearSegmentFilter.setVisible(false);
     start.setText("0");
     end.setText("0");
     next.setDisable(true);
     prev.setDisable(true);
     delAll.setDisable(true);
     resultList.clear();
+    aggregationController.clear();
+    histogramController.clear();
   }
 
   private void execParse() throws LukeException {
@@ -279,8 +406,366 @@ public class SearchController extends ChildTabController implements IndexObserve
     clearStatusMessage();
   }
 
-  private void execSearch() throws LukeException {
-    Query query;
+  private void execSearch() throws Exception {
+    Query query = buildQuery();
+    CostGuardConfig guardConfig = guardController.getConfig();
+    if (!guardConfig.isEnabled()) {
+      doSearch(query);
+      return;
+    }
+    runCostTask(query, guardConfig, cost -> {
+      if (cost.exceedsThresholds()) {
+        String violations = String.join(" ", cost.getViolations());
+        if (guardConfig.getAction() == CostGuardConfig.Action.REFUSE) {
+          throw new LukeException(MessageUtils.getLocalizedMessage("search.message.cost_refused", violations));
+        }
+        showCostConfirmDialog(query, violations);
+      } else {
+        doSearch(query);
+      }
+    });
+  }
+
+  private void runCostTask(Query query, CostGuardConfig guardConfig,
+                           ExceptionHandler.ConsumerWithException<QueryCost, Exception> onEstimated) {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    Task<QueryCost> task = new IndexTask<QueryCost>(indicatorPane) {
+      @Override
+      protected QueryCost call() {
+        return searchModel.estimateCost(query, guardConfig);
+      }
+    };
+
+    task.setOnSucceeded(e -> {
+      setSearching(false);
+      try {
+        onEstimated.accept(task.getValue());
+      } catch (LukeException ex) {
+        showStatusMessage(ex.getMessage());
+      } catch (Exception ex) {
+        logger.error(ex.getMessage(), ex);
+        showStatusMessage(MessageUtils.getLocalizedMessage("message.error.unknown"));
+      }
+    });
+    task.setOnFailed(e -> {
+      setSearching(false);
+      Throwable t = task.getException();
+      if (t instanceof LukeException) {
+        showStatusMessage(t.getMessage());
+      } else {
+        logger.error(t.getMessage(), t);
+        showStatusMessage(MessageUtils.getLocalizedMessage("message.error.unknown"));
+      }
+    });
+
+    setSearching(true);
+    // the estimation is not cancellable
+    cancelBtn.setDisable(true);
+    executor.submit(task);
+    executor.shutdown();
+  }
+
+  private Stage costConfirmDialog;
+
+  private void showCostConfirmDialog(Query query, String violations) throws Exception {
+    costConfirmDialog = new DialogOpener<ConfirmController>(getParent()).show(
+        costConfirmDialog,
+        "Confirm Search",
+        "/fxml/dialog/confirm.fxml",
+        400, 200,
+        (controller) -> {
+          controller.setContent(MessageUtils.getLocalizedMessage("search.message.cost_confirm", violations));
+          controller.setCallback(() -> doSearch(query));
+        },
+        "/styles/confirm.css"
+    );
+  }
+
+  private void doSearch(Query query) throws LukeException {
+    SimilarityConfig simConfig = similarityController.getConfig();
+    Sort sort = sortController.getSort();
+    Set<String> fieldsToLoad = valuesController.getFieldsToLoad();
+    long timeoutMillis = getTimeoutMillis();
+    resultList.clear();
+    scoreSummary.setText("");
+    runSearchTask(() -> Optional.of(searchModel.search(query, simConfig, sort, fieldsToLoad, DEFAULT_PAGE_SIZE, timeoutMillis)));
+  }
+
+  private long getTimeoutMillis() throws LukeException {
+    if (Strings.isNullOrEmpty(timeout.getText())) {
+      return 0;
+    }
+    try {
+      return Long.parseLong(timeout.getText());
+    } catch (NumberFormatException e) {
+      throw new LukeException("Invalid input for timeout: " + timeout.getText());
+    }
+  }
+
+  private void runSearchTask(Callable<Optional<SearchResults>> searchCall) {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    Task<Optional<SearchResults>> task = new IndexTask<Optional<SearchResults>>(indicatorPane) {
+      @Override
+      protected Optional<SearchResults> call() throws Exception {
+        return searchCall.call();
+      }
+    };
+
+    task.setOnSucceeded(e -> {
+      setSearching(false);
+      task.getValue().ifPresent(this::populateResults);
+    });
+    task.setOnFailed(e -> {
+      setSearching(false);
+      Throwable t = task.getException();
+      if (t instanceof LukeException) {
+        showStatusMessage(t.getMessage());
+      } else {
+        logger.error(t.getMessage(), t);
+        showStatusMessage(MessageUtils.getLocalizedMessage("message.error.unknown"));
+      }
+    });
+
+    setSearching(true);
+    executor.submit(task);
+    executor.shutdown();
+  }
+
+  private void setSearching(boolean searching) {
+    searchBtn.setDisable(searching);
+    profileBtn.setDisable(searching);
+    costBtn.setDisable(searching);
+    mltBtn.setDisable(searching || termQuery.isSelected());
+    mltBatchBtn.setDisable(searching || termQuery.isSelected());
+    cancelBtn.setDisable(!searching);
+    if (searching) {
+      prev.setDisable(true);
+      next.setDisable(true);
+      delAll.setDisable(true);
+    }
+  }
+
+  private Stage profileDialog;
+
+  private void execProfile() throws Exception {
+    Query query = buildQuery();
+    SimilarityConfig simConfig = similarityController.getConfig();
+    Sort sort = sortController.getSort();
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    Task<QueryProfile> task = new IndexTask<QueryProfile>(indicatorPane) {
+      @Override
+      protected QueryProfile call() {
+        return searchModel.profile(query, simConfig, sort, DEFAULT_PAGE_SIZE);
+      }
+    };
+
+    task.setOnSucceeded(e -> runnableWrapper(() -> {
+      profileBtn.setDisable(false);
+      QueryProfile profile = task.getValue();
+      profileDialog = new DialogOpener<ProfileController>(getParent()).show(
+          profileDialog,
+          "Query Profile",
+          "/fxml/dialog/search/profile.fxml",
+          600, 400,
+          (controller) -> controller.setProfile(profile)
+      );
+    }));
+    task.setOnFailed(e -> {
+      profileBtn.setDisable(false);
+      Throwable t = task.getException();
+      if (t instanceof LukeException) {
+        showStatusMessage(t.getMessage());
+      } else {
+        logger.error(t.getMessage(), t);
+        showStatusMessage(MessageUtils.getLocalizedMessage("message.error.unknown"));
+      }
+    });
+
+    profileBtn.setDisable(true);
+    executor.submit(task);
+    executor.shutdown();
+  }
+
+  private Stage scoreStatsDialog;
+
+  private void showScoreStats() {
+    Query query = searchModel.getCurrentQuery();
+    if (query == null) {
+      return;
+    }
+    SimilarityConfig simConfig = similarityController.getConfig();
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    Task<ScoreStats> task = new IndexTask<ScoreStats>(indicatorPane) {
+      @Override
+      protected ScoreStats call() {
+        return searchModel.analyzeScores(query, simConfig, SCORE_STATS_BUCKETS);
+      }
+    };
+
+    task.setOnSucceeded(e -> runnableWrapper(() -> {
+      scoreStats.setDisable(false);
+      ScoreStats stats = task.getValue();
+      scoreSummary.setText(MessageUtils.getLocalizedMessage("search.label.score_summary",
+          stats.getMinScore(), stats.getMaxScore(), String.format("%.4f", stats.getMeanScore())));
+      scoreStatsDialog = new DialogOpener<ScoreStatsController>(getParent()).show(
+          scoreStatsDialog,
+          "Score Statistics",
+          "/fxml/dialog/search/score_stats.fxml",
+          700, 500,
+          (controller) -> controller.setScoreStats(stats)
+      );
+    }));
+    task.setOnFailed(e -> {
+      scoreStats.setDisable(false);
+      Throwable t = task.getException();
+      if (t instanceof LukeException) {
+        showStatusMessage(t.getMessage());
+      } else {
+        logger.error(t.getMessage(), t);
+        showStatusMessage(MessageUtils.getLocalizedMessage("message.error.unknown"));
+      }
+    });
+
+    scoreStats.setDisable(true);
+    executor.submit(task);
+    executor.shutdown();
+  }
+
+  private Stage segmentExecutionDialog;
+
+  void showSegmentExecution(@Nullable String segmentName) throws LukeException {
+    showSegmentExecution(segmentName, false);
+  }
+
+  private void showSegmentExecution(@Nullable String segmentName, boolean countBytesRead) throws LukeException {
+    if (searchModel == null) {
+      throw new LukeException("Index is not opened.");
+    }
+    Query query = searchModel.getCurrentQuery() != null ? searchModel.getCurrentQuery() : buildQuery();
+    SimilarityConfig simConfig = similarityController.getConfig();
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    Task<List<SegmentExecution>> task = new IndexTask<List<SegmentExecution>>(indicatorPane) {
+      @Override
+      protected List<SegmentExecution> call() {
+        return searchModel.profileSegments(query, simConfig, countBytesRead);
+      }
+    };
+
+    task.setOnSucceeded(e -> runnableWrapper(() -> {
+      segmentsLink.setDisable(false);
+      List<SegmentExecution> executions = task.getValue();
+      segmentExecutionDialog = new DialogOpener<SegmentExecutionController>(getParent()).show(
+          segmentExecutionDialog,
+          "Query Execution by Segment",
+          "/fxml/dialog/search/segment_execution.fxml",
+          800, 400,
+          (controller) -> controller.setExecutions(executions, segmentName,
+              name -> runnableWrapper(() -> restrictToSegment(name)),
+              () -> runnableWrapper(() -> showSegmentExecution(segmentName, true)))
+      );
+    }));
+    task.setOnFailed(e -> {
+      segmentsLink.setDisable(false);
+      Throwable t = task.getException();
+      if (t instanceof LukeException) {
+        showStatusMessage(t.getMessage());
+      } else {
+        logger.error(t.getMessage(), t);
+        showStatusMessage(MessageUtils.getLocalizedMessage("message.error.unknown"));
+      }
+    });
+
+    segmentsLink.setDisable(true);
+    executor.submit(task);
+    executor.shutdown();
+  }
+
+  void restrictToSegment(@Nullable String segmentName) throws LukeException {
+    if (searchModel == null) {
+      throw new LukeException("Index is not opened.");
+    }
+    searchModel.restrictToSegment(segmentName);
+    if (segmentName == null) {
+      segmentFilter.setText("");
+      clearSegmentFilter.setVisible(false);
+    } else {
+      segmentFilter.setText(MessageUtils.getLocalizedMessage("search.label.segment_filter", segmentName));
+      clearSegmentFilter.setVisible(true);
+    }
+    if (searchModel.getCurrentQuery() != null) {
+      doSearch(searchModel.getCurrentQuery());
+    }
+  }
+
+  private Stage costDialog;
+
+  private void showCost() throws Exception {
+    Query query = buildQuery();
+    runCostTask(query, guardController.getConfig(), cost ->
+        costDialog = new DialogOpener<CostController>(getParent()).show(
+            costDialog,
+            "Query Cost",
+            "/fxml/dialog/search/cost.fxml",
+            600, 400,
+            (controller) -> controller.setCost(cost)
+        )
+    );
+  }
+
+  private Stage benchmarkDialog;
+
+  private void showBenchmarkDialog() throws Exception {
+    String df = parserController.getDefField();
+    QueryParserConfig parserConfig = parserController.getConfig();
+    SimilarityConfig simConfig = similarityController.getConfig();
+    benchmarkDialog = new DialogOpener<BenchmarkController>(getParent()).show(
+        benchmarkDialog,
+        "Query Benchmark",
+        "/fxml/dialog/search/benchmark.fxml",
+        600, 500,
+        (controller) -> controller.setSearchContext(searchModel, df, curAnalyzer, parserConfig, simConfig)
+    );
+  }
+
+  private Stage exportDialog;
+
+  private void showExportDialog() throws Exception {
+    Query query = buildQuery();
+    List<String> fields = valuesController.getFieldsToLoad().stream().sorted().collect(Collectors.toList());
+    exportDialog = new DialogOpener<ExportController>(getParent()).show(
+        exportDialog,
+        "Export Hits",
+        "/fxml/dialog/search/export.fxml",
+        600, 300,
+        (controller) -> controller.setSearchContext(searchModel, query, fields)
+    );
+  }
+
+  private Stage mltBatchDialog;
+
+  private void showMLTBatchDialog() throws Exception {
+    MLTConfig mltConfig = mltController.getMLTConfig();
+    if (mltConfig.getFieldNames().length == 0) {
+      throw new LukeException("No fields are selected for MoreLikeThis.");
+    }
+    mltBatchDialog = new DialogOpener<MLTBatchController>(getParent()).show(
+        mltBatchDialog,
+        "Batch More Like This",
+        "/fxml/dialog/search/mlt_batch.fxml",
+        700, 500,
+        (controller) -> controller.setSearchContext(searchModel, mltConfig, curAnalyzer)
+    );
+  }
+
+  private Query buildQuery() throws LukeException {
     if (termQuery.isSelected()) {
       // term query
       if (Strings.isNullOrEmpty(queryExpr.getText())) {
@@ -290,16 +775,10 @@ public class SearchController extends ChildTabController implements IndexObserve
       if (tmp.length < 2) {
         throw new LukeException(String.format("Invalid query [ %s ]", queryExpr.getText()));
       }
-      query = new TermQuery(new Term(tmp[0].trim(), tmp[1].trim()));
+      return new TermQuery(new Term(tmp[0].trim(), tmp[1].trim()));
     } else {
-      query = parse(false);
+      return parse(false);
     }
-    SimilarityConfig simConfig = similarityController.getConfig();
-    Sort sort = sortController.getSort();
-    Set<String> fieldsToLoad = valuesController.getFieldsToLoad();
-    resultList.clear();
-    SearchResults results = searchModel.search(query, simConfig, sort, fieldsToLoad, DEFAULT_PAGE_SIZE);
-    populateResults(results);
   }
 
   private void execMLTSearch() throws LukeException {
@@ -311,19 +790,20 @@ public class SearchController extends ChildTabController implements IndexObserve
 
     Query query = searchModel.mltQuery(docNum, mltConfig, curAnalyzer);
     Set<String> fieldsToLoad = valuesController.getFieldsToLoad();
+    long timeoutMillis = getTimeoutMillis();
     resultList.clear();
-    SearchResults results = searchModel.search(query, new SimilarityConfig.Builder().build(), fieldsToLoad, DEFAULT_PAGE_SIZE);
-    populateResults(results);
+    runSearchTask(() -> Optional.of(
+        searchModel.search(query, new SimilarityConfig.Builder().build(), null, fieldsToLoad, DEFAULT_PAGE_SIZE, timeoutMillis)));
   }
 
   private void nextPage() throws LukeException {
     resultList.clear();
-    searchModel.nextPage().ifPresent(this::populateResults);
+    runSearchTask(searchModel::nextPage);
   }
 
   private void prevPage() throws LukeException {
     resultList.clear();
-    searchModel.prevPage().ifPresent(this::populateResults);
+    runSearchTask(searchModel::prevPage);
   }
 
   private Query parse(boolean rewrite) throws LukeException {
@@ -335,6 +815,15 @@ public class SearchController extends ChildTabController implements IndexObserve
 
   private void populateResults(SearchResults res) {
     totalHits.setText(String.valueOf(res.getTotalHits()));
+    if (res.isPartial()) {
+      partial.setText(MessageUtils.getLocalizedMessage("search.label.partial"));
+    } else if (res.isEarlyTerminated()) {
+      partial.setText(MessageUtils.getLocalizedMessage("search.label.early_terminated"));
+    } else {
+      partial.setText("");
+    }
+    scoreStats.setDisable(res.getTotalHits() == 0);
+    segmentsLink.setDisable(false);
     if (res.getTotalHits() > 0) {
       start.setText(String.valueOf(res.getOffset() + 1));
       end.setText(String.valueOf(res.getOffset() + res.size()));
@@ -342,6 +831,9 @@ public class SearchController extends ChildTabController implements IndexObserve
 
       prev.setDisable(res.getOffset() == 0);
       next.setDisable(res.getTotalHits() <= res.getOffset() + res.size());
+      if (!next.isDisabled()) {
+        searchModel.prefetchNextPage();
+      }
 
       if (!indexHandler.getState().readOnly() && indexHandler.getState().hasDirectoryReader()) {
         delAll.setDisable(false);
@@ -383,6 +875,8 @@ public class SearchController extends ChildTabController implements IndexObserve
 
   private Stage explanationDialog;
 
+  private Stage batchExplanationDialog;
+
   private ContextMenu createResultTableMenu() {
     ContextMenu menu = new ContextMenu();
     MenuItem item1 = new MenuItem(MessageUtils.getLocalizedMessage("search.results.menu.explain"));
@@ -408,7 +902,18 @@ public class SearchController extends ChildTabController implements IndexObserve
       switchTab(LukeController.Tab.DOCUMENTS);
     }));
 
-    menu.getItems().addAll(item1, item2);
+    MenuItem item3 = new MenuItem(MessageUtils.getLocalizedMessage("search.results.menu.explain_top"));
+    item3.setOnAction(e -> runnableWrapper(() ->
+      batchExplanationDialog = new DialogOpener<BatchExplanationController>(getParent()).show(
+          batchExplanationDialog,
+          "Explain Top Hits",
+          "/fxml/dialog/search/batch_explanation.fxml",
+          900, 500,
+          (controller) -> controller.setSearchModel(searchModel)
+      )
+    ));
+
+    menu.getItems().addAll(item1, item2, item3);
     return menu;
   }
 
@@ -429,7 +934,7 @@ public class SearchController extends ChildTabController implements IndexObserve
     mltController.setCurrentAnalyzer(analyzer);
   }
 
-  void searchByTerm(@Nonnull String fieldName, @Nonnull String termText) throws LukeException {
+  void searchByTerm(@Nonnull String fieldName, @Nonnull String termText) throws Exception {
     termQuery.selectedProperty().setValue(true);
     toggleTermQuery();
     queryExpr.setText(String.format("%s:%s", fieldName, termText));
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.app.controllers.dialog.commits;
+
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import org.apache.lucene.luke.app.controllers.dialog.DialogWindowController;
+import org.apache.lucene.luke.app.util.MessageUtils;
+import org.apache.lucene.luke.models.commits.CommitDiff;
+
+import javax.annotation.Nonnull;
+
+public class CommitDiffController implements DialogWindowController {
+
+  @FXML
+  private Label summary;
+
+  @FXML
+  private TableView<CommitDiff.SegmentChange> segmentsTable;
+
+  @FXML
+  private TableColumn<CommitDiff.SegmentChange, String> segNameColumn;
+
+  @FXML
+  private TableColumn<CommitDiff.SegmentChange, String> segChangeColumn;
+
+  @FXML
+  private TableColumn<CommitDiff.SegmentChange, Integer> maxDocColumn;
+
+  @FXML
+  private TableColumn<CommitDiff.SegmentChange, String> delsColumn;
+
+  @FXML
+  private TableColumn<CommitDiff.SegmentChange, String> delGenColumn;
+
+  @FXML
+  private TableColumn<CommitDiff.SegmentChange, String> fieldInfosGenColumn;
+
+  @FXML
+  private TableColumn<CommitDiff.SegmentChange, String> dvGenColumn;
+
+  @FXML
+  private TableView<CommitDiff.FileChange> filesTable;
+
+  @FXML
+  private TableColumn<CommitDiff.FileChange, String> fileNameColumn;
+
+  @FXML
+  private TableColumn<CommitDiff.FileChange, String> fileChangeColumn;
+
+  @FXML
+  private TableColumn<CommitDiff.FileChange, String> fileSizeColumn;
+
+  @FXML
+  private Button copy;
+
+  @FXML
+  private Button close;
+
+  @FXML
+  private void initialize() {
+    segNameColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getName()));
+    segChangeColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getType().name()));
+    maxDocColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getMaxDoc()));
+    delsColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(
+        transition(data.getValue().getOldDelCount(), data.getValue().getNewDelCount())));
+    delGenColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(
+        transition(data.getValue().getOldDelGen(), data.getValue().getNewDelGen())));
+    fieldInfosGenColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(
+        transition(data.getValue().getOldFieldInfosGen(), data.getValue().getNewFieldInfosGen())));
+    dvGenColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(
+        transition(data.getValue().getOldDocValuesGen(), data.getValue().getNewDocValuesGen())));
+
+    fileNameColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getFileName()));
+    fileChangeColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getType().name()));
+    fileSizeColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(formatBytes(data.getValue().getSize())));
+
+    copy.setOnAction(e -> copyToClipboard());
+    close.setOnAction(e -> closeWindow(close));
+  }
+
+  public void setDiff(@Nonnull CommitDiff diff) {
+    long added = countSegments(diff, CommitDiff.ChangeType.ADDED);
+    long removed = countSegments(diff, CommitDiff.ChangeType.REMOVED);
+    long updated = countSegments(diff, CommitDiff.ChangeType.UPDATED);
+    summary.setText(MessageUtils.getLocalizedMessage("commits.diff.summary",
+        diff.getFromGeneration(), diff.getToGeneration(), added, removed, updated,
+        diff.getBytesAdded(), diff.getBytesRemoved()));
+    segmentsTable.getItems().setAll(diff.getSegmentChanges());
+    filesTable.getItems().setAll(diff.getFileChanges());
+  }
+
+  private static long countSegments(CommitDiff diff, CommitDiff.ChangeType type) {
+    return diff.getSegmentChanges().stream().filter(change -> change.getType() == type).count();
+  }
+
+  private static String transition(long oldValue, long newValue) {
+    String oldStr = oldValue < 0 ? "-" : String.valueOf(oldValue);
+    String newStr = newValue < 0 ? "-" : String.valueOf(newValue);
+    return oldValue == newValue ? newStr : oldStr + " -> " + newStr;
+  }
+
+  private static String formatBytes(long bytes) {
+    return bytes < 0 ? "n/a" : String.valueOf(bytes);
+  }
+
+  private void copyToClipboard() {
+    StringBuilder sb = new StringBuilder("segment\tchange\tmaxDoc\tdels\tdel_gen\tfield_infos_gen\tdv_gen\n");
+    for (CommitDiff.SegmentChange change : segmentsTable.getItems()) {
+      sb.append(change.getName()).append('\t')
+          .append(change.getType().name()).append('\t')
+          .append(change.getMaxDoc()).append('\t')
+          .append(transition(change.getOldDelCount(), change.getNewDelCount())).append('\t')
+          .append(transition(change.getOldDelGen(), change.getNewDelGen())).append('\t')
+          .append(transition(change.getOldFieldInfosGen(), change.getNewFieldInfosGen())).append('\t')
+          .append(transition(change.getOldDocValuesGen(), change.getNewDocValuesGen())).append('\n');
+    }
+    sb.append('\n').append("file\tchange\tbytes\n");
+    for (CommitDiff.FileChange change : filesTable.getItems()) {
+      sb.append(change.getFileName()).append('\t')
+          .append(change.getType().name()).append('\t')
+          .append(formatBytes(change.getSize())).append('\n');
+    }
+
+    Clipboard clipboard = Clipboard.getSystemClipboard();
+    ClipboardContent content = new ClipboardContent();
+    content.putString(sb.toString());
+    clipboard.setContent(content);
+  }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.app.controllers.dialog.commits;
+
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import org.apache.lucene.luke.app.controllers.dialog.DialogWindowController;
+import org.apache.lucene.luke.app.util.MessageUtils;
+import org.apache.lucene.luke.models.commits.FileSizeRollup;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+public class FileSizesController implements DialogWindowController {
+
+  private long totalBytes;
+
+  @FXML
+  private Label summary;
+
+  @FXML
+  private TableView<FileSizeRollup> sizesTable;
+
+  @FXML
+  private TableColumn<FileSizeRollup, String> extColumn;
+
+  @FXML
+  private TableColumn<FileSizeRollup, String> structureColumn;
+
+  @FXML
+  private TableColumn<FileSizeRollup, Integer> filesColumn;
+
+  @FXML
+  private TableColumn<FileSizeRollup, Long> bytesColumn;
+
+  @FXML
+  private TableColumn<FileSizeRollup, String> ratioColumn;
+
+  @FXML
+  private Button copy;
+
+  @FXML
+  private Button close;
+
+  @FXML
+  private void initialize() {
+    extColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getExtension()));
+    structureColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getDataStructure().name()));
+    filesColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getNumFiles()));
+    bytesColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getTotalBytes()));
+    ratioColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(formatRatio(data.getValue().getTotalBytes())));
+
+    copy.setOnAction(e -> copyToClipboard());
+    close.setOnAction(e -> closeWindow(close));
+  }
+
+  public void setRollups(long commitGen, @Nonnull List<FileSizeRollup> rollups) {
+    totalBytes = rollups.stream().mapToLong(FileSizeRollup::getTotalBytes).sum();
+    summary.setText(MessageUtils.getLocalizedMessage("commits.file_sizes.summary", commitGen, totalBytes));
+    sizesTable.getItems().setAll(rollups);
+  }
+
+  private String formatRatio(long bytes) {
+    return totalBytes == 0 ? "" : String.format("%.2f %%", bytes * 100.0 / totalBytes);
+  }
+
+  private void copyToClipboard() {
+    StringBuilder sb = new StringBuilder("extension\tdata_structure\tfiles\tbytes\n");
+    for (FileSizeRollup rollup : sizesTable.getItems()) {
+      sb.append(rollup.getExtension()).append('\t')
+          .append(rollup.getDataStructure().name()).append('\t')
+          .append(rollup.getNumFiles()).append('\t')
+          .append(rollup.getTotalBytes()).append('\n');
+    }
+
+    Clipboard clipboard = Clipboard.getSystemClipboard();
+    ClipboardContent content = new ClipboardContent();
+    content.putString(sb.toString());
+    clipboard.setContent(content);
+  }
+
+}
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.app.controllers.dialog.commits;
+
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import javafx.util.converter.IntegerStringConverter;
+import org.apache.lucene.index.LogByteSizeMergePolicy;
+import org.apache.lucene.index.LogDocMergePolicy;
+import org.apache.lucene.index.LogMergePolicy;
+import org.apache.lucene.index.MergePolicy;
+import org.apache.lucene.index.TieredMergePolicy;
+import org.apache.lucene.luke.app.controllers.dialog.DialogWindowController;
+import org.apache.lucene.luke.app.util.IntegerTextFormatter;
+import org.apache.lucene.luke.app.util.MessageUtils;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.commits.Commits;
+import org.apache.lucene.luke.models.commits.MergeSimulation;
+import org.apache.lucene.luke.models.commits.MergeSimulationConfig;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+import static org.apache.lucene.luke.app.util.ExceptionHandler.runnableWrapper;
+
+public class MergeSimulationController implements DialogWindowController {
+
+  private static final String TIERED = "TieredMergePolicy";
+
+  private static final String LOG_BYTE_SIZE = "LogByteSizeMergePolicy";
+
+  private static final String LOG_DOC = "LogDocMergePolicy";
+
+  private Commits commitsModel;
+
+  private long commitGen;
+
+  @FXML
+  private ChoiceBox<String> policy;
+
+  @FXML
+  private TextField segmentsPerTier;
+
+  @FXML
+  private TextField maxMergedMB;
+
+  @FXML
+  private TextField flushRounds;
+
+  @FXML
+  private TextField flushKB;
+
+  @FXML
+  private TextField forcedSegments;
+
+  @FXML
+  private Button simulateBtn;
+
+  @FXML
+  private Label summary;
+
+  @FXML
+  private TableView<MergeSimulation.Merge> mergesTable;
+
+  @FXML
+  private TableColumn<MergeSimulation.Merge, Integer> roundColumn;
+
+  @FXML
+  private TableColumn<MergeSimulation.Merge, String> triggerColumn;
+
+  @FXML
+  private TableColumn<MergeSimulation.Merge, String> mergedColumn;
+
+  @FXML
+  private TableColumn<MergeSimulation.Merge, String> segmentsColumn;
+
+  @FXML
+  private TableColumn<MergeSimulation.Merge, Integer> docsColumn;
+
+  @FXML
+  private TableColumn<MergeSimulation.Merge, Long> inputBytesColumn;
+
+  @FXML
+  private TableColumn<MergeSimulation.Merge, Long> outputBytesColumn;
+
+  @FXML
+  private TableView<MergeSimulation.Merge> forcedTable;
+
+  @FXML
+  private TableColumn<MergeSimulation.Merge, String> forcedMergedColumn;
+
+  @FXML
+  private TableColumn<MergeSimulation.Merge, String> forcedSegmentsColumn;
+
+  @FXML
+  private TableColumn<MergeSimulation.Merge, Integer> forcedDocsColumn;
+
+  @FXML
+  private TableColumn<MergeSimulation.Merge, Long> forcedInputBytesColumn;
+
+  @FXML
+  private TableColumn<MergeSimulation.Merge, Long> forcedOutputBytesColumn;
+
+  @FXML
+  private Button copy;
+
+  @FXML
+  private Button close;
+
+  @FXML
+  private void initialize() {
+    policy.setItems(FXCollections.observableArrayList(TIERED, LOG_BYTE_SIZE, LOG_DOC));
+    policy.setValue(TIERED);
+    segmentsPerTier.setTextFormatter(new IntegerTextFormatter(new IntegerStringConverter(), 10));
+    maxMergedMB.setTextFormatter(new IntegerTextFormatter(new IntegerStringConverter(), 5 * 1024));
+    flushRounds.setTextFormatter(new IntegerTextFormatter(new IntegerStringConverter(), 10));
+    // 0 means the flush size is estimated from the flushed segments in the commit
+    flushKB.setTextFormatter(new IntegerTextFormatter(new IntegerStringConverter(), 0));
+    forcedSegments.setTextFormatter(new IntegerTextFormatter(new IntegerStringConverter(), 1));
+    simulateBtn.setOnAction(e -> runnableWrapper(this::simulate));
+
+    roundColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getRound()));
+    triggerColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getTrigger().name()));
+    mergedColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getMergedName()));
+    segmentsColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(String.join(",", data.getValue().getSegments())));
+    docsColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getDocCount()));
+    inputBytesColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getInputBytes()));
+    outputBytesColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getOutputBytes()));
+
+    forcedMergedColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getMergedName()));
+    forcedSegmentsColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(String.join(",", data.getValue().getSegments())));
+    forcedDocsColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getDocCount()));
+    forcedInputBytesColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getInputBytes()));
+    forcedOutputBytesColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getOutputBytes()));
+
+    copy.setOnAction(e -> copyToClipboard());
+    close.setOnAction(e -> closeWindow(close));
+  }
+
+  public void setCommit(@Nonnull Commits commitsModel, long commitGen) {
+    this.commitsModel = commitsModel;
+    this.commitGen = commitGen;
+  }
+
+  private void simulate() throws LukeException {
+    int flushKBValue = Integer.parseInt(flushKB.getText());
+    MergeSimulationConfig config = new MergeSimulationConfig.Builder()
+        .flushRounds(Integer.parseInt(flushRounds.getText()))
+        .flushBytes(flushKBValue > 0 ? flushKBValue * 1024L : -1)
+        .maxForcedSegments(Integer.parseInt(forcedSegments.getText()))
+        .build();
+
+    MergeSimulation sim = commitsModel.simulateMerges(commitGen, createPolicy(), config)
+        .orElseThrow(() -> new LukeException(String.format("Commit generation %d not exists.", commitGen)));
+
+    summary.setText(MessageUtils.getLocalizedMessage("commits.merge_sim.summary",
+        sim.getGeneration(), sim.getInitialSegmentCount(), sim.getProjectedSegmentCount(), config.getFlushRounds(),
+        sim.getBytesFlushed(), sim.getBytesRewritten(), sim.getMerges().size(),
+        String.format("%.2f", sim.getWriteAmplification()),
+        sim.getForcedSegmentCount(), sim.getForcedBytesRewritten(),
+        sim.getInitialMerges().size(), sim.getInitialBytesRewritten()));
+    // round 0 rows are the merges on the current segments
+    mergesTable.getItems().setAll(sim.getInitialMerges());
+    mergesTable.getItems().addAll(sim.getMerges());
+    forcedTable.getItems().setAll(sim.getForcedMerges());
+  }
+
+  private MergePolicy createPolicy() {
+    int segsPerTier = Math.max(2, Integer.parseInt(segmentsPerTier.getText()));
+    int maxMergedMBValue = Math.max(1, Integer.parseInt(maxMergedMB.getText()));
+    switch (policy.getValue()) {
+      case LOG_BYTE_SIZE:
+        LogByteSizeMergePolicy byteSizePolicy = new LogByteSizeMergePolicy();
+        byteSizePolicy.setMergeFactor(segsPerTier);
+        byteSizePolicy.setMaxMergeMB(maxMergedMBValue);
+        return byteSizePolicy;
+      case LOG_DOC:
+        LogMergePolicy docPolicy = new LogDocMergePolicy();
+        docPolicy.setMergeFactor(segsPerTier);
+        return docPolicy;
+      default:
+        TieredMergePolicy tieredPolicy = new TieredMergePolicy();
+        tieredPolicy.setSegmentsPerTier(segsPerTier);
+        tieredPolicy.setMaxMergeAtOnce(Math.min(segsPerTier, tieredPolicy.getMaxMergeAtOnce()));
+        tieredPolicy.setMaxMergedSegmentMB(maxMergedMBValue);
+        return tieredPolicy;
+    }
+  }
+
+  private void copyToClipboard() {
+    StringBuilder sb = new StringBuilder(summary.getText()).append("\n\n");
+    sb.append("round\ttrigger\tmerged\tsegments\tdocs\tinput_bytes\toutput_bytes\n");
+    appendMerges(sb, mergesTable.getItems());
+    sb.append('\n').append("forced merges\n");
+    appendMerges(sb, forcedTable.getItems());
+
+    Clipboard clipboard = Clipboard.getSystemClipboard();
+    ClipboardContent content = new ClipboardContent();
+    content.putString(sb.toString());
+    clipboard.setContent(content);
+  }
+
+  private static void appendMerges(StringBuilder sb, List<MergeSimulation.Merge> merges) {
+    for (MergeSimulation.Merge merge : merges) {
+      sb.append(merge.getRound()).append('\t')
+          .append(merge.getTrigger().name()).append('\t')
+          .append(merge.getMergedName()).append('\t')
+          .append(String.join(",", merge.getSegments())).append('\t')
+          .append(merge.getDocCount()).append('\t')
+          .append(merge.getInputBytes()).append('\t')
+          .append(merge.getOutputBytes()).append('\n');
+    }
+  }
+
+}
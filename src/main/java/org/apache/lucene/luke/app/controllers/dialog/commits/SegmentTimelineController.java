@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.app.controllers.dialog.commits;
+
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.fxml.FXML;
+import javafx.scene.chart.StackedBarChart;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import org.apache.lucene.luke.app.controllers.dialog.DialogWindowController;
+import org.apache.lucene.luke.app.util.MessageUtils;
+import org.apache.lucene.luke.models.commits.SegmentTimeline;
+
+import javax.annotation.Nonnull;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+
+public class SegmentTimelineController implements DialogWindowController {
+
+  @FXML
+  private Label summary;
+
+  @FXML
+  private StackedBarChart<String, Number> countChart;
+
+  @FXML
+  private StackedBarChart<String, Number> bytesChart;
+
+  @FXML
+  private TableView<SegmentTimeline.Finding> findingsTable;
+
+  @FXML
+  private TableColumn<SegmentTimeline.Finding, String> findingTypeColumn;
+
+  @FXML
+  private TableColumn<SegmentTimeline.Finding, String> findingFromColumn;
+
+  @FXML
+  private TableColumn<SegmentTimeline.Finding, String> findingToColumn;
+
+  @FXML
+  private TableColumn<SegmentTimeline.Finding, String> findingDescColumn;
+
+  @FXML
+  private TableView<SegmentTimeline.Event> eventsTable;
+
+  @FXML
+  private TableColumn<SegmentTimeline.Event, String> timeColumn;
+
+  @FXML
+  private TableColumn<SegmentTimeline.Event, String> nameColumn;
+
+  @FXML
+  private TableColumn<SegmentTimeline.Event, String> sourceColumn;
+
+  @FXML
+  private TableColumn<SegmentTimeline.Event, Integer> maxDocColumn;
+
+  @FXML
+  private TableColumn<SegmentTimeline.Event, Long> sizeColumn;
+
+  @FXML
+  private TableColumn<SegmentTimeline.Event, String> mergeFactorColumn;
+
+  @FXML
+  private TableColumn<SegmentTimeline.Event, Boolean> liveColumn;
+
+  @FXML
+  private Button copy;
+
+  @FXML
+  private Button close;
+
+  @FXML
+  private void initialize() {
+    findingTypeColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getType().name()));
+    findingFromColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(formatTime(data.getValue().getFrom())));
+    findingToColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(formatTime(data.getValue().getTo())));
+    findingDescColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(describe(data.getValue())));
+
+    timeColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(formatTime(data.getValue().getTimestamp())));
+    nameColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getName()));
+    sourceColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getSource().name()));
+    maxDocColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getMaxDoc()));
+    sizeColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getSizeInBytes()));
+    mergeFactorColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(
+        data.getValue().getMergeFactor() < 0 ? "" : String.valueOf(data.getValue().getMergeFactor())));
+    liveColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().isLive()));
+
+    copy.setOnAction(e -> copyToClipboard());
+    close.setOnAction(e -> closeWindow(close));
+  }
+
+  public void setTimeline(@Nonnull SegmentTimeline timeline) {
+    long flushes = countEvents(timeline, SegmentTimeline.Source.FLUSH);
+    long merges = countEvents(timeline, SegmentTimeline.Source.MERGE);
+    long undated = timeline.getEvents().stream().filter(e -> e.getTimestamp() < 0).count();
+    summary.setText(MessageUtils.getLocalizedMessage("commits.timeline.summary",
+        timeline.getGeneration(), timeline.getEvents().size(), flushes, merges,
+        timeline.getEvents().size() - flushes - merges, undated));
+
+    XYChart.Series<String, Number> flushCounts = series(MessageUtils.getLocalizedMessage("commits.timeline.series.flush"));
+    XYChart.Series<String, Number> mergeCounts = series(MessageUtils.getLocalizedMessage("commits.timeline.series.merge"));
+    XYChart.Series<String, Number> otherCounts = series(MessageUtils.getLocalizedMessage("commits.timeline.series.other"));
+    XYChart.Series<String, Number> flushBytes = series(MessageUtils.getLocalizedMessage("commits.timeline.series.flush"));
+    XYChart.Series<String, Number> mergeBytes = series(MessageUtils.getLocalizedMessage("commits.timeline.series.merge"));
+    for (SegmentTimeline.Bucket bucket : timeline.getBuckets()) {
+      String label = formatTime(bucket.getFrom());
+      flushCounts.getData().add(new XYChart.Data<>(label, bucket.getFlushCount()));
+      mergeCounts.getData().add(new XYChart.Data<>(label, bucket.getMergeCount()));
+      otherCounts.getData().add(new XYChart.Data<>(label, bucket.getOtherCount()));
+      flushBytes.getData().add(new XYChart.Data<>(label, bucket.getFlushBytes()));
+      mergeBytes.getData().add(new XYChart.Data<>(label, bucket.getMergeBytes()));
+    }
+    countChart.getData().setAll(Arrays.asList(flushCounts, mergeCounts, otherCounts));
+    bytesChart.getData().setAll(Arrays.asList(flushBytes, mergeBytes));
+
+    findingsTable.getItems().setAll(timeline.getFindings());
+    eventsTable.getItems().setAll(timeline.getEvents());
+  }
+
+  private static long countEvents(SegmentTimeline timeline, SegmentTimeline.Source source) {
+    return timeline.getEvents().stream().filter(e -> e.getSource() == source).count();
+  }
+
+  private static XYChart.Series<String, Number> series(String name) {
+    XYChart.Series<String, Number> series = new XYChart.Series<>();
+    series.setName(name);
+    return series;
+  }
+
+  private static String describe(SegmentTimeline.Finding finding) {
+    switch (finding.getType()) {
+      case MERGE_STORM:
+        return MessageUtils.getLocalizedMessage("commits.timeline.finding.merge_storm",
+            finding.getSegmentCount(), (finding.getTo() - finding.getFrom()) / 1000, finding.getBytes());
+      case TINY_FLUSHES:
+        return MessageUtils.getLocalizedMessage("commits.timeline.finding.tiny_flushes",
+            finding.getSegmentCount(), SegmentTimeline.TINY_FLUSH_BYTES / 1024, finding.getBytes());
+      default:
+        return "";
+    }
+  }
+
+  private static String formatTime(long timestamp) {
+    if (timestamp < 0) {
+      return "";
+    }
+    return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date(timestamp));
+  }
+
+  private void copyToClipboard() {
+    StringBuilder sb = new StringBuilder(summary.getText()).append("\n\n");
+    sb.append("finding\tfrom\tto\tdescription\n");
+    for (SegmentTimeline.Finding finding : findingsTable.getItems()) {
+      sb.append(finding.getType().name()).append('\t')
+          .append(formatTime(finding.getFrom())).append('\t')
+          .append(formatTime(finding.getTo())).append('\t')
+          .append(describe(finding)).append('\n');
+    }
+    sb.append('\n').append("created\tsegment\tsource\tmaxDoc\tbytes\tmerge_factor\tlive\n");
+    for (SegmentTimeline.Event event : eventsTable.getItems()) {
+      sb.append(formatTime(event.getTimestamp())).append('\t')
+          .append(event.getName()).append('\t')
+          .append(event.getSource().name()).append('\t')
+          .append(event.getMaxDoc()).append('\t')
+          .append(event.getSizeInBytes()).append('\t')
+          .append(event.getMergeFactor() < 0 ? "" : event.getMergeFactor()).append('\t')
+          .append(event.isLive()).append('\n');
+    }
+
+    Clipboard clipboard = Clipboard.getSystemClipboard();
+    ClipboardContent content = new ClipboardContent();
+    content.putString(sb.toString());
+    clipboard.setContent(content);
+  }
+
+}
@@ -0,0 +1,276 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.app.controllers.dialog.documents;
+
+import com.google.inject.Inject;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
+import javafx.scene.control.cell.ChoiceBoxTableCell;
+import javafx.scene.layout.Pane;
+import javafx.stage.FileChooser;
+import javafx.util.StringConverter;
+import javafx.util.converter.IntegerStringConverter;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.luke.app.IndexHandler;
+import org.apache.lucene.luke.app.LukeState;
+import org.apache.lucene.luke.app.controllers.DocumentsController;
+import org.apache.lucene.luke.app.controllers.dialog.DialogWindowController;
+import org.apache.lucene.luke.app.util.IndexTask;
+import org.apache.lucene.luke.app.util.IntegerTextFormatter;
+import org.apache.lucene.luke.app.util.MessageUtils;
+import org.apache.lucene.luke.app.util.TextAreaPrintStream;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.tools.ImportConfig;
+import org.apache.lucene.luke.models.tools.ImportStatus;
+import org.apache.lucene.luke.models.tools.IndexTools;
+import org.apache.lucene.luke.models.tools.IndexToolsFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.apache.lucene.luke.app.util.ExceptionHandler.runnableWrapper;
+
+public class ImportDocumentsController implements DialogWindowController {
+
+  private static final Logger logger = LoggerFactory.getLogger(ImportDocumentsController.class);
+
+  private static final int DEFAULT_THREADS = 4;
+
+  private static final int DEFAULT_RAM_BUFFER_MB = 64;
+
+  private static final int DEFAULT_COMMIT_INTERVAL = 100000;
+
+  private final IndexToolsFactory toolsFactory;
+
+  private final IndexHandler indexHandler;
+
+  private IndexTools toolsModel;
+
+  private DocumentsController documentsController;
+
+  private Analyzer analyzer;
+
+  @FXML
+  private TextField inputPath;
+
+  @FXML
+  private Button browse;
+
+  @FXML
+  private ChoiceBox<ImportConfig.Format> format;
+
+  @FXML
+  private Button loadColumns;
+
+  @FXML
+  private TableView<String> columnsTable;
+
+  @FXML
+  private TableColumn<String, String> columnNameColumn;
+
+  @FXML
+  private TableColumn<String, Class<? extends Field>> columnTypeColumn;
+
+  @FXML
+  private TextField threads;
+
+  @FXML
+  private TextField ramBuffer;
+
+  @FXML
+  private TextField commitInterval;
+
+  @FXML
+  private Button importDocs;
+
+  @FXML
+  private Button close;
+
+  @FXML
+  private Label status;
+
+  @FXML
+  private Pane indicatorPane;
+
+  @FXML
+  private TextArea info;
+
+  private PrintStream ps;
+
+  private final Map<String, Class<? extends Field>> fieldTypes = new HashMap<>();
+
+  @Inject
+  public ImportDocumentsController(IndexToolsFactory toolsFactory, IndexHandler indexHandler) {
+    this.toolsFactory = toolsFactory;
+    this.indexHandler = indexHandler;
+    initIndexTools(indexHandler.getState());
+  }
+
+  @FXML
+  private void initialize() {
+    browse.setOnAction(e -> chooseInputFile());
+    format.setItems(FXCollections.observableArrayList(ImportConfig.Format.values()));
+    format.setValue(ImportConfig.Format.JSONL);
+    loadColumns.setOnAction(e -> runnableWrapper(this::loadColumns));
+
+    columnsTable.setEditable(true);
+    columnNameColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue()));
+    columnTypeColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(
+        fieldTypes.getOrDefault(data.getValue(), org.apache.lucene.document.TextField.class)));
+    columnTypeColumn.setCellFactory(col -> {
+      ChoiceBoxTableCell<String, Class<? extends Field>> cell = new ChoiceBoxTableCell<>();
+      cell.setConverter(new StringConverter<Class<? extends Field>>() {
+        @Override
+        public String toString(Class<? extends Field> clazz) {
+          return clazz.getSimpleName();
+        }
+
+        @Override
+        public Class<? extends Field> fromString(String className) {
+          return toolsModel.getPresetFields().stream()
+              .filter(clazz -> clazz.getSimpleName().equals(className))
+              .findFirst().orElse(org.apache.lucene.document.TextField.class);
+        }
+      });
+      cell.getItems().addAll(toolsModel.getPresetFields());
+      return cell;
+    });
+    columnTypeColumn.setOnEditCommit(e -> fieldTypes.put(e.getRowValue(), e.getNewValue()));
+
+    threads.setTextFormatter(new IntegerTextFormatter(new IntegerStringConverter(), DEFAULT_THREADS));
+    ramBuffer.setTextFormatter(new IntegerTextFormatter(new IntegerStringConverter(), DEFAULT_RAM_BUFFER_MB));
+    commitInterval.setTextFormatter(new IntegerTextFormatter(new IntegerStringConverter(), DEFAULT_COMMIT_INTERVAL));
+
+    ps = new TextAreaPrintStream(info, new ByteArrayOutputStream(), logger);
+
+    importDocs.setOnAction(e -> importDocuments());
+    close.setOnAction(e -> closeWindow(close));
+  }
+
+  private void chooseInputFile() {
+    FileChooser fileChooser = new FileChooser();
+    fileChooser.getExtensionFilters().addAll(
+        new FileChooser.ExtensionFilter("JSON Lines", "*.jsonl", "*.json", "*.ndjson"),
+        new FileChooser.ExtensionFilter("CSV", "*.csv"),
+        new FileChooser.ExtensionFilter("All", "*.*"));
+    File file = fileChooser.showOpenDialog(browse.getScene().getWindow());
+    if (file != null) {
+      inputPath.setText(file.getAbsolutePath());
+      boolean csv = file.getName().toLowerCase().endsWith(".csv");
+      format.setValue(csv ? ImportConfig.Format.CSV : ImportConfig.Format.JSONL);
+      runnableWrapper(this::loadColumns);
+    }
+  }
+
+  private void loadColumns() throws LukeException {
+    if (inputPath.getText().isEmpty()) {
+      return;
+    }
+    fieldTypes.clear();
+    columnsTable.setItems(FXCollections.observableArrayList(
+        toolsModel.getImportColumns(Paths.get(inputPath.getText()), format.getValue())));
+  }
+
+  private void importDocuments() {
+    if (inputPath.getText().isEmpty()) {
+      return;
+    }
+    Path input = Paths.get(inputPath.getText());
+    ImportConfig config = new ImportConfig.Builder()
+        .format(format.getValue())
+        .fieldTypes(fieldTypes)
+        .numThreads(Integer.parseInt(threads.getText()))
+        .ramBufferSizeMB(Integer.parseInt(ramBuffer.getText()))
+        .commitInterval(Integer.parseInt(commitInterval.getText()))
+        .build();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    Task<ImportStatus> task = new IndexTask<ImportStatus>(indicatorPane) {
+      @Override
+      protected ImportStatus call() {
+        long start = System.currentTimeMillis();
+        try {
+          return toolsModel.importDocuments(input, config, analyzer, ps, (done, total) -> {
+            long elapsed = Math.max(1, System.currentTimeMillis() - start);
+            updateMessage(MessageUtils.getLocalizedMessage("import_documents.message.progress",
+                done, done * 1000 / elapsed));
+          });
+        } catch (Exception e) {
+          Platform.runLater(() -> logger.error(e.getMessage(), e));
+          throw e;
+        } finally {
+          ps.flush();
+        }
+      }
+    };
+
+    task.setOnSucceeded(e -> runnableWrapper(() -> {
+      importDocs.setDisable(false);
+      indexHandler.reOpen();
+      initIndexTools(indexHandler.getState());
+      if (documentsController != null) {
+        documentsController.displayLatestDoc();
+      }
+    }));
+    task.setOnFailed(e -> runnableWrapper(() -> {
+      importDocs.setDisable(false);
+      // interval commits made before the failure are kept
+      indexHandler.reOpen();
+      initIndexTools(indexHandler.getState());
+    }));
+    status.textProperty().bind(task.messageProperty());
+
+    importDocs.setDisable(true);
+    executor.submit(task);
+    executor.shutdown();
+  }
+
+  private void initIndexTools(LukeState state) {
+    this.toolsModel = toolsFactory.newInstance(state.getIndexReader(), state.useCompound(), state.keepAllCommits());
+  }
+
+  public void setDocumentsController(DocumentsController documentsController) {
+    this.documentsController = documentsController;
+  }
+
+  public void setAnalyzer(Analyzer analyzer) {
+    this.analyzer = analyzer;
+  }
+
+}
@@ -18,22 +18,35 @@
 package org.apache.lucene.luke.app.controllers.dialog.menubar;
 
 import javafx.application.Platform;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.FXCollections;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
+import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
 import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
 import javafx.scene.layout.Pane;
+import javafx.util.converter.IntegerStringConverter;
 import org.apache.lucene.index.CheckIndex;
 import org.apache.lucene.luke.app.DirectoryHandler;
 import org.apache.lucene.luke.app.IndexHandler;
 import org.apache.lucene.luke.app.LukeState;
 import org.apache.lucene.luke.app.controllers.dialog.DialogWindowController;
 import org.apache.lucene.luke.app.util.IndexTask;
+import org.apache.lucene.luke.app.util.IntegerTextFormatter;
+import org.apache.lucene.luke.app.util.MessageUtils;
 import org.apache.lucene.luke.app.util.TextAreaPrintStream;
 import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.tools.CheckIndexConfig;
+import org.apache.lucene.luke.models.tools.ChecksumStatus;
 import org.apache.lucene.luke.models.tools.IndexTools;
 import org.apache.lucene.luke.models.tools.IndexToolsFactory;
+import org.apache.lucene.luke.models.tools.SegmentCheckListener;
+import org.apache.lucene.luke.models.tools.SegmentCheckReport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,8 +54,14 @@ import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.apache.lucene.luke.app.util.ExceptionHandler.runnableWrapper;
 
@@ -50,6 +69,8 @@ public class CheckIndexController implements DialogWindowController {
 
   private static Logger logger = LoggerFactory.getLogger(CheckIndexController.class);
 
+  private static final int DEFAULT_VERIFY_THREADS = 4;
+
   private final IndexHandler indexHandler;
 
   private IndexTools toolsModel;
@@ -62,12 +83,30 @@ public class CheckIndexController implements DialogWindowController {
   @FXML
   private Label results;
 
+  @FXML
+  private ChoiceBox<CheckIndexConfig.Level> level;
+
+  @FXML
+  private TextField segmentsFilter;
+
+  @FXML
+  private Label estimate;
+
   @FXML
   private Button check;
 
   @FXML
   private Button repair;
 
+  @FXML
+  private TextField threads;
+
+  @FXML
+  private Button verify;
+
+  @FXML
+  private Button checkSegments;
+
   @FXML
   private Label repairWarn;
 
@@ -80,6 +119,27 @@ public class CheckIndexController implements DialogWindowController {
   @FXML
   private Pane indicatorPane;
 
+  @FXML
+  private TableView<String> segmentsTable;
+
+  @FXML
+  private TableColumn<String, String> segNameColumn;
+
+  @FXML
+  private TableColumn<String, String> segMaxDocColumn;
+
+  @FXML
+  private TableColumn<String, String> segStateColumn;
+
+  @FXML
+  private TableColumn<String, String> segTimeColumn;
+
+  @FXML
+  private TableColumn<String, String> segFailedColumn;
+
+  @FXML
+  private TableColumn<String, String> segErrorColumn;
+
   @FXML
   private TextArea info;
 
@@ -87,6 +147,12 @@ public class CheckIndexController implements DialogWindowController {
 
   private CheckIndex.Status st;
 
+  // per-segment results, keyed by segment name; rows without a result are still pending
+  private final Map<String, SegmentCheckReport.Segment> segmentResults = new ConcurrentHashMap<>();
+
+  // sizes of the segments in the latest commit, read once when the dialog is opened
+  private Map<String, Long> segmentSizes;
+
   @Inject
   public CheckIndexController(IndexToolsFactory toolsModelFactory, DirectoryHandler directoryHandler, IndexHandler indexHandler) {
     this.indexHandler = indexHandler;
@@ -108,21 +174,81 @@ public class CheckIndexController implements DialogWindowController {
 
     ps = new TextAreaPrintStream(info, new ByteArrayOutputStream(), logger);
 
+    level.setItems(FXCollections.observableArrayList(CheckIndexConfig.Level.values()));
+    level.setValue(CheckIndexConfig.Level.STRUCTURE);
+    level.valueProperty().addListener((obs, oldV, newV) -> runnableWrapper(this::updateEstimate));
+    segmentsFilter.textProperty().addListener((obs, oldV, newV) -> runnableWrapper(this::updateEstimate));
+    loadSegmentSizes();
+
     check.setOnAction(e -> checkIndex());
+    threads.setTextFormatter(new IntegerTextFormatter(new IntegerStringConverter(), DEFAULT_VERIFY_THREADS));
+    verify.setOnAction(e -> verifyChecksums());
+    checkSegments.setOnAction(e -> checkSegments());
+    segNameColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue()));
+    segMaxDocColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(
+        segmentValue(data.getValue(), seg -> String.valueOf(seg.getMaxDoc()))));
+    segStateColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(
+        segmentResults.containsKey(data.getValue()) ? segmentResults.get(data.getValue()).getState().name() : "PENDING"));
+    segTimeColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(
+        segmentValue(data.getValue(), seg -> String.valueOf(seg.getElapsedMillis()))));
+    segFailedColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(
+        segmentValue(data.getValue(), SegmentCheckReport.Segment::getFailedCheck)));
+    segErrorColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(
+        segmentValue(data.getValue(), SegmentCheckReport.Segment::getError)));
     repair.setOnAction(e -> repairIndex());
     repair.setDisable(true);
     repairWarn.setDisable(true);
     close.setOnAction(e -> closeWindow(close));
   }
 
+  private CheckIndexConfig createConfig() {
+    return new CheckIndexConfig.Builder()
+        .level(level.getValue())
+        .segments(Arrays.stream(segmentsFilter.getText().split(","))
+            .map(String::trim)
+            .filter(name -> !name.isEmpty())
+            .collect(Collectors.toList()))
+        .build();
+  }
+
+  private void loadSegmentSizes() {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    Task<Map<String, Long>> task = new IndexTask<Map<String, Long>>(indicatorPane) {
+      @Override
+      protected Map<String, Long> call() {
+        return toolsModel.getSegmentSizes();
+      }
+    };
+
+    task.setOnSucceeded(e -> runnableWrapper(() -> {
+      segmentSizes = task.getValue();
+      updateEstimate();
+    }));
+    task.setOnFailed(e -> logger.error(task.getException().getMessage(), task.getException()));
+
+    executor.submit(task);
+    executor.shutdown();
+  }
+
+  private void updateEstimate() {
+    if (segmentSizes == null) {
+      // segment sizes are not loaded yet
+      return;
+    }
+    long millis = createConfig().estimateMillis(segmentSizes);
+    estimate.setText(MessageUtils.getLocalizedMessage("checkidx.label.estimate", String.format("%.1f", millis / 1000.0)));
+  }
+
   private void checkIndex() {
+    CheckIndexConfig config = createConfig();
     ExecutorService executor = Executors.newSingleThreadExecutor();
 
     Task<CheckIndex.Status> task = new IndexTask<CheckIndex.Status>(indicatorPane) {
       @Override
       protected CheckIndex.Status call() throws Exception {
         try {
-          return toolsModel.checkIndex(ps);
+          return toolsModel.checkIndex(config, ps);
         } catch (Exception e) {
           Platform.runLater(() -> logger.error(e.getMessage(), e));
           throw e;
@@ -136,7 +262,8 @@ public class CheckIndexController implements DialogWindowController {
       CheckIndex.Status st = task.getValue();
       this.st = st;
       results.setText(createResultsMessage(st));
-      if (!st.clean) {
+      // a partial check cannot be used for repairing the index
+      if (!st.clean && !st.partial) {
         repair.setDisable(false);
         repairWarn.setDisable(false);
       }
@@ -147,6 +274,98 @@ public class CheckIndexController implements DialogWindowController {
     executor.shutdown();
   }
 
+  private void verifyChecksums() {
+    int numThreads = Integer.parseInt(threads.getText());
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    Task<ChecksumStatus> task = new IndexTask<ChecksumStatus>(indicatorPane) {
+      @Override
+      protected ChecksumStatus call() throws Exception {
+        long start = System.currentTimeMillis();
+        try {
+          return toolsModel.verifyChecksums(numThreads, ps, (done, total) -> {
+            long elapsed = Math.max(1, System.currentTimeMillis() - start);
+            updateMessage(MessageUtils.getLocalizedMessage("checkidx.message.verify_progress",
+                done / 1048576, total / 1048576, done * 1000 / elapsed / 1048576));
+          });
+        } catch (Exception e) {
+          Platform.runLater(() -> logger.error(e.getMessage(), e));
+          throw e;
+        } finally {
+          ps.flush();
+        }
+      }
+    };
+
+    task.setOnSucceeded(e -> {
+      verify.setDisable(false);
+      ChecksumStatus st = task.getValue();
+      results.setText(st.isClean() ? "OK" : "BAD: corrupted files=" + st.getCorruptedFiles().size());
+    });
+    task.setOnFailed(e -> verify.setDisable(false));
+    status.textProperty().bind(task.messageProperty());
+
+    verify.setDisable(true);
+    executor.submit(task);
+    executor.shutdown();
+  }
+
+  private void checkSegments() {
+    int numThreads = Integer.parseInt(threads.getText());
+    segmentResults.clear();
+    segmentsTable.getItems().clear();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    Task<SegmentCheckReport> task = new IndexTask<SegmentCheckReport>(indicatorPane) {
+      @Override
+      protected SegmentCheckReport call() throws Exception {
+        try {
+          return toolsModel.checkSegments(numThreads, ps, new SegmentCheckListener() {
+            private int total;
+
+            @Override
+            public void started(List<String> segmentNames) {
+              total = segmentNames.size();
+              Platform.runLater(() -> segmentsTable.setItems(FXCollections.observableArrayList(segmentNames)));
+              updateMessage(MessageUtils.getLocalizedMessage("checkidx.message.segments_progress", 0, total));
+            }
+
+            @Override
+            public void checked(SegmentCheckReport.Segment segment) {
+              segmentResults.put(segment.getName(), segment);
+              Platform.runLater(segmentsTable::refresh);
+              updateMessage(MessageUtils.getLocalizedMessage("checkidx.message.segments_progress",
+                  segmentResults.size(), total));
+            }
+          });
+        } catch (Exception e) {
+          Platform.runLater(() -> logger.error(e.getMessage(), e));
+          throw e;
+        } finally {
+          ps.flush();
+        }
+      }
+    };
+
+    task.setOnSucceeded(e -> {
+      checkSegments.setDisable(false);
+      SegmentCheckReport report = task.getValue();
+      results.setText(report.isClean() ? "OK" :
+          "BAD: numBadSegments=" + report.getNumBadSegments() + " totLoseDocCount=" + report.getTotLoseDocCount());
+    });
+    task.setOnFailed(e -> checkSegments.setDisable(false));
+    status.textProperty().bind(task.messageProperty());
+
+    checkSegments.setDisable(true);
+    executor.submit(task);
+    executor.shutdown();
+  }
+
+  private String segmentValue(String segName, Function<SegmentCheckReport.Segment, String> getter) {
+    SegmentCheckReport.Segment seg = segmentResults.get(segName);
+    return seg == null ? "" : getter.apply(seg);
+  }
+
   private String createResultsMessage(@Nullable CheckIndex.Status status) {
     String msg;
     if (status == null) {
@@ -26,16 +26,20 @@ import javafx.scene.control.Label;
 import javafx.scene.control.Spinner;
 import javafx.scene.control.SpinnerValueFactory;
 import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
 import javafx.scene.control.TextFormatter;
 import javafx.scene.layout.Pane;
+import javafx.util.converter.IntegerStringConverter;
 import org.apache.lucene.luke.app.IndexHandler;
 import org.apache.lucene.luke.app.LukeState;
 import org.apache.lucene.luke.app.controllers.dialog.DialogWindowController;
 import org.apache.lucene.luke.app.util.IndexTask;
 import org.apache.lucene.luke.app.util.IntegerTextFormatter;
+import org.apache.lucene.luke.app.util.MessageUtils;
 import org.apache.lucene.luke.app.util.TextAreaPrintStream;
 import org.apache.lucene.luke.models.tools.IndexTools;
 import org.apache.lucene.luke.models.tools.IndexToolsFactory;
+import org.apache.lucene.luke.models.tools.OptimizeConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -66,9 +70,18 @@ public class OptimizeController implements DialogWindowController {
   @FXML
   private Spinner<Integer> numSegments;
 
+  @FXML
+  private TextField mergeThreads;
+
+  @FXML
+  private TextField mergeRate;
+
   @FXML
   private Button optimize;
 
+  @FXML
+  private Button abort;
+
   @FXML
   private Button close;
 
@@ -110,19 +123,36 @@ public class OptimizeController implements DialogWindowController {
 
     ps = new TextAreaPrintStream(info, new ByteArrayOutputStream(), logger);
 
+    mergeThreads.setTextFormatter(new IntegerTextFormatter(new IntegerStringConverter(), 0));
+    mergeRate.setTextFormatter(new IntegerTextFormatter(new IntegerStringConverter(), 0));
+
     optimize.setOnAction(e -> optimize());
+    abort.setOnAction(e -> abortOptimize());
+    abort.setDisable(true);
     close.setOnAction(e -> closeWindow(close));
   }
 
   private void optimize() {
+    OptimizeConfig config = new OptimizeConfig.Builder()
+        .expunge(expunge.isSelected())
+        .maxNumSegments(numSegments.getValue())
+        .maxMergeThreads(Integer.parseInt(mergeThreads.getText()))
+        .maxMergeMBPerSec(Integer.parseInt(mergeRate.getText()))
+        .build();
     ExecutorService executor = Executors.newSingleThreadExecutor();
 
-    Task task = new IndexTask<Void>(indicatorPane) {
+    Task<Void> task = new IndexTask<Void>(indicatorPane) {
 
       @Override
       protected Void call() {
+        long start = System.currentTimeMillis();
         try {
-          toolsModel.optimize(expunge.isSelected(), numSegments.getValue(), ps);
+          toolsModel.optimize(config, ps, (done, total) -> {
+            long elapsed = Math.max(1, System.currentTimeMillis() - start);
+            long eta = done == 0 ? 0 : (total - done) * elapsed / done / 1000;
+            updateMessage(MessageUtils.getLocalizedMessage("optimize.message.progress",
+                done / 1048576, total / 1048576, done * 1000 / elapsed / 1048576, eta));
+          });
         } catch (Exception e) {
           Platform.runLater(() -> logger.error(e.getMessage(), e));
           throw e;
@@ -134,11 +164,44 @@ public class OptimizeController implements DialogWindowController {
     };
 
     task.setOnSucceeded(e -> runnableWrapper(() -> {
+      optimize.setDisable(false);
+      abort.setDisable(true);
       indexHandler.reOpen();
       initIndexTools(indexHandler.getState());
     }));
+    task.setOnFailed(e -> {
+      optimize.setDisable(false);
+      abort.setDisable(true);
+    });
     status.textProperty().bind(task.messageProperty());
 
+    optimize.setDisable(true);
+    abort.setDisable(false);
+    executor.submit(task);
+    executor.shutdown();
+  }
+
+  private void abortOptimize() {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    // rolling back the writer waits for the running merges to abort
+    Task<Void> task = new Task<Void>() {
+      @Override
+      protected Void call() {
+        try {
+          toolsModel.abortOptimize();
+        } catch (Exception e) {
+          Platform.runLater(() -> logger.error(e.getMessage(), e));
+          throw e;
+        }
+        return null;
+      }
+    };
+
+    // allow another try while the optimize is still running
+    task.setOnFailed(e -> abort.setDisable(!optimize.isDisabled()));
+
+    abort.setDisable(true);
     executor.submit(task);
     executor.shutdown();
   }
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.app.controllers.dialog.search;
+
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.layout.Pane;
+import javafx.util.converter.IntegerStringConverter;
+import org.apache.lucene.luke.app.controllers.dialog.DialogWindowController;
+import org.apache.lucene.luke.app.util.IndexTask;
+import org.apache.lucene.luke.app.util.IntegerTextFormatter;
+import org.apache.lucene.luke.app.util.MessageUtils;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.search.HitExplanation;
+import org.apache.lucene.luke.models.search.Search;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import static org.apache.lucene.luke.app.util.ExceptionHandler.runnableWrapper;
+
+public class BatchExplanationController implements DialogWindowController {
+
+  private static final Logger logger = LoggerFactory.getLogger(BatchExplanationController.class);
+
+  private static final int DEFAULT_TOP_N = 20;
+
+  private Search searchModel;
+
+  private List<String> componentKeys = new ArrayList<>();
+
+  @FXML
+  private TextField topN;
+
+  @FXML
+  private Button explainBtn;
+
+  @FXML
+  private Pane indicatorPane;
+
+  @FXML
+  private Label status;
+
+  @FXML
+  private TableView<HitExplanation> table;
+
+  private ObservableList<HitExplanation> hitList;
+
+  @FXML
+  private Button copy;
+
+  @FXML
+  private Button close;
+
+  @FXML
+  private void initialize() {
+    topN.setTextFormatter(new IntegerTextFormatter(new IntegerStringConverter(), DEFAULT_TOP_N));
+    explainBtn.setOnAction(e -> runnableWrapper(this::explain));
+    hitList = FXCollections.observableArrayList();
+    table.setItems(hitList);
+    copy.setOnAction(e -> copyToClipboard());
+    close.setOnAction(e -> closeWindow(close));
+  }
+
+  public void setSearchModel(@Nonnull Search searchModel) {
+    this.searchModel = searchModel;
+  }
+
+  private void explain() throws LukeException {
+    int n = Integer.parseInt(topN.getText());
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    Task<List<HitExplanation>> task = new IndexTask<List<HitExplanation>>(indicatorPane) {
+      @Override
+      protected List<HitExplanation> call() {
+        return searchModel.explainTopHits(n);
+      }
+    };
+
+    task.setOnSucceeded(e -> {
+      explainBtn.setDisable(false);
+      populateTable(task.getValue());
+    });
+    task.setOnFailed(e -> {
+      explainBtn.setDisable(false);
+      Throwable t = task.getException();
+      logger.error(t.getMessage(), t);
+      status.setText(t instanceof LukeException ?
+          t.getMessage() : MessageUtils.getLocalizedMessage("message.error.unknown"));
+    });
+
+    explainBtn.setDisable(true);
+    status.setText("");
+    executor.submit(task);
+    executor.shutdown();
+  }
+
+  private void populateTable(List<HitExplanation> hits) {
+    // one column per score component, in the order of first appearance
+    Set<String> keys = new LinkedHashSet<>();
+    hits.forEach(hit -> keys.addAll(hit.getComponents().keySet()));
+    componentKeys = new ArrayList<>(keys);
+
+    table.getColumns().clear();
+    table.getColumns().add(column("Rank", HitExplanation::getRank));
+    table.getColumns().add(column("Doc Id", HitExplanation::getDocId));
+    table.getColumns().add(column("Score", HitExplanation::getScore));
+    for (String key : componentKeys) {
+      table.getColumns().add(column(key, hit -> hit.getComponents().get(key)));
+    }
+    hitList.setAll(hits);
+  }
+
+  private TableColumn<HitExplanation, Object> column(String title, Function<HitExplanation, Object> getter) {
+    TableColumn<HitExplanation, Object> column = new TableColumn<>(title);
+    column.setCellValueFactory(data -> new SimpleObjectProperty<>(getter.apply(data.getValue())));
+    return column;
+  }
+
+  private void copyToClipboard() {
+    StringBuilder sb = new StringBuilder("rank\tdoc\tscore");
+    componentKeys.forEach(key -> sb.append('\t').append(key));
+    sb.append('\n');
+    for (HitExplanation hit : hitList) {
+      sb.append(hit.getRank()).append('\t').append(hit.getDocId()).append('\t').append(hit.getScore());
+      for (String key : componentKeys) {
+        Float value = hit.getComponents().get(key);
+        sb.append('\t').append(value == null ? "" : value);
+      }
+      sb.append('\n');
+    }
+
+    Clipboard clipboard = Clipboard.getSystemClipboard();
+    ClipboardContent content = new ClipboardContent();
+    content.putString(sb.toString());
+    clipboard.setContent(content);
+  }
+
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.app.controllers.dialog.search;
+
+import com.google.common.base.Strings;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.Pane;
+import javafx.stage.FileChooser;
+import javafx.util.converter.IntegerStringConverter;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.luke.app.controllers.dialog.DialogWindowController;
+import org.apache.lucene.luke.app.util.IndexTask;
+import org.apache.lucene.luke.app.util.IntegerTextFormatter;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.search.BenchmarkConfig;
+import org.apache.lucene.luke.models.search.BenchmarkResult;
+import org.apache.lucene.luke.models.search.QueryParserConfig;
+import org.apache.lucene.luke.models.search.Search;
+import org.apache.lucene.luke.models.search.SimilarityConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.apache.lucene.luke.app.util.ExceptionHandler.runnableWrapper;
+
+public class BenchmarkController implements DialogWindowController {
+
+  private static final Logger logger = LoggerFactory.getLogger(BenchmarkController.class);
+
+  private Search searchModel;
+
+  private String defField;
+
+  private Analyzer analyzer;
+
+  private QueryParserConfig parserConfig;
+
+  private SimilarityConfig simConfig;
+
+  private BenchmarkResult result;
+
+  @FXML
+  private TextField queryFile;
+
+  @FXML
+  private Button browse;
+
+  @FXML
+  private TextField warmupRounds;
+
+  @FXML
+  private TextField rounds;
+
+  @FXML
+  private TextField concurrency;
+
+  @FXML
+  private Button run;
+
+  @FXML
+  private Button export;
+
+  @FXML
+  private Button close;
+
+  @FXML
+  private Label status;
+
+  @FXML
+  private Pane indicatorPane;
+
+  @FXML
+  private TextArea info;
+
+  @FXML
+  private void initialize() {
+    BenchmarkConfig defaults = new BenchmarkConfig.Builder().build();
+    warmupRounds.setTextFormatter(new IntegerTextFormatter(new IntegerStringConverter(), defaults.getWarmupRounds()));
+    rounds.setTextFormatter(new IntegerTextFormatter(new IntegerStringConverter(), defaults.getRounds()));
+    concurrency.setTextFormatter(new IntegerTextFormatter(new IntegerStringConverter(), defaults.getConcurrency()));
+
+    browse.setOnAction(e -> browseQueryFile());
+    run.setOnAction(e -> runnableWrapper(this::runBenchmark));
+    export.setDisable(true);
+    export.setOnAction(e -> runnableWrapper(this::exportCsv));
+    close.setOnAction(e -> closeWindow(close));
+  }
+
+  public void setSearchContext(@Nonnull Search searchModel, @Nonnull String defField, @Nonnull Analyzer analyzer,
+                               @Nonnull QueryParserConfig parserConfig, @Nonnull SimilarityConfig simConfig) {
+    this.searchModel = searchModel;
+    this.defField = defField;
+    this.analyzer = analyzer;
+    this.parserConfig = parserConfig;
+    this.simConfig = simConfig;
+  }
+
+  private void browseQueryFile() {
+    FileChooser fileChooser = new FileChooser();
+    fileChooser.setInitialDirectory(new File(System.getProperty("user.home")));
+    File file = fileChooser.showOpenDialog(browse.getScene().getWindow());
+    if (file != null) {
+      queryFile.setText(file.getAbsolutePath());
+    }
+  }
+
+  private void runBenchmark() throws LukeException {
+    if (Strings.isNullOrEmpty(queryFile.getText())) {
+      throw new LukeException("Query file is not set.");
+    }
+    Path path = Paths.get(queryFile.getText());
+    BenchmarkConfig benchConfig = new BenchmarkConfig.Builder()
+        .warmupRounds(Integer.parseInt(warmupRounds.getText()))
+        .rounds(Integer.parseInt(rounds.getText()))
+        .concurrency(Integer.parseInt(concurrency.getText()))
+        .build();
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    Task<BenchmarkResult> task = new IndexTask<BenchmarkResult>(indicatorPane) {
+      @Override
+      protected BenchmarkResult call() {
+        return searchModel.benchmark(path, defField, analyzer, parserConfig, simConfig, benchConfig);
+      }
+    };
+
+    task.setOnSucceeded(e -> {
+      run.setDisable(false);
+      result = task.getValue();
+      info.setText(result.toString());
+      export.setDisable(false);
+    });
+    task.setOnFailed(e -> {
+      run.setDisable(false);
+      Throwable t = task.getException();
+      logger.error(t.getMessage(), t);
+      info.setText(t.getMessage());
+    });
+    status.textProperty().bind(task.messageProperty());
+
+    run.setDisable(true);
+    export.setDisable(true);
+    info.clear();
+    executor.submit(task);
+    executor.shutdown();
+  }
+
+  private void exportCsv() throws LukeException {
+    if (result == null) {
+      return;
+    }
+    FileChooser fileChooser = new FileChooser();
+    fileChooser.setInitialFileName("benchmark.csv");
+    File file = fileChooser.showSaveDialog(export.getScene().getWindow());
+    if (file == null) {
+      return;
+    }
+    try {
+      Files.write(file.toPath(), result.toCsv().getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new LukeException(String.format("Failed to write CSV file: %s", file.getAbsolutePath()), e);
+    }
+  }
+
+}
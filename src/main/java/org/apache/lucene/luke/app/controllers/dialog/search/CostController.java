@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.app.controllers.dialog.search;
+
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeView;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import org.apache.lucene.luke.app.controllers.dialog.DialogWindowController;
+import org.apache.lucene.luke.models.search.QueryCost;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class CostController implements DialogWindowController {
+
+  @FXML
+  private TreeView<String> tree;
+
+  @FXML
+  private Button copy;
+
+  @FXML
+  private Button close;
+
+  @FXML
+  private void initialize() {
+    copy.setOnAction(e -> copyToClipboard());
+    close.setOnAction(e -> closeWindow(close));
+  }
+
+  public void setCost(@Nonnull QueryCost cost) {
+    TreeItem<String> root = createItem(cost);
+    if (cost.exceedsThresholds()) {
+      TreeItem<String> violations = new TreeItem<>("guard violations");
+      violations.setExpanded(true);
+      cost.getViolations().forEach(msg -> violations.getChildren().add(new TreeItem<>(msg)));
+      root.getChildren().add(0, violations);
+    }
+    tree.setRoot(root);
+  }
+
+  private TreeItem<String> createItem(QueryCost cost) {
+    StringBuilder sb = new StringBuilder();
+    sb.append(cost.isCostEstimated() ? String.valueOf(cost.getTotalCost()) : "n/a");
+    if (cost.getTermExpansion() >= 0) {
+      sb.append(String.format("  (%s%d terms)", cost.isExpansionCapped() ? ">=" : "", cost.getTermExpansion()));
+    }
+    sb.append(String.format("  %s  [%s]", cost.getQueryType(), cost.getDescription()));
+
+    TreeItem<String> item = new TreeItem<>(sb.toString());
+    item.setExpanded(true);
+
+    if (cost.isCostEstimated()) {
+      TreeItem<String> leaves = new TreeItem<>("segments");
+      List<Long> leafCosts = cost.getLeafCosts();
+      for (int i = 0; i < leafCosts.size(); i++) {
+        leaves.getChildren().add(new TreeItem<>(String.format("%d  leaf #%d", leafCosts.get(i), i)));
+      }
+      item.getChildren().add(leaves);
+    }
+
+    for (QueryCost child : cost.getChildren()) {
+      item.getChildren().add(createItem(child));
+    }
+    return item;
+  }
+
+  private void copyToClipboard() {
+    Clipboard clipboard = Clipboard.getSystemClipboard();
+    ClipboardContent content = new ClipboardContent();
+    content.putString(treeToString());
+    clipboard.setContent(content);
+  }
+
+  private String treeToString() {
+    TreeItem<String> root = tree.getRoot();
+    StringBuilder sb = new StringBuilder(root.getValue());
+    sb.append("\n");
+    traverseToCopy(sb, 1, root.getChildren());
+    return sb.toString();
+  }
+
+  private void traverseToCopy(StringBuilder sb, int depth, List<TreeItem<String>> items) {
+    for (TreeItem<String> item : items) {
+      IntStream.range(0, depth).forEach(i -> sb.append("  "));
+      sb.append(item.getValue());
+      sb.append("\n");
+      traverseToCopy(sb, depth + 1, item.getChildren());
+    }
+  }
+
+}
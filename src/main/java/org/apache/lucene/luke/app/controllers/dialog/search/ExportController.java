@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.app.controllers.dialog.search;
+
+import com.google.common.base.Strings;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.Pane;
+import javafx.stage.FileChooser;
+import org.apache.lucene.luke.app.controllers.dialog.DialogWindowController;
+import org.apache.lucene.luke.app.util.IndexTask;
+import org.apache.lucene.luke.app.util.MessageUtils;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.search.ExportConfig;
+import org.apache.lucene.luke.models.search.Search;
+import org.apache.lucene.search.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.apache.lucene.luke.app.util.ExceptionHandler.runnableWrapper;
+
+public class ExportController implements DialogWindowController {
+
+  private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+
+  private Search searchModel;
+
+  private Query query;
+
+  private List<String> fieldsToExport;
+
+  @FXML
+  private TextField outputFile;
+
+  @FXML
+  private Button browse;
+
+  @FXML
+  private ChoiceBox<ExportConfig.Format> format;
+
+  @FXML
+  private Label fields;
+
+  @FXML
+  private ProgressBar progress;
+
+  @FXML
+  private Button run;
+
+  @FXML
+  private Button cancel;
+
+  @FXML
+  private Button close;
+
+  @FXML
+  private Label status;
+
+  @FXML
+  private Pane indicatorPane;
+
+  @FXML
+  private void initialize() {
+    format.getItems().addAll(Arrays.asList(ExportConfig.Format.values()));
+    format.setValue(ExportConfig.Format.JSONL);
+
+    browse.setOnAction(e -> browseOutputFile());
+    run.setOnAction(e -> runnableWrapper(this::export));
+    cancel.setDisable(true);
+    cancel.setOnAction(e -> searchModel.cancel());
+    close.setOnAction(e -> closeWindow(close));
+  }
+
+  public void setSearchContext(@Nonnull Search searchModel, @Nonnull Query query, @Nonnull List<String> fieldsToExport) {
+    this.searchModel = searchModel;
+    this.query = query;
+    this.fieldsToExport = fieldsToExport;
+    fields.setText(MessageUtils.getLocalizedMessage("search.export.label.fields", String.join(", ", fieldsToExport)));
+  }
+
+  private void browseOutputFile() {
+    FileChooser fileChooser = new FileChooser();
+    fileChooser.setInitialFileName("hits." + format.getValue().name().toLowerCase(Locale.ROOT));
+    File file = fileChooser.showSaveDialog(browse.getScene().getWindow());
+    if (file != null) {
+      outputFile.setText(file.getAbsolutePath());
+    }
+  }
+
+  private void export() throws LukeException {
+    if (Strings.isNullOrEmpty(outputFile.getText())) {
+      throw new LukeException("Output file is not set.");
+    }
+    Path path = Paths.get(outputFile.getText());
+    ExportConfig exportConfig = new ExportConfig.Builder()
+        .format(format.getValue())
+        .fields(fieldsToExport)
+        .build();
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    Task<Long> task = new IndexTask<Long>(indicatorPane) {
+      @Override
+      protected Long call() {
+        return searchModel.export(query, exportConfig, path, this::updateProgress);
+      }
+    };
+
+    task.setOnSucceeded(e -> {
+      setExporting(false);
+      status.textProperty().unbind();
+      status.setText(MessageUtils.getLocalizedMessage("search.export.message.done", task.getValue()));
+    });
+    task.setOnFailed(e -> {
+      setExporting(false);
+      Throwable t = task.getException();
+      logger.error(t.getMessage(), t);
+    });
+    status.textProperty().bind(task.messageProperty());
+    progress.progressProperty().bind(task.progressProperty());
+
+    setExporting(true);
+    executor.submit(task);
+    executor.shutdown();
+  }
+
+  private void setExporting(boolean exporting) {
+    run.setDisable(exporting);
+    browse.setDisable(exporting);
+    format.setDisable(exporting);
+    cancel.setDisable(!exporting);
+  }
+
+}
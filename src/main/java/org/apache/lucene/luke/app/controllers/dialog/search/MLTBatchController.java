@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.app.controllers.dialog.search;
+
+import com.google.common.base.Strings;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.Pane;
+import javafx.stage.FileChooser;
+import javafx.util.converter.IntegerStringConverter;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.luke.app.controllers.dialog.DialogWindowController;
+import org.apache.lucene.luke.app.util.IndexTask;
+import org.apache.lucene.luke.app.util.IntegerTextFormatter;
+import org.apache.lucene.luke.app.util.MessageUtils;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.search.MLTConfig;
+import org.apache.lucene.luke.models.search.Search;
+import org.apache.lucene.luke.models.search.SimilarDocs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.apache.lucene.luke.app.util.ExceptionHandler.runnableWrapper;
+
+public class MLTBatchController implements DialogWindowController {
+
+  private static final Logger logger = LoggerFactory.getLogger(MLTBatchController.class);
+
+  private static final int DEFAULT_TOP_N = 10;
+
+  private Search searchModel;
+
+  private MLTConfig mltConfig;
+
+  private Analyzer analyzer;
+
+  @FXML
+  private TextField seeds;
+
+  @FXML
+  private TextField topN;
+
+  @FXML
+  private Label fields;
+
+  @FXML
+  private ProgressBar progress;
+
+  @FXML
+  private Button run;
+
+  @FXML
+  private Button cancel;
+
+  @FXML
+  private Label status;
+
+  @FXML
+  private Pane indicatorPane;
+
+  @FXML
+  private TableView<SimilarDocs> resultsTable;
+
+  @FXML
+  private TableColumn<SimilarDocs, Integer> seedColumn;
+
+  @FXML
+  private TableColumn<SimilarDocs, String> similarColumn;
+
+  private ObservableList<SimilarDocs> resultList;
+
+  @FXML
+  private Button save;
+
+  @FXML
+  private Button close;
+
+  @FXML
+  private void initialize() {
+    topN.setTextFormatter(new IntegerTextFormatter(new IntegerStringConverter(), DEFAULT_TOP_N));
+    run.setOnAction(e -> runnableWrapper(this::runBatch));
+    cancel.setDisable(true);
+    cancel.setOnAction(e -> searchModel.cancel());
+
+    seedColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getSeedDocId()));
+    similarColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(formatHits(data.getValue())));
+    resultList = FXCollections.observableArrayList();
+    resultsTable.setItems(resultList);
+
+    save.setDisable(true);
+    save.setOnAction(e -> runnableWrapper(this::saveResults));
+    close.setOnAction(e -> closeWindow(close));
+  }
+
+  public void setSearchContext(@Nonnull Search searchModel, @Nonnull MLTConfig mltConfig, @Nonnull Analyzer analyzer) {
+    this.searchModel = searchModel;
+    this.mltConfig = mltConfig;
+    this.analyzer = analyzer;
+    fields.setText(MessageUtils.getLocalizedMessage("search.mlt_batch.label.fields",
+        String.join(", ", mltConfig.getFieldNames())));
+  }
+
+  private void runBatch() throws LukeException {
+    List<Integer> seedDocIds = parseSeeds(seeds.getText());
+    int n = Integer.parseInt(topN.getText());
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    Task<List<SimilarDocs>> task = new IndexTask<List<SimilarDocs>>(indicatorPane) {
+      @Override
+      protected List<SimilarDocs> call() {
+        return searchModel.mltBatch(seedDocIds, mltConfig, analyzer, n, this::updateProgress);
+      }
+    };
+
+    task.setOnSucceeded(e -> {
+      setRunning(false);
+      status.textProperty().unbind();
+      resultList.setAll(task.getValue());
+      save.setDisable(resultList.isEmpty());
+      status.setText(MessageUtils.getLocalizedMessage("search.mlt_batch.message.done", task.getValue().size()));
+    });
+    task.setOnFailed(e -> {
+      setRunning(false);
+      Throwable t = task.getException();
+      logger.error(t.getMessage(), t);
+    });
+    status.textProperty().bind(task.messageProperty());
+    progress.progressProperty().bind(task.progressProperty());
+
+    setRunning(true);
+    resultList.clear();
+    executor.submit(task);
+    executor.shutdown();
+  }
+
+  /**
+   * Parses comma or space separated doc ids and ranges, e.g. "0-99, 120 130".
+   */
+  private static List<Integer> parseSeeds(String text) throws LukeException {
+    if (Strings.isNullOrEmpty(text) || text.trim().isEmpty()) {
+      throw new LukeException("Seed doc ids are not set.");
+    }
+    Set<Integer> res = new LinkedHashSet<>();
+    for (String token : text.trim().split("[,\\s]+")) {
+      try {
+        int idx = token.indexOf('-');
+        if (idx > 0) {
+          int from = Integer.parseInt(token.substring(0, idx));
+          int to = Integer.parseInt(token.substring(idx + 1));
+          for (int i = from; i <= to; i++) {
+            res.add(i);
+          }
+        } else {
+          res.add(Integer.parseInt(token));
+        }
+      } catch (NumberFormatException e) {
+        throw new LukeException(String.format("Invalid doc id or range: %s", token), e);
+      }
+    }
+    return new ArrayList<>(res);
+  }
+
+  private static String formatHits(SimilarDocs similarDocs) {
+    return similarDocs.getHits().stream()
+        .map(hit -> String.format("%d:%.4f", hit.getDocId(), hit.getScore()))
+        .collect(Collectors.joining(", "));
+  }
+
+  private void saveResults() throws LukeException {
+    FileChooser fileChooser = new FileChooser();
+    fileChooser.setInitialFileName("similar_docs.tsv");
+    File file = fileChooser.showSaveDialog(save.getScene().getWindow());
+    if (file == null) {
+      return;
+    }
+
+    try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+      writer.write("seed\trank\tdoc\tscore");
+      writer.newLine();
+      for (SimilarDocs similarDocs : resultList) {
+        List<SimilarDocs.Hit> hits = similarDocs.getHits();
+        for (int i = 0; i < hits.size(); i++) {
+          writer.write(String.format("%d\t%d\t%d\t%s", similarDocs.getSeedDocId(), i + 1, hits.get(i).getDocId(),
+              hits.get(i).getScore()));
+          writer.newLine();
+        }
+      }
+    } catch (IOException e) {
+      throw new LukeException(String.format("Failed to write results to: %s", file.getAbsolutePath()), e);
+    }
+  }
+
+  private void setRunning(boolean running) {
+    run.setDisable(running);
+    seeds.setDisable(running);
+    topN.setDisable(running);
+    save.setDisable(running);
+    cancel.setDisable(!running);
+  }
+
+}
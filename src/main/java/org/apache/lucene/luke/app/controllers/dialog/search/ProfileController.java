@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.app.controllers.dialog.search;
+
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeView;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import org.apache.lucene.luke.app.controllers.dialog.DialogWindowController;
+import org.apache.lucene.luke.models.search.QueryProfile;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+public class ProfileController implements DialogWindowController {
+
+  @FXML
+  private TreeView<String> tree;
+
+  @FXML
+  private Button copy;
+
+  @FXML
+  private Button close;
+
+  @FXML
+  private void initialize() {
+    copy.setOnAction(e -> copyToClipboard());
+    close.setOnAction(e -> closeWindow(close));
+  }
+
+  public void setProfile(@Nonnull QueryProfile profile) {
+    TreeItem<String> root = createItem(profile);
+    tree.setRoot(root);
+  }
+
+  private TreeItem<String> createItem(QueryProfile profile) {
+    TreeItem<String> item = new TreeItem<>(String.format(Locale.ENGLISH, "%s  %s  [%s]",
+        toMillis(profile.getTotalTime()), profile.getQueryType(), profile.getDescription()));
+    item.setExpanded(true);
+
+    TreeItem<String> breakdown = new TreeItem<>("breakdown");
+    for (QueryProfile.Timing timing : QueryProfile.Timing.values()) {
+      breakdown.getChildren().add(new TreeItem<>(
+          timingToString(timing, profile.getTime(timing), profile.getCount(timing))));
+    }
+    item.getChildren().add(breakdown);
+
+    if (!profile.getLeaves().isEmpty()) {
+      TreeItem<String> leaves = new TreeItem<>("segments");
+      for (QueryProfile.LeafProfile leaf : profile.getLeaves()) {
+        TreeItem<String> leafItem = new TreeItem<>(String.format(Locale.ENGLISH, "%s  leaf #%d %s",
+            toMillis(leaf.getTotalTime()), leaf.getLeafOrd(), leaf.getSegmentName()));
+        for (QueryProfile.Timing timing : QueryProfile.Timing.values()) {
+          if (timing == QueryProfile.Timing.CREATE_WEIGHT) {
+            continue;
+          }
+          leafItem.getChildren().add(new TreeItem<>(
+              timingToString(timing, leaf.getTime(timing), leaf.getCount(timing))));
+        }
+        leaves.getChildren().add(leafItem);
+      }
+      item.getChildren().add(leaves);
+    }
+
+    for (QueryProfile child : profile.getChildren()) {
+      item.getChildren().add(createItem(child));
+    }
+    return item;
+  }
+
+  private static String timingToString(QueryProfile.Timing timing, long nanos, long count) {
+    return String.format(Locale.ENGLISH, "%s  %s (%d calls)", toMillis(nanos), timing.name().toLowerCase(Locale.ROOT), count);
+  }
+
+  private static String toMillis(long nanos) {
+    return String.format(Locale.ENGLISH, "%.3f ms", nanos / 1_000_000.0);
+  }
+
+  private void copyToClipboard() {
+    Clipboard clipboard = Clipboard.getSystemClipboard();
+    ClipboardContent content = new ClipboardContent();
+    content.putString(treeToString());
+    clipboard.setContent(content);
+  }
+
+  private String treeToString() {
+    TreeItem<String> root = tree.getRoot();
+    StringBuilder sb = new StringBuilder(root.getValue());
+    sb.append("\n");
+    traverseToCopy(sb, 1, root.getChildren());
+    return sb.toString();
+  }
+
+  private void traverseToCopy(StringBuilder sb, int depth, List<TreeItem<String>> items) {
+    for (TreeItem<String> item : items) {
+      IntStream.range(0, depth).forEach(i -> sb.append("  "));
+      sb.append(item.getValue());
+      sb.append("\n");
+      traverseToCopy(sb, depth + 1, item.getChildren());
+    }
+  }
+
+}
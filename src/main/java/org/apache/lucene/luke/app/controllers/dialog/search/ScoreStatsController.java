@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.app.controllers.dialog.search;
+
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.fxml.FXML;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import org.apache.lucene.luke.app.controllers.dialog.DialogWindowController;
+import org.apache.lucene.luke.app.util.MessageUtils;
+import org.apache.lucene.luke.models.search.ScoreStats;
+
+import javax.annotation.Nonnull;
+
+public class ScoreStatsController implements DialogWindowController {
+
+  private ScoreStats stats;
+
+  @FXML
+  private Label summary;
+
+  @FXML
+  private BarChart<String, Number> chart;
+
+  @FXML
+  private TableView<ScoreStats.Segment> segmentsTable;
+
+  @FXML
+  private TableColumn<ScoreStats.Segment, Integer> ordColumn;
+
+  @FXML
+  private TableColumn<ScoreStats.Segment, String> segmentColumn;
+
+  @FXML
+  private TableColumn<ScoreStats.Segment, Long> hitsColumn;
+
+  @FXML
+  private Button copy;
+
+  @FXML
+  private Button close;
+
+  @FXML
+  private void initialize() {
+    ordColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getLeafOrd()));
+    segmentColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getSegmentName()));
+    hitsColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getNumHits()));
+    copy.setOnAction(e -> copyToClipboard());
+    close.setOnAction(e -> closeWindow(close));
+  }
+
+  public void setScoreStats(@Nonnull ScoreStats stats) {
+    this.stats = stats;
+    summary.setText(MessageUtils.getLocalizedMessage("search.score_stats.label.summary",
+        String.valueOf(stats.getTotalHits()), stats.getMinScore(), stats.getMaxScore(),
+        String.format("%.4f", stats.getMeanScore())));
+
+    chart.getData().clear();
+    XYChart.Series<String, Number> series = new XYChart.Series<>();
+    for (ScoreStats.Bucket bucket : stats.getBuckets()) {
+      series.getData().add(new XYChart.Data<>(String.format("%.3f", bucket.getFrom()), bucket.getCount()));
+    }
+    chart.getData().add(series);
+
+    segmentsTable.getItems().setAll(stats.getSegments());
+  }
+
+  private void copyToClipboard() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(summary.getText()).append("\n\n");
+    sb.append("from\tto\thits\n");
+    for (ScoreStats.Bucket bucket : stats.getBuckets()) {
+      sb.append(bucket.getFrom()).append('\t').append(bucket.getTo()).append('\t').append(bucket.getCount()).append('\n');
+    }
+    sb.append("\nleaf\tsegment\thits\n");
+    for (ScoreStats.Segment segment : stats.getSegments()) {
+      sb.append(segment.getLeafOrd()).append('\t').append(segment.getSegmentName()).append('\t')
+          .append(segment.getNumHits()).append('\n');
+    }
+
+    Clipboard clipboard = Clipboard.getSystemClipboard();
+    ClipboardContent content = new ClipboardContent();
+    content.putString(sb.toString());
+    clipboard.setContent(content);
+  }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.app.controllers.dialog.search;
+
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import org.apache.lucene.luke.app.controllers.dialog.DialogWindowController;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.search.SegmentExecution;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.apache.lucene.luke.app.util.ExceptionHandler.runnableWrapper;
+
+public class SegmentExecutionController implements DialogWindowController {
+
+  private Consumer<String> restrictCallback;
+
+  private Runnable countBytesCallback;
+
+  @FXML
+  private TableView<SegmentExecution> segmentsTable;
+
+  @FXML
+  private TableColumn<SegmentExecution, Integer> ordColumn;
+
+  @FXML
+  private TableColumn<SegmentExecution, String> segmentColumn;
+
+  @FXML
+  private TableColumn<SegmentExecution, Integer> maxDocColumn;
+
+  @FXML
+  private TableColumn<SegmentExecution, Long> hitsColumn;
+
+  @FXML
+  private TableColumn<SegmentExecution, Long> costColumn;
+
+  @FXML
+  private TableColumn<SegmentExecution, String> timeColumn;
+
+  @FXML
+  private TableColumn<SegmentExecution, String> bytesColumn;
+
+  @FXML
+  private Button restrict;
+
+  @FXML
+  private Button countBytes;
+
+  @FXML
+  private Button copy;
+
+  @FXML
+  private Button close;
+
+  @FXML
+  private void initialize() {
+    ordColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getLeafOrd()));
+    segmentColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getSegmentName()));
+    maxDocColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getMaxDoc()));
+    hitsColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getNumHits()));
+    costColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getCost()));
+    timeColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(formatMillis(data.getValue().getElapsedNanos())));
+    bytesColumn.setCellValueFactory(data -> new SimpleObjectProperty<>(formatBytes(data.getValue().getBytesRead())));
+
+    restrict.setOnAction(e -> runnableWrapper(this::restrictToSelected));
+    countBytes.setOnAction(e -> countBytesRead());
+    copy.setOnAction(e -> copyToClipboard());
+    close.setOnAction(e -> closeWindow(close));
+  }
+
+  /**
+   * @param executions - per segment statistics
+   * @param selectedSegment - segment name to select, or null
+   * @param restrictCallback - called with the segment name when the search is restricted to the selected segment
+   * @param countBytesCallback - called when the statistics are requested again with bytes read
+   */
+  public void setExecutions(@Nonnull List<SegmentExecution> executions, @Nullable String selectedSegment,
+                            @Nonnull Consumer<String> restrictCallback, @Nonnull Runnable countBytesCallback) {
+    this.restrictCallback = restrictCallback;
+    this.countBytesCallback = countBytesCallback;
+    countBytes.setDisable(executions.stream().anyMatch(execution -> execution.getBytesRead() >= 0));
+    segmentsTable.getItems().setAll(executions);
+    if (selectedSegment != null) {
+      executions.stream()
+          .filter(execution -> execution.getSegmentName().equals(selectedSegment))
+          .findFirst()
+          .ifPresent(execution -> {
+            segmentsTable.getSelectionModel().select(execution);
+            segmentsTable.scrollTo(execution);
+          });
+    }
+  }
+
+  private void restrictToSelected() throws LukeException {
+    SegmentExecution selected = segmentsTable.getSelectionModel().getSelectedItem();
+    if (selected == null) {
+      throw new LukeException("No segment is selected.");
+    }
+    restrictCallback.accept(selected.getSegmentName());
+    closeWindow(restrict);
+  }
+
+  private void countBytesRead() {
+    countBytes.setDisable(true);
+    countBytesCallback.run();
+  }
+
+  private static String formatMillis(long nanos) {
+    return String.format("%.3f", nanos / 1_000_000.0);
+  }
+
+  private static String formatBytes(long bytes) {
+    return bytes < 0 ? "n/a" : String.valueOf(bytes);
+  }
+
+  private void copyToClipboard() {
+    StringBuilder sb = new StringBuilder("leaf\tsegment\tmaxDoc\thits\tcost\ttime_ms\tbytes_read\n");
+    for (SegmentExecution execution : segmentsTable.getItems()) {
+      sb.append(execution.getLeafOrd()).append('\t')
+          .append(execution.getSegmentName()).append('\t')
+          .append(execution.getMaxDoc()).append('\t')
+          .append(execution.getNumHits()).append('\t')
+          .append(execution.getCost()).append('\t')
+          .append(formatMillis(execution.getElapsedNanos())).append('\t')
+          .append(formatBytes(execution.getBytesRead())).append('\n');
+    }
+
+    Clipboard clipboard = Clipboard.getSystemClipboard();
+    ClipboardContent content = new ClipboardContent();
+    content.putString(sb.toString());
+    clipboard.setContent(content);
+  }
+
+}
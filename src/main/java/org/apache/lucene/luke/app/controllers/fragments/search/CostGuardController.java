@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.app.controllers.fragments.search;
+
+import javafx.fxml.FXML;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.TextField;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.search.CostGuardConfig;
+
+public class CostGuardController {
+
+  private CostGuardConfig config = new CostGuardConfig.Builder().build();
+
+  @FXML
+  private CheckBox enableGuard;
+
+  @FXML
+  private TextField maxExpansions;
+
+  @FXML
+  private TextField maxCost;
+
+  @FXML
+  private TextField countCap;
+
+  @FXML
+  private CheckBox refuse;
+
+  @FXML
+  private void initialize() {
+    enableGuard.setSelected(config.isEnabled());
+    enableGuard.setOnAction(e -> toggleGuard());
+    maxExpansions.setText(String.valueOf(config.getMaxExpansions()));
+    maxCost.setText(String.valueOf(config.getMaxCost()));
+    countCap.setText(String.valueOf(config.getExpansionCountCap()));
+    refuse.setSelected(config.getAction() == CostGuardConfig.Action.REFUSE);
+  }
+
+  private void toggleGuard() {
+    boolean disable = !enableGuard.isSelected();
+    maxExpansions.setDisable(disable);
+    maxCost.setDisable(disable);
+    countCap.setDisable(disable);
+    refuse.setDisable(disable);
+  }
+
+  public CostGuardConfig getConfig() throws LukeException {
+    int expansions;
+    try {
+      expansions = Integer.parseInt(maxExpansions.getText());
+    } catch (NumberFormatException e) {
+      throw new LukeException("Invalid input for max expansions: " + maxExpansions.getText());
+    }
+
+    long cost;
+    try {
+      cost = Long.parseLong(maxCost.getText());
+    } catch (NumberFormatException e) {
+      throw new LukeException("Invalid input for max cost: " + maxCost.getText());
+    }
+
+    int cap;
+    try {
+      cap = Integer.parseInt(countCap.getText());
+    } catch (NumberFormatException e) {
+      throw new LukeException("Invalid input for expansion count cap: " + countCap.getText());
+    }
+
+    return new CostGuardConfig.Builder()
+        .enabled(enableGuard.isSelected())
+        .maxExpansions(expansions)
+        .maxCost(cost)
+        .expansionCountCap(cap)
+        .action(refuse.isSelected() ? CostGuardConfig.Action.REFUSE : CostGuardConfig.Action.WARN)
+        .build();
+  }
+}
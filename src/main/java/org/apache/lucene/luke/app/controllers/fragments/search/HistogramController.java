@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.app.controllers.fragments.search;
+
+import com.google.common.base.Strings;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Button;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.Pane;
+import org.apache.lucene.luke.app.util.IndexTask;
+import org.apache.lucene.luke.app.util.MessageUtils;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.search.HistogramAggregation;
+import org.apache.lucene.luke.models.search.HistogramConfig;
+import org.apache.lucene.luke.models.search.Search;
+import org.apache.lucene.search.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.apache.lucene.luke.app.util.ExceptionHandler.runnableWrapper;
+
+public class HistogramController {
+
+  private static final Logger logger = LoggerFactory.getLogger(HistogramController.class);
+
+  private Search searchModel;
+
+  @FXML
+  private ChoiceBox<String> field;
+
+  private ObservableList<String> fieldList;
+
+  @FXML
+  private ChoiceBox<HistogramConfig.ValueType> valueType;
+
+  @FXML
+  private TextField interval;
+
+  @FXML
+  private Button histogramBtn;
+
+  @FXML
+  private Pane indicatorPane;
+
+  @FXML
+  private Label summary;
+
+  @FXML
+  private BarChart<String, Number> chart;
+
+  @FXML
+  private void initialize() {
+    fieldList = FXCollections.observableArrayList();
+    field.setItems(fieldList);
+    valueType.getItems().addAll(Arrays.asList(HistogramConfig.ValueType.values()));
+    valueType.setValue(HistogramConfig.ValueType.LONG);
+    histogramBtn.setOnAction(e -> runnableWrapper(this::aggregate));
+  }
+
+  public void setSearchModel(Search searchModel) {
+    this.searchModel = searchModel;
+  }
+
+  public void populateFields(Collection<String> fieldNames) {
+    fieldList.clear();
+    fieldList.addAll(fieldNames);
+    if (!fieldList.isEmpty()) {
+      field.setValue(fieldList.get(0));
+    }
+    clear();
+  }
+
+  public void clear() {
+    summary.setText("");
+    chart.getData().clear();
+  }
+
+  private void aggregate() throws LukeException {
+    Query query = searchModel.getCurrentQuery();
+    if (query == null) {
+      throw new LukeException("Search session not started.");
+    }
+    if (Strings.isNullOrEmpty(field.getValue())) {
+      throw new LukeException("Field is not set.");
+    }
+    String fieldName = field.getValue();
+    HistogramConfig config = new HistogramConfig.Builder()
+        .valueType(valueType.getValue())
+        .interval(parseInterval())
+        .build();
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    Task<HistogramAggregation> task = new IndexTask<HistogramAggregation>(indicatorPane) {
+      @Override
+      protected HistogramAggregation call() {
+        return searchModel.aggregateHistogram(query, fieldName, config);
+      }
+    };
+
+    task.setOnSucceeded(e -> {
+      histogramBtn.setDisable(false);
+      HistogramAggregation res = task.getValue();
+      summary.setText(MessageUtils.getLocalizedMessage("search_histogram.label.summary",
+          res.getNumHits(), res.getNumMissing(), res.getInterval()));
+      XYChart.Series<String, Number> series = new XYChart.Series<>();
+      for (HistogramAggregation.Bucket bucket : res.getBuckets()) {
+        series.getData().add(new XYChart.Data<>(bucket.getLabel(), bucket.getCount()));
+      }
+      chart.getData().add(series);
+    });
+    task.setOnFailed(e -> {
+      histogramBtn.setDisable(false);
+      Throwable t = task.getException();
+      logger.error(t.getMessage(), t);
+      summary.setText(t instanceof LukeException ?
+          t.getMessage() : MessageUtils.getLocalizedMessage("message.error.unknown"));
+    });
+
+    histogramBtn.setDisable(true);
+    clear();
+    executor.submit(task);
+    executor.shutdown();
+  }
+
+  private double parseInterval() throws LukeException {
+    if (Strings.isNullOrEmpty(interval.getText())) {
+      return 0;
+    }
+    try {
+      return Double.parseDouble(interval.getText());
+    } catch (NumberFormatException e) {
+      throw new LukeException("Invalid input for interval: " + interval.getText());
+    }
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.app.controllers.fragments.search;
+
+import com.google.common.base.Strings;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.Pane;
+import javafx.util.converter.IntegerStringConverter;
+import org.apache.lucene.luke.app.util.IndexTask;
+import org.apache.lucene.luke.app.util.IntegerTextFormatter;
+import org.apache.lucene.luke.app.util.MessageUtils;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.search.Search;
+import org.apache.lucene.luke.models.search.TermsAggregation;
+import org.apache.lucene.search.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.apache.lucene.luke.app.util.ExceptionHandler.runnableWrapper;
+
+public class TermsAggregationController {
+
+  private static final Logger logger = LoggerFactory.getLogger(TermsAggregationController.class);
+
+  private static final int DEFAULT_TOP_N = 20;
+
+  private Search searchModel;
+
+  @FXML
+  private ChoiceBox<String> field;
+
+  private ObservableList<String> fieldList;
+
+  @FXML
+  private TextField topN;
+
+  @FXML
+  private Button aggregateBtn;
+
+  @FXML
+  private Pane indicatorPane;
+
+  @FXML
+  private Label summary;
+
+  @FXML
+  private TableView<TermsAggregation.Bucket> bucketsTable;
+
+  @FXML
+  private TableColumn<TermsAggregation.Bucket, String> valueColumn;
+
+  @FXML
+  private TableColumn<TermsAggregation.Bucket, Long> countColumn;
+
+  private ObservableList<TermsAggregation.Bucket> bucketList;
+
+  @FXML
+  private void initialize() {
+    fieldList = FXCollections.observableArrayList();
+    field.setItems(fieldList);
+    topN.setTextFormatter(new IntegerTextFormatter(new IntegerStringConverter(), DEFAULT_TOP_N));
+    aggregateBtn.setOnAction(e -> runnableWrapper(this::aggregate));
+
+    valueColumn.setCellValueFactory(new PropertyValueFactory<>("value"));
+    countColumn.setCellValueFactory(new PropertyValueFactory<>("count"));
+    bucketList = FXCollections.observableArrayList();
+    bucketsTable.setItems(bucketList);
+  }
+
+  public void setSearchModel(Search searchModel) {
+    this.searchModel = searchModel;
+  }
+
+  public void populateFields(Collection<String> fieldNames) {
+    fieldList.clear();
+    fieldList.addAll(fieldNames);
+    if (!fieldList.isEmpty()) {
+      field.setValue(fieldList.get(0));
+    }
+    clear();
+  }
+
+  public void clear() {
+    summary.setText("");
+    bucketList.clear();
+  }
+
+  private void aggregate() throws LukeException {
+    Query query = searchModel.getCurrentQuery();
+    if (query == null) {
+      throw new LukeException("Search session not started.");
+    }
+    if (Strings.isNullOrEmpty(field.getValue())) {
+      throw new LukeException("Field is not set.");
+    }
+    String fieldName = field.getValue();
+    int n = Integer.parseInt(topN.getText());
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    Task<TermsAggregation> task = new IndexTask<TermsAggregation>(indicatorPane) {
+      @Override
+      protected TermsAggregation call() {
+        return searchModel.aggregateTerms(query, fieldName, n);
+      }
+    };
+
+    task.setOnSucceeded(e -> {
+      aggregateBtn.setDisable(false);
+      TermsAggregation res = task.getValue();
+      summary.setText(MessageUtils.getLocalizedMessage("search_aggregation.label.summary",
+          res.getNumHits(), res.getNumUniqueValues(), res.getNumMissing()));
+      bucketList.setAll(res.getBuckets());
+    });
+    task.setOnFailed(e -> {
+      aggregateBtn.setDisable(false);
+      Throwable t = task.getException();
+      logger.error(t.getMessage(), t);
+      summary.setText(t instanceof LukeException ?
+          t.getMessage() : MessageUtils.getLocalizedMessage("message.error.unknown"));
+    });
+
+    aggregateBtn.setDisable(true);
+    clear();
+    executor.submit(task);
+    executor.shutdown();
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Utility to run a batch of tasks on a temporary thread pool and collect their results.
+ *
+ * Worker threads are never interrupted: interrupting a read closes the channel of NIOFSDirectory or
+ * SimpleFSDirectory inputs and breaks the reader for everybody. When the batch fails or the caller is
+ * interrupted, the tasks not yet started are cancelled and the running ones are left to finish on their own.
+ */
+public final class ParallelTasks {
+
+  /**
+   * Runs the tasks on a temporary thread pool.
+   *
+   * @param tasks - tasks to run
+   * @param maxThreads - maximum number of worker threads, the pool is never larger than the number of tasks
+   * @param threadNameFormat - name format of the worker threads
+   * @return the results of the tasks, in the order of tasks
+   * @throws IOException - if a task threw an IOException or a checked exception, which is wrapped
+   * @throws InterruptedException - if interrupted while waiting
+   */
+  public static <T> List<T> runAll(@Nonnull List<? extends Callable<T>> tasks, int maxThreads,
+                                   @Nonnull String threadNameFormat) throws IOException, InterruptedException {
+    if (tasks.isEmpty()) {
+      return new ArrayList<>();
+    }
+
+    int numThreads = Math.max(1, Math.min(maxThreads, tasks.size()));
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads,
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat(threadNameFormat).build());
+    CompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+    Map<Future<T>, Integer> futures = new HashMap<>();
+    try {
+      for (Callable<T> task : tasks) {
+        futures.put(completionService.submit(task), futures.size());
+      }
+      // in the order of completion, so that a failure is noticed without waiting for the preceding tasks
+      List<T> results = new ArrayList<>(Collections.nCopies(tasks.size(), null));
+      for (int i = 0; i < tasks.size(); i++) {
+        Future<T> future = completionService.take();
+        results.set(futures.get(future), future.get());
+      }
+      return results;
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    } finally {
+      // no-op for the completed tasks
+      futures.keySet().forEach(future -> future.cancel(false));
+      executor.shutdown();
+    }
+  }
+
+  private ParallelTasks() {
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of values those are loaded ahead of time on a low priority background thread.
+ *
+ * @param <K> - cache key type
+ * @param <V> - cached value type
+ */
+public final class Prefetcher<K, V> {
+
+  private static final Logger logger = LoggerFactory.getLogger(Prefetcher.class);
+
+  private static final long KEEP_ALIVE_SECONDS = 5;
+
+  private final ThreadPoolExecutor executor;
+
+  private final Map<K, FutureTask<V>> cache;
+
+  /**
+   * Creates a prefetcher.
+   *
+   * @param maxEntries - maximum number of values to keep; the least recently used value is evicted first
+   * @param threadNameFormat - name format of the background thread
+   */
+  public Prefetcher(int maxEntries, @Nonnull String threadNameFormat) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+    }
+    this.executor = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+        new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setPriority(Thread.MIN_PRIORITY)
+            .setNameFormat(threadNameFormat)
+            .build());
+    // the thread is released while the user is idle
+    this.executor.allowCoreThreadTimeOut(true);
+    this.cache = new LinkedHashMap<K, FutureTask<V>>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, FutureTask<V>> eldest) {
+        if (size() > maxEntries) {
+          // never interrupt a running load: interrupting a read closes the channel of NIOFSDirectory or
+          // SimpleFSDirectory inputs and breaks the reader for everybody; the stale result is just discarded
+          eldest.getValue().cancel(false);
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Schedules loading the value for the key, unless it is already loaded or scheduled.
+   *
+   * @param key - cache key
+   * @param loader - function that loads the value
+   */
+  public void prefetch(@Nonnull K key, @Nonnull Callable<V> loader) {
+    FutureTask<V> task;
+    synchronized (cache) {
+      if (cache.containsKey(key)) {
+        return;
+      }
+      task = new FutureTask<>(loader);
+      cache.put(key, task);
+    }
+    executor.execute(task);
+  }
+
+  /**
+   * Returns the value for the key if it was prefetched.
+   * If loading has not yet been started, it is done on the calling thread; if it is in progress, waits for it.
+   *
+   * @param key - cache key
+   * @return the prefetched value, or empty if the key was not prefetched or loading failed
+   */
+  public Optional<V> get(@Nonnull K key) {
+    FutureTask<V> task;
+    synchronized (cache) {
+      task = cache.get(key);
+    }
+    if (task == null) {
+      return Optional.empty();
+    }
+
+    // no-op when the background thread already started or finished the task
+    task.run();
+    try {
+      return Optional.ofNullable(task.get());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Optional.empty();
+    } catch (CancellationException | ExecutionException e) {
+      logger.debug("Prefetching {} failed, the value will be loaded again.", key, e);
+      synchronized (cache) {
+        cache.remove(key, task);
+      }
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Returns true if the value for the key is loaded or scheduled.
+   *
+   * @param key - cache key
+   */
+  public boolean contains(@Nonnull K key) {
+    synchronized (cache) {
+      return cache.containsKey(key);
+    }
+  }
+
+  /**
+   * Cancels all pending loads and discards all prefetched values.
+   * A load already in progress is not interrupted, it runs to the end and its result is discarded.
+   */
+  public void clear() {
+    synchronized (cache) {
+      cache.values().forEach(task -> task.cancel(false));
+      cache.clear();
+    }
+  }
+}
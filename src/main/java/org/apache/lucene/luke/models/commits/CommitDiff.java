@@ -0,0 +1,355 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.commits;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.lucene.index.IndexCommit;
+import org.apache.lucene.index.SegmentCommitInfo;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.store.Directory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Holder for the differences between two commits.
+ */
+public final class CommitDiff {
+
+  /**
+   * Kinds of changes.
+   */
+  public enum ChangeType {
+    ADDED, REMOVED, UPDATED
+  }
+
+  private long fromGeneration;
+
+  private long toGeneration;
+
+  private List<SegmentChange> segmentChanges = new ArrayList<>();
+
+  private List<FileChange> fileChanges = new ArrayList<>();
+
+  private long bytesAdded;
+
+  private long bytesRemoved;
+
+  /**
+   * Compares the segments and files of two commits.
+   *
+   * @param dir - index directory that holds both commits
+   * @param from - the older commit
+   * @param fromInfos - segment infos of the older commit
+   * @param to - the newer commit
+   * @param toInfos - segment infos of the newer commit
+   * @return the differences
+   * @throws IOException - if the segment infos or the file lengths cannot be read
+   */
+  static CommitDiff of(@Nonnull Directory dir, @Nonnull IndexCommit from, @Nonnull SegmentInfos fromInfos,
+                       @Nonnull IndexCommit to, @Nonnull SegmentInfos toInfos) throws IOException {
+    CommitDiff diff = new CommitDiff();
+    diff.fromGeneration = from.getGeneration();
+    diff.toGeneration = to.getGeneration();
+
+    Map<String, SegmentCommitInfo> oldSegments = new TreeMap<>();
+    fromInfos.forEach(info -> oldSegments.put(info.info.name, info));
+    Map<String, SegmentCommitInfo> newSegments = new TreeMap<>();
+    toInfos.forEach(info -> newSegments.put(info.info.name, info));
+
+    for (Map.Entry<String, SegmentCommitInfo> entry : oldSegments.entrySet()) {
+      SegmentCommitInfo newInfo = newSegments.get(entry.getKey());
+      if (newInfo == null) {
+        diff.segmentChanges.add(SegmentChange.of(ChangeType.REMOVED, entry.getValue(), null));
+      } else if (isUpdated(entry.getValue(), newInfo)) {
+        diff.segmentChanges.add(SegmentChange.of(ChangeType.UPDATED, entry.getValue(), newInfo));
+      }
+    }
+    for (Map.Entry<String, SegmentCommitInfo> entry : newSegments.entrySet()) {
+      if (!oldSegments.containsKey(entry.getKey())) {
+        diff.segmentChanges.add(SegmentChange.of(ChangeType.ADDED, null, entry.getValue()));
+      }
+    }
+    diff.segmentChanges.sort(Comparator.comparing(SegmentChange::getName));
+
+    Collection<String> oldFiles = from.getFileNames();
+    Set<String> newFiles = new HashSet<>(to.getFileNames());
+    for (String name : oldFiles) {
+      if (!newFiles.remove(name)) {
+        FileChange change = FileChange.of(name, ChangeType.REMOVED, fileLength(dir, name));
+        diff.bytesRemoved += Math.max(change.size, 0);
+        diff.fileChanges.add(change);
+      }
+    }
+    for (String name : newFiles) {
+      FileChange change = FileChange.of(name, ChangeType.ADDED, fileLength(dir, name));
+      diff.bytesAdded += Math.max(change.size, 0);
+      diff.fileChanges.add(change);
+    }
+    diff.fileChanges.sort(Comparator.comparing(FileChange::getFileName));
+
+    return diff;
+  }
+
+  private static boolean isUpdated(SegmentCommitInfo oldInfo, SegmentCommitInfo newInfo) {
+    return oldInfo.getDelGen() != newInfo.getDelGen() ||
+        oldInfo.getDelCount() != newInfo.getDelCount() ||
+        oldInfo.getFieldInfosGen() != newInfo.getFieldInfosGen() ||
+        oldInfo.getDocValuesGen() != newInfo.getDocValuesGen();
+  }
+
+  private static long fileLength(Directory dir, String name) throws IOException {
+    try {
+      return dir.fileLength(name);
+    } catch (NoSuchFileException e) {
+      // the file was deleted along with its commit
+      return -1;
+    }
+  }
+
+  /**
+   * Returns the generation of the older commit.
+   */
+  public long getFromGeneration() {
+    return fromGeneration;
+  }
+
+  /**
+   * Returns the generation of the newer commit.
+   */
+  public long getToGeneration() {
+    return toGeneration;
+  }
+
+  /**
+   * Returns the added, removed and updated segments, sorted by segment name.
+   */
+  public List<SegmentChange> getSegmentChanges() {
+    return ImmutableList.copyOf(segmentChanges);
+  }
+
+  /**
+   * Returns the added and removed files, sorted by file name.
+   */
+  public List<FileChange> getFileChanges() {
+    return ImmutableList.copyOf(fileChanges);
+  }
+
+  /**
+   * Returns the total size in bytes of the files written between the two commits.
+   */
+  public long getBytesAdded() {
+    return bytesAdded;
+  }
+
+  /**
+   * Returns the total size in bytes of the files those are no longer referenced by the newer commit.
+   */
+  public long getBytesRemoved() {
+    return bytesRemoved;
+  }
+
+  private CommitDiff() {
+  }
+
+  /**
+   * Holder for a changed segment. The values of the absent side are -1.
+   */
+  public static final class SegmentChange {
+
+    private String name;
+
+    private ChangeType type;
+
+    private int maxDoc;
+
+    private long oldDelGen = -1;
+
+    private long newDelGen = -1;
+
+    private int oldDelCount = -1;
+
+    private int newDelCount = -1;
+
+    private long oldFieldInfosGen = -1;
+
+    private long newFieldInfosGen = -1;
+
+    private long oldDocValuesGen = -1;
+
+    private long newDocValuesGen = -1;
+
+    static SegmentChange of(@Nonnull ChangeType type, @Nullable SegmentCommitInfo oldInfo,
+                            @Nullable SegmentCommitInfo newInfo) {
+      SegmentChange change = new SegmentChange();
+      change.type = type;
+      if (oldInfo != null) {
+        change.name = oldInfo.info.name;
+        change.maxDoc = oldInfo.info.maxDoc();
+        change.oldDelGen = oldInfo.getDelGen();
+        change.oldDelCount = oldInfo.getDelCount();
+        change.oldFieldInfosGen = oldInfo.getFieldInfosGen();
+        change.oldDocValuesGen = oldInfo.getDocValuesGen();
+      }
+      if (newInfo != null) {
+        change.name = newInfo.info.name;
+        change.maxDoc = newInfo.info.maxDoc();
+        change.newDelGen = newInfo.getDelGen();
+        change.newDelCount = newInfo.getDelCount();
+        change.newFieldInfosGen = newInfo.getFieldInfosGen();
+        change.newDocValuesGen = newInfo.getDocValuesGen();
+      }
+      return change;
+    }
+
+    /**
+     * Returns the segment name.
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Returns the kind of the change.
+     */
+    public ChangeType getType() {
+      return type;
+    }
+
+    /**
+     * Returns the max doc of the segment.
+     */
+    public int getMaxDoc() {
+      return maxDoc;
+    }
+
+    /**
+     * Returns the deletion generation in the older commit.
+     */
+    public long getOldDelGen() {
+      return oldDelGen;
+    }
+
+    /**
+     * Returns the deletion generation in the newer commit.
+     */
+    public long getNewDelGen() {
+      return newDelGen;
+    }
+
+    /**
+     * Returns the number of deleted documents in the older commit.
+     */
+    public int getOldDelCount() {
+      return oldDelCount;
+    }
+
+    /**
+     * Returns the number of deleted documents in the newer commit.
+     */
+    public int getNewDelCount() {
+      return newDelCount;
+    }
+
+    /**
+     * Returns the field infos generation in the older commit.
+     */
+    public long getOldFieldInfosGen() {
+      return oldFieldInfosGen;
+    }
+
+    /**
+     * Returns the field infos generation in the newer commit.
+     */
+    public long getNewFieldInfosGen() {
+      return newFieldInfosGen;
+    }
+
+    /**
+     * Returns the doc values generation in the older commit.
+     */
+    public long getOldDocValuesGen() {
+      return oldDocValuesGen;
+    }
+
+    /**
+     * Returns the doc values generation in the newer commit.
+     */
+    public long getNewDocValuesGen() {
+      return newDocValuesGen;
+    }
+
+    private SegmentChange() {
+    }
+  }
+
+  /**
+   * Holder for an added or removed file.
+   */
+  public static final class FileChange {
+
+    private String fileName;
+
+    private ChangeType type;
+
+    private long size;
+
+    static FileChange of(@Nonnull String fileName, @Nonnull ChangeType type, long size) {
+      FileChange change = new FileChange();
+      change.fileName = fileName;
+      change.type = type;
+      change.size = size;
+      return change;
+    }
+
+    /**
+     * Returns the file name.
+     */
+    public String getFileName() {
+      return fileName;
+    }
+
+    /**
+     * Returns the kind of the change.
+     */
+    public ChangeType getType() {
+      return type;
+    }
+
+    /**
+     * Returns the file size in bytes, or -1 if the file no longer exists.
+     */
+    public long getSize() {
+      return size;
+    }
+
+    private FileChange() {
+    }
+  }
+}
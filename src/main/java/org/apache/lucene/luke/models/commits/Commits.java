@@ -19,6 +19,7 @@ package org.apache.lucene.luke.models.commits;
 
 import org.apache.lucene.codecs.Codec;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.MergePolicy;
 import org.apache.lucene.luke.models.LukeException;
 import org.apache.lucene.store.Directory;
 
@@ -51,6 +52,15 @@ public interface Commits {
    */
   List<File> getFiles(long commitGen);
 
+  /**
+   * Returns the total sizes of the index files for the specified generation, rolled up by file extension.
+   * Files packed in compound files are counted by their own extensions.
+   * @param commitGen - generation
+   * @return size rollups, in descending order of the total size
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  List<FileSizeRollup> getFileSizeRollup(long commitGen);
+
   /**
    * Returns segments for the specified generation.
    * @param commitGen - generation
@@ -81,4 +91,40 @@ public interface Commits {
    * @throws LukeException - if an internal error occurs when accessing index
    */
   Optional<Codec> getSegmentCodec(long commitGen, String name);
+
+  /**
+   * Starts reading the segment infos of the specified generation in background.
+   * Parsed segment infos are cached, so that following segment lookups do not read the segments file again.
+   * @param commitGen - generation
+   */
+  void prefetchSegments(long commitGen);
+
+  /**
+   * Compares two commits and returns the added, removed and updated segments and files.
+   * @param fromGen - generation of the older commit
+   * @param toGen - generation of the newer commit
+   * @return the differences, or empty if either commit does not exist
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  Optional<CommitDiff> diff(long fromGen, long toGen);
+
+  /**
+   * Forecasts the merges that the merge policy would pick on the segments of the specified generation.
+   * Flushes and merges are simulated with the segment sizes and deletion counts only, so nothing is written to the index.
+   * @param commitGen - generation
+   * @param policy - merge policy to be simulated
+   * @param config - simulation configurations
+   * @return the simulation result, or empty if the commit does not exist
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  Optional<MergeSimulation> simulateMerges(long commitGen, MergePolicy policy, MergeSimulationConfig config);
+
+  /**
+   * Returns the segment creation timeline, parsed from the diagnostics of the segments in all commits up to the specified generation.
+   * Segments those were merged away are included only if an older commit still references them.
+   * @param commitGen - generation
+   * @return the timeline, or empty if the commit does not exist
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  Optional<SegmentTimeline> getSegmentTimeline(long commitGen);
 }
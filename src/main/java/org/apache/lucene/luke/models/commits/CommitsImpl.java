@@ -21,20 +21,28 @@ import com.google.common.collect.ImmutableMap;
 import org.apache.lucene.codecs.Codec;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexCommit;
+import org.apache.lucene.index.IndexFileNames;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.MergePolicy;
+import org.apache.lucene.index.SegmentCommitInfo;
 import org.apache.lucene.index.SegmentInfos;
 import org.apache.lucene.luke.models.LukeModel;
 import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.Prefetcher;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
@@ -44,8 +52,13 @@ public final class CommitsImpl extends LukeModel implements Commits {
 
   private final String indexPath;
 
+  private static final int MAX_CACHED_COMMITS = 8;
+
   private final Map<Long, IndexCommit> commitMap;
 
+  private final Prefetcher<Long, CommitSegments> segmentsCache =
+      new Prefetcher<>(MAX_CACHED_COMMITS, "luke-commit-segments-%d");
+
   /**
    * Constructs a CommitsImpl that holds given {@link Directory}.
    *
@@ -73,8 +86,8 @@ public final class CommitsImpl extends LukeModel implements Commits {
   private Map<Long, IndexCommit> initCommitMap() {
     try {
       List<IndexCommit> indexCommits = DirectoryReader.listCommits(dir);
-      return indexCommits.stream()
-          .collect(Collectors.toMap(IndexCommit::getGeneration, UnaryOperator.identity()));
+      return ImmutableMap.copyOf(indexCommits.stream()
+          .collect(Collectors.toMap(IndexCommit::getGeneration, UnaryOperator.identity(), (a, b) -> a, TreeMap::new)));
     } catch (IOException e) {
       throw new LukeException("Failed to get commits list.", e);
     }
@@ -113,82 +126,195 @@ public final class CommitsImpl extends LukeModel implements Commits {
     }
 
     try {
-      return ic.getFileNames().stream()
-          .map(name -> File.of(indexPath, name))
-          .sorted(Comparator.comparing(File::getFileName))
+      List<String> fileNames = ic.getFileNames().stream().sorted().collect(Collectors.toList());
+      return FileStats.lengths(dir, fileNames).entrySet().stream()
+          .map(e -> File.of(e.getKey(), e.getValue()))
           .collect(Collectors.toList());
     } catch (IOException e) {
-      throw new LukeException(String.format("Failed to load files for commit generation %d", commitGen), e);
+      throw new LukeException(String.format("Failed to load files for commit generation %d in %s", commitGen, indexPath), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LukeException("Loading files was interrupted.", e);
     }
   }
 
   @Override
-  public List<Segment> getSegments(long commitGen) throws LukeException {
+  public List<FileSizeRollup> getFileSizeRollup(long commitGen) throws LukeException {
+    CommitSegments segments = findCommitSegments(commitGen);
+    if (segments == null) {
+      return Collections.emptyList();
+    }
+
+    Map<String, long[]> rollup = new TreeMap<>();
+    for (File file : getFiles(commitGen)) {
+      addToRollup(rollup, file.getFileName(), Math.max(file.getSize(), 0));
+    }
+
+    // break down compound files into the files packed in them, only the container overhead remains in .cfs
     try {
-      SegmentInfos infos = findSegmentInfos(commitGen);
-      if (infos == null) {
-        return Collections.emptyList();
+      for (SegmentCommitInfo info : segments.infos) {
+        if (!info.info.getUseCompoundFile()) {
+          continue;
+        }
+        try (Directory cfs = info.info.getCodec().compoundFormat().getCompoundReader(dir, info.info, IOContext.READONCE)) {
+          long packedBytes = 0;
+          for (String name : cfs.listAll()) {
+            long length = cfs.fileLength(name);
+            addToRollup(rollup, name, length);
+            packedBytes += length;
+          }
+          rollup.get("cfs")[1] -= packedBytes;
+        }
       }
-
-      return infos.asList().stream()
-          .map(Segment::of)
-          .sorted(Comparator.comparing(Segment::getName))
-          .collect(Collectors.toList());
     } catch (IOException e) {
-      throw new LukeException(String.format("Failed to load segment infos for commit generation %d", commitGen), e);
+      throw new LukeException(String.format("Failed to read compound files for commit generation %d", commitGen), e);
+    }
+
+    return rollup.entrySet().stream()
+        .map(e -> FileSizeRollup.of(e.getKey(), (int) e.getValue()[0], e.getValue()[1]))
+        .sorted(Comparator.comparingLong(FileSizeRollup::getTotalBytes).reversed())
+        .collect(Collectors.toList());
+  }
+
+  private static void addToRollup(Map<String, long[]> rollup, String fileName, long length) {
+    String ext = IndexFileNames.getExtension(fileName);
+    if (ext == null) {
+      // segments_N has no extension
+      ext = fileName.startsWith(IndexFileNames.SEGMENTS) ? IndexFileNames.SEGMENTS : fileName;
+    }
+    long[] counts = rollup.computeIfAbsent(ext, k -> new long[2]);
+    counts[0] += 1;
+    counts[1] += length;
+  }
+
+  @Override
+  public List<Segment> getSegments(long commitGen) throws LukeException {
+    CommitSegments segments = findCommitSegments(commitGen);
+    if (segments == null) {
+      return Collections.emptyList();
     }
+
+    return segments.infos.asList().stream()
+        .map(Segment::of)
+        .sorted(Comparator.comparing(Segment::getName))
+        .collect(Collectors.toList());
   }
 
   @Override
   public Map<String, String> getSegmentAttributes(long commitGen, String name) throws LukeException {
-    try {
-      SegmentInfos infos = findSegmentInfos(commitGen);
-      if (infos == null) {
-        return Collections.emptyMap();
-      }
+    return findSegment(commitGen, name)
+        .map(seg -> seg.info.getAttributes())
+        .orElse(Collections.emptyMap());
+  }
 
-      return infos.asList().stream()
-          .filter(seg -> seg.info.name.equals(name))
-          .findAny()
-          .map(seg -> seg.info.getAttributes())
-          .orElse(Collections.emptyMap());
-    } catch (IOException e) {
-      throw new LukeException(String.format("Failed to load segment infos for commit generation %d", commitGen), e);
+  @Override
+  public Map<String, String> getSegmentDiagnostics(long commitGen, String name) throws LukeException {
+    return findSegment(commitGen, name)
+        .map(seg -> seg.info.getDiagnostics())
+        .orElse(Collections.emptyMap());
+  }
+
+  @Override
+  public Optional<Codec> getSegmentCodec(long commitGen, String name) throws LukeException {
+    return findSegment(commitGen, name)
+        .map(seg -> seg.info.getCodec());
+  }
+
+  @Override
+  public void prefetchSegments(long commitGen) {
+    IndexCommit ic = getCommitMap().get(commitGen);
+    if (ic != null) {
+      segmentsCache.prefetch(commitGen, () -> readCommitSegments(ic));
     }
   }
 
   @Override
-  public Map<String, String> getSegmentDiagnostics(long commitGen, String name) throws LukeException {
-    try {
-      SegmentInfos infos = findSegmentInfos(commitGen);
-      if (infos == null) {
-        return Collections.emptyMap();
-      }
+  public Optional<CommitDiff> diff(long fromGen, long toGen) throws LukeException {
+    IndexCommit from = getCommitMap().get(fromGen);
+    IndexCommit to = getCommitMap().get(toGen);
+    if (from == null || to == null) {
+      String msg = String.format("Commit generation %d not exists.", from == null ? fromGen : toGen);
+      logger.warn(msg);
+      return Optional.empty();
+    }
 
-      return infos.asList().stream()
-          .filter(seg -> seg.info.name.equals(name))
-          .findAny()
-          .map(seg -> seg.info.getDiagnostics())
-          .orElse(Collections.emptyMap());
+    try {
+      SegmentInfos fromInfos = findCommitSegments(fromGen).infos;
+      SegmentInfos toInfos = findCommitSegments(toGen).infos;
+      return Optional.of(CommitDiff.of(dir, from, fromInfos, to, toInfos));
     } catch (IOException e) {
-      throw new LukeException(String.format("Failed to load segment infos for commit generation %d", commitGen), e);
+      throw new LukeException(String.format("Failed to compare commit generations %d and %d", fromGen, toGen), e);
     }
   }
 
   @Override
-  public Optional<Codec> getSegmentCodec(long commitGen, String name) throws LukeException {
+  public Optional<MergeSimulation> simulateMerges(long commitGen, MergePolicy policy, MergeSimulationConfig config)
+      throws LukeException {
+    CommitSegments segments = findCommitSegments(commitGen);
+    if (segments == null) {
+      String msg = String.format("Commit generation %d not exists.", commitGen);
+      logger.warn(msg);
+      return Optional.empty();
+    }
+
     try {
-      SegmentInfos infos = findSegmentInfos(commitGen);
-      if (infos == null) {
-        return Optional.empty();
+      return Optional.of(MergeSimulator.simulate(commitGen, segments.infos, policy, config));
+    } catch (IOException e) {
+      throw new LukeException(String.format("Failed to simulate merges on commit generation %d", commitGen), e);
+    }
+  }
+
+  @Override
+  public Optional<SegmentTimeline> getSegmentTimeline(long commitGen) throws LukeException {
+    CommitSegments last = findCommitSegments(commitGen);
+    if (last == null) {
+      String msg = String.format("Commit generation %d not exists.", commitGen);
+      logger.warn(msg);
+      return Optional.empty();
+    }
+
+    // segment names are never reused in an index, the newest commit wins for the size
+    Map<String, SegmentTimeline.Event> events = new HashMap<>();
+    for (Map.Entry<Long, IndexCommit> entry : getCommitMap().entrySet()) {
+      long gen = entry.getKey();
+      if (gen > commitGen) {
+        break;
+      }
+      // older commits are read once here, going through the cache would evict the commits being browsed
+      SegmentInfos infos;
+      try {
+        infos = gen == commitGen ? last.infos : SegmentInfos.readCommit(dir, entry.getValue().getSegmentsFileName());
+      } catch (IOException e) {
+        throw new LukeException(String.format("Failed to load segment infos for commit generation %d", gen), e);
+      }
+      for (SegmentCommitInfo info : infos) {
+        try {
+          events.put(info.info.name, toTimelineEvent(info, last.byName.containsKey(info.info.name)));
+        } catch (IOException e) {
+          throw new LukeException(String.format("Failed to get size of segment %s", info.info.name), e);
+        }
       }
+    }
+    return Optional.of(SegmentTimelineAnalyzer.analyze(commitGen, new ArrayList<>(events.values())));
+  }
 
-      return infos.asList().stream()
-          .filter(seg -> seg.info.name.equals(name))
-          .findAny()
-          .map(seg -> seg.info.getCodec());
-    } catch (IOException e) {
-      throw new LukeException(String.format("Failed to load segment infos for commit generation %d", commitGen), e);
+  private static SegmentTimeline.Event toTimelineEvent(SegmentCommitInfo info, boolean live) throws IOException {
+    Map<String, String> diagnostics = info.info.getDiagnostics();
+    SegmentTimeline.Source source = SegmentTimeline.Source.parse(diagnostics.get("source"));
+    long timestamp = parseLong(diagnostics.get("timestamp"));
+    int mergeFactor = source == SegmentTimeline.Source.MERGE ? (int) parseLong(diagnostics.get("mergeFactor")) : -1;
+    return SegmentTimeline.Event.of(info.info.name, source, timestamp, info.info.maxDoc(), info.sizeInBytes(),
+        mergeFactor, live);
+  }
+
+  private static long parseLong(String value) {
+    if (value == null) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      return -1;
     }
   }
 
@@ -196,16 +322,39 @@ public final class CommitsImpl extends LukeModel implements Commits {
     if (dir == null) {
       return Collections.emptyMap();
     }
-    return ImmutableMap.copyOf(commitMap);
+    return commitMap;
+  }
+
+  private Optional<SegmentCommitInfo> findSegment(long commitGen, String name) throws LukeException {
+    CommitSegments segments = findCommitSegments(commitGen);
+    if (segments == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(segments.byName.get(name));
   }
 
-  private SegmentInfos findSegmentInfos(long commitGen) throws LukeException, IOException {
+  private CommitSegments findCommitSegments(long commitGen) throws LukeException {
     IndexCommit ic = getCommitMap().get(commitGen);
     if (ic == null) {
       return null;
     }
-    String segmentFile = ic.getSegmentsFileName();
-    return SegmentInfos.readCommit(dir, segmentFile);
+
+    // commits are immutable, so the parsed segment infos can be kept as long as the model lives
+    prefetchSegments(commitGen);
+    Optional<CommitSegments> cached = segmentsCache.get(commitGen);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+    try {
+      // loading failed on the background thread, read again here to report the error
+      return readCommitSegments(ic);
+    } catch (IOException e) {
+      throw new LukeException(String.format("Failed to load segment infos for commit generation %d", commitGen), e);
+    }
+  }
+
+  private CommitSegments readCommitSegments(IndexCommit ic) throws IOException {
+    return new CommitSegments(SegmentInfos.readCommit(dir, ic.getSegmentsFileName()));
   }
 
   static String toDisplaySize(long size) {
@@ -217,4 +366,21 @@ public final class CommitsImpl extends LukeModel implements Commits {
       return String.valueOf(size / 1048576) + " MB";
     }
   }
+
+  /**
+   * Parsed segment infos of a commit, with the segments indexed by name.
+   */
+  private static final class CommitSegments {
+
+    private final SegmentInfos infos;
+
+    private final Map<String, SegmentCommitInfo> byName = new HashMap<>();
+
+    CommitSegments(SegmentInfos infos) {
+      this.infos = infos;
+      for (SegmentCommitInfo info : infos) {
+        byName.put(info.info.name, info);
+      }
+    }
+  }
 }
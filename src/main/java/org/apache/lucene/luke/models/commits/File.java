@@ -22,13 +22,14 @@ package org.apache.lucene.luke.models.commits;
  */
 public final class File {
   private String fileName;
+  private long size;
   private String displaySize;
 
-  static File of(String indexPath, String name) {
+  static File of(String name, long size) {
     File file = new File();
     file.fileName = name;
-    java.io.File fileObject = new java.io.File(indexPath, name);
-    file.displaySize = CommitsImpl.toDisplaySize(fileObject.length());
+    file.size = size;
+    file.displaySize = size < 0 ? "" : CommitsImpl.toDisplaySize(size);
     return file;
   }
 
@@ -36,6 +37,13 @@ public final class File {
     return fileName;
   }
 
+  /**
+   * Returns the file size in bytes, or -1 if the file no longer exists.
+   */
+  public long getSize() {
+    return size;
+  }
+
   public String getDisplaySize() {
     return displaySize;
   }
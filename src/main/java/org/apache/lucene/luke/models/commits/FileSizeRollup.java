@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.commits;
+
+import com.google.common.collect.ImmutableMap;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+
+/**
+ * Holder for the total size of the index files with the same extension.
+ */
+public final class FileSizeRollup {
+
+  /**
+   * Index data structures those files are written for.
+   */
+  public enum DataStructure {
+    POSTINGS, TERM_DICTIONARY, TERM_INDEX, STORED_FIELDS, TERM_VECTORS, DOC_VALUES, NORMS, POINTS,
+    LIVE_DOCS, FIELD_INFOS, SEGMENT_INFO, COMPOUND, COMMIT, OTHER
+  }
+
+  // extensions of the default codec (Lucene70) and its postings format (Lucene50)
+  private static final Map<String, DataStructure> EXTENSIONS = ImmutableMap.<String, DataStructure>builder()
+      .put("doc", DataStructure.POSTINGS)
+      .put("pos", DataStructure.POSTINGS)
+      .put("pay", DataStructure.POSTINGS)
+      .put("tim", DataStructure.TERM_DICTIONARY)
+      .put("tip", DataStructure.TERM_INDEX)
+      .put("fdt", DataStructure.STORED_FIELDS)
+      .put("fdx", DataStructure.STORED_FIELDS)
+      .put("tvd", DataStructure.TERM_VECTORS)
+      .put("tvx", DataStructure.TERM_VECTORS)
+      .put("dvd", DataStructure.DOC_VALUES)
+      .put("dvm", DataStructure.DOC_VALUES)
+      .put("nvd", DataStructure.NORMS)
+      .put("nvm", DataStructure.NORMS)
+      .put("dii", DataStructure.POINTS)
+      .put("dim", DataStructure.POINTS)
+      .put("liv", DataStructure.LIVE_DOCS)
+      .put("fnm", DataStructure.FIELD_INFOS)
+      .put("si", DataStructure.SEGMENT_INFO)
+      .put("cfs", DataStructure.COMPOUND)
+      .put("cfe", DataStructure.COMPOUND)
+      .build();
+
+  private String extension;
+
+  private DataStructure dataStructure;
+
+  private int numFiles;
+
+  private long totalBytes;
+
+  static FileSizeRollup of(@Nonnull String extension, int numFiles, long totalBytes) {
+    FileSizeRollup rollup = new FileSizeRollup();
+    rollup.extension = extension;
+    rollup.dataStructure = dataStructureOf(extension);
+    rollup.numFiles = numFiles;
+    rollup.totalBytes = totalBytes;
+    return rollup;
+  }
+
+  static DataStructure dataStructureOf(@Nonnull String extension) {
+    if (extension.startsWith("segments")) {
+      return DataStructure.COMMIT;
+    }
+    return EXTENSIONS.getOrDefault(extension, DataStructure.OTHER);
+  }
+
+  /**
+   * Returns the file extension, or the file name for the files without extension (e.g. segments_N).
+   */
+  public String getExtension() {
+    return extension;
+  }
+
+  /**
+   * Returns the data structure stored in the files.
+   */
+  public DataStructure getDataStructure() {
+    return dataStructure;
+  }
+
+  /**
+   * Returns the number of files. Files packed in compound files are counted individually.
+   */
+  public int getNumFiles() {
+    return numFiles;
+  }
+
+  /**
+   * Returns the total size of the files in bytes. For compound files, only the container overhead is counted here.
+   */
+  public long getTotalBytes() {
+    return totalBytes;
+  }
+
+  private FileSizeRollup() {
+  }
+}
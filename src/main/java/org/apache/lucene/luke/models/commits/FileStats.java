@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.commits;
+
+import org.apache.lucene.luke.models.ParallelTasks;
+import org.apache.lucene.store.Directory;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Utility to stat many index files in parallel batches.
+ * Stat calls are dominated by round trips on network file systems, so they are issued concurrently.
+ */
+final class FileStats {
+
+  static final int BATCH_SIZE = 256;
+
+  static final int MAX_THREADS = 8;
+
+  /**
+   * Returns the lengths of the files. Missing files have the length -1.
+   *
+   * @param dir - index directory
+   * @param fileNames - file names
+   * @return file lengths in bytes, in the order of the file names
+   * @throws IOException - if a file length cannot be read
+   * @throws InterruptedException - if interrupted while waiting
+   */
+  static Map<String, Long> lengths(@Nonnull Directory dir, @Nonnull List<String> fileNames)
+      throws IOException, InterruptedException {
+    Map<String, Long> res = new LinkedHashMap<>();
+    if (fileNames.size() <= BATCH_SIZE) {
+      // not worth a thread pool
+      long[] lengths = batchLengths(dir, fileNames);
+      for (int i = 0; i < lengths.length; i++) {
+        res.put(fileNames.get(i), lengths[i]);
+      }
+      return res;
+    }
+
+    List<Callable<long[]>> batches = new ArrayList<>();
+    for (int from = 0; from < fileNames.size(); from += BATCH_SIZE) {
+      List<String> batch = fileNames.subList(from, Math.min(from + BATCH_SIZE, fileNames.size()));
+      batches.add(() -> batchLengths(dir, batch));
+    }
+
+    int offset = 0;
+    for (long[] lengths : ParallelTasks.runAll(batches, MAX_THREADS, "luke-file-stat-%d")) {
+      for (int i = 0; i < lengths.length; i++) {
+        res.put(fileNames.get(offset + i), lengths[i]);
+      }
+      offset += lengths.length;
+    }
+    return res;
+  }
+
+  private static long[] batchLengths(Directory dir, List<String> batch) throws IOException {
+    long[] lengths = new long[batch.size()];
+    for (int i = 0; i < batch.size(); i++) {
+      try {
+        lengths[i] = dir.fileLength(batch.get(i));
+      } catch (NoSuchFileException e) {
+        lengths[i] = -1;
+      }
+    }
+    return lengths;
+  }
+
+  private FileStats() {
+  }
+}
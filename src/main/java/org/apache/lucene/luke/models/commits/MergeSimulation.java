@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.commits;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.lucene.index.MergeTrigger;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Holder for the result of a merge simulation on the segments of a commit.
+ */
+public final class MergeSimulation {
+
+  private long generation;
+
+  private String policy;
+
+  private int initialSegmentCount;
+
+  private int projectedSegmentCount;
+
+  private long initialBytesRewritten;
+
+  private List<Merge> initialMerges;
+
+  private long bytesFlushed;
+
+  private long bytesRewritten;
+
+  private List<Merge> merges;
+
+  private int forcedSegmentCount;
+
+  private long forcedBytesRewritten;
+
+  private List<Merge> forcedMerges;
+
+  static MergeSimulation of(long generation, @Nonnull String policy, int initialSegmentCount,
+                            long initialBytesRewritten, @Nonnull List<Merge> initialMerges,
+                            int projectedSegmentCount, long bytesFlushed, long bytesRewritten, @Nonnull List<Merge> merges,
+                            int forcedSegmentCount, long forcedBytesRewritten, @Nonnull List<Merge> forcedMerges) {
+    MergeSimulation res = new MergeSimulation();
+    res.generation = generation;
+    res.policy = policy;
+    res.initialSegmentCount = initialSegmentCount;
+    res.initialBytesRewritten = initialBytesRewritten;
+    res.initialMerges = ImmutableList.copyOf(initialMerges);
+    res.projectedSegmentCount = projectedSegmentCount;
+    res.bytesFlushed = bytesFlushed;
+    res.bytesRewritten = bytesRewritten;
+    res.merges = ImmutableList.copyOf(merges);
+    res.forcedSegmentCount = forcedSegmentCount;
+    res.forcedBytesRewritten = forcedBytesRewritten;
+    res.forcedMerges = ImmutableList.copyOf(forcedMerges);
+    return res;
+  }
+
+  /**
+   * Returns the generation of the commit that the simulation started from.
+   */
+  public long getGeneration() {
+    return generation;
+  }
+
+  /**
+   * Returns the description of the simulated merge policy.
+   */
+  public String getPolicy() {
+    return policy;
+  }
+
+  /**
+   * Returns the number of segments in the commit.
+   */
+  public int getInitialSegmentCount() {
+    return initialSegmentCount;
+  }
+
+  /**
+   * Returns the total bytes written by the merges on the segments of the commit, before any simulated flush.
+   */
+  public long getInitialBytesRewritten() {
+    return initialBytesRewritten;
+  }
+
+  /**
+   * Returns the merges that the policy picked on the segments of the commit, before any simulated flush.
+   * These merge the backlog of the existing index, so they are not counted in the write amplification.
+   */
+  public List<Merge> getInitialMerges() {
+    return ImmutableList.copyOf(initialMerges);
+  }
+
+  /**
+   * Returns the number of segments after all simulated flushes and merges.
+   */
+  public int getProjectedSegmentCount() {
+    return projectedSegmentCount;
+  }
+
+  /**
+   * Returns the total bytes of the simulated flushed segments.
+   */
+  public long getBytesFlushed() {
+    return bytesFlushed;
+  }
+
+  /**
+   * Returns the total bytes written by the merges triggered by the simulated flushes.
+   */
+  public long getBytesRewritten() {
+    return bytesRewritten;
+  }
+
+  /**
+   * Returns the ratio of the bytes written by the simulated flushes and the merges they triggered to the bytes flushed,
+   * or 0 if nothing was flushed.
+   */
+  public double getWriteAmplification() {
+    if (bytesFlushed <= 0) {
+      return 0;
+    }
+    return (double) (bytesFlushed + bytesRewritten) / bytesFlushed;
+  }
+
+  /**
+   * Returns the merges triggered by the simulated flushes, in the order of selection.
+   */
+  public List<Merge> getMerges() {
+    return ImmutableList.copyOf(merges);
+  }
+
+  /**
+   * Returns the number of segments after the simulated forced merge of the commit.
+   */
+  public int getForcedSegmentCount() {
+    return forcedSegmentCount;
+  }
+
+  /**
+   * Returns the total bytes written by the simulated forced merge.
+   */
+  public long getForcedBytesRewritten() {
+    return forcedBytesRewritten;
+  }
+
+  /**
+   * Returns the merges that the policy picked for the forced merge, or empty if it was not simulated.
+   */
+  public List<Merge> getForcedMerges() {
+    return ImmutableList.copyOf(forcedMerges);
+  }
+
+  private MergeSimulation() {
+  }
+
+  /**
+   * Holder for a merge picked by the simulated merge policy.
+   */
+  public static final class Merge {
+
+    private int round;
+
+    private MergeTrigger trigger;
+
+    private String mergedName;
+
+    private List<String> segments;
+
+    private int docCount;
+
+    private long inputBytes;
+
+    private long outputBytes;
+
+    static Merge of(int round, @Nonnull MergeTrigger trigger, @Nonnull String mergedName, @Nonnull List<String> segments,
+                    int docCount, long inputBytes, long outputBytes) {
+      Merge res = new Merge();
+      res.round = round;
+      res.trigger = trigger;
+      res.mergedName = mergedName;
+      res.segments = ImmutableList.copyOf(segments);
+      res.docCount = docCount;
+      res.inputBytes = inputBytes;
+      res.outputBytes = outputBytes;
+      return res;
+    }
+
+    /**
+     * Returns the flush round that triggered the merge, 0 for the merges on the current segments.
+     */
+    public int getRound() {
+      return round;
+    }
+
+    /**
+     * Returns the trigger passed to the merge policy.
+     */
+    public MergeTrigger getTrigger() {
+      return trigger;
+    }
+
+    /**
+     * Returns the name of the simulated merged segment.
+     */
+    public String getMergedName() {
+      return mergedName;
+    }
+
+    /**
+     * Returns the names of the segments to be merged.
+     */
+    public List<String> getSegments() {
+      return ImmutableList.copyOf(segments);
+    }
+
+    /**
+     * Returns the number of live documents in the merged segment.
+     */
+    public int getDocCount() {
+      return docCount;
+    }
+
+    /**
+     * Returns the total bytes of the segments to be merged.
+     */
+    public long getInputBytes() {
+      return inputBytes;
+    }
+
+    /**
+     * Returns the estimated bytes of the merged segment, excluding deleted documents.
+     */
+    public long getOutputBytes() {
+      return outputBytes;
+    }
+
+    private Merge() {
+    }
+  }
+}
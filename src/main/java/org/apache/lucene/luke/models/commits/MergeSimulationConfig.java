@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.commits;
+
+/**
+ * Configurations for the merge simulation.
+ */
+public final class MergeSimulationConfig {
+
+  private final int flushRounds;
+
+  private final long flushBytes;
+
+  private final int maxForcedSegments;
+
+  public static class Builder {
+    private int flushRounds = 10;
+    private long flushBytes = -1;
+    private int maxForcedSegments = 0;
+
+    public Builder flushRounds(int val) {
+      flushRounds = val;
+      return this;
+    }
+
+    public Builder flushBytes(long val) {
+      flushBytes = val;
+      return this;
+    }
+
+    public Builder maxForcedSegments(int val) {
+      maxForcedSegments = val;
+      return this;
+    }
+
+    public MergeSimulationConfig build() {
+      return new MergeSimulationConfig(this);
+    }
+  }
+
+  private MergeSimulationConfig(Builder builder) {
+    this.flushRounds = Math.max(builder.flushRounds, 0);
+    this.flushBytes = builder.flushBytes;
+    this.maxForcedSegments = Math.max(builder.maxForcedSegments, 0);
+  }
+
+  /**
+   * Returns the number of flushes to be simulated on top of the current segments.
+   */
+  public int getFlushRounds() {
+    return flushRounds;
+  }
+
+  /**
+   * Returns the size of a simulated flushed segment, or a negative value to estimate it from the flushed segments in the commit.
+   */
+  public long getFlushBytes() {
+    return flushBytes;
+  }
+
+  /**
+   * Returns the max number of segments for the simulated forced merge, or 0 if the forced merge is not simulated.
+   */
+  public int getMaxForcedSegments() {
+    return maxForcedSegments;
+  }
+
+  @Override
+  public String toString() {
+    return "MergeSimulationConfig: [" +
+        String.format(" flush rounds=%d;", flushRounds) +
+        String.format(" flush bytes=%d;", flushBytes) +
+        String.format(" max forced segments=%d;", maxForcedSegments) +
+        "]";
+  }
+}
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.commits;
+
+import org.apache.lucene.codecs.Codec;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.MergePolicy;
+import org.apache.lucene.index.MergeTrigger;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.SegmentCommitInfo;
+import org.apache.lucene.index.SegmentInfo;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.StringHelper;
+import org.apache.lucene.util.Version;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays a merge policy against the segments of a commit without touching the index.
+ *
+ * The policy is consulted with synthetic segments that carry the real sizes and deletion counts.
+ * They belong to an empty in-memory writer, which only serves to answer the policy's questions about
+ * pending deletions and running merges; nothing is written to the index directory.
+ */
+final class MergeSimulator {
+
+  /** guard against policies those never stop selecting merges */
+  private static final int MAX_CASCADES = 100;
+
+  private static final long DEFAULT_FLUSH_BYTES = 1024 * 1024;
+
+  private static final long DEFAULT_BYTES_PER_DOC = 1024;
+
+  private final MergePolicy policy;
+
+  private final int indexCreatedVersionMajor;
+
+  private final Directory scratchDir;
+
+  private final IndexWriter writer;
+
+  private int mergeCount = 0;
+
+  private int flushCount = 0;
+
+  static MergeSimulation simulate(long generation, SegmentInfos infos, MergePolicy policy, MergeSimulationConfig config)
+      throws IOException {
+    try (Directory scratchDir = new RAMDirectory();
+         IndexWriter writer = new IndexWriter(scratchDir, new IndexWriterConfig()
+             .setMergePolicy(NoMergePolicy.INSTANCE)
+             .setCommitOnClose(false))) {
+      return new MergeSimulator(policy, infos.getIndexCreatedVersionMajor(), scratchDir, writer)
+          .run(generation, infos, config);
+    }
+  }
+
+  private MergeSimulator(MergePolicy policy, int indexCreatedVersionMajor, Directory scratchDir, IndexWriter writer) {
+    this.policy = policy;
+    this.indexCreatedVersionMajor = indexCreatedVersionMajor;
+    this.scratchDir = scratchDir;
+    this.writer = writer;
+  }
+
+  private MergeSimulation run(long generation, SegmentInfos infos, MergeSimulationConfig config) throws IOException {
+    List<SegmentCommitInfo> initial = new ArrayList<>();
+    long totalBytes = 0;
+    long totalDocs = 0;
+    long flushedBytes = 0;
+    int flushedSegments = 0;
+    for (SegmentCommitInfo info : infos) {
+      long size = info.sizeInBytes();
+      initial.add(newSegment(info.info.name, info.info.maxDoc(), info.getDelCount(), info.info.getUseCompoundFile(), size));
+      totalBytes += size;
+      totalDocs += info.info.maxDoc();
+      if ("flush".equals(info.info.getDiagnostics().get("source"))) {
+        flushedBytes += size;
+        flushedSegments++;
+      }
+    }
+
+    long flushBytes = config.getFlushBytes();
+    if (flushBytes < 0) {
+      if (flushedSegments > 0) {
+        flushBytes = flushedBytes / flushedSegments;
+      } else if (!initial.isEmpty()) {
+        flushBytes = totalBytes / initial.size();
+      } else {
+        flushBytes = DEFAULT_FLUSH_BYTES;
+      }
+    }
+    long bytesPerDoc = totalDocs > 0 ? Math.max(1, totalBytes / totalDocs) : DEFAULT_BYTES_PER_DOC;
+    int flushDocs = (int) Math.min(Integer.MAX_VALUE, Math.max(1, flushBytes / bytesPerDoc));
+
+    // natural merges: the ones picked on opening a writer, then after each flush.
+    // the former only work off the backlog of the commit and are kept out of the write amplification
+    List<SegmentCommitInfo> segments = new ArrayList<>(initial);
+    List<MergeSimulation.Merge> initialMerges = new ArrayList<>();
+    long initialBytesRewritten = runMerges(segments, 0, MergeTrigger.EXPLICIT, initialMerges);
+    List<MergeSimulation.Merge> merges = new ArrayList<>();
+    long bytesRewritten = 0;
+    long bytesFlushed = 0;
+    for (int round = 1; round <= config.getFlushRounds(); round++) {
+      segments.add(newSegment("_flush" + (++flushCount), flushDocs, 0, true, flushBytes));
+      bytesFlushed += flushBytes;
+      bytesRewritten += runMerges(segments, round, MergeTrigger.FULL_FLUSH, merges);
+    }
+
+    // forced merge is simulated on the current segments, independently of the flush rounds
+    List<SegmentCommitInfo> forced = new ArrayList<>(initial);
+    List<MergeSimulation.Merge> forcedMerges = new ArrayList<>();
+    long forcedBytesRewritten = 0;
+    if (config.getMaxForcedSegments() > 0) {
+      forcedBytesRewritten = runForcedMerges(forced, config.getMaxForcedSegments(), forcedMerges);
+    }
+
+    return MergeSimulation.of(generation, policy.toString(), initial.size(), initialBytesRewritten, initialMerges,
+        segments.size(), bytesFlushed, bytesRewritten, merges,
+        forced.size(), forcedBytesRewritten, forcedMerges);
+  }
+
+  private long runMerges(List<SegmentCommitInfo> segments, int round, MergeTrigger trigger,
+                         List<MergeSimulation.Merge> merges) throws IOException {
+    long bytesRewritten = 0;
+    MergeTrigger current = trigger;
+    for (int i = 0; i < MAX_CASCADES; i++) {
+      MergePolicy.MergeSpecification spec = policy.findMerges(current, toSegmentInfos(segments), writer);
+      if (spec == null || spec.merges.isEmpty()) {
+        break;
+      }
+      for (MergePolicy.OneMerge merge : spec.merges) {
+        MergeSimulation.Merge res = applyMerge(segments, merge, round, current, null);
+        merges.add(res);
+        bytesRewritten += res.getOutputBytes();
+      }
+      // finished merges give the policy another chance to cascade
+      current = MergeTrigger.MERGE_FINISHED;
+    }
+    return bytesRewritten;
+  }
+
+  private long runForcedMerges(List<SegmentCommitInfo> segments, int maxSegments,
+                               List<MergeSimulation.Merge> merges) throws IOException {
+    Map<SegmentCommitInfo, Boolean> segmentsToMerge = new HashMap<>();
+    for (SegmentCommitInfo info : segments) {
+      segmentsToMerge.put(info, Boolean.TRUE);
+    }
+
+    long bytesRewritten = 0;
+    for (int i = 0; i < MAX_CASCADES; i++) {
+      MergePolicy.MergeSpecification spec =
+          policy.findForcedMerges(toSegmentInfos(segments), maxSegments, segmentsToMerge, writer);
+      if (spec == null || spec.merges.isEmpty()) {
+        break;
+      }
+      for (MergePolicy.OneMerge merge : spec.merges) {
+        MergeSimulation.Merge res = applyMerge(segments, merge, 0, MergeTrigger.EXPLICIT, segmentsToMerge);
+        merges.add(res);
+        bytesRewritten += res.getOutputBytes();
+      }
+    }
+    return bytesRewritten;
+  }
+
+  private MergeSimulation.Merge applyMerge(List<SegmentCommitInfo> segments, MergePolicy.OneMerge merge,
+                                           int round, MergeTrigger trigger,
+                                           Map<SegmentCommitInfo, Boolean> segmentsToMerge) throws IOException {
+    List<String> names = new ArrayList<>();
+    long inputBytes = 0;
+    long outputBytes = 0;
+    int docCount = 0;
+    for (SegmentCommitInfo info : merge.segments) {
+      int maxDoc = info.info.maxDoc();
+      int liveDocs = maxDoc - info.getDelCount();
+      names.add(info.info.name);
+      inputBytes += info.sizeInBytes();
+      // deleted documents are dropped by the merge, assume they took their share of the bytes
+      outputBytes += maxDoc == 0 ? 0 : (long) ((double) info.sizeInBytes() * liveDocs / maxDoc);
+      docCount += liveDocs;
+    }
+
+    String mergedName = "_merge" + (++mergeCount);
+    SegmentCommitInfo merged = null;
+    if (docCount > 0) {
+      merged = newSegment(mergedName, docCount, 0, false, outputBytes);
+      if (policy.useCompoundFile(toSegmentInfos(segments), merged, writer)) {
+        merged = newSegment(mergedName, docCount, 0, true, outputBytes);
+      }
+    }
+
+    // like IndexWriter, put the merged segment at the position of the first source segment
+    int pos = segments.indexOf(merge.segments.get(0));
+    segments.removeAll(merge.segments);
+    if (merged != null) {
+      segments.add(Math.min(Math.max(pos, 0), segments.size()), merged);
+      if (segmentsToMerge != null) {
+        segmentsToMerge.put(merged, Boolean.FALSE);
+      }
+    }
+
+    return MergeSimulation.Merge.of(round, trigger, mergedName, names, docCount, inputBytes, outputBytes);
+  }
+
+  private SegmentInfos toSegmentInfos(List<SegmentCommitInfo> segments) {
+    SegmentInfos infos = new SegmentInfos(indexCreatedVersionMajor);
+    infos.addAll(segments);
+    return infos;
+  }
+
+  private SegmentCommitInfo newSegment(String name, int maxDoc, int delCount, boolean useCompoundFile, long sizeInBytes) {
+    SegmentInfo info = new SegmentInfo(scratchDir, Version.LATEST, Version.LATEST, name, maxDoc, useCompoundFile,
+        Codec.getDefault(), Collections.emptyMap(), StringHelper.randomId(), Collections.emptyMap(), null);
+    return new SimulatedSegment(info, delCount, sizeInBytes);
+  }
+
+  /**
+   * Segment that reports a fixed size instead of summing up its (non existent) files.
+   */
+  private static final class SimulatedSegment extends SegmentCommitInfo {
+
+    private final long sizeInBytes;
+
+    SimulatedSegment(SegmentInfo info, int delCount, long sizeInBytes) {
+      super(info, delCount, delCount > 0 ? 1 : -1, -1, -1);
+      this.sizeInBytes = sizeInBytes;
+    }
+
+    @Override
+    public long sizeInBytes() {
+      return sizeInBytes;
+    }
+  }
+}
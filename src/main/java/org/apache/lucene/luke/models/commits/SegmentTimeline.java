@@ -0,0 +1,352 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.commits;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Holder for the segment creation history of an index, reconstructed from the segment diagnostics.
+ */
+public final class SegmentTimeline {
+
+  /**
+   * How a segment was created.
+   */
+  public enum Source {
+    FLUSH, MERGE, ADD_INDEXES, OTHER;
+
+    static Source parse(String source) {
+      if (source == null) {
+        return OTHER;
+      } else if (source.equals("flush")) {
+        return FLUSH;
+      } else if (source.equals("merge")) {
+        return MERGE;
+      } else if (source.startsWith("addIndexes")) {
+        return ADD_INDEXES;
+      }
+      return OTHER;
+    }
+  }
+
+  /**
+   * Indexing patterns detected on the timeline.
+   */
+  public enum FindingType {
+    MERGE_STORM, TINY_FLUSHES
+  }
+
+  /** Number of merges within {@link #MERGE_STORM_WINDOW_MILLIS} that makes a merge storm. */
+  public static final int MERGE_STORM_MIN_MERGES = 5;
+
+  public static final long MERGE_STORM_WINDOW_MILLIS = 60_000;
+
+  /** Flushed segments smaller than this are considered tiny. */
+  public static final long TINY_FLUSH_BYTES = 1024 * 1024;
+
+  /** Number of consecutive tiny flushes that is reported. */
+  public static final int TINY_FLUSH_MIN_RUN = 5;
+
+  private long generation;
+
+  private List<Event> events;
+
+  private List<Bucket> buckets;
+
+  private List<Finding> findings;
+
+  static SegmentTimeline of(long generation, @Nonnull List<Event> events,
+                            @Nonnull List<Bucket> buckets, @Nonnull List<Finding> findings) {
+    SegmentTimeline res = new SegmentTimeline();
+    res.generation = generation;
+    res.events = ImmutableList.copyOf(events);
+    res.buckets = ImmutableList.copyOf(buckets);
+    res.findings = ImmutableList.copyOf(findings);
+    return res;
+  }
+
+  /**
+   * Returns the generation of the last commit included in the timeline.
+   */
+  public long getGeneration() {
+    return generation;
+  }
+
+  /**
+   * Returns the segments of all commits up to the generation, ordered by creation time.
+   * Segments without timestamp come last.
+   */
+  public List<Event> getEvents() {
+    return ImmutableList.copyOf(events);
+  }
+
+  /**
+   * Returns the segment creations aggregated by time.
+   */
+  public List<Bucket> getBuckets() {
+    return ImmutableList.copyOf(buckets);
+  }
+
+  /**
+   * Returns the detected merge storms and tiny flush patterns, ordered by start time.
+   */
+  public List<Finding> getFindings() {
+    return ImmutableList.copyOf(findings);
+  }
+
+  private SegmentTimeline() {
+  }
+
+  /**
+   * Holder for the creation of a segment.
+   */
+  public static final class Event {
+
+    private String name;
+
+    private Source source;
+
+    private long timestamp;
+
+    private int maxDoc;
+
+    private long sizeInBytes;
+
+    private int mergeFactor;
+
+    private boolean live;
+
+    static Event of(@Nonnull String name, @Nonnull Source source, long timestamp, int maxDoc, long sizeInBytes,
+                    int mergeFactor, boolean live) {
+      Event res = new Event();
+      res.name = name;
+      res.source = source;
+      res.timestamp = timestamp;
+      res.maxDoc = maxDoc;
+      res.sizeInBytes = sizeInBytes;
+      res.mergeFactor = mergeFactor;
+      res.live = live;
+      return res;
+    }
+
+    /**
+     * Returns the segment name.
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Returns how the segment was created.
+     */
+    public Source getSource() {
+      return source;
+    }
+
+    /**
+     * Returns the creation time in milliseconds since the epoch, or -1 if it was not recorded.
+     */
+    public long getTimestamp() {
+      return timestamp;
+    }
+
+    /**
+     * Returns the max doc of the segment.
+     */
+    public int getMaxDoc() {
+      return maxDoc;
+    }
+
+    /**
+     * Returns the size of the segment files in bytes, when the segment was last committed.
+     */
+    public long getSizeInBytes() {
+      return sizeInBytes;
+    }
+
+    /**
+     * Returns the number of merged segments, or -1 if the segment was not created by a merge.
+     */
+    public int getMergeFactor() {
+      return mergeFactor;
+    }
+
+    /**
+     * Returns true if the segment is still referenced by the last commit of the timeline.
+     */
+    public boolean isLive() {
+      return live;
+    }
+
+    private Event() {
+    }
+  }
+
+  /**
+   * Holder for the segment creations in a time range.
+   */
+  public static final class Bucket {
+
+    private long from;
+
+    private long to;
+
+    private int flushCount;
+
+    private long flushBytes;
+
+    private int mergeCount;
+
+    private long mergeBytes;
+
+    private int otherCount;
+
+    static Bucket of(long from, long to, int flushCount, long flushBytes, int mergeCount, long mergeBytes,
+                     int otherCount) {
+      Bucket res = new Bucket();
+      res.from = from;
+      res.to = to;
+      res.flushCount = flushCount;
+      res.flushBytes = flushBytes;
+      res.mergeCount = mergeCount;
+      res.mergeBytes = mergeBytes;
+      res.otherCount = otherCount;
+      return res;
+    }
+
+    /**
+     * Returns the start time (inclusive) of the bucket, in milliseconds since the epoch.
+     */
+    public long getFrom() {
+      return from;
+    }
+
+    /**
+     * Returns the end time (exclusive) of the bucket, in milliseconds since the epoch.
+     */
+    public long getTo() {
+      return to;
+    }
+
+    /**
+     * Returns the number of flushed segments.
+     */
+    public int getFlushCount() {
+      return flushCount;
+    }
+
+    /**
+     * Returns the total bytes of the flushed segments.
+     */
+    public long getFlushBytes() {
+      return flushBytes;
+    }
+
+    /**
+     * Returns the number of merged segments.
+     */
+    public int getMergeCount() {
+      return mergeCount;
+    }
+
+    /**
+     * Returns the total bytes of the merged segments.
+     */
+    public long getMergeBytes() {
+      return mergeBytes;
+    }
+
+    /**
+     * Returns the number of segments created otherwise, e.g. by addIndexes.
+     */
+    public int getOtherCount() {
+      return otherCount;
+    }
+
+    private Bucket() {
+    }
+  }
+
+  /**
+   * Holder for a detected indexing pattern.
+   */
+  public static final class Finding {
+
+    private FindingType type;
+
+    private long from;
+
+    private long to;
+
+    private int segmentCount;
+
+    private long bytes;
+
+    static Finding of(@Nonnull FindingType type, long from, long to, int segmentCount, long bytes) {
+      Finding res = new Finding();
+      res.type = type;
+      res.from = from;
+      res.to = to;
+      res.segmentCount = segmentCount;
+      res.bytes = bytes;
+      return res;
+    }
+
+    /**
+     * Returns the type of the pattern.
+     */
+    public FindingType getType() {
+      return type;
+    }
+
+    /**
+     * Returns the creation time of the first segment involved, in milliseconds since the epoch.
+     */
+    public long getFrom() {
+      return from;
+    }
+
+    /**
+     * Returns the creation time of the last segment involved, in milliseconds since the epoch.
+     */
+    public long getTo() {
+      return to;
+    }
+
+    /**
+     * Returns the number of segments involved.
+     */
+    public int getSegmentCount() {
+      return segmentCount;
+    }
+
+    /**
+     * Returns the total bytes of the segments involved.
+     */
+    public long getBytes() {
+      return bytes;
+    }
+
+    private Finding() {
+    }
+  }
+}
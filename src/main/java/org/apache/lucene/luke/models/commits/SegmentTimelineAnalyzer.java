@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.commits;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Aggregates segment creation events by time and detects indexing patterns those hurt throughput.
+ */
+final class SegmentTimelineAnalyzer {
+
+  static final int MAX_BUCKETS = 24;
+
+  static SegmentTimeline analyze(long generation, List<SegmentTimeline.Event> events) {
+    List<SegmentTimeline.Event> sorted = new ArrayList<>(events);
+    // undated segments go last, so that they do not distort the buckets and findings
+    sorted.sort(Comparator.comparingLong(
+        (SegmentTimeline.Event e) -> e.getTimestamp() < 0 ? Long.MAX_VALUE : e.getTimestamp())
+        .thenComparing(SegmentTimeline.Event::getName));
+
+    List<SegmentTimeline.Event> dated = sorted.stream()
+        .filter(e -> e.getTimestamp() >= 0)
+        .collect(Collectors.toList());
+
+    List<SegmentTimeline.Finding> findings = new ArrayList<>();
+    findings.addAll(findMergeStorms(dated));
+    findings.addAll(findTinyFlushes(dated));
+    findings.sort(Comparator.comparingLong(SegmentTimeline.Finding::getFrom));
+
+    return SegmentTimeline.of(generation, sorted, buckets(dated), findings);
+  }
+
+  private static List<SegmentTimeline.Bucket> buckets(List<SegmentTimeline.Event> dated) {
+    List<SegmentTimeline.Bucket> buckets = new ArrayList<>();
+    if (dated.isEmpty()) {
+      return buckets;
+    }
+
+    long first = dated.get(0).getTimestamp();
+    long last = dated.get(dated.size() - 1).getTimestamp();
+    // whole seconds, so that the bucket labels are readable
+    long width = Math.max(1000, ((last - first) / MAX_BUCKETS / 1000 + 1) * 1000);
+    int numBuckets = (int) ((last - first) / width) + 1;
+
+    int[] flushCounts = new int[numBuckets];
+    long[] flushBytes = new long[numBuckets];
+    int[] mergeCounts = new int[numBuckets];
+    long[] mergeBytes = new long[numBuckets];
+    int[] otherCounts = new int[numBuckets];
+    for (SegmentTimeline.Event event : dated) {
+      int idx = (int) ((event.getTimestamp() - first) / width);
+      switch (event.getSource()) {
+        case FLUSH:
+          flushCounts[idx]++;
+          flushBytes[idx] += event.getSizeInBytes();
+          break;
+        case MERGE:
+          mergeCounts[idx]++;
+          mergeBytes[idx] += event.getSizeInBytes();
+          break;
+        default:
+          otherCounts[idx]++;
+      }
+    }
+
+    for (int i = 0; i < numBuckets; i++) {
+      long from = first + i * width;
+      buckets.add(SegmentTimeline.Bucket.of(from, from + width,
+          flushCounts[i], flushBytes[i], mergeCounts[i], mergeBytes[i], otherCounts[i]));
+    }
+    return buckets;
+  }
+
+  private static List<SegmentTimeline.Finding> findMergeStorms(List<SegmentTimeline.Event> dated) {
+    List<SegmentTimeline.Event> merges = dated.stream()
+        .filter(e -> e.getSource() == SegmentTimeline.Source.MERGE)
+        .collect(Collectors.toList());
+
+    // slide a window over the merges and join the overlapping windows those exceed the threshold
+    List<SegmentTimeline.Finding> findings = new ArrayList<>();
+    int stormStart = -1;
+    int stormEnd = -1;
+    int windowStart = 0;
+    for (int i = 0; i < merges.size(); i++) {
+      long time = merges.get(i).getTimestamp();
+      while (time - merges.get(windowStart).getTimestamp() > SegmentTimeline.MERGE_STORM_WINDOW_MILLIS) {
+        windowStart++;
+      }
+      if (i - windowStart + 1 >= SegmentTimeline.MERGE_STORM_MIN_MERGES) {
+        if (stormStart >= 0 && windowStart <= stormEnd) {
+          stormEnd = i;
+        } else {
+          addFinding(findings, SegmentTimeline.FindingType.MERGE_STORM, merges, stormStart, stormEnd);
+          stormStart = windowStart;
+          stormEnd = i;
+        }
+      }
+    }
+    addFinding(findings, SegmentTimeline.FindingType.MERGE_STORM, merges, stormStart, stormEnd);
+    return findings;
+  }
+
+  private static List<SegmentTimeline.Finding> findTinyFlushes(List<SegmentTimeline.Event> dated) {
+    List<SegmentTimeline.Event> flushes = dated.stream()
+        .filter(e -> e.getSource() == SegmentTimeline.Source.FLUSH)
+        .collect(Collectors.toList());
+
+    List<SegmentTimeline.Finding> findings = new ArrayList<>();
+    int runStart = -1;
+    for (int i = 0; i <= flushes.size(); i++) {
+      boolean tiny = i < flushes.size() && flushes.get(i).getSizeInBytes() < SegmentTimeline.TINY_FLUSH_BYTES;
+      if (tiny && runStart < 0) {
+        runStart = i;
+      } else if (!tiny && runStart >= 0) {
+        if (i - runStart >= SegmentTimeline.TINY_FLUSH_MIN_RUN) {
+          addFinding(findings, SegmentTimeline.FindingType.TINY_FLUSHES, flushes, runStart, i - 1);
+        }
+        runStart = -1;
+      }
+    }
+    return findings;
+  }
+
+  private static void addFinding(List<SegmentTimeline.Finding> findings, SegmentTimeline.FindingType type,
+                                 List<SegmentTimeline.Event> events, int start, int end) {
+    if (start < 0) {
+      return;
+    }
+    long bytes = 0;
+    for (int i = start; i <= end; i++) {
+      bytes += events.get(i).getSizeInBytes();
+    }
+    findings.add(SegmentTimeline.Finding.of(type,
+        events.get(start).getTimestamp(), events.get(end).getTimestamp(), end - start + 1, bytes));
+  }
+
+  private SegmentTimelineAnalyzer() {
+  }
+}
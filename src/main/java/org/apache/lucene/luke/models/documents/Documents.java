@@ -53,6 +53,14 @@ public interface Documents {
    */
   List<DocumentField> getDocumentFields(int docid);
 
+  /**
+   * Starts loading the fields of the documents adjacent to the specified document on a low priority background thread,
+   * so that the subsequent {@link #getDocumentFields(int)} calls for them can return without waiting for index access.
+   *
+   * @param docid - document id
+   */
+  void prefetchAdjacentDocuments(int docid);
+
   /**
    * Returns the current target field name.
    */
@@ -27,6 +27,7 @@ import org.apache.lucene.index.Terms;
 import org.apache.lucene.index.TermsEnum;
 import org.apache.lucene.luke.models.LukeModel;
 import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.Prefetcher;
 import org.apache.lucene.luke.util.BytesRefUtils;
 import org.apache.lucene.luke.util.IndexUtils;
 import org.apache.lucene.util.BytesRef;
@@ -44,10 +45,18 @@ public final class DocumentsImpl extends LukeModel implements Documents {
 
   private static final Logger logger = LoggerFactory.getLogger(DocumentsImpl.class);
 
+  // number of documents to prefetch on each side of the displayed document
+  private static final int PREFETCH_DISTANCE = 2;
+
+  private static final int PREFETCH_DOCS = 16;
+
   private final TermVectorsAdapter tvAdapter;
 
   private final DocValuesAdapter dvAdapter;
 
+  private final Prefetcher<Integer, List<DocumentField>> docPrefetcher =
+      new Prefetcher<>(PREFETCH_DOCS, "luke-prefetch-doc-%d");
+
   private String curField;
 
   private TermsEnum tenum;
@@ -81,6 +90,21 @@ public final class DocumentsImpl extends LukeModel implements Documents {
       return Collections.emptyList();
     }
 
+    return docPrefetcher.get(docid).orElseGet(() -> loadDocumentFields(docid));
+  }
+
+  @Override
+  public void prefetchAdjacentDocuments(int docid) {
+    for (int i = 1; i <= PREFETCH_DISTANCE; i++) {
+      for (int adjacent : new int[]{docid + i, docid - i}) {
+        if (adjacent >= 0 && adjacent < reader.maxDoc() && isLive(adjacent)) {
+          docPrefetcher.prefetch(adjacent, () -> loadDocumentFields(adjacent));
+        }
+      }
+    }
+  }
+
+  private List<DocumentField> loadDocumentFields(int docid) {
     List<DocumentField> res = new ArrayList<>();
 
     try {
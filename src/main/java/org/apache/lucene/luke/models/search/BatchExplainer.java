@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.luke.models.ParallelTasks;
+import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Weight;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Explains a batch of hits concurrently and flattens each explanation into score components.
+ */
+final class BatchExplainer {
+
+  private static final String CLAUSE_PREFIX = "weight(";
+
+  private final IndexSearcher searcher;
+
+  BatchExplainer(@Nonnull IndexSearcher searcher) {
+    this.searcher = searcher;
+  }
+
+  List<HitExplanation> explain(@Nonnull Query query, @Nonnull ScoreDoc[] hits) throws IOException, InterruptedException {
+    // rewrite and create the weight once, not for every hit
+    Query rewritten = searcher.rewrite(query);
+    Weight weight = searcher.createNormalizedWeight(rewritten, true);
+    List<LeafReaderContext> leaves = searcher.getIndexReader().leaves();
+
+    List<Callable<HitExplanation>> tasks = new ArrayList<>();
+    for (int i = 0; i < hits.length; i++) {
+      int rank = i + 1;
+      ScoreDoc hit = hits[i];
+      tasks.add(() -> {
+        LeafReaderContext ctx = leaves.get(ReaderUtil.subIndex(hit.doc, leaves));
+        Explanation explanation = weight.explain(ctx, hit.doc - ctx.docBase);
+        return HitExplanation.of(rank, hit.doc, explanation.getValue(), flatten(explanation), explanation);
+      });
+    }
+
+    return ParallelTasks.runAll(tasks, Runtime.getRuntime().availableProcessors(), "luke-explain-%d");
+  }
+
+  /**
+   * Flattens the explanation tree. Each term clause (a "weight(...)" node) yields its own score,
+   * and the nodes below it yield components named by the leading word of their descriptions
+   * (e.g. idf, tfNorm, boost, fieldNorm).
+   */
+  static Map<String, Float> flatten(@Nonnull Explanation explanation) {
+    Map<String, Float> res = new LinkedHashMap<>();
+    flatten(explanation, null, res);
+    return res;
+  }
+
+  private static void flatten(Explanation node, String clause, Map<String, Float> res) {
+    String desc = node.getDescription();
+    if (desc.startsWith(CLAUSE_PREFIX)) {
+      clause = clauseName(desc);
+      res.putIfAbsent(clause, node.getValue());
+    } else if (clause != null) {
+      String name = componentName(desc);
+      if (!name.isEmpty()) {
+        res.putIfAbsent(clause + " : " + name, node.getValue());
+      }
+    }
+    for (Explanation detail : node.getDetails()) {
+      flatten(detail, clause, res);
+    }
+  }
+
+  private static String clauseName(String desc) {
+    // e.g. "weight(f1:pie in 3) [BM25Similarity], result of:"
+    int end = desc.lastIndexOf(" in ");
+    if (end < CLAUSE_PREFIX.length()) {
+      end = desc.indexOf(')');
+    }
+    return end < CLAUSE_PREFIX.length() ? desc : desc.substring(CLAUSE_PREFIX.length(), end);
+  }
+
+  private static String componentName(String desc) {
+    // e.g. "idf, computed as log(...) from:", "tf(freq=1.0), with freq of:", "termFreq=1.0"
+    int end = desc.length();
+    for (char c : new char[]{',', '(', '='}) {
+      int idx = desc.indexOf(c);
+      if (idx >= 0) {
+        end = Math.min(end, idx);
+      }
+    }
+    String name = desc.substring(0, end).trim();
+    if (name.equals("score") || name.endsWith(" of:") || name.equals("sum of") || name.equals("product of")) {
+      return "";
+    }
+    return name;
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.luke.models.ParallelTasks;
+import org.apache.lucene.luke.models.ProgressMonitor;
+import org.apache.lucene.queries.mlt.MoreLikeThis;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates and runs MoreLikeThis queries for many seed documents concurrently.
+ * Document frequencies of the candidate terms are looked up once and shared by all seeds.
+ */
+final class BatchMoreLikeThis {
+
+  private final IndexSearcher searcher;
+
+  private final TermStatsCachingReader statsReader;
+
+  private final MLTConfig mltConfig;
+
+  private final Analyzer analyzer;
+
+  BatchMoreLikeThis(@Nonnull IndexSearcher searcher, @Nonnull MLTConfig mltConfig, @Nonnull Analyzer analyzer) {
+    this.searcher = searcher;
+    this.statsReader = new TermStatsCachingReader(searcher.getIndexReader());
+    this.mltConfig = mltConfig;
+    this.analyzer = analyzer;
+  }
+
+  /**
+   * Finds the top similar documents for each seed. Seeds left unprocessed because of cancellation are omitted.
+   */
+  List<SimilarDocs> run(@Nonnull Collection<Integer> seedDocIds, int topN, @Nonnull SearchTimeout timeout,
+                        @Nullable ProgressMonitor monitor) throws IOException, InterruptedException {
+    long total = seedDocIds.size();
+    AtomicLong done = new AtomicLong();
+
+    List<Callable<SimilarDocs>> tasks = new ArrayList<>();
+    for (int seed : seedDocIds) {
+      tasks.add(() -> {
+        if (timeout.shouldExit()) {
+          return null;
+        }
+        SimilarDocs res = findSimilar(seed, topN);
+        long count = done.incrementAndGet();
+        if (monitor != null) {
+          monitor.progress(count, total);
+        }
+        return res;
+      });
+    }
+
+    List<SimilarDocs> res = new ArrayList<>();
+    for (SimilarDocs similarDocs : ParallelTasks.runAll(tasks, Runtime.getRuntime().availableProcessors(), "luke-mlt-%d")) {
+      if (similarDocs != null) {
+        res.add(similarDocs);
+      }
+    }
+    return res;
+  }
+
+  SimilarDocs findSimilar(int seed, int topN) throws IOException {
+    // MoreLikeThis is cheap to create but not thread safe, so each task has its own instance over the shared reader
+    MoreLikeThis mlt = new MoreLikeThis(statsReader);
+    mlt.setAnalyzer(analyzer);
+    mlt.setFieldNames(mltConfig.getFieldNames());
+    mlt.setMinDocFreq(mltConfig.getMinDocFreq());
+    mlt.setMaxDocFreq(mltConfig.getMaxDocFreq());
+    mlt.setMinTermFreq(mltConfig.getMinTermFreq());
+    Query query = mlt.like(seed);
+
+    // one extra hit, since the seed itself is usually the top hit
+    TopDocs topDocs = searcher.search(query, topN + 1);
+    List<SimilarDocs.Hit> hits = new ArrayList<>();
+    for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+      if (scoreDoc.doc != seed && hits.size() < topN) {
+        hits.add(SimilarDocs.Hit.of(scoreDoc.doc, scoreDoc.score));
+      }
+    }
+    return SimilarDocs.of(seed, query, hits);
+  }
+
+  /**
+   * Returns the number of terms whose document frequency is cached.
+   */
+  int cachedTerms() {
+    return statsReader.cachedTerms();
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+/**
+ * Configurations for query replay benchmark.
+ */
+public final class BenchmarkConfig {
+
+  private final int warmupRounds;
+
+  private final int rounds;
+
+  private final int concurrency;
+
+  private final int numHits;
+
+  public static class Builder {
+    private int warmupRounds = 1;
+    private int rounds = 3;
+    private int concurrency = 1;
+    private int numHits = 10;
+
+    public Builder warmupRounds(int val) {
+      warmupRounds = val;
+      return this;
+    }
+
+    public Builder rounds(int val) {
+      rounds = val;
+      return this;
+    }
+
+    public Builder concurrency(int val) {
+      concurrency = val;
+      return this;
+    }
+
+    public Builder numHits(int val) {
+      numHits = val;
+      return this;
+    }
+
+    public BenchmarkConfig build() {
+      return new BenchmarkConfig(this);
+    }
+  }
+
+  private BenchmarkConfig(Builder builder) {
+    this.warmupRounds = builder.warmupRounds;
+    this.rounds = builder.rounds;
+    this.concurrency = builder.concurrency;
+    this.numHits = builder.numHits;
+  }
+
+  /**
+   * Returns the number of times the whole query list is replayed before measuring.
+   */
+  public int getWarmupRounds() {
+    return warmupRounds;
+  }
+
+  /**
+   * Returns the number of times the whole query list is replayed while measuring.
+   */
+  public int getRounds() {
+    return rounds;
+  }
+
+  /**
+   * Returns the number of threads those execute queries concurrently.
+   */
+  public int getConcurrency() {
+    return concurrency;
+  }
+
+  /**
+   * Returns the number of top hits collected for each query.
+   */
+  public int getNumHits() {
+    return numHits;
+  }
+
+  @Override
+  public String toString() {
+    return "BenchmarkConfig: [" +
+        String.format(" warmup rounds=%d;", warmupRounds) +
+        String.format(" rounds=%d;", rounds) +
+        String.format(" concurrency=%d;", concurrency) +
+        String.format(" num hits=%d;", numHits) +
+        "]";
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import javax.annotation.Nonnull;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holder for the result of query replay benchmark.
+ */
+public final class BenchmarkResult {
+
+  private static final String CSV_HEADER =
+      "queries,skipped,concurrency,executions,errors,elapsed_ms,qps,min_ms,mean_ms,p50_ms,p90_ms,p99_ms,max_ms";
+
+  private int numQueries;
+
+  private int numSkipped;
+
+  private int concurrency;
+
+  private long numExecutions;
+
+  private long numErrors;
+
+  private double elapsedMillis;
+
+  private double minMillis;
+
+  private double meanMillis;
+
+  private double p50Millis;
+
+  private double p90Millis;
+
+  private double p99Millis;
+
+  private double maxMillis;
+
+  /**
+   * Creates a benchmark result from the recorded latencies.
+   *
+   * @param numQueries - number of distinct queries replayed
+   * @param numSkipped - number of query expressions which could not be parsed
+   * @param concurrency - number of threads
+   * @param elapsedNanos - wall clock time for the measured rounds
+   * @param histogram - recorded latencies in microseconds
+   * @param numErrors - number of failed executions
+   * @return the benchmark result
+   */
+  static BenchmarkResult of(int numQueries, int numSkipped, int concurrency, long elapsedNanos,
+                            @Nonnull LatencyHistogram histogram, long numErrors) {
+    BenchmarkResult res = new BenchmarkResult();
+    res.numQueries = numQueries;
+    res.numSkipped = numSkipped;
+    res.concurrency = concurrency;
+    res.numExecutions = histogram.getTotalCount();
+    res.numErrors = numErrors;
+    res.elapsedMillis = elapsedNanos / 1_000_000.0;
+    res.minMillis = toMillis(histogram.getMin());
+    res.meanMillis = histogram.getMean() / 1000.0;
+    res.p50Millis = toMillis(histogram.getValueAtPercentile(50));
+    res.p90Millis = toMillis(histogram.getValueAtPercentile(90));
+    res.p99Millis = toMillis(histogram.getValueAtPercentile(99));
+    res.maxMillis = toMillis(histogram.getMax());
+    return res;
+  }
+
+  private static double toMillis(long micros) {
+    return micros / (double) TimeUnit.MILLISECONDS.toMicros(1);
+  }
+
+  /**
+   * Returns the number of distinct queries replayed.
+   */
+  public int getNumQueries() {
+    return numQueries;
+  }
+
+  /**
+   * Returns the number of query expressions skipped because of parse errors.
+   */
+  public int getNumSkipped() {
+    return numSkipped;
+  }
+
+  /**
+   * Returns the number of threads used for replaying queries.
+   */
+  public int getConcurrency() {
+    return concurrency;
+  }
+
+  /**
+   * Returns the number of successfully measured query executions.
+   */
+  public long getNumExecutions() {
+    return numExecutions;
+  }
+
+  /**
+   * Returns the number of failed query executions.
+   */
+  public long getNumErrors() {
+    return numErrors;
+  }
+
+  /**
+   * Returns the wall clock time in milliseconds for the measured rounds.
+   */
+  public double getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  /**
+   * Returns the throughput in queries per second.
+   */
+  public double getQps() {
+    return elapsedMillis == 0 ? 0 : numExecutions / (elapsedMillis / 1000.0);
+  }
+
+  /**
+   * Returns the minimum latency in milliseconds.
+   */
+  public double getMinMillis() {
+    return minMillis;
+  }
+
+  /**
+   * Returns the mean latency in milliseconds.
+   */
+  public double getMeanMillis() {
+    return meanMillis;
+  }
+
+  /**
+   * Returns the median latency in milliseconds.
+   */
+  public double getP50Millis() {
+    return p50Millis;
+  }
+
+  /**
+   * Returns the 90th percentile latency in milliseconds.
+   */
+  public double getP90Millis() {
+    return p90Millis;
+  }
+
+  /**
+   * Returns the 99th percentile latency in milliseconds.
+   */
+  public double getP99Millis() {
+    return p99Millis;
+  }
+
+  /**
+   * Returns the maximum latency in milliseconds.
+   */
+  public double getMaxMillis() {
+    return maxMillis;
+  }
+
+  /**
+   * Returns this result as CSV text (a header line and a value line), for comparing indexes.
+   */
+  public String toCsv() {
+    return CSV_HEADER + "\n" + String.format(Locale.ROOT,
+        "%d,%d,%d,%d,%d,%.3f,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f\n",
+        numQueries, numSkipped, concurrency, numExecutions, numErrors, elapsedMillis, getQps(),
+        minMillis, meanMillis, p50Millis, p90Millis, p99Millis, maxMillis);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(Locale.ROOT,
+        "queries=%d, skipped=%d, concurrency=%d, executions=%d, errors=%d, elapsed=%.1fms, qps=%.2f%n" +
+            "latency (ms): min=%.3f, mean=%.3f, p50=%.3f, p90=%.3f, p99=%.3f, max=%.3f",
+        numQueries, numSkipped, concurrency, numExecutions, numErrors, elapsedMillis, getQps(),
+        minMillis, meanMillis, p50Millis, p90Millis, p99Millis, maxMillis);
+  }
+
+  private BenchmarkResult() {
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.CollectionTerminatedException;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.FilterCollector;
+import org.apache.lucene.search.FilterLeafCollector;
+import org.apache.lucene.search.LeafCollector;
+
+import java.io.IOException;
+
+/**
+ * Collector wrapper that stops collecting as soon as the search is cancelled.
+ *
+ * Remaining leaves are skipped by throwing {@link CollectionTerminatedException}, so the wrapped collector
+ * holds the partial results collected so far.
+ */
+final class CancellableCollector extends FilterCollector {
+
+  private final SearchTimeout timeout;
+
+  CancellableCollector(Collector in, SearchTimeout timeout) {
+    super(in);
+    this.timeout = timeout;
+  }
+
+  @Override
+  public LeafCollector getLeafCollector(LeafReaderContext context) throws IOException {
+    if (timeout.isCancelled()) {
+      throw new CollectionTerminatedException();
+    }
+
+    return new FilterLeafCollector(super.getLeafCollector(context)) {
+      @Override
+      public void collect(int doc) throws IOException {
+        if (timeout.isCancelled()) {
+          throw new CollectionTerminatedException();
+        }
+        in.collect(doc);
+      }
+    };
+  }
+}
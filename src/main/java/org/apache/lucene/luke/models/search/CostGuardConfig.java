@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+/**
+ * Configurations for the query cost guard.
+ */
+public final class CostGuardConfig {
+
+  /**
+   * What to do with queries those exceed the thresholds.
+   */
+  public enum Action {
+    WARN, REFUSE
+  }
+
+  private final boolean enabled;
+
+  private final int maxExpansions;
+
+  private final long maxCost;
+
+  private final int expansionCountCap;
+
+  private final Action action;
+
+  public static class Builder {
+    private boolean enabled = true;
+    private int maxExpansions = 10_000;
+    private long maxCost = 10_000_000L;
+    private int expansionCountCap = 100_000;
+    private Action action = Action.WARN;
+
+    public Builder enabled(boolean val) {
+      enabled = val;
+      return this;
+    }
+
+    public Builder maxExpansions(int val) {
+      maxExpansions = val;
+      return this;
+    }
+
+    public Builder maxCost(long val) {
+      maxCost = val;
+      return this;
+    }
+
+    public Builder expansionCountCap(int val) {
+      expansionCountCap = val;
+      return this;
+    }
+
+    public Builder action(Action val) {
+      action = val;
+      return this;
+    }
+
+    public CostGuardConfig build() {
+      return new CostGuardConfig(this);
+    }
+  }
+
+  private CostGuardConfig(Builder builder) {
+    this.enabled = builder.enabled;
+    this.maxExpansions = builder.maxExpansions;
+    this.maxCost = builder.maxCost;
+    // counting must go at least one term beyond the threshold to detect violations
+    this.expansionCountCap = Math.max(builder.expansionCountCap, builder.maxExpansions + 1);
+    this.action = builder.action;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public int getMaxExpansions() {
+    return maxExpansions;
+  }
+
+  public long getMaxCost() {
+    return maxCost;
+  }
+
+  public int getExpansionCountCap() {
+    return expansionCountCap;
+  }
+
+  public Action getAction() {
+    return action;
+  }
+
+  @Override
+  public String toString() {
+    return "CostGuardConfig: [" +
+        String.format(" enabled=%s;", enabled) +
+        String.format(" max expansions=%d;", maxExpansions) +
+        String.format(" max cost=%d;", maxCost) +
+        String.format(" expansion count cap=%d;", expansionCountCap) +
+        String.format(" action=%s;", action.name()) +
+        "]";
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FilterDirectory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Directory wrapper that counts the bytes read through its inputs, including clones and slices
+ * (e.g. files in compound files). This counts bytes requested by the codecs, not the physical I/O.
+ */
+final class CountingDirectory extends FilterDirectory {
+
+  private final LongAdder bytesRead = new LongAdder();
+
+  CountingDirectory(Directory in) {
+    super(in);
+  }
+
+  @Override
+  public IndexInput openInput(String name, IOContext context) throws IOException {
+    return new CountingIndexInput(in.openInput(name, context), bytesRead);
+  }
+
+  long getBytesRead() {
+    return bytesRead.sum();
+  }
+
+  void resetBytesRead() {
+    bytesRead.reset();
+  }
+
+  private static final class CountingIndexInput extends IndexInput {
+
+    private final IndexInput in;
+
+    private final LongAdder bytesRead;
+
+    CountingIndexInput(IndexInput in, LongAdder bytesRead) {
+      super("CountingIndexInput(" + in.toString() + ")");
+      this.in = in;
+      this.bytesRead = bytesRead;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+      bytesRead.increment();
+      return in.readByte();
+    }
+
+    @Override
+    public void readBytes(byte[] b, int offset, int len) throws IOException {
+      bytesRead.add(len);
+      in.readBytes(b, offset, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+
+    @Override
+    public long getFilePointer() {
+      return in.getFilePointer();
+    }
+
+    @Override
+    public void seek(long pos) throws IOException {
+      in.seek(pos);
+    }
+
+    @Override
+    public long length() {
+      return in.length();
+    }
+
+    @Override
+    public IndexInput slice(String sliceDescription, long offset, long length) throws IOException {
+      return new CountingIndexInput(in.slice(sliceDescription, offset, length), bytesRead);
+    }
+
+    @Override
+    public IndexInput clone() {
+      return new CountingIndexInput(in.clone(), bytesRead);
+    }
+  }
+}
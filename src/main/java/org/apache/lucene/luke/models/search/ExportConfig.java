@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Configurations for exporting all hits of a query.
+ */
+public final class ExportConfig {
+
+  /**
+   * Output formats.
+   * In CSV, multiple values of a field are joined with {@link #CSV_VALUE_SEPARATOR}.
+   */
+  public enum Format {
+    JSONL, CSV
+  }
+
+  public static final String CSV_VALUE_SEPARATOR = "|";
+
+  private final Format format;
+
+  private final List<String> fields;
+
+  public static class Builder {
+    private Format format = Format.JSONL;
+    private List<String> fields = ImmutableList.of();
+
+    public Builder format(Format val) {
+      format = val;
+      return this;
+    }
+
+    public Builder fields(Collection<String> val) {
+      fields = ImmutableList.copyOf(val);
+      return this;
+    }
+
+    public ExportConfig build() {
+      return new ExportConfig(this);
+    }
+  }
+
+  private ExportConfig(Builder builder) {
+    this.format = builder.format;
+    this.fields = builder.fields;
+  }
+
+  public Format getFormat() {
+    return format;
+  }
+
+  public List<String> getFields() {
+    return fields;
+  }
+
+  @Override
+  public String toString() {
+    return "ExportConfig: [" +
+        String.format(" format=%s;", format.name()) +
+        String.format(" fields=%s;", String.join(",", fields)) +
+        "]";
+  }
+}
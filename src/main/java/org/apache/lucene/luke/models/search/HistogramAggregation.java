@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nonnull;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holder for the distribution of a numeric field across the hits of a query.
+ */
+public final class HistogramAggregation {
+
+  private String field;
+
+  private HistogramConfig.ValueType valueType;
+
+  private double interval;
+
+  private long numHits;
+
+  private long numMissing;
+
+  private List<Bucket> buckets = new ArrayList<>();
+
+  static HistogramAggregation of(@Nonnull String field, @Nonnull HistogramConfig.ValueType valueType, double interval,
+                                 long numHits, long numMissing, double start, @Nonnull long[] counts) {
+    HistogramAggregation res = new HistogramAggregation();
+    res.field = field;
+    res.valueType = valueType;
+    res.interval = interval;
+    res.numHits = numHits;
+    res.numMissing = numMissing;
+    for (int i = 0; i < counts.length; i++) {
+      double from = start + interval * i;
+      res.buckets.add(Bucket.of(from, from + interval, counts[i], label(from, valueType)));
+    }
+    return res;
+  }
+
+  private static String label(double value, HistogramConfig.ValueType valueType) {
+    switch (valueType) {
+      case DATE:
+        return Instant.ofEpochMilli((long) value).toString();
+      case LONG:
+        return String.valueOf((long) value);
+      default:
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+  }
+
+  /**
+   * Returns the aggregated field name.
+   */
+  public String getField() {
+    return field;
+  }
+
+  /**
+   * Returns the value type of the field.
+   */
+  public HistogramConfig.ValueType getValueType() {
+    return valueType;
+  }
+
+  /**
+   * Returns the bucket width (in milliseconds for dates).
+   */
+  public double getInterval() {
+    return interval;
+  }
+
+  /**
+   * Returns the number of hits of the query.
+   */
+  public long getNumHits() {
+    return numHits;
+  }
+
+  /**
+   * Returns the number of hits those have no value for the field.
+   */
+  public long getNumMissing() {
+    return numMissing;
+  }
+
+  /**
+   * Returns the buckets in ascending order, including empty buckets between the lowest and highest values.
+   */
+  public List<Bucket> getBuckets() {
+    return ImmutableList.copyOf(buckets);
+  }
+
+  private HistogramAggregation() {
+  }
+
+  /**
+   * Holder for a bucket of the histogram.
+   */
+  public static final class Bucket {
+
+    private double from;
+
+    private double to;
+
+    private long count;
+
+    private String label;
+
+    static Bucket of(double from, double to, long count, @Nonnull String label) {
+      Bucket res = new Bucket();
+      res.from = from;
+      res.to = to;
+      res.count = count;
+      res.label = label;
+      return res;
+    }
+
+    /**
+     * Returns the lower bound (inclusive) of the bucket.
+     */
+    public double getFrom() {
+      return from;
+    }
+
+    /**
+     * Returns the upper bound (exclusive) of the bucket.
+     */
+    public double getTo() {
+      return to;
+    }
+
+    /**
+     * Returns the number of values in the bucket.
+     */
+    public long getCount() {
+      return count;
+    }
+
+    /**
+     * Returns the display label of the lower bound.
+     */
+    public String getLabel() {
+      return label;
+    }
+
+    private Bucket() {
+    }
+  }
+}
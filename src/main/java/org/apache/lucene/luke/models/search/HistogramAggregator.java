@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.DocValuesType;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.BitSetIterator;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.FixedBitSet;
+import org.apache.lucene.util.NumericUtils;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds a histogram of a numeric / sorted numeric doc values field across the hits of a query.
+ * <p>
+ * Leaves are processed in parallel in two phases. The first phase runs the query, marks the hits
+ * those have values and finds the value range; the second phase counts the values into buckets
+ * sized from the global range. Stored fields are never loaded.
+ * </p>
+ */
+final class HistogramAggregator {
+
+  static final int MAX_BUCKETS = 10_000;
+
+  // candidate intervals for auto-sized date histograms
+  private static final long[] DATE_INTERVALS = new long[]{
+      TimeUnit.SECONDS.toMillis(1), TimeUnit.SECONDS.toMillis(5), TimeUnit.SECONDS.toMillis(10),
+      TimeUnit.SECONDS.toMillis(30), TimeUnit.MINUTES.toMillis(1), TimeUnit.MINUTES.toMillis(5),
+      TimeUnit.MINUTES.toMillis(10), TimeUnit.MINUTES.toMillis(30), TimeUnit.HOURS.toMillis(1),
+      TimeUnit.HOURS.toMillis(3), TimeUnit.HOURS.toMillis(6), TimeUnit.HOURS.toMillis(12),
+      TimeUnit.DAYS.toMillis(1), TimeUnit.DAYS.toMillis(7), TimeUnit.DAYS.toMillis(30), TimeUnit.DAYS.toMillis(365)
+  };
+
+  private final IndexSearcher searcher;
+
+  private final String field;
+
+  private final DocValuesType dvType;
+
+  private final HistogramConfig config;
+
+  HistogramAggregator(@Nonnull IndexSearcher searcher, @Nonnull String field, @Nonnull DocValuesType dvType,
+                      @Nonnull HistogramConfig config) {
+    this.searcher = searcher;
+    this.field = field;
+    this.dvType = dvType;
+    this.config = config;
+  }
+
+  HistogramAggregation aggregate(@Nonnull Query query) throws IOException, InterruptedException {
+    List<LeafReaderContext> leaves = searcher.getIndexReader().leaves();
+    Weight weight = searcher.createNormalizedWeight(query, false);
+
+    List<LeafHits> leafHits = LeafTasks.runAll(leaves, context -> collect(weight, context), "luke-aggregation-%d");
+
+    long numHits = 0;
+    long numMissing = 0;
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+    for (LeafHits hits : leafHits) {
+      numHits += hits.hits;
+      numMissing += hits.missing;
+      min = Math.min(min, hits.min);
+      max = Math.max(max, hits.max);
+    }
+
+    if (min > max) {
+      // no values
+      double interval = config.getInterval() > 0 ? config.getInterval() : 1;
+      return HistogramAggregation.of(field, config.getValueType(), interval, numHits, numMissing, 0, new long[0]);
+    }
+
+    double interval = config.getInterval() > 0 ? config.getInterval() : autoInterval(max - min);
+    double start = Math.floor(min / interval) * interval;
+    long numBuckets = (long) Math.floor((max - start) / interval) + 1;
+    if (numBuckets > MAX_BUCKETS) {
+      throw new LukeException(String.format("Too many buckets (%d > %d). Increase the interval.", numBuckets, MAX_BUCKETS));
+    }
+
+    List<long[]> leafCounts = LeafTasks.runAll(leaves,
+        context -> count(context, leafHits.get(context.ord).docs, start, interval, (int) numBuckets),
+        "luke-aggregation-%d");
+
+    long[] counts = new long[(int) numBuckets];
+    for (long[] c : leafCounts) {
+      for (int i = 0; i < counts.length; i++) {
+        counts[i] += c[i];
+      }
+    }
+
+    return HistogramAggregation.of(field, config.getValueType(), interval, numHits, numMissing, start, counts);
+  }
+
+  private LeafHits collect(Weight weight, LeafReaderContext context) throws IOException {
+    LeafHits res = new LeafHits();
+    Scorer scorer = weight.scorer(context);
+    if (scorer == null) {
+      return res;
+    }
+
+    res.docs = new FixedBitSet(context.reader().maxDoc());
+    SortedNumericDocValues values = DocValues.getSortedNumeric(context.reader(), field);
+    Bits liveDocs = context.reader().getLiveDocs();
+    DocIdSetIterator it = scorer.iterator();
+    for (int doc = it.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = it.nextDoc()) {
+      if (liveDocs != null && !liveDocs.get(doc)) {
+        continue;
+      }
+      res.hits++;
+      boolean found = false;
+      if (values.advanceExact(doc)) {
+        for (int i = 0; i < values.docValueCount(); i++) {
+          double v = decode(values.nextValue());
+          if (!Double.isNaN(v)) {
+            res.min = Math.min(res.min, v);
+            res.max = Math.max(res.max, v);
+            found = true;
+          }
+        }
+      }
+      if (found) {
+        res.docs.set(doc);
+      } else {
+        res.missing++;
+      }
+    }
+    return res;
+  }
+
+  private long[] count(LeafReaderContext context, FixedBitSet docs, double start, double interval, int numBuckets)
+      throws IOException {
+    long[] counts = new long[numBuckets];
+    if (docs == null) {
+      return counts;
+    }
+
+    SortedNumericDocValues values = DocValues.getSortedNumeric(context.reader(), field);
+    // single valued fields are counted without the per document value count
+    NumericDocValues singleton = DocValues.unwrapSingleton(values);
+    BitSetIterator it = new BitSetIterator(docs, docs.cardinality());
+    for (int doc = it.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = it.nextDoc()) {
+      if (singleton != null) {
+        if (singleton.advanceExact(doc)) {
+          increment(counts, decode(singleton.longValue()), start, interval);
+        }
+      } else if (values.advanceExact(doc)) {
+        for (int i = 0; i < values.docValueCount(); i++) {
+          increment(counts, decode(values.nextValue()), start, interval);
+        }
+      }
+    }
+    return counts;
+  }
+
+  private static void increment(long[] counts, double value, double start, double interval) {
+    if (Double.isNaN(value)) {
+      return;
+    }
+    int bucket = (int) Math.floor((value - start) / interval);
+    // guard against floating point rounding at the edges
+    counts[Math.max(0, Math.min(counts.length - 1, bucket))]++;
+  }
+
+  /**
+   * Decodes the raw doc value. Numeric fields are expected to be encoded as
+   * {@link org.apache.lucene.document.DoubleDocValuesField} / {@link org.apache.lucene.document.FloatDocValuesField} do,
+   * sorted numeric fields are expected to be encoded by {@link NumericUtils} as the sort fields expect.
+   */
+  private double decode(long raw) {
+    switch (config.getValueType()) {
+      case DOUBLE:
+        return dvType == DocValuesType.NUMERIC ?
+            Double.longBitsToDouble(raw) : NumericUtils.sortableLongToDouble(raw);
+      case FLOAT:
+        return dvType == DocValuesType.NUMERIC ?
+            Float.intBitsToFloat((int) raw) : NumericUtils.sortableIntToFloat((int) raw);
+      default:
+        return raw;
+    }
+  }
+
+  private double autoInterval(double range) {
+    double rough = range / Math.max(1, config.getNumBuckets());
+
+    if (config.getValueType() == HistogramConfig.ValueType.DATE) {
+      for (long candidate : DATE_INTERVALS) {
+        if (candidate >= rough) {
+          return candidate;
+        }
+      }
+      long year = DATE_INTERVALS[DATE_INTERVALS.length - 1];
+      return Math.ceil(rough / year) * year;
+    }
+
+    if (rough <= 0) {
+      return 1;
+    }
+    // round up to 1, 2 or 5 times a power of ten
+    double base = Math.pow(10, Math.floor(Math.log10(rough)));
+    double interval = 10 * base;
+    for (int m : new int[]{1, 2, 5}) {
+      if (m * base >= rough) {
+        interval = m * base;
+        break;
+      }
+    }
+    if (config.getValueType() == HistogramConfig.ValueType.LONG) {
+      interval = Math.max(1, Math.ceil(interval));
+    }
+    return interval;
+  }
+
+  private static final class LeafHits {
+    FixedBitSet docs;
+    long hits = 0;
+    long missing = 0;
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+  }
+}
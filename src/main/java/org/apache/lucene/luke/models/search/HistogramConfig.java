@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+/**
+ * Configurations for the histogram aggregation.
+ */
+public final class HistogramConfig {
+
+  /**
+   * How to interpret the numeric doc values.
+   */
+  public enum ValueType {
+    LONG, FLOAT, DOUBLE, DATE
+  }
+
+  private final ValueType valueType;
+
+  private final double interval;
+
+  private final int numBuckets;
+
+  public static class Builder {
+    private ValueType valueType = ValueType.LONG;
+    private double interval = 0;
+    private int numBuckets = 20;
+
+    public Builder valueType(ValueType val) {
+      valueType = val;
+      return this;
+    }
+
+    public Builder interval(double val) {
+      interval = val;
+      return this;
+    }
+
+    public Builder numBuckets(int val) {
+      numBuckets = val;
+      return this;
+    }
+
+    public HistogramConfig build() {
+      return new HistogramConfig(this);
+    }
+  }
+
+  private HistogramConfig(Builder builder) {
+    this.valueType = builder.valueType;
+    this.interval = builder.interval;
+    this.numBuckets = builder.numBuckets;
+  }
+
+  public ValueType getValueType() {
+    return valueType;
+  }
+
+  /**
+   * Returns the bucket width (in milliseconds for dates). Zero or negative value means auto sizing.
+   */
+  public double getInterval() {
+    return interval;
+  }
+
+  /**
+   * Returns the approximate number of buckets for auto sizing.
+   */
+  public int getNumBuckets() {
+    return numBuckets;
+  }
+
+  @Override
+  public String toString() {
+    return "HistogramConfig: [" +
+        String.format(" value type=%s;", valueType.name()) +
+        String.format(" interval=%s;", interval) +
+        String.format(" buckets=%d;", numBuckets) +
+        "]";
+  }
+}
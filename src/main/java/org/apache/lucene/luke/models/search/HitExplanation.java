@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.lucene.search.Explanation;
+
+import javax.annotation.Nonnull;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Holder for the explanation of a hit, with its score components flattened.
+ */
+public final class HitExplanation {
+
+  private int rank;
+
+  private int docId;
+
+  private float score;
+
+  private Map<String, Float> components = new LinkedHashMap<>();
+
+  private Explanation explanation;
+
+  static HitExplanation of(int rank, int docId, float score, @Nonnull Map<String, Float> components,
+                           @Nonnull Explanation explanation) {
+    HitExplanation res = new HitExplanation();
+    res.rank = rank;
+    res.docId = docId;
+    res.score = score;
+    res.components.putAll(components);
+    res.explanation = explanation;
+    return res;
+  }
+
+  /**
+   * Returns the rank (1-origin) of the hit.
+   */
+  public int getRank() {
+    return rank;
+  }
+
+  /**
+   * Returns the document id.
+   */
+  public int getDocId() {
+    return docId;
+  }
+
+  /**
+   * Returns the score of the hit.
+   */
+  public float getScore() {
+    return score;
+  }
+
+  /**
+   * Returns the score components keyed by "clause : component" (e.g. "f1:pie : idf"),
+   * or by the clause alone for the clause's score, in the order of appearance in the explanation.
+   */
+  public Map<String, Float> getComponents() {
+    return ImmutableMap.copyOf(components);
+  }
+
+  /**
+   * Returns the raw explanation.
+   */
+  public Explanation getExplanation() {
+    return explanation;
+  }
+
+  private HitExplanation() {
+  }
+}
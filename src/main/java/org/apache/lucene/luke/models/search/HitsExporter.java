@@ -0,0 +1,386 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.document.DocumentStoredFieldVisitor;
+import org.apache.lucene.index.BinaryDocValues;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.DocValuesType;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.luke.models.ProgressMonitor;
+import org.apache.lucene.search.BulkScorer;
+import org.apache.lucene.search.CollectionTerminatedException;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.LeafCollector;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.BitSetIterator;
+import org.apache.lucene.util.FixedBitSet;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Streams all hits of a query to a writer with constant memory.
+ * <p>
+ * Hits are collected one leaf at a time into a bit set (bulk scorers may collect out of order),
+ * then the selected fields are loaded in doc id order, from doc values if the field has them,
+ * otherwise from stored fields.
+ * </p>
+ */
+final class HitsExporter {
+
+  private static final int PROGRESS_INTERVAL = 1000;
+
+  private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+  private final IndexSearcher searcher;
+
+  private final ExportConfig config;
+
+  private final SearchTimeout timeout;
+
+  private final ProgressMonitor monitor;
+
+  HitsExporter(@Nonnull IndexSearcher searcher, @Nonnull ExportConfig config, @Nonnull SearchTimeout timeout,
+               @Nullable ProgressMonitor monitor) {
+    this.searcher = searcher;
+    this.config = config;
+    this.timeout = timeout;
+    this.monitor = monitor;
+  }
+
+  /**
+   * Writes all hits of the query. When cancelled, the hits written so far are kept.
+   *
+   * @return the number of written hits
+   */
+  long export(@Nonnull Query query, @Nonnull Writer writer) throws IOException {
+    IndexReader reader = searcher.getIndexReader();
+    Weight weight = searcher.createNormalizedWeight(query, false);
+
+    if (config.getFormat() == ExportConfig.Format.CSV) {
+      writeCsvHeader(writer);
+    }
+
+    long count = 0;
+    for (LeafReaderContext context : reader.leaves()) {
+      FixedBitSet hits = collect(weight, context);
+      if (timeout.shouldExit()) {
+        break;
+      }
+      if (hits != null) {
+        count = writeLeaf(context, hits, writer, count);
+      }
+      reportProgress(context.docBase + context.reader().maxDoc());
+    }
+    writer.flush();
+    return count;
+  }
+
+  private FixedBitSet collect(Weight weight, LeafReaderContext context) throws IOException {
+    BulkScorer scorer = weight.bulkScorer(context);
+    if (scorer == null) {
+      return null;
+    }
+
+    FixedBitSet hits = new FixedBitSet(context.reader().maxDoc());
+    try {
+      scorer.score(new LeafCollector() {
+        private int collected = 0;
+
+        @Override
+        public void setScorer(Scorer scorer) {
+        }
+
+        @Override
+        public void collect(int doc) {
+          hits.set(doc);
+          if (++collected % CANCEL_CHECK_INTERVAL == 0 && timeout.shouldExit()) {
+            throw new CollectionTerminatedException();
+          }
+        }
+      }, context.reader().getLiveDocs());
+    } catch (CollectionTerminatedException e) {
+      // cancelled; the caller checks the timeout
+    }
+    return hits;
+  }
+
+  private long writeLeaf(LeafReaderContext context, FixedBitSet hits, Writer writer, long count) throws IOException {
+    LeafValues values = new LeafValues(context.reader());
+    BitSetIterator it = new BitSetIterator(hits, hits.cardinality());
+    StringBuilder sb = new StringBuilder();
+
+    for (int doc = it.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = it.nextDoc()) {
+      List<List<Object>> fieldValues = values.load(doc);
+      sb.setLength(0);
+      if (config.getFormat() == ExportConfig.Format.CSV) {
+        formatCsv(context.docBase + doc, fieldValues, sb);
+      } else {
+        formatJson(context.docBase + doc, fieldValues, sb);
+      }
+      writer.write(sb.toString());
+
+      count++;
+      if (count % PROGRESS_INTERVAL == 0) {
+        if (timeout.shouldExit()) {
+          break;
+        }
+        reportProgress(context.docBase + doc + 1);
+      }
+    }
+    return count;
+  }
+
+  private void reportProgress(long done) {
+    if (monitor != null) {
+      monitor.progress(done, searcher.getIndexReader().maxDoc());
+    }
+  }
+
+  private void writeCsvHeader(Writer writer) throws IOException {
+    StringBuilder sb = new StringBuilder("docid");
+    for (String field : config.getFields()) {
+      sb.append(',');
+      appendCsv(field, sb);
+    }
+    sb.append('\n');
+    writer.write(sb.toString());
+  }
+
+  private void formatCsv(int docid, List<List<Object>> fieldValues, StringBuilder sb) {
+    sb.append(docid);
+    for (List<Object> values : fieldValues) {
+      sb.append(',');
+      StringBuilder joined = new StringBuilder();
+      for (int i = 0; i < values.size(); i++) {
+        if (i > 0) {
+          joined.append(ExportConfig.CSV_VALUE_SEPARATOR);
+        }
+        joined.append(values.get(i));
+      }
+      appendCsv(joined.toString(), sb);
+    }
+    sb.append('\n');
+  }
+
+  private void formatJson(int docid, List<List<Object>> fieldValues, StringBuilder sb) {
+    sb.append("{\"docid\":").append(docid);
+    for (int i = 0; i < fieldValues.size(); i++) {
+      List<Object> values = fieldValues.get(i);
+      if (values.isEmpty()) {
+        continue;
+      }
+      sb.append(',');
+      appendJson(config.getFields().get(i), sb);
+      sb.append(':');
+      if (values.size() == 1) {
+        appendJsonValue(values.get(0), sb);
+      } else {
+        sb.append('[');
+        for (int j = 0; j < values.size(); j++) {
+          if (j > 0) {
+            sb.append(',');
+          }
+          appendJsonValue(values.get(j), sb);
+        }
+        sb.append(']');
+      }
+    }
+    sb.append("}\n");
+  }
+
+  private static void appendJsonValue(Object value, StringBuilder sb) {
+    if (value instanceof Long) {
+      sb.append(value);
+    } else {
+      appendJson(value.toString(), sb);
+    }
+  }
+
+  static void appendJson(String s, StringBuilder sb) {
+    sb.append('"');
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      switch (c) {
+        case '"':
+          sb.append("\\\"");
+          break;
+        case '\\':
+          sb.append("\\\\");
+          break;
+        case '\n':
+          sb.append("\\n");
+          break;
+        case '\r':
+          sb.append("\\r");
+          break;
+        case '\t':
+          sb.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            sb.append(String.format("\\u%04x", (int) c));
+          } else {
+            sb.append(c);
+          }
+      }
+    }
+    sb.append('"');
+  }
+
+  static void appendCsv(String s, StringBuilder sb) {
+    if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+      sb.append(s);
+    } else {
+      sb.append('"').append(s.replace("\"", "\"\"")).append('"');
+    }
+  }
+
+  /**
+   * Per-leaf accessors for the fields to export. Doc values iterators can only move forward,
+   * so documents must be loaded in increasing doc id order.
+   */
+  private final class LeafValues {
+
+    private final LeafReader leafReader;
+
+    private final DocValuesType[] dvTypes;
+
+    private final DocIdSetIterator[] dvIterators;
+
+    private final Set<String> storedFields = new HashSet<>();
+
+    LeafValues(LeafReader leafReader) throws IOException {
+      this.leafReader = leafReader;
+      List<String> fields = config.getFields();
+      this.dvTypes = new DocValuesType[fields.size()];
+      this.dvIterators = new DocIdSetIterator[fields.size()];
+
+      for (int i = 0; i < fields.size(); i++) {
+        String field = fields.get(i);
+        FieldInfo finfo = leafReader.getFieldInfos().fieldInfo(field);
+        dvTypes[i] = finfo == null ? DocValuesType.NONE : finfo.getDocValuesType();
+        switch (dvTypes[i]) {
+          case NUMERIC:
+            dvIterators[i] = DocValues.getNumeric(leafReader, field);
+            break;
+          case SORTED_NUMERIC:
+            dvIterators[i] = DocValues.getSortedNumeric(leafReader, field);
+            break;
+          case BINARY:
+            dvIterators[i] = DocValues.getBinary(leafReader, field);
+            break;
+          case SORTED:
+            dvIterators[i] = DocValues.getSorted(leafReader, field);
+            break;
+          case SORTED_SET:
+            dvIterators[i] = DocValues.getSortedSet(leafReader, field);
+            break;
+          default:
+            if (finfo != null) {
+              storedFields.add(field);
+            }
+        }
+      }
+    }
+
+    List<List<Object>> load(int doc) throws IOException {
+      DocumentStoredFieldVisitor visitor = null;
+      if (!storedFields.isEmpty()) {
+        visitor = new DocumentStoredFieldVisitor(storedFields);
+        leafReader.document(doc, visitor);
+      }
+
+      List<String> fields = config.getFields();
+      List<List<Object>> res = new ArrayList<>(fields.size());
+      for (int i = 0; i < fields.size(); i++) {
+        if (dvIterators[i] != null) {
+          res.add(docValues(i, doc));
+        } else if (visitor != null && storedFields.contains(fields.get(i))) {
+          List<Object> values = new ArrayList<>();
+          Collections.addAll(values, (Object[]) visitor.getDocument().getValues(fields.get(i)));
+          res.add(values);
+        } else {
+          res.add(Collections.emptyList());
+        }
+      }
+      return res;
+    }
+
+    private List<Object> docValues(int i, int doc) throws IOException {
+      List<Object> values = new ArrayList<>();
+      switch (dvTypes[i]) {
+        case NUMERIC:
+          NumericDocValues nvalues = (NumericDocValues) dvIterators[i];
+          if (nvalues.advanceExact(doc)) {
+            values.add(nvalues.longValue());
+          }
+          break;
+        case SORTED_NUMERIC:
+          SortedNumericDocValues snvalues = (SortedNumericDocValues) dvIterators[i];
+          if (snvalues.advanceExact(doc)) {
+            for (int j = 0; j < snvalues.docValueCount(); j++) {
+              values.add(snvalues.nextValue());
+            }
+          }
+          break;
+        case BINARY:
+          BinaryDocValues bvalues = (BinaryDocValues) dvIterators[i];
+          if (bvalues.advanceExact(doc)) {
+            values.add(bvalues.binaryValue().utf8ToString());
+          }
+          break;
+        case SORTED:
+          SortedDocValues svalues = (SortedDocValues) dvIterators[i];
+          if (svalues.advanceExact(doc)) {
+            values.add(svalues.binaryValue().utf8ToString());
+          }
+          break;
+        case SORTED_SET:
+          SortedSetDocValues ssvalues = (SortedSetDocValues) dvIterators[i];
+          if (ssvalues.advanceExact(doc)) {
+            long ord;
+            while ((ord = ssvalues.nextOrd()) != SortedSetDocValues.NO_MORE_ORDS) {
+              values.add(ssvalues.lookupOrd(ord).utf8ToString());
+            }
+          }
+          break;
+        default:
+      }
+      return values;
+    }
+  }
+}
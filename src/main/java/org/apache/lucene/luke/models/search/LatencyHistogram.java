@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with log-linear buckets, in the manner of HdrHistogram.
+ *
+ * Values below {@code 2 * SUB_BUCKET_HALF} are recorded exactly. Larger values are grouped into buckets
+ * whose width doubles with every power of two, which bounds the relative error to {@code 1 / SUB_BUCKET_HALF}
+ * (about 1.6%) over the whole range of long values.
+ */
+final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 6;
+
+  private static final int SUB_BUCKET_HALF = 1 << SUB_BUCKET_BITS;
+
+  private static final int NUM_BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_HALF;
+
+  private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+
+  private final AtomicLong totalCount = new AtomicLong();
+
+  private final AtomicLong totalValue = new AtomicLong();
+
+  private final AtomicLong minValue = new AtomicLong(Long.MAX_VALUE);
+
+  private final AtomicLong maxValue = new AtomicLong(0);
+
+  /**
+   * Records a non-negative value. This method can be called from multiple threads.
+   */
+  void record(long value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("Negative value is not acceptable: " + value);
+    }
+    counts.incrementAndGet(bucketIndex(value));
+    totalCount.incrementAndGet();
+    totalValue.addAndGet(value);
+    minValue.accumulateAndGet(value, Math::min);
+    maxValue.accumulateAndGet(value, Math::max);
+  }
+
+  static int bucketIndex(long value) {
+    if (value < 2 * SUB_BUCKET_HALF) {
+      return (int) value;
+    }
+    // shift so that the value falls in [SUB_BUCKET_HALF, 2 * SUB_BUCKET_HALF)
+    int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKET_HALF + (int) (value >>> shift) - SUB_BUCKET_HALF;
+  }
+
+  /**
+   * Returns the largest value which falls into the bucket of the given index.
+   */
+  static long highestEquivalentValue(int index) {
+    if (index < 2 * SUB_BUCKET_HALF) {
+      return index;
+    }
+    int shift = index / SUB_BUCKET_HALF - 1;
+    long lowest = ((long) (index % SUB_BUCKET_HALF + SUB_BUCKET_HALF)) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+
+  long getTotalCount() {
+    return totalCount.get();
+  }
+
+  long getMin() {
+    return totalCount.get() == 0 ? 0 : minValue.get();
+  }
+
+  long getMax() {
+    return maxValue.get();
+  }
+
+  double getMean() {
+    long count = totalCount.get();
+    return count == 0 ? 0 : (double) totalValue.get() / count;
+  }
+
+  /**
+   * Returns the value at the given percentile; the result is never less than the exact value.
+   *
+   * @param percentile - percentile in range (0, 100]
+   */
+  long getValueAtPercentile(double percentile) {
+    long count = totalCount.get();
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+    long cumulative = 0;
+    for (int i = 0; i < NUM_BUCKETS; i++) {
+      cumulative += counts.get(i);
+      if (cumulative >= rank) {
+        return Math.min(highestEquivalentValue(i), getMax());
+      }
+    }
+    return getMax();
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.luke.models.ParallelTasks;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Utility to run a task for each leaf (segment) of an index in parallel.
+ */
+final class LeafTasks {
+
+  /**
+   * A task for a leaf.
+   */
+  interface LeafTask<T> {
+    T run(LeafReaderContext context) throws IOException;
+  }
+
+  /**
+   * Runs the task for each leaf on a temporary thread pool, sized to the number of leaves and available processors.
+   *
+   * @param leaves - leaves of the index reader
+   * @param task - task to run
+   * @param threadNameFormat - name format of the worker threads
+   * @return the results of the task, in the order of leaves
+   * @throws IOException - if the task threw an IOException
+   * @throws InterruptedException - if interrupted while waiting
+   */
+  static <T> List<T> runAll(@Nonnull List<LeafReaderContext> leaves, @Nonnull LeafTask<T> task,
+                            @Nonnull String threadNameFormat) throws IOException, InterruptedException {
+    List<Callable<T>> callables = new ArrayList<>();
+    for (LeafReaderContext context : leaves) {
+      callables.add(() -> task.run(context));
+    }
+
+    return ParallelTasks.runAll(callables, Runtime.getRuntime().availableProcessors(), threadNameFormat);
+  }
+
+  private LeafTasks() {
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.search.Query;
+
+import javax.annotation.Nonnull;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded LRU cache of parsed (and optionally rewritten) queries.
+ * Analyzers are compared by identity, since they have no value semantics.
+ */
+final class ParsedQueryCache {
+
+  static final int DEFAULT_MAX_ENTRIES = 64;
+
+  private final Map<Key, Query> cache;
+
+  ParsedQueryCache(int maxEntries) {
+    this.cache = new LinkedHashMap<Key, Query>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Query> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  synchronized Query get(@Nonnull Key key) {
+    return cache.get(key);
+  }
+
+  synchronized void put(@Nonnull Key key, @Nonnull Query query) {
+    cache.put(key, query);
+  }
+
+  static final class Key {
+
+    private final String expression;
+
+    private final String defField;
+
+    private final Analyzer analyzer;
+
+    private final QueryParserConfig config;
+
+    private final boolean rewrite;
+
+    private final Object readerKey;
+
+    Key(@Nonnull String expression, @Nonnull String defField, @Nonnull Analyzer analyzer,
+        @Nonnull QueryParserConfig config, boolean rewrite, @Nonnull Object readerKey) {
+      this.expression = expression;
+      this.defField = defField;
+      this.analyzer = analyzer;
+      this.config = config;
+      this.rewrite = rewrite;
+      this.readerKey = readerKey;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      Key that = (Key) o;
+      return rewrite == that.rewrite &&
+          analyzer == that.analyzer &&
+          readerKey == that.readerKey &&
+          expression.equals(that.expression) &&
+          defField.equals(that.defField) &&
+          config.equals(that.config);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(expression, defField, System.identityHashCode(analyzer), config, rewrite,
+          System.identityHashCode(readerKey));
+    }
+  }
+}
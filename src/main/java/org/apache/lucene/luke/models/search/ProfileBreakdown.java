@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.search.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mutable timings and call counts recorded for a query clause while profiling.
+ */
+final class ProfileBreakdown {
+
+  private static final int NUM_TIMINGS = QueryProfile.Timing.values().length;
+
+  private final Query query;
+
+  private final List<ProfileBreakdown> children = new ArrayList<>();
+
+  private final long[] times = new long[NUM_TIMINGS];
+
+  private final long[] counts = new long[NUM_TIMINGS];
+
+  private final Map<Integer, long[]> leafTimes = new TreeMap<>();
+
+  private final Map<Integer, long[]> leafCounts = new TreeMap<>();
+
+  ProfileBreakdown(Query query) {
+    this.query = query;
+  }
+
+  Query getQuery() {
+    return query;
+  }
+
+  List<ProfileBreakdown> getChildren() {
+    return children;
+  }
+
+  void addChild(ProfileBreakdown child) {
+    children.add(child);
+  }
+
+  /**
+   * Records a timing which is not bound to a specific leaf (e.g. weight creation).
+   */
+  void record(QueryProfile.Timing timing, long nanos) {
+    times[timing.ordinal()] += nanos;
+    counts[timing.ordinal()] += 1;
+  }
+
+  /**
+   * Records a timing for the leaf of the given ordinal.
+   */
+  void record(int leafOrd, QueryProfile.Timing timing, long nanos) {
+    record(timing, nanos);
+    leafTimes.computeIfAbsent(leafOrd, ord -> new long[NUM_TIMINGS])[timing.ordinal()] += nanos;
+    leafCounts.computeIfAbsent(leafOrd, ord -> new long[NUM_TIMINGS])[timing.ordinal()] += 1;
+  }
+
+  long[] getTimes() {
+    return times;
+  }
+
+  long[] getCounts() {
+    return counts;
+  }
+
+  Map<Integer, long[]> getLeafTimes() {
+    return leafTimes;
+  }
+
+  Map<Integer, long[]> getLeafCounts() {
+    return leafCounts;
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.TwoPhaseIterator;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Scorer wrapper that records the time spent for iterating, matching and scoring documents.
+ */
+final class ProfileScorer extends Scorer {
+
+  private final Scorer in;
+
+  private final ProfileBreakdown profile;
+
+  private final int leafOrd;
+
+  ProfileScorer(ProfileWeight weight, Scorer in, ProfileBreakdown profile, int leafOrd) {
+    super(weight);
+    this.in = in;
+    this.profile = profile;
+    this.leafOrd = leafOrd;
+  }
+
+  @Override
+  public int docID() {
+    return in.docID();
+  }
+
+  @Override
+  public float score() throws IOException {
+    long start = System.nanoTime();
+    try {
+      return in.score();
+    } finally {
+      profile.record(leafOrd, QueryProfile.Timing.SCORE, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public Collection<ChildScorer> getChildren() throws IOException {
+    return in.getChildren();
+  }
+
+  @Override
+  public DocIdSetIterator iterator() {
+    return new ProfileIterator(in.iterator());
+  }
+
+  @Override
+  public TwoPhaseIterator twoPhaseIterator() {
+    TwoPhaseIterator twoPhase = in.twoPhaseIterator();
+    if (twoPhase == null) {
+      return null;
+    }
+
+    return new TwoPhaseIterator(new ProfileIterator(twoPhase.approximation())) {
+      @Override
+      public boolean matches() throws IOException {
+        long start = System.nanoTime();
+        try {
+          return twoPhase.matches();
+        } finally {
+          profile.record(leafOrd, QueryProfile.Timing.MATCHES, System.nanoTime() - start);
+        }
+      }
+
+      @Override
+      public float matchCost() {
+        return twoPhase.matchCost();
+      }
+    };
+  }
+
+  private final class ProfileIterator extends DocIdSetIterator {
+
+    private final DocIdSetIterator in;
+
+    ProfileIterator(DocIdSetIterator in) {
+      this.in = in;
+    }
+
+    @Override
+    public int docID() {
+      return in.docID();
+    }
+
+    @Override
+    public int nextDoc() throws IOException {
+      long start = System.nanoTime();
+      try {
+        return in.nextDoc();
+      } finally {
+        profile.record(leafOrd, QueryProfile.Timing.NEXT_DOC, System.nanoTime() - start);
+      }
+    }
+
+    @Override
+    public int advance(int target) throws IOException {
+      long start = System.nanoTime();
+      try {
+        return in.advance(target);
+      } finally {
+        profile.record(leafOrd, QueryProfile.Timing.ADVANCE, System.nanoTime() - start);
+      }
+    }
+
+    @Override
+    public long cost() {
+      return in.cost();
+    }
+  }
+}
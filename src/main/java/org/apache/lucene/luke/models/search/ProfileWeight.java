@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.ScorerSupplier;
+import org.apache.lucene.search.Weight;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Weight wrapper that records the time spent for building scorers.
+ */
+final class ProfileWeight extends Weight {
+
+  private final Weight in;
+
+  private final ProfileBreakdown profile;
+
+  ProfileWeight(Query query, Weight in, ProfileBreakdown profile) {
+    super(query);
+    this.in = in;
+    this.profile = profile;
+  }
+
+  @Override
+  public void extractTerms(Set<Term> terms) {
+    in.extractTerms(terms);
+  }
+
+  @Override
+  public Explanation explain(LeafReaderContext context, int doc) throws IOException {
+    return in.explain(context, doc);
+  }
+
+  @Override
+  public Scorer scorer(LeafReaderContext context) throws IOException {
+    ScorerSupplier supplier = scorerSupplier(context);
+    if (supplier == null) {
+      return null;
+    }
+    return supplier.get(Long.MAX_VALUE);
+  }
+
+  @Override
+  public ScorerSupplier scorerSupplier(LeafReaderContext context) throws IOException {
+    ScorerSupplier supplier;
+    long start = System.nanoTime();
+    try {
+      supplier = in.scorerSupplier(context);
+    } finally {
+      profile.record(context.ord, QueryProfile.Timing.BUILD_SCORER, System.nanoTime() - start);
+    }
+    if (supplier == null) {
+      return null;
+    }
+
+    return new ScorerSupplier() {
+      @Override
+      public Scorer get(long leadCost) throws IOException {
+        long start = System.nanoTime();
+        try {
+          return new ProfileScorer(ProfileWeight.this, supplier.get(leadCost), profile, context.ord);
+        } finally {
+          profile.record(context.ord, QueryProfile.Timing.BUILD_SCORER, System.nanoTime() - start);
+        }
+      }
+
+      @Override
+      public long cost() {
+        return supplier.cost();
+      }
+    };
+  }
+
+  @Override
+  public boolean isCacheable(LeafReaderContext ctx) {
+    // cached doc id sets would hide the actual cost of the clause
+    return false;
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Weight;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * IndexSearcher that wraps every weight in the query tree so that timings can be recorded per clause.
+ */
+final class ProfilingIndexSearcher extends IndexSearcher {
+
+  private final Deque<ProfileBreakdown> stack = new ArrayDeque<>();
+
+  private final List<ProfileBreakdown> roots = new ArrayList<>();
+
+  ProfilingIndexSearcher(IndexReader reader) {
+    super(reader);
+    // the query cache would hide the actual cost of the clauses
+    setQueryCache(null);
+  }
+
+  @Override
+  public Weight createWeight(Query query, boolean needsScores, float boost) throws IOException {
+    ProfileBreakdown profile = new ProfileBreakdown(query);
+    if (stack.isEmpty()) {
+      roots.add(profile);
+    } else {
+      stack.peek().addChild(profile);
+    }
+
+    stack.push(profile);
+    Weight weight;
+    long start = System.nanoTime();
+    try {
+      weight = super.createWeight(query, needsScores, boost);
+    } finally {
+      profile.record(QueryProfile.Timing.CREATE_WEIGHT, System.nanoTime() - start);
+      stack.pop();
+    }
+    return new ProfileWeight(query, weight, profile);
+  }
+
+  /**
+   * Returns the profiles of the top level queries, in the order of weight creation.
+   */
+  List<ProfileBreakdown> getRoots() {
+    return roots;
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.luke.models.ParallelTasks;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays a list of queries against an index searcher with a fixed number of threads and records latencies.
+ */
+final class QueryBenchmark {
+
+  private static final Logger logger = LoggerFactory.getLogger(QueryBenchmark.class);
+
+  private final IndexSearcher searcher;
+
+  private final BenchmarkConfig config;
+
+  QueryBenchmark(@Nonnull IndexSearcher searcher, @Nonnull BenchmarkConfig config) {
+    this.searcher = searcher;
+    this.config = config;
+  }
+
+  BenchmarkResult run(@Nonnull List<Query> queries, int numSkipped) throws IOException, InterruptedException {
+    // warm up caches and JIT; latencies are not recorded
+    replay(queries, config.getWarmupRounds(), null, new AtomicLong());
+
+    LatencyHistogram histogram = new LatencyHistogram();
+    AtomicLong errors = new AtomicLong();
+    long start = System.nanoTime();
+    replay(queries, config.getRounds(), histogram, errors);
+    long elapsed = System.nanoTime() - start;
+
+    return BenchmarkResult.of(queries.size(), numSkipped, config.getConcurrency(), elapsed, histogram, errors.get());
+  }
+
+  private void replay(List<Query> queries, int rounds, @Nullable LatencyHistogram histogram, AtomicLong errors)
+      throws IOException, InterruptedException {
+    int total = queries.size() * rounds;
+    AtomicInteger cursor = new AtomicInteger();
+
+    List<Callable<Void>> workers = new ArrayList<>();
+    for (int i = 0; i < config.getConcurrency(); i++) {
+      workers.add(() -> {
+        int next;
+        while ((next = cursor.getAndIncrement()) < total) {
+          Query query = queries.get(next % queries.size());
+          long start = System.nanoTime();
+          try {
+            searcher.search(query, config.getNumHits());
+            if (histogram != null) {
+              histogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            }
+          } catch (IOException | RuntimeException e) {
+            logger.warn(String.format("Query failed: %s (%s)", query.toString(), e.getMessage()));
+            errors.incrementAndGet();
+          }
+        }
+        return null;
+      });
+    }
+
+    try {
+      ParallelTasks.runAll(workers, config.getConcurrency(), "luke-benchmark-%d");
+    } catch (InterruptedException e) {
+      // the workers are not interrupted; exhaust the queries so that they stop after the current one
+      cursor.set(total);
+      throw e;
+    }
+  }
+}
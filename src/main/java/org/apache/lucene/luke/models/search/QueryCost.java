@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.lucene.search.Query;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Holder for the estimated cost of a query clause.
+ */
+public final class QueryCost {
+
+  private String queryType;
+
+  private String description;
+
+  private long termExpansion = -1;
+
+  private boolean expansionCapped = false;
+
+  private long[] leafCosts;
+
+  private List<QueryCost> children = new ArrayList<>();
+
+  private List<String> violations = new ArrayList<>();
+
+  /**
+   * Creates a query cost for a clause.
+   *
+   * @param query - query clause
+   * @param termExpansion - number of terms the clause expands to, or -1 if this is not a multi-term clause
+   * @param expansionCapped - true if counting the terms stopped at the cap
+   * @param leafCosts - per-leaf costs, or null if the costs were not estimated
+   * @param children - costs of the sub clauses
+   * @return the query cost
+   */
+  static QueryCost of(@Nonnull Query query, long termExpansion, boolean expansionCapped,
+                      @Nullable long[] leafCosts, @Nonnull List<QueryCost> children) {
+    QueryCost res = new QueryCost();
+    res.queryType = query.getClass().getSimpleName();
+    res.description = query.toString();
+    res.termExpansion = termExpansion;
+    res.expansionCapped = expansionCapped;
+    res.leafCosts = leafCosts == null ? null : Arrays.copyOf(leafCosts, leafCosts.length);
+    res.children.addAll(children);
+    return res;
+  }
+
+  /**
+   * Adds a message for a threshold that this query exceeds.
+   */
+  void addViolation(@Nonnull String message) {
+    violations.add(message);
+  }
+
+  /**
+   * Returns the simple class name of the query.
+   */
+  public String getQueryType() {
+    return queryType;
+  }
+
+  /**
+   * Returns the string representation of the query.
+   */
+  public String getDescription() {
+    return description;
+  }
+
+  /**
+   * Returns the number of terms this clause expands to (summed over all leaves), or -1 if this is not a multi-term clause.
+   */
+  public long getTermExpansion() {
+    return termExpansion;
+  }
+
+  /**
+   * Returns true if counting the expanded terms stopped at the cap, that is, the actual number of terms is larger.
+   */
+  public boolean isExpansionCapped() {
+    return expansionCapped;
+  }
+
+  /**
+   * Returns true if the per-leaf costs were estimated for this clause.
+   */
+  public boolean isCostEstimated() {
+    return leafCosts != null;
+  }
+
+  /**
+   * Returns the estimated cost (approximate number of matching documents) on the leaf of the given ordinal,
+   * or -1 if the cost was not estimated.
+   */
+  public long getLeafCost(int leafOrd) {
+    return leafCosts == null ? -1 : leafCosts[leafOrd];
+  }
+
+  /**
+   * Returns the per-leaf costs, or empty list if the costs were not estimated.
+   */
+  public List<Long> getLeafCosts() {
+    if (leafCosts == null) {
+      return ImmutableList.of();
+    }
+    return ImmutableList.copyOf(Arrays.stream(leafCosts).boxed().iterator());
+  }
+
+  /**
+   * Returns the estimated cost summed over all leaves, or -1 if the cost was not estimated.
+   */
+  public long getTotalCost() {
+    return leafCosts == null ? -1 : Arrays.stream(leafCosts).sum();
+  }
+
+  /**
+   * Returns the costs of the sub clauses.
+   */
+  public List<QueryCost> getChildren() {
+    return ImmutableList.copyOf(children);
+  }
+
+  /**
+   * Returns the messages for the thresholds this query exceeds.
+   */
+  public List<String> getViolations() {
+    return ImmutableList.copyOf(violations);
+  }
+
+  /**
+   * Returns true if this query exceeds any of the guard thresholds.
+   */
+  public boolean exceedsThresholds() {
+    return !violations.isEmpty();
+  }
+
+  private QueryCost() {
+  }
+}
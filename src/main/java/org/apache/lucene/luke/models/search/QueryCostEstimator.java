@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.AutomatonQuery;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.DisjunctionMaxQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.FuzzyTermsEnum;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MultiTermQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScorerSupplier;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.AttributeSource;
+import org.apache.lucene.util.automaton.CompiledAutomaton;
+import org.apache.lucene.util.automaton.Operations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Estimates the cost of each query clause without executing the query.
+ *
+ * Multi-term clauses are never rewritten before counting the terms they expand to, so that
+ * a leading wildcard or a fuzzy query over a large dictionary cannot lock up the estimation.
+ */
+final class QueryCostEstimator {
+
+  private static final Logger logger = LoggerFactory.getLogger(QueryCostEstimator.class);
+
+  private final IndexReader reader;
+
+  private final IndexSearcher searcher;
+
+  private final CostGuardConfig config;
+
+  // clauses that must not be rewritten by creating weights
+  private final Set<Query> expensive = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  QueryCostEstimator(@Nonnull IndexReader reader, @Nonnull CostGuardConfig config) {
+    this.reader = reader;
+    this.searcher = new IndexSearcher(reader);
+    this.searcher.setQueryCache(null);
+    this.config = config;
+  }
+
+  QueryCost estimate(@Nonnull Query query) throws IOException {
+    QueryCost cost = traverse(query);
+    if (config.isEnabled()) {
+      checkExpansions(cost, cost);
+      if (cost.getTotalCost() > config.getMaxCost()) {
+        cost.addViolation(String.format("Query matches approx. %d docs (limit: %d).",
+            cost.getTotalCost(), config.getMaxCost()));
+      }
+    }
+    return cost;
+  }
+
+  private void checkExpansions(QueryCost root, QueryCost clause) {
+    if (clause.getTermExpansion() > config.getMaxExpansions()) {
+      root.addViolation(String.format("Clause [%s] expands to %s%d terms (limit: %d).",
+          clause.getDescription(), clause.isExpansionCapped() ? "more than " : "",
+          clause.getTermExpansion(), config.getMaxExpansions()));
+    }
+    for (QueryCost child : clause.getChildren()) {
+      checkExpansions(root, child);
+    }
+  }
+
+  private QueryCost traverse(Query query) throws IOException {
+    List<QueryCost> children = new ArrayList<>();
+    for (Query subQuery : subQueries(query)) {
+      children.add(traverse(subQuery));
+    }
+
+    long expansion = -1;
+    boolean capped = false;
+    long[] leafCosts;
+    if (query instanceof MultiTermQuery) {
+      TermCount count = countTerms((MultiTermQuery) query, config.getExpansionCountCap());
+      expansion = count.terms;
+      capped = expansion >= config.getExpansionCountCap();
+      if (expansion < 0 || capped) {
+        // the expansion is unknown or only partially counted
+        leafCosts = null;
+        expensive.add(query);
+      } else if (expansion > config.getMaxExpansions()) {
+        // creating the weight would rewrite the clause over all the matching postings,
+        // the document frequencies collected while counting are used instead
+        leafCosts = count.docFreqs;
+        expensive.add(query);
+      } else {
+        leafCosts = leafCosts(query);
+      }
+    } else if (subQueries(query).stream().anyMatch(expensive::contains)) {
+      // creating the weight would rewrite the expensive sub clauses; the costs are combined from the sub clauses
+      expensive.add(query);
+      leafCosts = combinedCosts(query, children);
+    } else {
+      leafCosts = leafCosts(query);
+    }
+
+    return QueryCost.of(query, expansion, capped, leafCosts, children);
+  }
+
+  /**
+   * Combines the per-leaf costs of the sub clauses: required clauses are intersected (the minimum cost),
+   * optional clauses are unioned (the sum of the costs, up to the number of documents in the leaf).
+   *
+   * @return combined costs, or null if any of the sub clauses was not estimated
+   */
+  private long[] combinedCosts(Query query, List<QueryCost> children) {
+    if (children.isEmpty() || !children.stream().allMatch(QueryCost::isCostEstimated)) {
+      return null;
+    }
+
+    List<QueryCost> required = new ArrayList<>();
+    List<QueryCost> optional = new ArrayList<>();
+    if (query instanceof BooleanQuery) {
+      List<BooleanClause> clauses = ((BooleanQuery) query).clauses();
+      for (int i = 0; i < clauses.size(); i++) {
+        BooleanClause.Occur occur = clauses.get(i).getOccur();
+        if (occur == BooleanClause.Occur.MUST || occur == BooleanClause.Occur.FILTER) {
+          required.add(children.get(i));
+        } else if (occur == BooleanClause.Occur.SHOULD) {
+          optional.add(children.get(i));
+        }
+      }
+    } else if (query instanceof DisjunctionMaxQuery) {
+      optional.addAll(children);
+    } else {
+      required.addAll(children);
+    }
+
+    long[] costs = new long[reader.leaves().size()];
+    for (LeafReaderContext ctx : reader.leaves()) {
+      int ord = ctx.ord;
+      if (!required.isEmpty()) {
+        costs[ord] = required.stream().mapToLong(c -> c.getLeafCost(ord)).min().orElse(0);
+      } else {
+        costs[ord] = Math.min(ctx.reader().maxDoc(), optional.stream().mapToLong(c -> c.getLeafCost(ord)).sum());
+      }
+    }
+    return costs;
+  }
+
+  private static List<Query> subQueries(Query query) {
+    if (query instanceof BooleanQuery) {
+      return ((BooleanQuery) query).clauses().stream().map(BooleanClause::getQuery).collect(Collectors.toList());
+    } else if (query instanceof BoostQuery) {
+      return Collections.singletonList(((BoostQuery) query).getQuery());
+    } else if (query instanceof ConstantScoreQuery) {
+      return Collections.singletonList(((ConstantScoreQuery) query).getQuery());
+    } else if (query instanceof DisjunctionMaxQuery) {
+      return new ArrayList<>(((DisjunctionMaxQuery) query).getDisjuncts());
+    }
+    return Collections.emptyList();
+  }
+
+  /**
+   * Counts the terms the query expands to, summed over all leaves, and the document frequencies
+   * of the terms per leaf. Stops counting at the cap.
+   *
+   * @return number of terms, or -1 if the expansion cannot be estimated for the query type
+   */
+  private TermCount countTerms(MultiTermQuery query, long cap) throws IOException {
+    TermCount res = new TermCount(reader.leaves().size());
+    CompiledAutomaton compiled = null;
+    if (query instanceof AutomatonQuery) {
+      AutomatonQuery aq = (AutomatonQuery) query;
+      compiled = new CompiledAutomaton(aq.getAutomaton(), null, true,
+          Operations.DEFAULT_MAX_DETERMINIZED_STATES, aq.isAutomatonBinary());
+    } else if (!(query instanceof FuzzyQuery)) {
+      logger.debug(String.format("Term expansion cannot be estimated for %s", query.getClass().getName()));
+      res.terms = -1;
+      return res;
+    }
+
+    for (LeafReaderContext ctx : reader.leaves()) {
+      Terms terms = ctx.reader().terms(query.getField());
+      if (terms == null) {
+        continue;
+      }
+
+      TermsEnum te;
+      if (compiled != null) {
+        te = compiled.getTermsEnum(terms);
+      } else {
+        FuzzyQuery fq = (FuzzyQuery) query;
+        te = new FuzzyTermsEnum(terms, new AttributeSource(), fq.getTerm(),
+            fq.getMaxEdits(), fq.getPrefixLength(), fq.getTranspositions());
+      }
+
+      long docFreqs = 0;
+      while (te.next() != null) {
+        docFreqs += te.docFreq();
+        if (++res.terms >= cap) {
+          res.terms = cap;
+          break;
+        }
+      }
+      // the sum over-counts documents having several of the terms
+      res.docFreqs[ctx.ord] = Math.min(ctx.reader().maxDoc(), docFreqs);
+      if (res.terms >= cap) {
+        break;
+      }
+    }
+    return res;
+  }
+
+  private long[] leafCosts(Query query) throws IOException {
+    Weight weight;
+    try {
+      weight = searcher.createNormalizedWeight(query, false);
+    } catch (BooleanQuery.TooManyClauses e) {
+      logger.debug(String.format("Failed to create weight for %s", query.toString()), e);
+      return null;
+    }
+
+    long[] costs = new long[reader.leaves().size()];
+    for (LeafReaderContext ctx : reader.leaves()) {
+      ScorerSupplier supplier = weight.scorerSupplier(ctx);
+      costs[ctx.ord] = supplier == null ? 0 : supplier.cost();
+    }
+    return costs;
+  }
+
+  private static final class TermCount {
+
+    long terms;
+
+    final long[] docFreqs;
+
+    TermCount(int numLeaves) {
+      this.docFreqs = new long[numLeaves];
+    }
+  }
+}
@@ -23,6 +23,7 @@ import org.apache.lucene.document.DateTools;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.TimeZone;
 import java.util.stream.Collectors;
 
@@ -229,6 +230,34 @@ public final class QueryParserConfig {
     return typeMap;
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    QueryParserConfig that = (QueryParserConfig) o;
+    return useClassicParser == that.useClassicParser &&
+        enablePositionIncrements == that.enablePositionIncrements &&
+        allowLeadingWildcard == that.allowLeadingWildcard &&
+        Float.compare(that.fuzzyMinSim, fuzzyMinSim) == 0 &&
+        fuzzyPrefixLength == that.fuzzyPrefixLength &&
+        phraseSlop == that.phraseSlop &&
+        autoGenerateMultiTermSynonymsPhraseQuery == that.autoGenerateMultiTermSynonymsPhraseQuery &&
+        autoGeneratePhraseQueries == that.autoGeneratePhraseQueries &&
+        splitOnWhitespace == that.splitOnWhitespace &&
+        dateResolution == that.dateResolution &&
+        defaultOperator == that.defaultOperator &&
+        Objects.equals(locale, that.locale) &&
+        Objects.equals(timeZone, that.timeZone) &&
+        Objects.equals(typeMap, that.typeMap);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(useClassicParser, enablePositionIncrements, allowLeadingWildcard, dateResolution,
+        defaultOperator, fuzzyMinSim, fuzzyPrefixLength, locale, timeZone, phraseSlop,
+        autoGenerateMultiTermSynonymsPhraseQuery, autoGeneratePhraseQueries, splitOnWhitespace, typeMap);
+  }
+
   @Override
   public String toString() {
     return "QueryParserConfig: [" +
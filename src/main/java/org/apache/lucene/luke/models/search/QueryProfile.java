@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.lucene.index.FilterLeafReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.SegmentReader;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holder for the profiled timings of a query clause.
+ */
+public final class QueryProfile {
+
+  /**
+   * Profiled operations.
+   */
+  public enum Timing {
+    CREATE_WEIGHT, BUILD_SCORER, NEXT_DOC, ADVANCE, MATCHES, SCORE
+  }
+
+  private String queryType;
+
+  private String description;
+
+  private long[] times;
+
+  private long[] counts;
+
+  private List<LeafProfile> leaves = new ArrayList<>();
+
+  private List<QueryProfile> children = new ArrayList<>();
+
+  /**
+   * Creates a query profile tree from the recorded breakdowns.
+   *
+   * @param profile - recorded breakdown for the clause
+   * @param reader - index reader that the query was executed on
+   * @return the query profile
+   */
+  static QueryProfile of(@Nonnull ProfileBreakdown profile, @Nonnull IndexReader reader) {
+    QueryProfile res = new QueryProfile();
+    res.queryType = profile.getQuery().getClass().getSimpleName();
+    res.description = profile.getQuery().toString();
+    res.times = Arrays.copyOf(profile.getTimes(), profile.getTimes().length);
+    res.counts = Arrays.copyOf(profile.getCounts(), profile.getCounts().length);
+    for (Map.Entry<Integer, long[]> entry : profile.getLeafTimes().entrySet()) {
+      int ord = entry.getKey();
+      String segName = segmentName(reader.leaves().get(ord).reader());
+      res.leaves.add(LeafProfile.of(ord, segName, entry.getValue(), profile.getLeafCounts().get(ord)));
+    }
+    for (ProfileBreakdown child : profile.getChildren()) {
+      res.children.add(QueryProfile.of(child, reader));
+    }
+    return res;
+  }
+
+  static String segmentName(LeafReader leafReader) {
+    LeafReader unwrapped = FilterLeafReader.unwrap(leafReader);
+    if (unwrapped instanceof SegmentReader) {
+      return ((SegmentReader) unwrapped).getSegmentName();
+    }
+    return "";
+  }
+
+  /**
+   * Returns the simple class name of the query.
+   */
+  public String getQueryType() {
+    return queryType;
+  }
+
+  /**
+   * Returns the string representation of the query.
+   */
+  public String getDescription() {
+    return description;
+  }
+
+  /**
+   * Returns the total time in nanoseconds spent for the operation, summed over all leaves.
+   */
+  public long getTime(@Nonnull Timing timing) {
+    return times[timing.ordinal()];
+  }
+
+  /**
+   * Returns the total call count of the operation, summed over all leaves.
+   */
+  public long getCount(@Nonnull Timing timing) {
+    return counts[timing.ordinal()];
+  }
+
+  /**
+   * Returns the total time in nanoseconds spent for this clause, including its sub clauses.
+   */
+  public long getTotalTime() {
+    return Arrays.stream(times).sum();
+  }
+
+  /**
+   * Returns per-leaf breakdowns of the timings.
+   */
+  public List<LeafProfile> getLeaves() {
+    return ImmutableList.copyOf(leaves);
+  }
+
+  /**
+   * Returns the profiles of the sub clauses.
+   */
+  public List<QueryProfile> getChildren() {
+    return ImmutableList.copyOf(children);
+  }
+
+  private QueryProfile() {
+  }
+
+  /**
+   * Holder for the timings of a query clause on a leaf (segment).
+   */
+  public static final class LeafProfile {
+
+    private int leafOrd;
+
+    private String segmentName;
+
+    private long[] times;
+
+    private long[] counts;
+
+    static LeafProfile of(int leafOrd, @Nonnull String segmentName, @Nonnull long[] times, @Nonnull long[] counts) {
+      LeafProfile res = new LeafProfile();
+      res.leafOrd = leafOrd;
+      res.segmentName = segmentName;
+      res.times = Arrays.copyOf(times, times.length);
+      res.counts = Arrays.copyOf(counts, counts.length);
+      return res;
+    }
+
+    /**
+     * Returns the ordinal of the leaf in the top level reader.
+     */
+    public int getLeafOrd() {
+      return leafOrd;
+    }
+
+    /**
+     * Returns the segment name of the leaf, or empty string if the leaf is not a segment.
+     */
+    public String getSegmentName() {
+      return segmentName;
+    }
+
+    /**
+     * Returns the time in nanoseconds spent for the operation on this leaf.
+     */
+    public long getTime(@Nonnull Timing timing) {
+      return times[timing.ordinal()];
+    }
+
+    /**
+     * Returns the call count of the operation on this leaf.
+     */
+    public long getCount(@Nonnull Timing timing) {
+      return counts[timing.ordinal()];
+    }
+
+    /**
+     * Returns the total time in nanoseconds spent on this leaf.
+     */
+    public long getTotalTime() {
+      return Arrays.stream(times).sum();
+    }
+
+    private LeafProfile() {
+    }
+  }
+}
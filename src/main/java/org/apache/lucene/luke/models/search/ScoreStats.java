@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holder for the score distribution and per-segment hit counts across all hits of a query.
+ */
+public final class ScoreStats {
+
+  private long totalHits;
+
+  private float minScore;
+
+  private float maxScore;
+
+  private double meanScore;
+
+  private List<Bucket> buckets = new ArrayList<>();
+
+  private List<Segment> segments = new ArrayList<>();
+
+  static ScoreStats of(long totalHits, float minScore, float maxScore, double meanScore,
+                       @Nonnull List<Bucket> buckets, @Nonnull List<Segment> segments) {
+    ScoreStats res = new ScoreStats();
+    res.totalHits = totalHits;
+    res.minScore = minScore;
+    res.maxScore = maxScore;
+    res.meanScore = meanScore;
+    res.buckets.addAll(buckets);
+    res.segments.addAll(segments);
+    return res;
+  }
+
+  /**
+   * Returns the exact number of hits.
+   */
+  public long getTotalHits() {
+    return totalHits;
+  }
+
+  /**
+   * Returns the lowest score, or 0 if there are no hits.
+   */
+  public float getMinScore() {
+    return minScore;
+  }
+
+  /**
+   * Returns the highest score, or 0 if there are no hits.
+   */
+  public float getMaxScore() {
+    return maxScore;
+  }
+
+  /**
+   * Returns the mean score, or 0 if there are no hits.
+   */
+  public double getMeanScore() {
+    return meanScore;
+  }
+
+  /**
+   * Returns equal width buckets between the lowest and highest scores, in ascending order.
+   * Counts are approximate near bucket boundaries (within about 3% of the score).
+   */
+  public List<Bucket> getBuckets() {
+    return ImmutableList.copyOf(buckets);
+  }
+
+  /**
+   * Returns the hit counts per segment, in the order of leaves.
+   */
+  public List<Segment> getSegments() {
+    return ImmutableList.copyOf(segments);
+  }
+
+  private ScoreStats() {
+  }
+
+  /**
+   * Holder for a bucket of the score histogram.
+   */
+  public static final class Bucket {
+
+    private float from;
+
+    private float to;
+
+    private long count;
+
+    static Bucket of(float from, float to, long count) {
+      Bucket res = new Bucket();
+      res.from = from;
+      res.to = to;
+      res.count = count;
+      return res;
+    }
+
+    /**
+     * Returns the lower bound (inclusive) of the bucket.
+     */
+    public float getFrom() {
+      return from;
+    }
+
+    /**
+     * Returns the upper bound of the bucket, exclusive except for the last bucket.
+     */
+    public float getTo() {
+      return to;
+    }
+
+    /**
+     * Returns the number of hits in the bucket.
+     */
+    public long getCount() {
+      return count;
+    }
+
+    private Bucket() {
+    }
+  }
+
+  /**
+   * Holder for the hit count of a segment.
+   */
+  public static final class Segment {
+
+    private int leafOrd;
+
+    private String segmentName;
+
+    private long numHits;
+
+    static Segment of(int leafOrd, @Nonnull String segmentName, long numHits) {
+      Segment res = new Segment();
+      res.leafOrd = leafOrd;
+      res.segmentName = segmentName;
+      res.numHits = numHits;
+      return res;
+    }
+
+    /**
+     * Returns the ordinal of the leaf in the top level reader.
+     */
+    public int getLeafOrd() {
+      return leafOrd;
+    }
+
+    /**
+     * Returns the segment name of the leaf, or empty string if the leaf is not a segment.
+     */
+    public String getSegmentName() {
+      return segmentName;
+    }
+
+    /**
+     * Returns the number of hits in the segment.
+     */
+    public long getNumHits() {
+      return numHits;
+    }
+
+    private Segment() {
+    }
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.LeafCollector;
+import org.apache.lucene.search.Scorer;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collector that gathers score statistics without keeping doc ids.
+ *
+ * Each leaf has its own accumulator, so leaves can be collected concurrently. Hits are scored in two passes:
+ * this collector finds the score range, then the collector returned by {@link #bucketCollector(int)} counts
+ * the scores into equal width buckets sized from the global range.
+ */
+final class ScoreStatsCollector implements Collector {
+
+  private final LeafStats[] leafStats;
+
+  private final long[][] leafCounts;
+
+  private float min = Float.POSITIVE_INFINITY;
+
+  private float max = Float.NEGATIVE_INFINITY;
+
+  private int numBuckets = 0;
+
+  ScoreStatsCollector(int numLeaves) {
+    this.leafStats = new LeafStats[numLeaves];
+    this.leafCounts = new long[numLeaves][];
+  }
+
+  @Override
+  public LeafCollector getLeafCollector(LeafReaderContext context) {
+    LeafStats stats = new LeafStats();
+    leafStats[context.ord] = stats;
+    return new ScoreCollector() {
+      @Override
+      void collect(float score) {
+        stats.record(score);
+      }
+    };
+  }
+
+  @Override
+  public boolean needsScores() {
+    return true;
+  }
+
+  /**
+   * Returns the collector for the second pass, which counts the scores into buckets.
+   * Must be called after the first pass is finished.
+   *
+   * @param numBuckets - number of equal width buckets
+   */
+  Collector bucketCollector(int numBuckets) {
+    this.numBuckets = numBuckets;
+    for (LeafStats stats : leafStats) {
+      if (stats != null && stats.count > 0) {
+        min = Math.min(min, stats.min);
+        max = Math.max(max, stats.max);
+      }
+    }
+    double width = ((double) max - min) / numBuckets;
+
+    return new Collector() {
+      @Override
+      public LeafCollector getLeafCollector(LeafReaderContext context) {
+        long[] counts = new long[numBuckets];
+        leafCounts[context.ord] = counts;
+        return new ScoreCollector() {
+          @Override
+          void collect(float score) {
+            int idx = width > 0 ? (int) ((score - min) / width) : 0;
+            // guard against floating point rounding at the edges
+            counts[Math.max(0, Math.min(numBuckets - 1, idx))]++;
+          }
+        };
+      }
+
+      @Override
+      public boolean needsScores() {
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Merges the leaf accumulators of both passes.
+   *
+   * @param reader - index reader that the query was executed on
+   */
+  ScoreStats getStats(@Nonnull IndexReader reader) {
+    long total = 0;
+    double sum = 0;
+    long[] counts = new long[numBuckets];
+    List<ScoreStats.Segment> segments = new ArrayList<>();
+
+    for (int ord = 0; ord < leafStats.length; ord++) {
+      LeafStats stats = leafStats[ord];
+      long count = stats == null ? 0 : stats.count;
+      segments.add(ScoreStats.Segment.of(ord, QueryProfile.segmentName(reader.leaves().get(ord).reader()), count));
+      if (count == 0) {
+        continue;
+      }
+      total += count;
+      sum += stats.sum;
+      if (leafCounts[ord] != null) {
+        for (int i = 0; i < numBuckets; i++) {
+          counts[i] += leafCounts[ord][i];
+        }
+      }
+    }
+
+    if (total == 0) {
+      return ScoreStats.of(0, 0, 0, 0, new ArrayList<>(), segments);
+    }
+
+    List<ScoreStats.Bucket> buckets = new ArrayList<>();
+    if (min == max) {
+      buckets.add(ScoreStats.Bucket.of(min, max, total));
+    } else {
+      double width = ((double) max - min) / numBuckets;
+      for (int i = 0; i < numBuckets; i++) {
+        buckets.add(ScoreStats.Bucket.of((float) (min + width * i), (float) (min + width * (i + 1)), counts[i]));
+      }
+    }
+    return ScoreStats.of(total, min, max, sum / total, buckets, segments);
+  }
+
+  private static abstract class ScoreCollector implements LeafCollector {
+
+    private Scorer scorer;
+
+    @Override
+    public void setScorer(Scorer scorer) {
+      this.scorer = scorer;
+    }
+
+    @Override
+    public void collect(int doc) throws IOException {
+      collect(scorer.score());
+    }
+
+    abstract void collect(float score);
+  }
+
+  private static final class LeafStats {
+
+    private long count = 0;
+
+    private double sum = 0;
+
+    private float min = Float.POSITIVE_INFINITY;
+
+    private float max = Float.NEGATIVE_INFINITY;
+
+    void record(float score) {
+      count++;
+      sum += score;
+      min = Math.min(min, score);
+      max = Math.max(max, score);
+    }
+  }
+}
@@ -19,11 +19,13 @@ package org.apache.lucene.luke.models.search;
 
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.ProgressMonitor;
 import org.apache.lucene.search.Explanation;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
 
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -54,6 +56,18 @@ public interface Search {
    */
   Collection<String> getRangeSearchableFieldNames();
 
+  /**
+   * Returns field names those can be aggregated by {@link #aggregateTerms(Query, String, int)},
+   * i.e., fields those have sorted or sorted set doc values.
+   */
+  Collection<String> getAggregatableFieldNames();
+
+  /**
+   * Returns field names those can be aggregated by {@link #aggregateHistogram(Query, String, HistogramConfig)},
+   * i.e., fields those have numeric or sorted numeric doc values.
+   */
+  Collection<String> getHistogramFieldNames();
+
   /**
    * Returns the current query.
    */
@@ -83,6 +97,22 @@ public interface Search {
    */
   Query mltQuery(int docid, MLTConfig mltConfig, Analyzer analyzer);
 
+  /**
+   * Finds similar documents for each of the seed documents by MoreLikeThis queries.
+   * The seeds are processed concurrently and share the cached term statistics.
+   * The operation can be cancelled by {@link #cancel()}, then the results for the seeds processed so far are returned.
+   *
+   * @param seedDocIds - document ids of the seed documents
+   * @param mltConfig - MoreLikeThis configuration
+   * @param analyzer - analyzer for analyzing the documents
+   * @param topN - maximum number of similar documents for each seed, excluding the seed itself
+   * @param monitor - progress monitor, or null
+   * @return similar documents for each seed, in the order of the seeds
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  List<SimilarDocs> mltBatch(Collection<Integer> seedDocIds, MLTConfig mltConfig, Analyzer analyzer, int topN,
+                             ProgressMonitor monitor);
+
   /**
    * Searches this index by the query with given configurations.
    *
@@ -108,6 +138,144 @@ public interface Search {
    */
   SearchResults search(Query query, SimilarityConfig simConfig, Sort sort, Set<String> fieldsToLoad, int pageSize);
 
+  /**
+   * Searches this index by the query with given sort criteria and configurations, within the time budget.
+   * When the time budget runs out or the search is cancelled, partial results are returned.
+   *
+   * @param query - search query
+   * @param simConfig - similarity configuration
+   * @param sort - sort criteria
+   * @param fieldsToLoad - fields to load
+   * @param pageSize - page size
+   * @param timeoutMillis - time budget in milliseconds for each page, zero or negative value means no time limit
+   * @return search results, possibly partial
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  SearchResults search(Query query, SimilarityConfig simConfig, Sort sort, Set<String> fieldsToLoad, int pageSize,
+                       long timeoutMillis);
+
+  /**
+   * Cancels the running search, if any. The search returns partial results collected so far.
+   * This method can be called from any thread.
+   */
+  void cancel();
+
+  /**
+   * Executes the query with per-clause profiling enabled.
+   *
+   * @param query - search query
+   * @param simConfig - similarity configuration
+   * @param sort - sort criteria, or null to sort by relevance
+   * @param pageSize - number of hits to collect
+   * @return profiled timings of the query tree
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  QueryProfile profile(Query query, SimilarityConfig simConfig, Sort sort, int pageSize);
+
+  /**
+   * Collects the score distribution and the per-segment hit counts across all hits of the query, in one parallel pass.
+   *
+   * @param query - search query
+   * @param simConfig - similarity configuration
+   * @param numBuckets - number of buckets of the score histogram
+   * @return score statistics of the query
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  ScoreStats analyzeScores(Query query, SimilarityConfig simConfig, int numBuckets);
+
+  /**
+   * Executes the query leaf by leaf, and measures hits, scorer cost, wall time and bytes read for each segment.
+   *
+   * @param query - search query
+   * @param simConfig - similarity configuration
+   * @param countBytesRead - if true, the query is executed once more on a reopened reader to count bytes read
+   * @return execution statistics for each segment, in the order of leaves
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  List<SegmentExecution> profileSegments(Query query, SimilarityConfig simConfig, boolean countBytesRead);
+
+  /**
+   * Restricts the following searches to one segment. Doc ids in the search results are not changed.
+   *
+   * @param segmentName - segment name, or null to search all segments
+   * @throws LukeException - if no such segment is in the index reader
+   */
+  void restrictToSegment(String segmentName);
+
+  /**
+   * Returns the segment name that searches are restricted to, if any.
+   */
+  Optional<String> getRestrictedSegment();
+
+  /**
+   * Estimates the cost of each clause of the query without executing it.
+   * Multi-term clauses are not rewritten, instead the number of terms they expand to is counted up to a cap.
+   *
+   * @param query - query to be estimated (should not be rewritten)
+   * @param guardConfig - cost guard configuration
+   * @return estimated cost tree of the query, with the guard thresholds it exceeds
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  QueryCost estimateCost(Query query, CostGuardConfig guardConfig);
+
+  /**
+   * Replays the queries in the file and measures latencies and throughput.
+   * Each non-empty line of the file (except for lines beginning with '#') is parsed as a query expression.
+   *
+   * @param queryFile - path to the file of query expressions (UTF-8)
+   * @param defField - default field for the queries
+   * @param analyzer - analyzer for parsing query expressions
+   * @param parserConfig - query parser configuration
+   * @param simConfig - similarity configuration
+   * @param benchConfig - benchmark configuration
+   * @return benchmark result
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  BenchmarkResult benchmark(Path queryFile, String defField, Analyzer analyzer, QueryParserConfig parserConfig,
+                            SimilarityConfig simConfig, BenchmarkConfig benchConfig);
+
+  /**
+   * Exports all hits of the query to the file, in doc id order.
+   * The export can be cancelled by {@link #cancel()}, then the hits written so far are kept in the file.
+   *
+   * @param query - search query
+   * @param exportConfig - export configuration
+   * @param output - path to the output file (UTF-8), overwritten if it exists
+   * @param monitor - progress monitor, or null
+   * @return the number of exported hits
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  long export(Query query, ExportConfig exportConfig, Path output, ProgressMonitor monitor);
+
+  /**
+   * Counts the values of the field across all hits of the query, and returns the top values.
+   *
+   * @param query - search query
+   * @param field - field name, the field must have sorted or sorted set doc values
+   * @param topN - number of top values to return
+   * @return the top values with the number of hits for each value
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  TermsAggregation aggregateTerms(Query query, String field, int topN);
+
+  /**
+   * Counts the values of the numeric field across all hits of the query into fixed or auto-sized buckets.
+   *
+   * @param query - search query
+   * @param field - field name, the field must have numeric or sorted numeric doc values
+   * @param config - histogram configuration
+   * @return the histogram of the values
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  HistogramAggregation aggregateHistogram(Query query, String field, HistogramConfig config);
+
+  /**
+   * Creates a new search session. Sessions share the index searcher with this model,
+   * but have their own queries, result caches and page cursors.
+   * The search methods of this model operate on the default session.
+   */
+  SearchSession newSession();
+
   /**
    * Returns the next page for the current query.
    *
@@ -116,6 +284,13 @@ public interface Search {
    */
   Optional<SearchResults> nextPage();
 
+  /**
+   * Starts loading the page following the current page on a low priority background thread,
+   * so that the subsequent {@link #nextPage()} can return it without waiting for index access.
+   * Does nothing if the next page is already loaded or there are no more results.
+   */
+  void prefetchNextPage();
+
   /**
    * Returns the previous page for the current query.
    *
@@ -134,6 +309,16 @@ public interface Search {
    */
   Explanation explain(Query query, int docid);
 
+  /**
+   * Explains the top hits of the current search session concurrently, and flattens each explanation
+   * into score components so that hits can be compared side by side.
+   *
+   * @param n - number of top hits to explain
+   * @return explanations of the hits, in the order of rank
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  List<HitExplanation> explainTopHits(int n);
+
   /**
    * Returns possible {@link SortField}s for the specified field.
    *
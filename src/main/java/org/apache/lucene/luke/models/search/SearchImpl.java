@@ -17,7 +17,6 @@
 
 package org.apache.lucene.luke.models.search;
 
-import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.index.DocValuesType;
@@ -26,6 +25,7 @@ import org.apache.lucene.index.IndexOptions;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.luke.models.LukeModel;
 import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.ProgressMonitor;
 import org.apache.lucene.luke.util.IndexUtils;
 import org.apache.lucene.queries.mlt.MoreLikeThis;
 import org.apache.lucene.queryparser.classic.ParseException;
@@ -34,15 +34,16 @@ import org.apache.lucene.queryparser.flexible.core.QueryNodeException;
 import org.apache.lucene.queryparser.flexible.standard.StandardQueryParser;
 import org.apache.lucene.queryparser.flexible.standard.config.PointsConfig;
 import org.apache.lucene.queryparser.flexible.standard.config.StandardQueryConfigHandler;
+import org.apache.lucene.search.BulkScorer;
+import org.apache.lucene.search.Collector;
 import org.apache.lucene.search.Explanation;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
-import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.SortedNumericSortField;
 import org.apache.lucene.search.SortedSetSortField;
-import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.Weight;
 import org.apache.lucene.search.similarities.BM25Similarity;
 import org.apache.lucene.search.similarities.ClassicSimilarity;
 import org.apache.lucene.search.similarities.Similarity;
@@ -52,7 +53,12 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.NumberFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -62,29 +68,20 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public final class SearchImpl extends LukeModel implements Search {
 
   private static final Logger logger = LoggerFactory.getLogger(SearchImpl.class);
 
-  private static final int DEFAULT_PAGE_SIZE = 10;
-
   private final IndexSearcher searcher;
 
-  private int pageSize = DEFAULT_PAGE_SIZE;
-
-  private int currentPage = -1;
-
-  private long totalHits = -1;
-
-  private ScoreDoc[] docs = new ScoreDoc[0];
+  private final SearchSessionImpl defaultSession;
 
-  private Query query;
+  private final Set<SearchTimeout> runningTimeouts = ConcurrentHashMap.newKeySet();
 
-  private Sort sort;
-
-  private Set<String> fieldsToLoad;
+  private final ParsedQueryCache queryCache = new ParsedQueryCache(ParsedQueryCache.DEFAULT_MAX_ENTRIES);
 
   /**
    * Constructs a SearchImpl that holds given {@link IndexReader}
@@ -93,6 +90,12 @@ public final class SearchImpl extends LukeModel implements Search {
   public SearchImpl(@Nonnull IndexReader reader) {
     super(reader);
     this.searcher = new IndexSearcher(reader);
+    this.defaultSession = new SearchSessionImpl(searcher);
+  }
+
+  @Override
+  public SearchSession newSession() {
+    return new SearchSessionImpl(searcher);
   }
 
   @Override
@@ -122,15 +125,41 @@ public final class SearchImpl extends LukeModel implements Search {
         .collect(Collectors.toSet());
   }
 
+  @Override
+  public Collection<String> getAggregatableFieldNames() {
+    return IndexUtils.getFieldNames(reader).stream()
+        .map(f -> IndexUtils.getFieldInfo(reader, f))
+        .filter(info -> info.getDocValuesType() == DocValuesType.SORTED ||
+            info.getDocValuesType() == DocValuesType.SORTED_SET)
+        .map(info -> info.name)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public Collection<String> getHistogramFieldNames() {
+    return IndexUtils.getFieldNames(reader).stream()
+        .map(f -> IndexUtils.getFieldInfo(reader, f))
+        .filter(info -> info.getDocValuesType() == DocValuesType.NUMERIC ||
+            info.getDocValuesType() == DocValuesType.SORTED_NUMERIC)
+        .map(info -> info.name)
+        .collect(Collectors.toList());
+  }
+
   @Override
   public Query getCurrentQuery() {
-    return this.query;
+    return defaultSession.getCurrentQuery();
   }
 
   @Override
   public Query parseQuery(@Nonnull String expression, @Nonnull String defField, @Nonnull Analyzer analyzer,
                           @Nonnull QueryParserConfig config, boolean rewrite) {
 
+    ParsedQueryCache.Key key = new ParsedQueryCache.Key(expression, defField, analyzer, config, rewrite, readerKey());
+    Query cached = queryCache.get(key);
+    if (cached != null) {
+      return cached;
+    }
+
     Query query = config.isUseClassicParser() ?
         parseByClassicParser(expression, defField, analyzer, config) :
         parseByStandardParser(expression, defField, analyzer, config);
@@ -143,9 +172,15 @@ public final class SearchImpl extends LukeModel implements Search {
       }
     }
 
+    queryCache.put(key, query);
     return query;
   }
 
+  private Object readerKey() {
+    IndexReader.CacheHelper helper = reader.getReaderCacheHelper();
+    return helper == null ? reader : helper.getKey();
+  }
+
   private Query parseByClassicParser(@Nonnull String expression, @Nonnull String defField, @Nonnull Analyzer analyzer,
                                      @Nonnull QueryParserConfig config) {
     QueryParser parser = new QueryParser(defField, analyzer);
@@ -247,6 +282,37 @@ public final class SearchImpl extends LukeModel implements Search {
     }
   }
 
+  @Override
+  public List<SimilarDocs> mltBatch(@Nonnull Collection<Integer> seedDocIds, @Nonnull MLTConfig mltConfig,
+                                    @Nonnull Analyzer analyzer, int topN, @Nullable ProgressMonitor monitor) {
+    if (topN < 1) {
+      throw new LukeException(new IllegalArgumentException("Positive integer is required for the number of similar documents."));
+    }
+    for (int docid : seedDocIds) {
+      if (docid < 0 || docid >= reader.maxDoc()) {
+        throw new LukeException(new IllegalArgumentException("Invalid doc id: " + docid));
+      }
+    }
+
+    SearchTimeout timeout = new SearchTimeout(0);
+    runningTimeouts.add(timeout);
+
+    try {
+      BatchMoreLikeThis batch = new BatchMoreLikeThis(searcher, mltConfig, analyzer);
+      List<SimilarDocs> res = batch.run(seedDocIds, topN, timeout, monitor);
+      logger.info(String.format("MLT batch finished for %d seeds, %d distinct terms looked up.",
+          res.size(), batch.cachedTerms()));
+      return res;
+    } catch (IOException e) {
+      throw new LukeException("Failed to find similar documents.", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LukeException("MLT batch was interrupted.", e);
+    } finally {
+      runningTimeouts.remove(timeout);
+    }
+  }
+
   @Override
   public SearchResults search(
       @Nonnull Query query, @Nonnull SimilarityConfig simConfig, @Nullable Set<String> fieldsToLoad, int pageSize) {
@@ -256,103 +322,251 @@ public final class SearchImpl extends LukeModel implements Search {
   @Override
   public SearchResults search(
       @Nonnull Query query, @Nonnull SimilarityConfig simConfig, @Nullable Sort sort, @Nullable Set<String> fieldsToLoad, int pageSize) {
+    return search(query, simConfig, sort, fieldsToLoad, pageSize, 0);
+  }
+
+  @Override
+  public SearchResults search(
+      @Nonnull Query query, @Nonnull SimilarityConfig simConfig, @Nullable Sort sort, @Nullable Set<String> fieldsToLoad, int pageSize,
+      long timeoutMillis) {
+    return defaultSession.search(query, simConfig, sort, fieldsToLoad, pageSize, timeoutMillis);
+  }
+
+  /**
+   * Returns true if the search sort is a prefix of the index sort, that is, hits in a segment are
+   * visited in the order of the search sort.
+   */
+  static boolean isIndexSortPrefix(@Nonnull Sort searchSort, @Nonnull Sort indexSort) {
+    SortField[] searchFields = searchSort.getSort();
+    SortField[] indexFields = indexSort.getSort();
+    if (searchFields.length > indexFields.length) {
+      return false;
+    }
+    return Arrays.asList(searchFields).equals(Arrays.asList(indexFields).subList(0, searchFields.length));
+  }
+
+  @Override
+  public void cancel() {
+    defaultSession.cancel();
+    runningTimeouts.forEach(SearchTimeout::cancel);
+  }
+
+  @Override
+  public QueryProfile profile(@Nonnull Query query, @Nonnull SimilarityConfig simConfig, @Nullable Sort sort, int pageSize) {
     if (pageSize < 0) {
       throw new LukeException(new IllegalArgumentException("Negative integer is not acceptable for page size."));
     }
 
-    // reset internal status to prepare for a new search session
-    this.docs = new ScoreDoc[0];
-    this.currentPage = 0;
-    this.pageSize = pageSize;
-    this.query = query;
-    this.sort = sort;
-    this.fieldsToLoad = fieldsToLoad == null ? null : ImmutableSet.copyOf(fieldsToLoad);
-    searcher.setSimilarity(createSimilarity(simConfig));
+    ProfilingIndexSearcher profiler = new ProfilingIndexSearcher(reader);
+    profiler.setSimilarity(createSimilarity(simConfig));
 
     try {
-      return search();
+      if (sort == null) {
+        profiler.search(query, Math.max(pageSize, 1));
+      } else {
+        profiler.search(query, Math.max(pageSize, 1), sort);
+      }
     } catch (IOException e) {
-      throw new LukeException("Search Failed.", e);
+      throw new LukeException(String.format("Failed to profile query: %s", query.toString()), e);
     }
+
+    List<ProfileBreakdown> roots = profiler.getRoots();
+    if (roots.isEmpty()) {
+      throw new LukeException(String.format("No profile was recorded for query: %s", query.toString()));
+    }
+    return QueryProfile.of(roots.get(0), reader);
   }
 
-  private SearchResults search() throws IOException {
-    // execute search
-    ScoreDoc after = docs.length == 0 ? null : docs[docs.length - 1];
-    TopDocs topDocs = sort == null ?
-        searcher.searchAfter(after, query, pageSize) :
-        searcher.searchAfter(after, query, pageSize, sort);
+  @Override
+  public ScoreStats analyzeScores(@Nonnull Query query, @Nonnull SimilarityConfig simConfig, int numBuckets) {
+    if (numBuckets < 1) {
+      throw new LukeException(new IllegalArgumentException("Positive integer is required for the number of buckets."));
+    }
 
-    // reset total hits for the current query
-    this.totalHits = topDocs.totalHits;
+    IndexSearcher statsSearcher = new IndexSearcher(reader);
+    statsSearcher.setSimilarity(createSimilarity(simConfig));
 
-    // cache search results for later use
-    ScoreDoc[] newDocs = new ScoreDoc[docs.length + topDocs.scoreDocs.length];
-    System.arraycopy(docs, 0, newDocs, 0, docs.length);
-    System.arraycopy(topDocs.scoreDocs, 0, newDocs, docs.length, topDocs.scoreDocs.length);
-    this.docs = newDocs;
+    try {
+      Weight weight = statsSearcher.createNormalizedWeight(query, true);
+      ScoreStatsCollector collector = new ScoreStatsCollector(reader.leaves().size());
+      // the first pass finds the score range, the second one counts the scores into buckets of the range
+      collectScores(weight, collector);
+      collectScores(weight, collector.bucketCollector(numBuckets));
+      return collector.getStats(reader);
+    } catch (IOException e) {
+      throw new LukeException(String.format("Failed to collect score statistics for query: %s", query.toString()), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LukeException("Score statistics collection was interrupted.", e);
+    }
+  }
 
-    return SearchResults.of(topDocs.totalHits, topDocs.scoreDocs, currentPage * pageSize, searcher, fieldsToLoad);
+  private void collectScores(Weight weight, Collector collector) throws IOException, InterruptedException {
+    LeafTasks.runAll(reader.leaves(), context -> {
+      BulkScorer scorer = weight.bulkScorer(context);
+      if (scorer != null) {
+        scorer.score(collector.getLeafCollector(context), context.reader().getLiveDocs());
+      }
+      return null;
+    }, "luke-score-stats-%d");
   }
 
   @Override
-  public Optional<SearchResults> nextPage() {
-    if (currentPage < 0 || query == null) {
-      throw new LukeException(new IllegalStateException("Search session not started."));
+  public List<SegmentExecution> profileSegments(@Nonnull Query query, @Nonnull SimilarityConfig simConfig,
+                                               boolean countBytesRead) {
+    try {
+      return new SegmentExecutionProfiler(reader, createSimilarity(simConfig)).profile(query, countBytesRead);
+    } catch (IOException e) {
+      throw new LukeException(String.format("Failed to profile segments for query: %s", query.toString()), e);
     }
+  }
+
+  @Override
+  public void restrictToSegment(@Nullable String segmentName) {
+    defaultSession.restrictToSegment(segmentName);
+  }
 
-    // proceed to next page
-    currentPage += 1;
+  @Override
+  public Optional<String> getRestrictedSegment() {
+    return defaultSession.getRestrictedSegment();
+  }
 
-    if (totalHits == 0 || currentPage * pageSize >= totalHits) {
-      logger.warn("No more next search results are available.");
-      return Optional.empty();
+  @Override
+  public QueryCost estimateCost(@Nonnull Query query, @Nonnull CostGuardConfig guardConfig) {
+    try {
+      return new QueryCostEstimator(reader, guardConfig).estimate(query);
+    } catch (IOException e) {
+      throw new LukeException(String.format("Failed to estimate cost for query: %s", query.toString()), e);
     }
+  }
 
+  @Override
+  public BenchmarkResult benchmark(@Nonnull Path queryFile, @Nonnull String defField, @Nonnull Analyzer analyzer,
+                                   @Nonnull QueryParserConfig parserConfig, @Nonnull SimilarityConfig simConfig,
+                                   @Nonnull BenchmarkConfig benchConfig) {
+    if (benchConfig.getWarmupRounds() < 0 || benchConfig.getRounds() < 1 ||
+        benchConfig.getConcurrency() < 1 || benchConfig.getNumHits() < 1) {
+      throw new LukeException(new IllegalArgumentException("Invalid benchmark configuration: " + benchConfig.toString()));
+    }
+
+    List<String> expressions;
     try {
+      expressions = Files.readAllLines(queryFile, StandardCharsets.UTF_8).stream()
+          .map(String::trim)
+          .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+          .collect(Collectors.toList());
+    } catch (IOException e) {
+      throw new LukeException(String.format("Failed to read query file: %s", queryFile.toString()), e);
+    }
 
-      if (currentPage * pageSize < docs.length) {
-        // if cached results exist, return that.
-        int from = currentPage * pageSize;
-        int to = Math.min(from + pageSize, docs.length);
-        ScoreDoc[] part = Arrays.copyOfRange(docs, from, to);
-        return Optional.of(SearchResults.of(totalHits, part, from, searcher, fieldsToLoad));
-      } else {
-        return Optional.of(search());
+    List<Query> queries = new ArrayList<>();
+    int numSkipped = 0;
+    for (String expression : expressions) {
+      try {
+        queries.add(parseQuery(expression, defField, analyzer, parserConfig, false));
+      } catch (LukeException e) {
+        logger.warn(String.format("Skipped invalid query expression: %s", expression));
+        numSkipped++;
       }
+    }
+    if (queries.isEmpty()) {
+      throw new LukeException(String.format("No valid queries found in: %s", queryFile.toString()));
+    }
 
+    IndexSearcher benchSearcher = new IndexSearcher(reader);
+    benchSearcher.setSimilarity(createSimilarity(simConfig));
+    try {
+      return new QueryBenchmark(benchSearcher, benchConfig).run(queries, numSkipped);
     } catch (IOException e) {
-      throw new LukeException("Search Failed.", e);
+      throw new LukeException("Failed to run benchmark.", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LukeException("Benchmark was interrupted.", e);
     }
   }
 
+  @Override
+  public long export(@Nonnull Query query, @Nonnull ExportConfig exportConfig, @Nonnull Path output,
+                     @Nullable ProgressMonitor monitor) {
+    SearchTimeout timeout = new SearchTimeout(0);
+    runningTimeouts.add(timeout);
+
+    try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+      long count = new HitsExporter(searcher, exportConfig, timeout, monitor).export(query, writer);
+      if (timeout.isCancelled()) {
+        logger.warn(String.format("Export was cancelled. %d hits were exported.", count));
+      }
+      return count;
+    } catch (IOException e) {
+      throw new LukeException(String.format("Failed to export hits to: %s", output.toString()), e);
+    } finally {
+      runningTimeouts.remove(timeout);
+    }
+  }
 
   @Override
-  public Optional<SearchResults> prevPage() {
-    if (currentPage < 0 || query == null) {
-      throw new LukeException(new IllegalStateException("Search session not started."));
+  public TermsAggregation aggregateTerms(@Nonnull Query query, @Nonnull String field, int topN) {
+    if (topN < 1) {
+      throw new LukeException(new IllegalArgumentException("Positive integer is required for the number of top values."));
+    }
+    FieldInfo finfo = IndexUtils.getFieldInfo(reader, field);
+    if (finfo == null) {
+      throw new LukeException("No such field: " + field, new IllegalArgumentException());
+    }
+    if (finfo.getDocValuesType() != DocValuesType.SORTED && finfo.getDocValuesType() != DocValuesType.SORTED_SET) {
+      throw new LukeException(String.format("Field %s has no sorted or sorted set doc values.", field),
+          new IllegalArgumentException());
     }
 
-    // return to previous page
-    currentPage -= 1;
+    try {
+      return new TermsAggregator(searcher, field).aggregate(query, topN);
+    } catch (IOException e) {
+      throw new LukeException(String.format("Failed to aggregate field %s for query: %s", field, query.toString()), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LukeException("Aggregation was interrupted.", e);
+    }
+  }
 
-    if (currentPage < 0) {
-      logger.warn("No more previous search results are available.");
-      return Optional.empty();
+  @Override
+  public HistogramAggregation aggregateHistogram(@Nonnull Query query, @Nonnull String field,
+                                                 @Nonnull HistogramConfig config) {
+    FieldInfo finfo = IndexUtils.getFieldInfo(reader, field);
+    if (finfo == null) {
+      throw new LukeException("No such field: " + field, new IllegalArgumentException());
+    }
+    DocValuesType dvType = finfo.getDocValuesType();
+    if (dvType != DocValuesType.NUMERIC && dvType != DocValuesType.SORTED_NUMERIC) {
+      throw new LukeException(String.format("Field %s has no numeric or sorted numeric doc values.", field),
+          new IllegalArgumentException());
     }
 
     try {
-      // there should be cached results for this page
-      int from = currentPage * pageSize;
-      int to = Math.min(from + pageSize, docs.length);
-      ScoreDoc[] part = Arrays.copyOfRange(docs, from, to);
-      return Optional.of(SearchResults.of(totalHits, part, from, searcher, fieldsToLoad));
+      return new HistogramAggregator(searcher, field, dvType, config).aggregate(query);
     } catch (IOException e) {
-      throw new LukeException("Search Failed.", e);
+      throw new LukeException(String.format("Failed to aggregate field %s for query: %s", field, query.toString()), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LukeException("Aggregation was interrupted.", e);
     }
   }
 
-  private Similarity createSimilarity(@Nonnull SimilarityConfig config) {
+  @Override
+  public Optional<SearchResults> nextPage() {
+    return defaultSession.nextPage();
+  }
+
+  @Override
+  public void prefetchNextPage() {
+    defaultSession.prefetchNextPage();
+  }
+
+  @Override
+  public Optional<SearchResults> prevPage() {
+    return defaultSession.prevPage();
+  }
+
+  static Similarity createSimilarity(@Nonnull SimilarityConfig config) {
     Similarity similarity;
 
     if (config.isUseClassicSimilarity()) {
@@ -436,12 +650,13 @@ public final class SearchImpl extends LukeModel implements Search {
     return Optional.empty();
   }
 
+  @Override
+  public List<HitExplanation> explainTopHits(int n) {
+    return defaultSession.explainTopHits(n);
+  }
+
   @Override
   public Explanation explain(Query query, int docid) {
-    try {
-      return searcher.explain(query, docid);
-    } catch (IOException e) {
-      throw new LukeException(String.format("Failed to create explanation for doc: %d for query: \"%s\"", docid, query.toString()), e);
-    }
+    return defaultSession.explain(query, docid);
   }
 }
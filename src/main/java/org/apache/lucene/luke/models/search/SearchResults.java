@@ -44,6 +44,10 @@ public final class SearchResults {
 
   private List<Doc> hits = new ArrayList<>();
 
+  private boolean partial = false;
+
+  private boolean earlyTerminated = false;
+
   /**
    * Creates a search result page for the given raw Lucene hits.
    *
@@ -58,9 +62,31 @@ public final class SearchResults {
   static SearchResults of(long totalHits, @Nonnull ScoreDoc[] docs, int offset,
                           @Nonnull IndexSearcher searcher, Set<String> fieldsToLoad)
       throws IOException {
+    return of(totalHits, docs, offset, searcher, fieldsToLoad, false, false);
+  }
+
+  /**
+   * Creates a search result page for the given raw Lucene hits.
+   *
+   * @param totalHits - total number of hits for this query
+   * @param docs - array of hits
+   * @param offset - offset of the current page
+   * @param searcher - index searcher
+   * @param fieldsToLoad - fields to load
+   * @param partial - true if the search was timed out or cancelled
+   * @param earlyTerminated - true if the collection was early terminated by the index sort
+   * @return the search result page
+   * @throws IOException
+   */
+  static SearchResults of(long totalHits, @Nonnull ScoreDoc[] docs, int offset,
+                          @Nonnull IndexSearcher searcher, Set<String> fieldsToLoad, boolean partial,
+                          boolean earlyTerminated)
+      throws IOException {
     SearchResults res = new SearchResults();
 
     res.totalHits = totalHits;
+    res.partial = partial;
+    res.earlyTerminated = earlyTerminated;
 
     for (ScoreDoc sd : docs) {
       Document luceneDoc = (fieldsToLoad == null) ?
@@ -79,6 +105,22 @@ public final class SearchResults {
     return totalHits;
   }
 
+  /**
+   * Returns true if the search was timed out or cancelled.
+   * In that case, the total number of hits is a lower bound and the hits may not be the top ones.
+   */
+  public boolean isPartial() {
+    return partial;
+  }
+
+  /**
+   * Returns true if the collection was early terminated because the index is sorted by the search sort.
+   * In that case, the total number of hits is an estimate.
+   */
+  public boolean isEarlyTerminated() {
+    return earlyTerminated;
+  }
+
   /**
    * Returns the offset of the current page.
    */
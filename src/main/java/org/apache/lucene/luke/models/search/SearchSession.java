@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A search session, which holds the current query, the collected hits and the page cursor.
+ * Sessions created from the same {@link Search} share the index searcher, but not their states,
+ * so several sessions can be used concurrently. Methods of a session are thread-safe.
+ */
+public interface SearchSession {
+
+  /**
+   * Returns the current query of this session, or null if no search was executed.
+   */
+  Query getCurrentQuery();
+
+  /**
+   * Starts a new search in this session, discarding the previous results.
+   * When the time budget runs out or the search is cancelled, partial results are returned.
+   *
+   * @param query - search query
+   * @param simConfig - similarity configuration
+   * @param sort - sort criteria, or null to sort by relevance
+   * @param fieldsToLoad - fields to load, or null to load all fields
+   * @param pageSize - page size
+   * @param timeoutMillis - time budget in milliseconds for each page, zero or negative value means no time limit
+   * @return search results, possibly partial
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  SearchResults search(Query query, SimilarityConfig simConfig, Sort sort, Set<String> fieldsToLoad, int pageSize,
+                       long timeoutMillis);
+
+  /**
+   * Returns the next page for the current query.
+   *
+   * @return search results, or empty if there are no more results
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  Optional<SearchResults> nextPage();
+
+  /**
+   * Starts loading the page following the current page on a low priority background thread.
+   * Does nothing if the next page is already loaded or there are no more results.
+   */
+  void prefetchNextPage();
+
+  /**
+   * Returns the previous page for the current query.
+   *
+   * @return search results, or empty if there are no more results.
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  Optional<SearchResults> prevPage();
+
+  /**
+   * Cancels the running search of this session, if any. The search returns partial results collected so far.
+   * This method can be called from any thread.
+   */
+  void cancel();
+
+  /**
+   * Restricts the following searches of this session to one segment. Doc ids in the search results are not changed.
+   *
+   * @param segmentName - segment name, or null to search all segments
+   * @throws LukeException - if no such segment is in the index reader
+   */
+  void restrictToSegment(String segmentName);
+
+  /**
+   * Returns the segment name that searches of this session are restricted to, if any.
+   */
+  Optional<String> getRestrictedSegment();
+
+  /**
+   * Explains the document for the specified query, with the similarity of the current search.
+   *
+   * @param query - query
+   * @param docid - document id to be explained
+   * @return explanations
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  Explanation explain(Query query, int docid);
+
+  /**
+   * Explains the top hits of the current search concurrently, and flattens each explanation
+   * into score components so that hits can be compared side by side.
+   *
+   * @param n - number of top hits to explain
+   * @return explanations of the hits, in the order of rank
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  List<HitExplanation> explainTopHits(int n);
+}
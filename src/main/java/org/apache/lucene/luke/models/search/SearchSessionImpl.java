@@ -0,0 +1,447 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.search;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.lucene.index.ExitableDirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.MultiReader;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.Prefetcher;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.TimeLimitingCollector;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopDocsCollector;
+import org.apache.lucene.search.TopFieldCollector;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.apache.lucene.search.similarities.Similarity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Default implementation of {@link SearchSession}.
+ * Stored fields are loaded through the shared index searcher, while scoring is done by a lightweight searcher
+ * per search, so that sessions with different similarities do not interfere.
+ */
+final class SearchSessionImpl implements SearchSession {
+
+  private static final Logger logger = LoggerFactory.getLogger(SearchSessionImpl.class);
+
+  private static final int DEFAULT_PAGE_SIZE = 10;
+
+  private static final int PREFETCH_PAGES = 2;
+
+  private final IndexReader reader;
+
+  private final IndexSearcher searcher;
+
+  private IndexSearcher scoringSearcher;
+
+  private int pageSize = DEFAULT_PAGE_SIZE;
+
+  private int currentPage = -1;
+
+  private long totalHits = -1;
+
+  private ScoreDoc[] docs = new ScoreDoc[0];
+
+  private Query query;
+
+  private Sort sort;
+
+  private Set<String> fieldsToLoad;
+
+  private long timeoutMillis = 0;
+
+  private boolean partial = false;
+
+  private boolean earlyTerminated = false;
+
+  private volatile SearchTimeout currentTimeout;
+
+  private int restrictedLeafOrd = -1;
+
+  private final Prefetcher<Integer, Page> pagePrefetcher = new Prefetcher<>(PREFETCH_PAGES, "luke-prefetch-page-%d");
+
+  /**
+   * Creates a search session.
+   *
+   * @param searcher - index searcher shared among sessions, used for loading stored fields
+   */
+  SearchSessionImpl(@Nonnull IndexSearcher searcher) {
+    this.reader = searcher.getIndexReader();
+    this.searcher = searcher;
+    this.scoringSearcher = searcher;
+  }
+
+  @Override
+  public synchronized Query getCurrentQuery() {
+    return query;
+  }
+
+  @Override
+  public synchronized SearchResults search(
+      @Nonnull Query query, @Nonnull SimilarityConfig simConfig, @Nullable Sort sort, @Nullable Set<String> fieldsToLoad, int pageSize,
+      long timeoutMillis) {
+    if (pageSize < 0) {
+      throw new LukeException(new IllegalArgumentException("Negative integer is not acceptable for page size."));
+    }
+
+    // reset internal status to prepare for a new search session
+    pagePrefetcher.clear();
+    this.docs = new ScoreDoc[0];
+    this.currentPage = 0;
+    this.pageSize = pageSize;
+    this.query = query;
+    this.sort = sort;
+    this.fieldsToLoad = fieldsToLoad == null ? null : ImmutableSet.copyOf(fieldsToLoad);
+    this.timeoutMillis = timeoutMillis;
+    this.scoringSearcher = new IndexSearcher(reader);
+    scoringSearcher.setSimilarity(SearchImpl.createSimilarity(simConfig));
+
+    try {
+      return search();
+    } catch (IOException e) {
+      throw new LukeException("Search Failed.", e);
+    }
+  }
+
+  private SearchResults search() throws IOException {
+    // execute search
+    ScoreDoc after = docs.length == 0 ? null : docs[docs.length - 1];
+    SearchTimeout timeout = new SearchTimeout(timeoutMillis);
+    this.currentTimeout = timeout;
+    Page page;
+    try {
+      page = searchPage(new PageRequest(this), after, timeout);
+    } finally {
+      this.currentTimeout = null;
+    }
+    return accept(page, SearchResults.of(page.topDocs.totalHits, page.topDocs.scoreDocs, docs.length, searcher,
+        fieldsToLoad, page.partial, page.earlyTerminated));
+  }
+
+  private SearchResults accept(Page page, SearchResults results) {
+    // reset total hits for the current query
+    this.totalHits = page.topDocs.totalHits;
+    this.partial = page.partial;
+    this.earlyTerminated = page.earlyTerminated;
+
+    // cache search results for later use
+    ScoreDoc[] scoreDocs = page.topDocs.scoreDocs;
+    ScoreDoc[] newDocs = new ScoreDoc[docs.length + scoreDocs.length];
+    System.arraycopy(docs, 0, newDocs, 0, docs.length);
+    System.arraycopy(scoreDocs, 0, newDocs, docs.length, scoreDocs.length);
+    this.docs = newDocs;
+
+    return results;
+  }
+
+  private Page searchPage(PageRequest request, @Nullable ScoreDoc after, SearchTimeout timeout) throws IOException {
+    Sort sort = request.sort;
+    // term enumerations (e.g. multi-term query rewriting) are aborted by the exitable readers,
+    // and collection is aborted by the time limiting / cancellable collectors.
+    IndexSearcher timedSearcher = new IndexSearcher(exitableReader(timeout));
+    timedSearcher.setSimilarity(request.similarity);
+
+    int numHits = Math.min(request.pageSize, Math.max(1, reader.maxDoc()));
+    // when segments are sorted by the search sort, collection stops once a segment fills the page,
+    // at the cost of an estimated total hit count
+    boolean trackTotalHits = sort == null || !isSortedBy(sort);
+    TopDocsCollector<?> topDocsCollector = sort == null ?
+        TopScoreDocCollector.create(numHits, after) :
+        TopFieldCollector.create(sort, numHits, (FieldDoc) after, true, false, false, trackTotalHits);
+
+    Collector collector = new CancellableCollector(topDocsCollector, timeout);
+    if (request.restrictedLeafOrd >= 0) {
+      collector = new SingleLeafCollector(collector, request.restrictedLeafOrd);
+    }
+    if (request.timeoutMillis > 0) {
+      TimeLimitingCollector timeLimitingCollector =
+          new TimeLimitingCollector(collector, SearchTimeout.CLOCK, request.timeoutMillis);
+      timeLimitingCollector.setBaseline();
+      collector = timeLimitingCollector;
+    }
+
+    boolean partial;
+    try {
+      timedSearcher.search(request.query, collector);
+      partial = timeout.isCancelled();
+    } catch (TimeLimitingCollector.TimeExceededException | ExitableDirectoryReader.ExitingReaderException e) {
+      logger.warn(String.format("Search was aborted. Partial results are returned. (%s)", e.getMessage()));
+      partial = true;
+    }
+
+    boolean earlyTerminated = topDocsCollector instanceof TopFieldCollector &&
+        ((TopFieldCollector) topDocsCollector).isEarlyTerminated();
+    return new Page(topDocsCollector.topDocs(), partial, earlyTerminated);
+  }
+
+  private boolean isSortedBy(Sort sort) {
+    for (LeafReaderContext context : reader.leaves()) {
+      Sort indexSort = context.reader().getMetaData().getSort();
+      if (indexSort != null && SearchImpl.isIndexSortPrefix(sort, indexSort)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private IndexReader exitableReader(SearchTimeout timeout) throws IOException {
+    List<LeafReaderContext> leaves = reader.leaves();
+    IndexReader[] subReaders = new IndexReader[leaves.size()];
+    for (int i = 0; i < leaves.size(); i++) {
+      subReaders[i] = new ExitableDirectoryReader.ExitableFilterAtomicReader(leaves.get(i).reader(), timeout);
+    }
+    // this is a lightweight view on the original reader and must not be closed
+    return new MultiReader(subReaders, false);
+  }
+
+  @Override
+  public synchronized Optional<SearchResults> nextPage() {
+    if (currentPage < 0 || query == null) {
+      throw new LukeException(new IllegalStateException("Search session not started."));
+    }
+
+    // proceed to next page
+    currentPage += 1;
+
+    // total hits is an estimate when early terminated, then a short page means the end of the results
+    boolean noMore = earlyTerminated ?
+        docs.length < currentPage * pageSize :
+        currentPage * pageSize >= totalHits;
+    if (totalHits == 0 || noMore) {
+      logger.warn("No more next search results are available.");
+      return Optional.empty();
+    }
+
+    try {
+
+      if (currentPage * pageSize < docs.length) {
+        // if cached results exist, return that.
+        int from = currentPage * pageSize;
+        int to = Math.min(from + pageSize, docs.length);
+        ScoreDoc[] part = Arrays.copyOfRange(docs, from, to);
+        return Optional.of(SearchResults.of(totalHits, part, from, searcher, fieldsToLoad, partial, earlyTerminated));
+      } else {
+        // use the page loaded in advance, unless it was aborted by the time limit on the background thread
+        Optional<Page> prefetched = pagePrefetcher.get(docs.length).filter(page -> !page.partial);
+        if (prefetched.isPresent()) {
+          return Optional.of(accept(prefetched.get(), prefetched.get().results));
+        }
+        return Optional.of(search());
+      }
+
+    } catch (IOException e) {
+      throw new LukeException("Search Failed.", e);
+    }
+  }
+
+  @Override
+  public synchronized void prefetchNextPage() {
+    if (currentPage < 0 || query == null || totalHits <= 0) {
+      return;
+    }
+    if ((currentPage + 1) * pageSize < docs.length) {
+      // the next page is already cached
+      return;
+    }
+    boolean noMore = earlyTerminated ?
+        docs.length < (currentPage + 1) * pageSize :
+        docs.length >= totalHits;
+    if (noMore || partial) {
+      return;
+    }
+
+    // capture the session state; any change to it discards the prefetched pages
+    PageRequest request = new PageRequest(this);
+    Set<String> fieldsToLoad = this.fieldsToLoad;
+    int offset = docs.length;
+    ScoreDoc after = docs[offset - 1];
+    pagePrefetcher.prefetch(offset, () -> {
+      Page page = searchPage(request, after, new SearchTimeout(request.timeoutMillis));
+      page.results = SearchResults.of(page.topDocs.totalHits, page.topDocs.scoreDocs, offset, searcher,
+          fieldsToLoad, page.partial, page.earlyTerminated);
+      return page;
+    });
+  }
+
+  @Override
+  public synchronized Optional<SearchResults> prevPage() {
+    if (currentPage < 0 || query == null) {
+      throw new LukeException(new IllegalStateException("Search session not started."));
+    }
+
+    // return to previous page
+    currentPage -= 1;
+
+    if (currentPage < 0) {
+      logger.warn("No more previous search results are available.");
+      return Optional.empty();
+    }
+
+    try {
+      // there should be cached results for this page
+      int from = currentPage * pageSize;
+      int to = Math.min(from + pageSize, docs.length);
+      ScoreDoc[] part = Arrays.copyOfRange(docs, from, to);
+      return Optional.of(SearchResults.of(totalHits, part, from, searcher, fieldsToLoad, partial, earlyTerminated));
+    } catch (IOException e) {
+      throw new LukeException("Search Failed.", e);
+    }
+  }
+
+  @Override
+  public void cancel() {
+    // not synchronized, the running search holds the lock
+    SearchTimeout timeout = currentTimeout;
+    if (timeout != null) {
+      timeout.cancel();
+    }
+  }
+
+  @Override
+  public synchronized void restrictToSegment(@Nullable String segmentName) {
+    // prefetched pages were collected from all segments
+    pagePrefetcher.clear();
+    if (segmentName == null) {
+      restrictedLeafOrd = -1;
+      return;
+    }
+    for (LeafReaderContext context : reader.leaves()) {
+      if (segmentName.equals(QueryProfile.segmentName(context.reader()))) {
+        restrictedLeafOrd = context.ord;
+        return;
+      }
+    }
+    throw new LukeException(String.format("Segment %s is not found in the index reader.", segmentName),
+        new IllegalArgumentException());
+  }
+
+  @Override
+  public synchronized Optional<String> getRestrictedSegment() {
+    if (restrictedLeafOrd < 0) {
+      return Optional.empty();
+    }
+    return Optional.of(QueryProfile.segmentName(reader.leaves().get(restrictedLeafOrd).reader()));
+  }
+
+  @Override
+  public Explanation explain(@Nonnull Query query, int docid) {
+    IndexSearcher explainSearcher;
+    synchronized (this) {
+      explainSearcher = scoringSearcher;
+    }
+    try {
+      return explainSearcher.explain(query, docid);
+    } catch (IOException e) {
+      throw new LukeException(String.format("Failed to create explanation for doc: %d for query: \"%s\"", docid, query.toString()), e);
+    }
+  }
+
+  @Override
+  public List<HitExplanation> explainTopHits(int n) {
+    Query query;
+    Sort sort;
+    IndexSearcher explainSearcher;
+    synchronized (this) {
+      if (currentPage < 0 || this.query == null) {
+        throw new LukeException(new IllegalStateException("Search session not started."));
+      }
+      query = this.query;
+      sort = this.sort;
+      explainSearcher = scoringSearcher;
+    }
+    if (n < 1) {
+      throw new LukeException(new IllegalArgumentException("Positive integer is required for the number of hits."));
+    }
+
+    try {
+      TopDocs topDocs = sort == null ? explainSearcher.search(query, n) : explainSearcher.search(query, n, sort);
+      return new BatchExplainer(explainSearcher).explain(query, topDocs.scoreDocs);
+    } catch (IOException e) {
+      throw new LukeException(String.format("Failed to create explanations for query: \"%s\"", query.toString()), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LukeException("Explanation was interrupted.", e);
+    }
+  }
+
+  /**
+   * Snapshot of the session state needed to collect a page, so that pages can be collected outside the lock.
+   */
+  private static final class PageRequest {
+
+    private final Query query;
+
+    private final Sort sort;
+
+    private final Similarity similarity;
+
+    private final int pageSize;
+
+    private final long timeoutMillis;
+
+    private final int restrictedLeafOrd;
+
+    PageRequest(SearchSessionImpl session) {
+      this.query = session.query;
+      this.sort = session.sort;
+      this.similarity = session.scoringSearcher.getSimilarity(true);
+      this.pageSize = session.pageSize;
+      this.timeoutMillis = session.timeoutMillis;
+      this.restrictedLeafOrd = session.restrictedLeafOrd;
+    }
+  }
+
+  /**
+   * Top docs of a result page and its collection status.
+   */
+  private static final class Page {
+
+    private final TopDocs topDocs;
+
+    private final boolean partial;
+
+    private final boolean earlyTerminated;
+
+    private SearchResults results;
+
+    Page(TopDocs topDocs, boolean partial, boolean earlyTerminated) {
+      this.topDocs = topDocs;
+      this.partial = partial;
+      this.earlyTerminated = earlyTerminated;
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.index.QueryTimeout;
+import org.apache.lucene.util.Counter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query timeout which is exceeded when either the time budget runs out or the search is cancelled by the user.
+ */
+final class SearchTimeout implements QueryTimeout {
+
+  /**
+   * Millisecond clock for {@link org.apache.lucene.search.TimeLimitingCollector}.
+   * Unlike the global counter, this does not need a background timer thread.
+   */
+  static final Counter CLOCK = new Counter() {
+    @Override
+    public long addAndGet(long delta) {
+      // the clock follows System.nanoTime() and cannot be advanced; the delta is ignored
+      return get();
+    }
+
+    @Override
+    public long get() {
+      return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+  };
+
+  private final boolean hasDeadline;
+
+  private final long deadline;
+
+  private volatile boolean cancelled = false;
+
+  /**
+   * @param timeoutMillis - time budget in milliseconds, zero or negative value means no time limit
+   */
+  SearchTimeout(long timeoutMillis) {
+    // System.nanoTime() may be negative, so the deadline value itself cannot tell whether there is a time limit
+    this.hasDeadline = timeoutMillis > 0;
+    this.deadline = hasDeadline ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : 0;
+  }
+
+  void cancel() {
+    cancelled = true;
+  }
+
+  boolean isCancelled() {
+    return cancelled;
+  }
+
+  boolean isTimedOut() {
+    return hasDeadline && System.nanoTime() - deadline > 0;
+  }
+
+  @Override
+  public boolean shouldExit() {
+    return cancelled || isTimedOut();
+  }
+
+  @Override
+  public String toString() {
+    return "SearchTimeout: [ cancelled=" + cancelled + "; timed out=" + isTimedOut() + "; ]";
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Holder for the execution statistics of a query on a leaf (segment).
+ */
+public final class SegmentExecution {
+
+  private int leafOrd;
+
+  private String segmentName;
+
+  private int maxDoc;
+
+  private long numHits;
+
+  private long cost;
+
+  private long elapsedNanos;
+
+  private long bytesRead;
+
+  static SegmentExecution of(int leafOrd, @Nonnull String segmentName, int maxDoc, long numHits, long cost,
+                             long elapsedNanos, long bytesRead) {
+    SegmentExecution res = new SegmentExecution();
+    res.leafOrd = leafOrd;
+    res.segmentName = segmentName;
+    res.maxDoc = maxDoc;
+    res.numHits = numHits;
+    res.cost = cost;
+    res.elapsedNanos = elapsedNanos;
+    res.bytesRead = bytesRead;
+    return res;
+  }
+
+  /**
+   * Returns the ordinal of the leaf in the top level reader.
+   */
+  public int getLeafOrd() {
+    return leafOrd;
+  }
+
+  /**
+   * Returns the segment name of the leaf, or empty string if the leaf is not a segment.
+   */
+  public String getSegmentName() {
+    return segmentName;
+  }
+
+  /**
+   * Returns the max doc of the leaf.
+   */
+  public int getMaxDoc() {
+    return maxDoc;
+  }
+
+  /**
+   * Returns the number of hits (live documents only) in the leaf.
+   */
+  public long getNumHits() {
+    return numHits;
+  }
+
+  /**
+   * Returns the cost estimated by the scorer, or 0 if the query matches nothing in the leaf.
+   */
+  public long getCost() {
+    return cost;
+  }
+
+  /**
+   * Returns the wall time in nanoseconds spent for creating the scorer and iterating and scoring the hits.
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * Returns the number of bytes read from the index files, or -1 if it could not be measured.
+   */
+  public long getBytesRead() {
+    return bytesRead;
+  }
+
+  private SegmentExecution() {
+  }
+}
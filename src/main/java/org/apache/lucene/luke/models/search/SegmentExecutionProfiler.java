@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexCommit;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.ScorerSupplier;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.search.similarities.Similarity;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.Bits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Executes a query leaf by leaf and measures each leaf separately.
+ *
+ * Hits, cost and time are measured on the leaves of the given reader. Bytes read are counted in an optional
+ * second pass: the commit of the reader is reopened on a {@link CountingDirectory}, this is only possible
+ * for directory readers, other readers are measured without byte counts.
+ */
+final class SegmentExecutionProfiler {
+
+  private static final Logger logger = LoggerFactory.getLogger(SegmentExecutionProfiler.class);
+
+  private final IndexReader reader;
+
+  private final Similarity similarity;
+
+  SegmentExecutionProfiler(@Nonnull IndexReader reader, @Nonnull Similarity similarity) {
+    this.reader = reader;
+    this.similarity = similarity;
+  }
+
+  List<SegmentExecution> profile(@Nonnull Query query, boolean countBytesRead) throws IOException {
+    IndexSearcher searcher = newSearcher(reader);
+    // weight creation (including term statistics lookup across all segments) is not attributed to any segment
+    Weight weight = searcher.createNormalizedWeight(query, true);
+
+    List<SegmentExecution> res = new ArrayList<>();
+    long[] bytesRead = countBytesRead ? countBytesRead(query) : null;
+    for (LeafReaderContext context : reader.leaves()) {
+      long[] hitsAndCost = new long[2];
+      long start = System.nanoTime();
+      execute(weight, context, hitsAndCost);
+      long elapsed = System.nanoTime() - start;
+      res.add(SegmentExecution.of(context.ord, QueryProfile.segmentName(context.reader()), context.reader().maxDoc(),
+          hitsAndCost[0], hitsAndCost[1], elapsed, bytesRead == null ? -1 : bytesRead[context.ord]));
+    }
+    return res;
+  }
+
+  /**
+   * Executes the query on a reader reopened on a {@link CountingDirectory}.
+   *
+   * @return bytes read for each leaf, or null if the bytes cannot be counted for the reader
+   */
+  @Nullable
+  private long[] countBytesRead(Query query) throws IOException {
+    if (!(reader instanceof DirectoryReader)) {
+      return null;
+    }
+    IndexCommit commit = ((DirectoryReader) reader).getIndexCommit();
+    CountingDirectory countingDir = new CountingDirectory(commit.getDirectory());
+    DirectoryReader countingReader;
+    try {
+      countingReader = DirectoryReader.open(new CountingIndexCommit(commit, countingDir));
+    } catch (IOException e) {
+      logger.warn("Failed to reopen the index commit, bytes read are not measured. ({})", e.getMessage());
+      return null;
+    }
+    try {
+      if (!sameSegments(reader, countingReader)) {
+        logger.warn("Segments of the reopened commit differ from the reader, bytes read are not measured.");
+        return null;
+      }
+      Weight weight = newSearcher(countingReader).createNormalizedWeight(query, true);
+      long[] bytesRead = new long[countingReader.leaves().size()];
+      for (LeafReaderContext context : countingReader.leaves()) {
+        countingDir.resetBytesRead();
+        execute(weight, context, new long[2]);
+        bytesRead[context.ord] = countingDir.getBytesRead();
+      }
+      return bytesRead;
+    } finally {
+      countingReader.close();
+    }
+  }
+
+  private IndexSearcher newSearcher(IndexReader target) {
+    IndexSearcher searcher = new IndexSearcher(target);
+    searcher.setSimilarity(similarity);
+    // cached doc id sets would hide the actual cost of the segments
+    searcher.setQueryCache(null);
+    return searcher;
+  }
+
+  private static boolean sameSegments(IndexReader r1, IndexReader r2) {
+    List<LeafReaderContext> leaves1 = r1.leaves();
+    List<LeafReaderContext> leaves2 = r2.leaves();
+    if (leaves1.size() != leaves2.size()) {
+      return false;
+    }
+    for (int i = 0; i < leaves1.size(); i++) {
+      if (!QueryProfile.segmentName(leaves1.get(i).reader()).equals(QueryProfile.segmentName(leaves2.get(i).reader())) ||
+          leaves1.get(i).reader().numDocs() != leaves2.get(i).reader().numDocs()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Scores all live docs of the leaf; the number of hits and the scorer cost are stored to the given array.
+   */
+  private static void execute(Weight weight, LeafReaderContext context, long[] hitsAndCost) throws IOException {
+    ScorerSupplier supplier = weight.scorerSupplier(context);
+    if (supplier == null) {
+      return;
+    }
+    hitsAndCost[1] = supplier.cost();
+    Scorer scorer = supplier.get(Long.MAX_VALUE);
+    DocIdSetIterator iterator = scorer.iterator();
+    Bits liveDocs = context.reader().getLiveDocs();
+    for (int doc = iterator.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = iterator.nextDoc()) {
+      if (liveDocs == null || liveDocs.get(doc)) {
+        scorer.score();
+        hitsAndCost[0]++;
+      }
+    }
+  }
+
+  /**
+   * Index commit which is read through the given directory.
+   */
+  private static final class CountingIndexCommit extends IndexCommit {
+
+    private final IndexCommit in;
+
+    private final Directory directory;
+
+    CountingIndexCommit(IndexCommit in, Directory directory) {
+      this.in = in;
+      this.directory = directory;
+    }
+
+    @Override
+    public String getSegmentsFileName() {
+      return in.getSegmentsFileName();
+    }
+
+    @Override
+    public Collection<String> getFileNames() throws IOException {
+      return in.getFileNames();
+    }
+
+    @Override
+    public Directory getDirectory() {
+      return directory;
+    }
+
+    @Override
+    public void delete() {
+      throw new UnsupportedOperationException("This commit is read-only.");
+    }
+
+    @Override
+    public boolean isDeleted() {
+      return in.isDeleted();
+    }
+
+    @Override
+    public int getSegmentCount() {
+      return in.getSegmentCount();
+    }
+
+    @Override
+    public long getGeneration() {
+      return in.getGeneration();
+    }
+
+    @Override
+    public Map<String, String> getUserData() throws IOException {
+      return in.getUserData();
+    }
+  }
+}
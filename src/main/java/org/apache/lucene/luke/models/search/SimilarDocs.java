@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.lucene.search.Query;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holder for the documents similar to a seed document.
+ */
+public final class SimilarDocs {
+
+  private int seedDocId;
+
+  private Query query;
+
+  private List<Hit> hits = new ArrayList<>();
+
+  static SimilarDocs of(int seedDocId, @Nonnull Query query, @Nonnull List<Hit> hits) {
+    SimilarDocs res = new SimilarDocs();
+    res.seedDocId = seedDocId;
+    res.query = query;
+    res.hits.addAll(hits);
+    return res;
+  }
+
+  /**
+   * Returns the document id of the seed document.
+   */
+  public int getSeedDocId() {
+    return seedDocId;
+  }
+
+  /**
+   * Returns the MoreLikeThis query created from the seed document.
+   */
+  public Query getQuery() {
+    return query;
+  }
+
+  /**
+   * Returns the similar documents in descending score order. The seed document itself is excluded.
+   */
+  public List<Hit> getHits() {
+    return ImmutableList.copyOf(hits);
+  }
+
+  private SimilarDocs() {
+  }
+
+  /**
+   * Holder for a similar document.
+   */
+  public static final class Hit {
+
+    private int docId;
+
+    private float score;
+
+    static Hit of(int docId, float score) {
+      Hit res = new Hit();
+      res.docId = docId;
+      res.score = score;
+      return res;
+    }
+
+    /**
+     * Returns the document id.
+     */
+    public int getDocId() {
+      return docId;
+    }
+
+    /**
+     * Returns the score of the document.
+     */
+    public float getScore() {
+      return score;
+    }
+
+    private Hit() {
+    }
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.index.CompositeReader;
+import org.apache.lucene.index.Fields;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.StoredFieldVisitor;
+import org.apache.lucene.index.Term;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Read-only view of an index reader that caches document frequencies of terms.
+ * This is intended to be shared by MoreLikeThis instances which look up the same candidate terms again and again.
+ * The leaves of the wrapped reader are exposed as they are; this is not a BaseCompositeReader because
+ * its docFreq() is final.
+ */
+final class TermStatsCachingReader extends CompositeReader {
+
+  private final IndexReader in;
+
+  private final List<LeafReader> subReaders;
+
+  private final Map<Term, Integer> docFreqCache = new ConcurrentHashMap<>();
+
+  TermStatsCachingReader(@Nonnull IndexReader in) {
+    this.in = in;
+    this.subReaders = in.leaves().stream().map(LeafReaderContext::reader).collect(Collectors.toList());
+  }
+
+  @Override
+  public int docFreq(Term term) throws IOException {
+    try {
+      return docFreqCache.computeIfAbsent(term, t -> {
+        try {
+          return in.docFreq(t);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Returns the number of terms whose document frequency is cached.
+   */
+  int cachedTerms() {
+    return docFreqCache.size();
+  }
+
+  @Override
+  public long totalTermFreq(Term term) throws IOException {
+    return in.totalTermFreq(term);
+  }
+
+  @Override
+  public long getSumDocFreq(String field) throws IOException {
+    return in.getSumDocFreq(field);
+  }
+
+  @Override
+  public int getDocCount(String field) throws IOException {
+    return in.getDocCount(field);
+  }
+
+  @Override
+  public long getSumTotalTermFreq(String field) throws IOException {
+    return in.getSumTotalTermFreq(field);
+  }
+
+  @Override
+  public Fields getTermVectors(int docID) throws IOException {
+    return in.getTermVectors(docID);
+  }
+
+  @Override
+  public int numDocs() {
+    return in.numDocs();
+  }
+
+  @Override
+  public int maxDoc() {
+    return in.maxDoc();
+  }
+
+  @Override
+  public void document(int docID, StoredFieldVisitor visitor) throws IOException {
+    in.document(docID, visitor);
+  }
+
+  @Override
+  protected List<? extends IndexReader> getSequentialSubReaders() {
+    return subReaders;
+  }
+
+  @Override
+  public CacheHelper getReaderCacheHelper() {
+    // the content is the same as the wrapped reader's
+    return in.getReaderCacheHelper();
+  }
+
+  @Override
+  protected void doClose() {
+    // the wrapped reader is owned by the caller
+  }
+
+  @Override
+  public String toString() {
+    return "TermStatsCachingReader(" + in + ")";
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holder for the value breakdown of a field across the hits of a query.
+ */
+public final class TermsAggregation {
+
+  private String field;
+
+  private long numHits;
+
+  private long numMissing;
+
+  private long numUniqueValues;
+
+  private List<Bucket> buckets = new ArrayList<>();
+
+  static TermsAggregation of(@Nonnull String field, long numHits, long numMissing, long numUniqueValues,
+                             @Nonnull List<Bucket> buckets) {
+    TermsAggregation res = new TermsAggregation();
+    res.field = field;
+    res.numHits = numHits;
+    res.numMissing = numMissing;
+    res.numUniqueValues = numUniqueValues;
+    res.buckets.addAll(buckets);
+    return res;
+  }
+
+  /**
+   * Returns the aggregated field name.
+   */
+  public String getField() {
+    return field;
+  }
+
+  /**
+   * Returns the number of hits of the query.
+   */
+  public long getNumHits() {
+    return numHits;
+  }
+
+  /**
+   * Returns the number of hits those have no value for the field.
+   */
+  public long getNumMissing() {
+    return numMissing;
+  }
+
+  /**
+   * Returns the number of distinct values among the hits.
+   */
+  public long getNumUniqueValues() {
+    return numUniqueValues;
+  }
+
+  /**
+   * Returns the top values ordered by count (descending), then by value.
+   */
+  public List<Bucket> getBuckets() {
+    return ImmutableList.copyOf(buckets);
+  }
+
+  private TermsAggregation() {
+  }
+
+  /**
+   * Holder for a value and its number of hits.
+   */
+  public static final class Bucket {
+
+    private String value;
+
+    private long count;
+
+    static Bucket of(@Nonnull String value, long count) {
+      Bucket res = new Bucket();
+      res.value = value;
+      res.count = count;
+      return res;
+    }
+
+    /**
+     * Returns the field value.
+     */
+    public String getValue() {
+      return value;
+    }
+
+    /**
+     * Returns the number of hits those have the value.
+     */
+    public long getCount() {
+      return count;
+    }
+
+    private Bucket() {
+    }
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.OrdinalMap;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.LongValues;
+import org.apache.lucene.util.PriorityQueue;
+import org.apache.lucene.util.packed.PackedInts;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Counts the values of a sorted / sorted set doc values field across the hits of a query.
+ * <p>
+ * Segment ordinals are counted per leaf into primitive arrays in parallel,
+ * then the per-segment counts are merged into global ordinals through an {@link OrdinalMap}.
+ * </p>
+ */
+final class TermsAggregator {
+
+  private final IndexSearcher searcher;
+
+  private final String field;
+
+  TermsAggregator(@Nonnull IndexSearcher searcher, @Nonnull String field) {
+    this.searcher = searcher;
+    this.field = field;
+  }
+
+  TermsAggregation aggregate(@Nonnull Query query, int topN) throws IOException, InterruptedException {
+    List<LeafReaderContext> leaves = searcher.getIndexReader().leaves();
+    Weight weight = searcher.createNormalizedWeight(query, false);
+
+    List<LeafCounts> leafCounts = LeafTasks.runAll(leaves, context -> count(weight, context), "luke-aggregation-%d");
+
+    long numHits = 0;
+    long numMissing = 0;
+    for (LeafCounts counts : leafCounts) {
+      numHits += counts.hits;
+      numMissing += counts.missing;
+    }
+
+    return merge(leaves, leafCounts, numHits, numMissing, topN);
+  }
+
+  private LeafCounts count(Weight weight, LeafReaderContext context) throws IOException {
+    SortedSetDocValues values = DocValues.getSortedSet(context.reader(), field);
+    // single valued fields are counted without iterating ordinals
+    SortedDocValues singleton = DocValues.unwrapSingleton(values);
+    LeafCounts res = new LeafCounts(Math.toIntExact(values.getValueCount()));
+
+    Scorer scorer = weight.scorer(context);
+    if (scorer == null) {
+      return res;
+    }
+
+    // the scorer iterates in doc id order, so the doc values can be advanced along with it
+    Bits liveDocs = context.reader().getLiveDocs();
+    DocIdSetIterator it = scorer.iterator();
+    for (int doc = it.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = it.nextDoc()) {
+      if (liveDocs != null && !liveDocs.get(doc)) {
+        continue;
+      }
+      res.hits++;
+      if (singleton != null) {
+        if (singleton.advanceExact(doc)) {
+          res.counts[singleton.ordValue()]++;
+        } else {
+          res.missing++;
+        }
+      } else {
+        if (values.advanceExact(doc)) {
+          long ord;
+          while ((ord = values.nextOrd()) != SortedSetDocValues.NO_MORE_ORDS) {
+            res.counts[(int) ord]++;
+          }
+        } else {
+          res.missing++;
+        }
+      }
+    }
+    return res;
+  }
+
+  private TermsAggregation merge(List<LeafReaderContext> leaves, List<LeafCounts> leafCounts,
+                                 long numHits, long numMissing, int topN) throws IOException {
+    if (leaves.isEmpty()) {
+      return TermsAggregation.of(field, numHits, numMissing, 0, Collections.emptyList());
+    }
+
+    // fresh instances for term lookup, the counting iterators are exhausted
+    SortedSetDocValues[] values = new SortedSetDocValues[leaves.size()];
+    for (int i = 0; i < leaves.size(); i++) {
+      values[i] = DocValues.getSortedSet(leaves.get(i).reader(), field);
+    }
+
+    int[] globalCounts;
+    OrdinalMap ordinalMap = null;
+    if (leaves.size() == 1) {
+      globalCounts = leafCounts.get(0).counts;
+    } else {
+      ordinalMap = OrdinalMap.build(null, values, PackedInts.DEFAULT);
+      globalCounts = new int[Math.toIntExact(ordinalMap.getValueCount())];
+      for (int i = 0; i < leaves.size(); i++) {
+        int[] counts = leafCounts.get(i).counts;
+        LongValues globalOrds = ordinalMap.getGlobalOrds(i);
+        for (int ord = 0; ord < counts.length; ord++) {
+          if (counts[ord] > 0) {
+            globalCounts[(int) globalOrds.get(ord)] += counts[ord];
+          }
+        }
+      }
+    }
+
+    long numUniqueValues = 0;
+    TopOrdQueue queue = new TopOrdQueue(Math.min(topN, globalCounts.length));
+    OrdCount spare = new OrdCount();
+    for (int ord = 0; ord < globalCounts.length; ord++) {
+      if (globalCounts[ord] > 0) {
+        numUniqueValues++;
+        spare.ord = ord;
+        spare.count = globalCounts[ord];
+        spare = queue.insertWithOverflow(spare);
+        if (spare == null) {
+          spare = new OrdCount();
+        }
+      }
+    }
+
+    List<TermsAggregation.Bucket> buckets = new ArrayList<>();
+    while (queue.size() > 0) {
+      OrdCount top = queue.pop();
+      String value;
+      if (ordinalMap == null) {
+        value = values[0].lookupOrd(top.ord).utf8ToString();
+      } else {
+        int segment = ordinalMap.getFirstSegmentNumber(top.ord);
+        value = values[segment].lookupOrd(ordinalMap.getFirstSegmentOrd(top.ord)).utf8ToString();
+      }
+      buckets.add(TermsAggregation.Bucket.of(value, top.count));
+    }
+    Collections.reverse(buckets);
+
+    return TermsAggregation.of(field, numHits, numMissing, numUniqueValues, buckets);
+  }
+
+  private static final class LeafCounts {
+    final int[] counts;
+    long hits = 0;
+    long missing = 0;
+
+    LeafCounts(int valueCount) {
+      this.counts = new int[valueCount];
+    }
+  }
+
+  private static final class OrdCount {
+    int ord;
+    int count;
+  }
+
+  /**
+   * Keeps the top N ordinals by count; ties are broken by ordinal (i.e. by value).
+   */
+  private static final class TopOrdQueue extends PriorityQueue<OrdCount> {
+
+    TopOrdQueue(int maxSize) {
+      super(maxSize);
+    }
+
+    @Override
+    protected boolean lessThan(OrdCount a, OrdCount b) {
+      if (a.count != b.count) {
+        return a.count < b.count;
+      }
+      return a.ord > b.ord;
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.tools;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configurations for the index check.
+ */
+public final class CheckIndexConfig {
+
+  /**
+   * How deeply the index is checked.
+   */
+  public enum Level {
+    /** Only verifies the checksums of the segment files. */
+    CHECKSUMS(400L << 20),
+    /** Reads and checks segment metadata, postings, stored fields, term vectors, doc values and points. */
+    STRUCTURE(40L << 20),
+    /** In addition to STRUCTURE, cross-checks the term vectors against the postings. */
+    FULL(15L << 20);
+
+    // rough throughput of the check on a local disk, only used for estimating the runtime
+    private final long bytesPerSecond;
+
+    Level(long bytesPerSecond) {
+      this.bytesPerSecond = bytesPerSecond;
+    }
+
+    long getBytesPerSecond() {
+      return bytesPerSecond;
+    }
+  }
+
+  private final Level level;
+
+  private final List<String> segments;
+
+  public static class Builder {
+    private Level level = Level.STRUCTURE;
+    private List<String> segments = ImmutableList.of();
+
+    public Builder level(@Nonnull Level val) {
+      level = val;
+      return this;
+    }
+
+    public Builder segments(@Nonnull List<String> val) {
+      segments = ImmutableList.copyOf(val);
+      return this;
+    }
+
+    public CheckIndexConfig build() {
+      return new CheckIndexConfig(this);
+    }
+  }
+
+  private CheckIndexConfig(Builder builder) {
+    this.level = builder.level;
+    this.segments = builder.segments;
+  }
+
+  public Level getLevel() {
+    return level;
+  }
+
+  /**
+   * Returns the names of the segments to be checked, or empty list if all segments are checked.
+   */
+  public List<String> getSegments() {
+    return segments;
+  }
+
+  /**
+   * Estimates the time needed to check the segments with this configuration.
+   *
+   * <p>The estimation is based on the size of the segments to be checked and the typical throughput of the check level.</p>
+   *
+   * @param segmentSizes - segment sizes in bytes, keyed by segment name
+   * @return estimated time in milliseconds
+   */
+  public long estimateMillis(@Nonnull Map<String, Long> segmentSizes) {
+    long bytes = 0;
+    for (Map.Entry<String, Long> entry : segmentSizes.entrySet()) {
+      if (segments.isEmpty() || segments.contains(entry.getKey())) {
+        bytes += entry.getValue();
+      }
+    }
+    return bytes * 1000 / level.getBytesPerSecond();
+  }
+
+  @Override
+  public String toString() {
+    return "CheckIndexConfig: [" +
+        String.format(" level=%s;", level.name()) +
+        String.format(" segments=%s;", segments.isEmpty() ? "all" : String.join(",", segments)) +
+        "]";
+  }
+}
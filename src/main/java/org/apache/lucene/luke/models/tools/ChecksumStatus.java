@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.tools;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Holder for the result of the checksum verification of a commit's files.
+ */
+public final class ChecksumStatus {
+
+  private long generation;
+
+  private int numThreads;
+
+  private long totalBytes;
+
+  private long elapsedMillis;
+
+  private List<FileChecksum> files;
+
+  static ChecksumStatus of(long generation, int numThreads, long totalBytes, long elapsedMillis,
+                           @Nonnull List<FileChecksum> files) {
+    ChecksumStatus res = new ChecksumStatus();
+    res.generation = generation;
+    res.numThreads = numThreads;
+    res.totalBytes = totalBytes;
+    res.elapsedMillis = elapsedMillis;
+    res.files = ImmutableList.copyOf(files);
+    return res;
+  }
+
+  /**
+   * Returns the generation of the verified commit.
+   */
+  public long getGeneration() {
+    return generation;
+  }
+
+  /**
+   * Returns the number of threads those read the files.
+   */
+  public int getNumThreads() {
+    return numThreads;
+  }
+
+  /**
+   * Returns the total bytes of the verified files.
+   */
+  public long getTotalBytes() {
+    return totalBytes;
+  }
+
+  /**
+   * Returns the wall clock time of the verification in milliseconds.
+   */
+  public long getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  /**
+   * Returns the average read throughput in bytes per second.
+   */
+  public long getBytesPerSecond() {
+    return totalBytes * 1000 / Math.max(1, elapsedMillis);
+  }
+
+  /**
+   * Returns the results for all files referenced by the commit, ordered by file name.
+   */
+  public List<FileChecksum> getFiles() {
+    return ImmutableList.copyOf(files);
+  }
+
+  /**
+   * Returns the files those failed the verification.
+   */
+  public List<FileChecksum> getCorruptedFiles() {
+    return files.stream().filter(FileChecksum::isCorrupted).collect(Collectors.toList());
+  }
+
+  /**
+   * Returns true if all files passed the verification.
+   */
+  public boolean isClean() {
+    return files.stream().noneMatch(FileChecksum::isCorrupted);
+  }
+
+  private ChecksumStatus() {
+  }
+
+  /**
+   * Holder for the verification result of a file.
+   */
+  public static final class FileChecksum {
+
+    private String fileName;
+
+    private long length;
+
+    private long checksum;
+
+    private String error;
+
+    static FileChecksum of(@Nonnull String fileName, long length, long checksum, @Nullable String error) {
+      FileChecksum res = new FileChecksum();
+      res.fileName = fileName;
+      res.length = length;
+      res.checksum = checksum;
+      res.error = error;
+      return res;
+    }
+
+    /**
+     * Returns the file name.
+     */
+    public String getFileName() {
+      return fileName;
+    }
+
+    /**
+     * Returns the file length in bytes, or -1 if the file is missing.
+     */
+    public long getLength() {
+      return length;
+    }
+
+    /**
+     * Returns the verified checksum, or -1 if the file is corrupted.
+     */
+    public long getChecksum() {
+      return checksum;
+    }
+
+    /**
+     * Returns true if the file is missing, or its content does not match the checksum in its footer.
+     */
+    public boolean isCorrupted() {
+      return error != null;
+    }
+
+    /**
+     * Returns the reason of the failure, or empty string if the file is intact.
+     */
+    public String getError() {
+      return error == null ? "" : error;
+    }
+
+    private FileChecksum() {
+    }
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.tools;
+
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.index.CorruptIndexException;
+import org.apache.lucene.luke.models.ParallelTasks;
+import org.apache.lucene.luke.models.ProgressMonitor;
+import org.apache.lucene.store.BufferedChecksumIndexInput;
+import org.apache.lucene.store.ChecksumIndexInput;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verifies the checksum footers of index files in parallel, without decoding their contents.
+ *
+ * This does the same as {@link CodecUtil#checksumEntireFile(IndexInput)}, but reads the files in chunks
+ * so that the progress can be reported while large files are being read.
+ */
+final class ChecksumVerifier {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private static final long REPORT_INTERVAL_BYTES = 4 * 1024 * 1024;
+
+  private final Directory dir;
+
+  private final PrintStream ps;
+
+  private final ProgressMonitor monitor;
+
+  private final AtomicLong bytesDone = new AtomicLong();
+
+  private long totalBytes;
+
+  static ChecksumStatus verify(@Nonnull Directory dir, long generation, @Nonnull Collection<String> fileNames,
+                               int numThreads, @Nullable PrintStream ps, @Nullable ProgressMonitor monitor)
+      throws IOException, InterruptedException {
+    return new ChecksumVerifier(dir, ps, monitor).run(generation, fileNames, Math.max(1, numThreads));
+  }
+
+  private ChecksumVerifier(Directory dir, PrintStream ps, ProgressMonitor monitor) {
+    this.dir = dir;
+    this.ps = ps;
+    this.monitor = monitor;
+  }
+
+  private ChecksumStatus run(long generation, Collection<String> fileNames, int numThreads)
+      throws IOException, InterruptedException {
+    long start = System.currentTimeMillis();
+
+    Map<String, Long> lengths = new HashMap<>();
+    List<ChecksumStatus.FileChecksum> results = new ArrayList<>();
+    List<String> toVerify = new ArrayList<>();
+    for (String fileName : fileNames) {
+      try {
+        lengths.put(fileName, dir.fileLength(fileName));
+        toVerify.add(fileName);
+      } catch (NoSuchFileException e) {
+        results.add(report(ChecksumStatus.FileChecksum.of(fileName, -1, -1, "missing file")));
+      }
+    }
+    totalBytes = lengths.values().stream().mapToLong(Long::longValue).sum();
+    // largest files first, so that no thread is left with a huge file at the end
+    toVerify.sort(Comparator.comparingLong(lengths::get).reversed());
+
+    List<Callable<ChecksumStatus.FileChecksum>> tasks = new ArrayList<>();
+    for (String fileName : toVerify) {
+      tasks.add(() -> report(verifyFile(fileName, lengths.get(fileName))));
+    }
+
+    results.addAll(ParallelTasks.runAll(tasks, numThreads, "luke-checksum-%d"));
+
+    results.sort(Comparator.comparing(ChecksumStatus.FileChecksum::getFileName));
+    return ChecksumStatus.of(generation, numThreads, totalBytes, System.currentTimeMillis() - start, results);
+  }
+
+  private ChecksumStatus.FileChecksum verifyFile(String fileName, long length) {
+    long reported = 0;
+    try (IndexInput input = dir.openInput(fileName, IOContext.READONCE)) {
+      ChecksumIndexInput in = new BufferedChecksumIndexInput(input);
+      long footerStart = in.length() - CodecUtil.footerLength();
+      if (footerStart < 0) {
+        throw new CorruptIndexException("file is too short to have a checksum footer", in);
+      }
+
+      byte[] buffer = new byte[BUFFER_SIZE];
+      while (in.getFilePointer() < footerStart) {
+        int len = (int) Math.min(buffer.length, footerStart - in.getFilePointer());
+        in.readBytes(buffer, 0, len);
+        if (in.getFilePointer() - reported >= REPORT_INTERVAL_BYTES) {
+          progress(in.getFilePointer() - reported);
+          reported = in.getFilePointer();
+        }
+      }
+      long checksum = CodecUtil.checkFooter(in);
+      return ChecksumStatus.FileChecksum.of(fileName, length, checksum, null);
+    } catch (CorruptIndexException e) {
+      return ChecksumStatus.FileChecksum.of(fileName, length, -1, e.getMessage());
+    } catch (IOException e) {
+      // unreadable files are reported as well, rather than aborting the verification of the others
+      return ChecksumStatus.FileChecksum.of(fileName, length, -1, e.toString());
+    } finally {
+      progress(length - reported);
+    }
+  }
+
+  private void progress(long bytes) {
+    long done = bytesDone.addAndGet(bytes);
+    if (monitor != null) {
+      monitor.progress(done, totalBytes);
+    }
+  }
+
+  private ChecksumStatus.FileChecksum report(ChecksumStatus.FileChecksum result) {
+    // corrupted files are reported as soon as they are found, instead of after reading the whole commit
+    if (ps != null && result.isCorrupted()) {
+      synchronized (ps) {
+        ps.println(String.format("CORRUPTED: %s (%s)", result.getFileName(), result.getError()));
+      }
+    }
+    return result;
+  }
+
+}
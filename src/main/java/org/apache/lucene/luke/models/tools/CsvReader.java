@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.tools;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Minimal reader for comma separated values (RFC 4180).
+ *
+ * Values may be quoted with double quotes, quoted values may contain delimiters, line breaks
+ * and escaped quotes (""). Both CRLF and LF are accepted as record separators.
+ */
+final class CsvReader {
+
+  private final Reader in;
+
+  private final char delimiter;
+
+  private int lineNumber = 1;
+
+  private int pushback = -2;
+
+  CsvReader(@Nonnull Reader in, char delimiter) {
+    this.in = in;
+    this.delimiter = delimiter;
+  }
+
+  /**
+   * Returns the line number where the next record starts.
+   */
+  int getLineNumber() {
+    return lineNumber;
+  }
+
+  /**
+   * Reads the next record.
+   *
+   * @return values of the record, or null if the end of the input has been reached
+   * @throws IOException - if an I/O error occurs or a quoted value is not closed
+   */
+  List<String> readRecord() throws IOException {
+    int c = read();
+    if (c == -1) {
+      return null;
+    }
+
+    List<String> values = new ArrayList<>();
+    StringBuilder sb = new StringBuilder();
+    boolean quoted = false;
+    boolean wasQuoted = false;
+    while (true) {
+      if (quoted) {
+        if (c == -1) {
+          throw new IOException(String.format(Locale.ROOT, "Unclosed quoted value at line %d", lineNumber));
+        } else if (c == '"') {
+          int n = read();
+          if (n == '"') {
+            sb.append('"');
+          } else {
+            quoted = false;
+            c = n;
+            continue;
+          }
+        } else {
+          if (c == '\n') {
+            lineNumber++;
+          }
+          sb.append((char) c);
+        }
+      } else if (c == '"' && sb.length() == 0 && !wasQuoted) {
+        quoted = true;
+        wasQuoted = true;
+      } else if (c == delimiter) {
+        values.add(sb.toString());
+        sb.setLength(0);
+        wasQuoted = false;
+      } else if (c == '\r' || c == '\n' || c == -1) {
+        if (c == '\r') {
+          int n = read();
+          if (n != '\n') {
+            unread(n);
+          }
+        }
+        if (c != -1) {
+          lineNumber++;
+        }
+        values.add(sb.toString());
+        return values;
+      } else {
+        sb.append((char) c);
+      }
+      c = read();
+    }
+  }
+
+  private int read() throws IOException {
+    if (pushback != -2) {
+      int c = pushback;
+      pushback = -2;
+      return c;
+    }
+    return in.read();
+  }
+
+  private void unread(int c) {
+    pushback = c;
+  }
+}
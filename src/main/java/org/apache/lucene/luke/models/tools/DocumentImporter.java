@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.tools;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FloatPoint;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.luke.models.ProgressMonitor;
+import org.apache.lucene.util.BytesRef;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Streams records from JSON Lines or CSV input into an index writer, from a pool of indexing threads.
+ *
+ * The calling thread reads the input and hands batches of records to the pool. When all threads are busy,
+ * the calling thread indexes the batch by itself, so that the input is not read ahead without limit.
+ */
+final class DocumentImporter {
+
+  static final int MAX_ERRORS = 100;
+
+  private static final int BATCH_SIZE = 100;
+
+  private static final long REPORT_INTERVAL_DOCS = 1000;
+
+  private final IndexWriter writer;
+
+  private final ImportConfig config;
+
+  private final PrintStream ps;
+
+  private final ProgressMonitor monitor;
+
+  private final AtomicLong numDocs = new AtomicLong();
+
+  private final AtomicLong numFailed = new AtomicLong();
+
+  private final AtomicInteger numCommits = new AtomicInteger();
+
+  private final List<String> errors = new ArrayList<>();
+
+  private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+  static ImportStatus run(@Nonnull IndexWriter writer, @Nonnull Reader input, @Nonnull ImportConfig config,
+                          @Nullable PrintStream ps, @Nullable ProgressMonitor monitor)
+      throws IOException, InterruptedException {
+    return new DocumentImporter(writer, config, ps, monitor).run(input);
+  }
+
+  /**
+   * Returns the field names found at the beginning of the input,
+   * the header of CSV or the keys of the first JSON record.
+   */
+  static List<String> readColumns(@Nonnull Reader input, @Nonnull ImportConfig.Format format) throws IOException {
+    BufferedReader br = new BufferedReader(input);
+    if (format == ImportConfig.Format.CSV) {
+      List<String> header = new CsvReader(br, ',').readRecord();
+      return header == null ? new ArrayList<>() : header;
+    }
+    String line;
+    while ((line = br.readLine()) != null) {
+      if (!line.trim().isEmpty()) {
+        return new ArrayList<>(JsonLinesParser.parse(line).keySet());
+      }
+    }
+    return new ArrayList<>();
+  }
+
+  private DocumentImporter(IndexWriter writer, ImportConfig config, PrintStream ps, ProgressMonitor monitor) {
+    this.writer = writer;
+    this.config = config;
+    this.ps = ps;
+    this.monitor = monitor;
+  }
+
+  private ImportStatus run(Reader input) throws IOException, InterruptedException {
+    long start = System.currentTimeMillis();
+    int numThreads = config.getNumThreads();
+    ExecutorService executor = new ThreadPoolExecutor(numThreads, numThreads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(numThreads * 2),
+        new ThreadFactoryBuilder().setNameFormat("luke-import-%d").setDaemon(true).build(),
+        new ThreadPoolExecutor.CallerRunsPolicy());
+    try {
+      BufferedReader br = new BufferedReader(input);
+      if (config.getFormat() == ImportConfig.Format.CSV) {
+        readCsv(br, executor);
+      } else {
+        readJsonLines(br, executor);
+      }
+      executor.shutdown();
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    } finally {
+      if (!executor.isTerminated()) {
+        // the writer threads are not interrupted, that would close the index files they are writing;
+        // the queued batches are skipped and the running ones stop at the next record
+        failure.compareAndSet(null, new IOException("Import was aborted."));
+        executor.shutdown();
+      }
+    }
+
+    Exception e = failure.get();
+    if (e instanceof IOException) {
+      throw (IOException) e;
+    } else if (e != null) {
+      throw new IOException(e);
+    }
+
+    writer.commit();
+    numCommits.incrementAndGet();
+    report();
+
+    List<String> errorsCopy;
+    synchronized (errors) {
+      errorsCopy = new ArrayList<>(errors);
+    }
+    return ImportStatus.of(numDocs.get(), numFailed.get(), numCommits.get(), numThreads,
+        System.currentTimeMillis() - start, errorsCopy);
+  }
+
+  private void readJsonLines(BufferedReader br, ExecutorService executor) throws IOException, InterruptedException {
+    List<Record> batch = new ArrayList<>();
+    int lineNumber = 0;
+    String line;
+    // stop reading once a batch failed, the rest of the input would be discarded anyway
+    while (failure.get() == null && (line = br.readLine()) != null) {
+      lineNumber++;
+      if (line.trim().isEmpty()) {
+        continue;
+      }
+      batch.add(new Record(lineNumber, line, null));
+      if (batch.size() >= BATCH_SIZE) {
+        submit(batch, executor);
+        batch = new ArrayList<>();
+      }
+    }
+    submit(batch, executor);
+  }
+
+  private void readCsv(BufferedReader br, ExecutorService executor) throws IOException, InterruptedException {
+    CsvReader csv = new CsvReader(br, ',');
+    List<String> header = csv.readRecord();
+    if (header == null) {
+      return;
+    }
+
+    List<Record> batch = new ArrayList<>();
+    // stop reading once a batch failed, the rest of the input would be discarded anyway
+    while (failure.get() == null) {
+      int lineNumber = csv.getLineNumber();
+      List<String> values = csv.readRecord();
+      if (values == null) {
+        break;
+      }
+      if (values.size() == 1 && values.get(0).isEmpty()) {
+        continue;
+      }
+      if (values.size() != header.size()) {
+        fail(lineNumber, String.format(Locale.ROOT, "Expected %d values but found %d", header.size(), values.size()));
+        continue;
+      }
+      Map<String, List<String>> fields = new LinkedHashMap<>();
+      for (int i = 0; i < header.size(); i++) {
+        // empty values are treated as missing
+        if (!values.get(i).isEmpty()) {
+          fields.computeIfAbsent(header.get(i), k -> new ArrayList<>()).add(values.get(i));
+        }
+      }
+      batch.add(new Record(lineNumber, null, fields));
+      if (batch.size() >= BATCH_SIZE) {
+        submit(batch, executor);
+        batch = new ArrayList<>();
+      }
+    }
+    submit(batch, executor);
+  }
+
+  private void submit(List<Record> batch, ExecutorService executor) throws InterruptedException {
+    if (Thread.currentThread().isInterrupted()) {
+      throw new InterruptedException();
+    }
+    if (batch.isEmpty() || failure.get() != null) {
+      return;
+    }
+    executor.execute(() -> {
+      for (Record record : batch) {
+        if (failure.get() != null) {
+          return;
+        }
+        index(record);
+      }
+    });
+  }
+
+  private void index(Record record) {
+    try {
+      Map<String, List<String>> fields = record.fields != null ? record.fields : JsonLinesParser.parse(record.json);
+      Document doc = new Document();
+      for (Map.Entry<String, List<String>> entry : fields.entrySet()) {
+        Class<? extends Field> type = config.getFieldTypes().getOrDefault(entry.getKey(), config.getDefaultFieldType());
+        for (String value : entry.getValue()) {
+          doc.add(createField(entry.getKey(), value, type));
+        }
+      }
+      writer.addDocument(doc);
+
+      long count = numDocs.incrementAndGet();
+      if (config.getCommitInterval() > 0 && count % config.getCommitInterval() == 0) {
+        writer.commit();
+        numCommits.incrementAndGet();
+      }
+      if (count % REPORT_INTERVAL_DOCS == 0) {
+        report();
+      }
+    } catch (IllegalArgumentException e) {
+      // invalid record, or values those cannot be indexed with the field type
+      fail(record.lineNumber, e.getMessage());
+    } catch (IOException | RuntimeException e) {
+      failure.compareAndSet(null, e);
+    }
+  }
+
+  private static Field createField(String name, String value, Class<? extends Field> type) {
+    if (type.equals(TextField.class)) {
+      return new TextField(name, value, Field.Store.YES);
+    } else if (type.equals(StringField.class)) {
+      return new StringField(name, value, Field.Store.YES);
+    } else if (type.equals(IntPoint.class)) {
+      return new IntPoint(name, Integer.parseInt(value.trim()));
+    } else if (type.equals(LongPoint.class)) {
+      return new LongPoint(name, Long.parseLong(value.trim()));
+    } else if (type.equals(FloatPoint.class)) {
+      return new FloatPoint(name, Float.parseFloat(value.trim()));
+    } else if (type.equals(DoublePoint.class)) {
+      return new DoublePoint(name, Double.parseDouble(value.trim()));
+    } else if (type.equals(SortedDocValuesField.class)) {
+      return new SortedDocValuesField(name, new BytesRef(value));
+    } else if (type.equals(SortedSetDocValuesField.class)) {
+      return new SortedSetDocValuesField(name, new BytesRef(value));
+    } else if (type.equals(NumericDocValuesField.class)) {
+      return new NumericDocValuesField(name, Long.parseLong(value.trim()));
+    } else if (type.equals(SortedNumericDocValuesField.class)) {
+      return new SortedNumericDocValuesField(name, Long.parseLong(value.trim()));
+    } else if (type.equals(StoredField.class)) {
+      return new StoredField(name, value);
+    } else {
+      throw new IllegalArgumentException("Unsupported field type: " + type.getName());
+    }
+  }
+
+  private void fail(int lineNumber, String message) {
+    numFailed.incrementAndGet();
+    synchronized (errors) {
+      if (errors.size() < MAX_ERRORS) {
+        String error = String.format(Locale.ROOT, "line %d: %s", lineNumber, message);
+        errors.add(error);
+        if (ps != null) {
+          synchronized (ps) {
+            ps.println("SKIPPED: " + error);
+          }
+        }
+      }
+    }
+  }
+
+  private void report() {
+    if (monitor != null) {
+      // the number of records in the input is unknown until the end
+      monitor.progress(numDocs.get(), -1);
+    }
+  }
+
+  private static final class Record {
+
+    final int lineNumber;
+
+    final String json;
+
+    final Map<String, List<String>> fields;
+
+    Record(int lineNumber, @Nullable String json, @Nullable Map<String, List<String>> fields) {
+      this.lineNumber = lineNumber;
+      this.json = json;
+      this.fields = fields;
+    }
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.tools;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.TextField;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+
+/**
+ * Configurations for importing documents in bulk.
+ */
+public final class ImportConfig {
+
+  /**
+   * Input file formats.
+   */
+  public enum Format {
+    /** One JSON object per line. */
+    JSONL,
+    /** Comma separated values with a header line. */
+    CSV
+  }
+
+  private final Format format;
+
+  private final Map<String, Class<? extends Field>> fieldTypes;
+
+  private final Class<? extends Field> defaultFieldType;
+
+  private final int numThreads;
+
+  private final double ramBufferSizeMB;
+
+  private final int commitInterval;
+
+  public static class Builder {
+    private Format format = Format.JSONL;
+    private Map<String, Class<? extends Field>> fieldTypes = ImmutableMap.of();
+    private Class<? extends Field> defaultFieldType = TextField.class;
+    private int numThreads = 4;
+    private double ramBufferSizeMB = 64.0;
+    private int commitInterval = 0;
+
+    public Builder format(@Nonnull Format val) {
+      format = val;
+      return this;
+    }
+
+    public Builder fieldTypes(@Nonnull Map<String, Class<? extends Field>> val) {
+      fieldTypes = ImmutableMap.copyOf(val);
+      return this;
+    }
+
+    public Builder defaultFieldType(@Nonnull Class<? extends Field> val) {
+      defaultFieldType = val;
+      return this;
+    }
+
+    public Builder numThreads(int val) {
+      numThreads = val;
+      return this;
+    }
+
+    public Builder ramBufferSizeMB(double val) {
+      ramBufferSizeMB = val;
+      return this;
+    }
+
+    public Builder commitInterval(int val) {
+      commitInterval = val;
+      return this;
+    }
+
+    public ImportConfig build() {
+      return new ImportConfig(this);
+    }
+  }
+
+  private ImportConfig(Builder builder) {
+    this.format = builder.format;
+    this.fieldTypes = builder.fieldTypes;
+    this.defaultFieldType = builder.defaultFieldType;
+    this.numThreads = Math.max(1, builder.numThreads);
+    this.ramBufferSizeMB = builder.ramBufferSizeMB;
+    this.commitInterval = builder.commitInterval;
+  }
+
+  public Format getFormat() {
+    return format;
+  }
+
+  /**
+   * Returns the field classes (one of {@link IndexTools#getPresetFields()}) for the input columns.
+   */
+  public Map<String, Class<? extends Field>> getFieldTypes() {
+    return fieldTypes;
+  }
+
+  /**
+   * Returns the field class for the columns not included in {@link #getFieldTypes()}.
+   */
+  public Class<? extends Field> getDefaultFieldType() {
+    return defaultFieldType;
+  }
+
+  public int getNumThreads() {
+    return numThreads;
+  }
+
+  public double getRamBufferSizeMB() {
+    return ramBufferSizeMB;
+  }
+
+  /**
+   * Returns the number of documents between commits, zero or negative value means committing only at the end.
+   */
+  public int getCommitInterval() {
+    return commitInterval;
+  }
+
+  @Override
+  public String toString() {
+    return "ImportConfig: [" +
+        String.format(" format=%s;", format.name()) +
+        String.format(" field types=%s;", fieldTypes.toString()) +
+        String.format(" default field type=%s;", defaultFieldType.getSimpleName()) +
+        String.format(" threads=%d;", numThreads) +
+        String.format(" RAM buffer=%.1fMB;", ramBufferSizeMB) +
+        String.format(" commit interval=%d;", commitInterval) +
+        "]";
+  }
+}
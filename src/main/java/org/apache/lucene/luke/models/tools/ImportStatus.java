@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.tools;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Holder for the result of a bulk document import.
+ */
+public final class ImportStatus {
+
+  private long numDocs;
+
+  private long numFailed;
+
+  private int numCommits;
+
+  private int numThreads;
+
+  private long elapsedMillis;
+
+  private List<String> errors;
+
+  static ImportStatus of(long numDocs, long numFailed, int numCommits, int numThreads, long elapsedMillis,
+                         @Nonnull List<String> errors) {
+    ImportStatus res = new ImportStatus();
+    res.numDocs = numDocs;
+    res.numFailed = numFailed;
+    res.numCommits = numCommits;
+    res.numThreads = numThreads;
+    res.elapsedMillis = elapsedMillis;
+    res.errors = ImmutableList.copyOf(errors);
+    return res;
+  }
+
+  /**
+   * Returns the number of documents added to the index.
+   */
+  public long getNumDocs() {
+    return numDocs;
+  }
+
+  /**
+   * Returns the number of records those could not be parsed or indexed.
+   */
+  public long getNumFailed() {
+    return numFailed;
+  }
+
+  /**
+   * Returns the number of commits, including the final one.
+   */
+  public int getNumCommits() {
+    return numCommits;
+  }
+
+  /**
+   * Returns the number of threads those indexed the documents.
+   */
+  public int getNumThreads() {
+    return numThreads;
+  }
+
+  /**
+   * Returns the wall clock time of the import in milliseconds.
+   */
+  public long getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  /**
+   * Returns the average indexing throughput in documents per second.
+   */
+  public long getDocsPerSecond() {
+    return numDocs * 1000 / Math.max(1, elapsedMillis);
+  }
+
+  /**
+   * Returns the error messages for the failed records, up to the first 100 records.
+   */
+  public List<String> getErrors() {
+    return ImmutableList.copyOf(errors);
+  }
+
+  private ImportStatus() {
+  }
+}
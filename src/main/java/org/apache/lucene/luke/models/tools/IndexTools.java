@@ -22,10 +22,14 @@ import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.index.CheckIndex;
 import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.ProgressMonitor;
 import org.apache.lucene.search.Query;
 
 import java.io.PrintStream;
+import java.nio.file.Path;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
  * A dedicated interface for Luke's various index manipulations.
@@ -47,6 +51,28 @@ public interface IndexTools {
    */
   void optimize(boolean expunge, int maxNumSegments, PrintStream ps);
 
+  /**
+   * Execute force merges with the specified merge scheduler settings, reporting the progress.
+   *
+   * <p>
+   * The progress is reported as the bytes written by the merges and the estimated total bytes to be merged.
+   * The operation can be aborted by {@link #abortOptimize()}, then the index is left as of the last commit.
+   * </p>
+   *
+   * @param config - optimize configurations
+   * @param ps - information stream
+   * @param monitor - progress monitor
+   * @throws LukeException - if an internal error occurs when accessing index, or the operation was aborted
+   */
+  void optimize(OptimizeConfig config, PrintStream ps, ProgressMonitor monitor);
+
+  /**
+   * Abort the running optimization by rolling back the index writer.
+   *
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  void abortOptimize();
+
   /**
    * Check the current index status.
    *
@@ -56,6 +82,47 @@ public interface IndexTools {
    */
   CheckIndex.Status checkIndex(PrintStream ps);
 
+  /**
+   * Check the current index status with the specified depth and segments.
+   *
+   * <p>
+   * If only some of the segments are checked, the returned status is partial and
+   * cannot be used for {@link IndexTools#repairIndex(CheckIndex.Status, PrintStream)}.
+   * </p>
+   *
+   * @param config - check configurations
+   * @param ps - information stream
+   * @return index status
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  CheckIndex.Status checkIndex(CheckIndexConfig config, PrintStream ps);
+
+  /**
+   * Returns the sizes of the segments in the latest commit of the current index.
+   *
+   * <p>Used for estimating the time needed to check the index, see {@link CheckIndexConfig#estimateMillis(Map)}.</p>
+   *
+   * @return segment sizes in bytes, keyed by segment name
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  Map<String, Long> getSegmentSizes();
+
+  /**
+   * Check the segments of the current index concurrently.
+   *
+   * <p>
+   * Each segment is checked by {@link CheckIndex} on its own, so the results are available per segment.
+   * The returned report cannot be used for {@link IndexTools#repairIndex(CheckIndex.Status, PrintStream)}.
+   * </p>
+   *
+   * @param numThreads - number of segments checked concurrently
+   * @param ps - information stream, the output of each segment is printed when the segment has been checked
+   * @param listener - listener notified of each segment result while the check is running
+   * @return per-segment check report
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  SegmentCheckReport checkSegments(int numThreads, PrintStream ps, SegmentCheckListener listener);
+
   /**
    * Try to repair the corrupted index using previously returned index status.
    *
@@ -67,6 +134,23 @@ public interface IndexTools {
    */
   void repairIndex(CheckIndex.Status st, PrintStream ps);
 
+  /**
+   * Verify the checksums of all files referenced by the current commit.
+   *
+   * <p>
+   * Only the checksum footers are verified, so this is much faster than {@link IndexTools#checkIndex(PrintStream)}
+   * and detects bytes corrupted on disk or during copies, but not logical inconsistencies in the index.
+   * The segments file and segment infos are read to list the files, so their corruption is reported as an error.
+   * </p>
+   *
+   * @param numThreads - number of threads reading the files concurrently
+   * @param ps - information stream, corrupted files are printed as soon as they are found
+   * @param monitor - progress monitor, receives the bytes verified so far and the total bytes
+   * @return checksum status
+   * @throws LukeException - if an internal error occurs when accessing index
+   */
+  ChecksumStatus verifyChecksums(int numThreads, PrintStream ps, ProgressMonitor monitor);
+
   /**
    * Add new document to this index.
    *
@@ -76,6 +160,40 @@ public interface IndexTools {
    */
   void addDocument(Document doc, Analyzer analyzer);
 
+  /**
+   * Add documents from a JSON Lines or CSV file to this index.
+   *
+   * <p>
+   * The records are indexed by a pool of threads sharing one index writer, and committed once at the end
+   * or every <i>commitInterval</i> documents. Records those cannot be parsed or converted to the configured
+   * field types are skipped and reported in the returned status.
+   * </p>
+   * <p>
+   * If the import fails or is interrupted, the documents added after the last interval commit are rolled back;
+   * the interval commits already made are kept.
+   * </p>
+   *
+   * @param input - path to the input file
+   * @param config - import configurations
+   * @param analyzer - analyzer for parsing to documents
+   * @param ps - information stream
+   * @param monitor - progress monitor, receives the number of documents added so far; the total is always -1
+   * @return import status
+   * @throws LukeException - if an internal error occurs when accessing index or reading the input
+   */
+  ImportStatus importDocuments(Path input, ImportConfig config, Analyzer analyzer, PrintStream ps,
+                               ProgressMonitor monitor);
+
+  /**
+   * Returns the field names of the input file, from the CSV header or the first JSON record.
+   *
+   * @param input - path to the input file
+   * @param format - input file format
+   * @return field names
+   * @throws LukeException - if an internal error occurs when reading the input
+   */
+  List<String> getImportColumns(Path input, ImportConfig.Format format);
+
   /**
    * Delete documents from this index by the specified query.
    *
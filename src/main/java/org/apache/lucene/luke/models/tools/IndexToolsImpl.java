@@ -35,18 +35,29 @@ import org.apache.lucene.index.CheckIndex;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.SegmentCommitInfo;
+import org.apache.lucene.index.SegmentInfos;
 import org.apache.lucene.luke.models.LukeModel;
 import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.luke.models.ProgressMonitor;
 import org.apache.lucene.luke.util.IndexUtils;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.lucene.store.Directory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public final class IndexToolsImpl extends LukeModel implements IndexTools {
 
@@ -54,6 +65,10 @@ public final class IndexToolsImpl extends LukeModel implements IndexTools {
 
   private final boolean keepAllCommits;
 
+  private volatile IndexWriter optimizingWriter;
+
+  private volatile boolean optimizeAborted;
+
   private static final Class[] presetFieldClasses = new Class[]{
       TextField.class, StringField.class,
       IntPoint.class, LongPoint.class, FloatPoint.class, DoublePoint.class,
@@ -102,19 +117,112 @@ public final class IndexToolsImpl extends LukeModel implements IndexTools {
     }
   }
 
+  @Override
+  public void optimize(@Nonnull OptimizeConfig config, PrintStream ps, @Nullable ProgressMonitor monitor) {
+    if (!(reader instanceof DirectoryReader)) {
+      throw new LukeException("Current reader is not a DirectoryReader.");
+    }
+
+    ProgressMergeScheduler scheduler = new ProgressMergeScheduler(monitor);
+    if (config.getMaxMergeThreads() > 0) {
+      // allow a few merges to be queued besides the running ones, as the default settings do
+      scheduler.setMaxMergesAndThreads(config.getMaxMergeThreads() + 5, config.getMaxMergeThreads());
+    }
+    if (config.getMaxMergeMBPerSec() > 0) {
+      // also applies to the merges of expunging deletes, which the force merge rate does not cover
+      scheduler.setMergeMBPerSec(config.getMaxMergeMBPerSec());
+    }
+
+    Directory dir = ((DirectoryReader) reader).directory();
+    optimizeAborted = false;
+    try (IndexWriter writer = IndexUtils.createWriter(dir, null, useCompound, keepAllCommits, ps, scheduler)) {
+      optimizingWriter = writer;
+      IndexUtils.optimizeIndex(writer, config.isExpunge(), config.getMaxNumSegments());
+    } catch (IOException | AlreadyClosedException e) {
+      if (optimizeAborted) {
+        throw new LukeException("Optimize was aborted.", e);
+      }
+      throw new LukeException("Failed to optimize index", e);
+    } finally {
+      optimizingWriter = null;
+    }
+    if (optimizeAborted) {
+      throw new LukeException("Optimize was aborted.");
+    }
+  }
+
+  @Override
+  public void abortOptimize() {
+    IndexWriter writer = optimizingWriter;
+    if (writer != null) {
+      optimizeAborted = true;
+      try {
+        writer.rollback();
+      } catch (IOException e) {
+        throw new LukeException("Failed to abort optimize", e);
+      }
+    }
+  }
+
   @Override
   public CheckIndex.Status checkIndex(PrintStream ps) {
+    return checkIndex(new CheckIndexConfig.Builder().build(), ps);
+  }
+
+  @Override
+  public CheckIndex.Status checkIndex(@Nonnull CheckIndexConfig config, PrintStream ps) {
     try {
-      if (dir != null) {
-        return IndexUtils.checkIndex(dir, ps);
-      } else if (reader instanceof DirectoryReader) {
-        Directory dir = ((DirectoryReader) reader).directory();
-        return IndexUtils.checkIndex(dir, ps);
-      } else {
-        throw new IllegalStateException("Directory is not set.");
+      CheckIndexConfig.Level level = config.getLevel();
+      return IndexUtils.checkIndex(indexDirectory(), level == CheckIndexConfig.Level.CHECKSUMS,
+          level == CheckIndexConfig.Level.FULL, config.getSegments(), ps);
+    } catch (Exception e) {
+      throw new LukeException("Failed to check index.", e);
+    }
+  }
+
+  @Override
+  public Map<String, Long> getSegmentSizes() {
+    try {
+      SegmentInfos infos = SegmentInfos.readLatestCommit(indexDirectory());
+      Map<String, Long> sizes = new LinkedHashMap<>();
+      for (SegmentCommitInfo info : infos) {
+        sizes.put(info.info.name, info.sizeInBytes());
       }
+      return sizes;
     } catch (Exception e) {
+      throw new LukeException("Failed to read segment sizes.", e);
+    }
+  }
+
+  private Directory indexDirectory() {
+    if (dir != null) {
+      return dir;
+    } else if (reader instanceof DirectoryReader) {
+      return ((DirectoryReader) reader).directory();
+    } else {
+      throw new IllegalStateException("Directory is not set.");
+    }
+  }
+
+  @Override
+  public SegmentCheckReport checkSegments(int numThreads, @Nullable PrintStream ps,
+                                          @Nullable SegmentCheckListener listener) {
+    if (dir == null) {
+      throw new LukeException("Directory is not set.");
+    }
+    try {
+      SegmentCheckReport report = SegmentChecker.check(dir, numThreads, ps, listener);
+      if (ps != null) {
+        ps.println(String.format("Checked %d segments of commit generation %d with %d threads in %d ms: %s",
+            report.getSegments().size(), report.getGeneration(), report.getNumThreads(), report.getElapsedMillis(),
+            report.isClean() ? "OK" : report.getNumBadSegments() + " bad segments"));
+      }
+      return report;
+    } catch (IOException e) {
       throw new LukeException("Failed to check index.", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LukeException("Index check was interrupted.", e);
     }
   }
 
@@ -131,6 +239,37 @@ public final class IndexToolsImpl extends LukeModel implements IndexTools {
     }
   }
 
+  @Override
+  public ChecksumStatus verifyChecksums(int numThreads, @Nullable PrintStream ps, @Nullable ProgressMonitor monitor) {
+    if (dir == null) {
+      throw new LukeException("Directory is not set.");
+    }
+    try {
+      long generation;
+      Collection<String> fileNames;
+      if (commit != null) {
+        generation = commit.getGeneration();
+        fileNames = commit.getFileNames();
+      } else {
+        SegmentInfos infos = SegmentInfos.readLatestCommit(dir);
+        generation = infos.getGeneration();
+        fileNames = infos.files(true);
+      }
+      ChecksumStatus status = ChecksumVerifier.verify(dir, generation, fileNames, numThreads, ps, monitor);
+      if (ps != null) {
+        ps.println(String.format("Verified %d files (%d bytes) of commit generation %d in %d ms: %s",
+            status.getFiles().size(), status.getTotalBytes(), generation, status.getElapsedMillis(),
+            status.isClean() ? "OK" : status.getCorruptedFiles().size() + " corrupted"));
+      }
+      return status;
+    } catch (IOException e) {
+      throw new LukeException("Failed to verify checksums.", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LukeException("Checksum verification was interrupted.", e);
+    }
+  }
+
   @Override
   public void addDocument(Document doc, @Nullable Analyzer analyzer) {
     if (reader instanceof DirectoryReader) {
@@ -146,6 +285,51 @@ public final class IndexToolsImpl extends LukeModel implements IndexTools {
     }
   }
 
+  @Override
+  public ImportStatus importDocuments(@Nonnull Path input, @Nonnull ImportConfig config, @Nullable Analyzer analyzer,
+                                      @Nullable PrintStream ps, @Nullable ProgressMonitor monitor) {
+    if (!(reader instanceof DirectoryReader)) {
+      throw new LukeException("Current reader is not an instance of DirectoryReader.");
+    }
+    Directory dir = ((DirectoryReader) reader).directory();
+    try (IndexWriter writer = IndexUtils.createWriter(dir, analyzer, useCompound, keepAllCommits);
+         Reader in = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+      writer.getConfig().setRAMBufferSizeMB(config.getRamBufferSizeMB());
+      ImportStatus status;
+      try {
+        status = DocumentImporter.run(writer, in, config, ps, monitor);
+      } catch (IOException | InterruptedException | RuntimeException e) {
+        // closing the writer would commit the partial import; drop everything after the last interval commit
+        try {
+          writer.rollback();
+        } catch (IOException re) {
+          e.addSuppressed(re);
+        }
+        throw e;
+      }
+      if (ps != null) {
+        ps.println(String.format("Imported %d documents with %d threads in %d ms (%d docs/s), %d records skipped.",
+            status.getNumDocs(), status.getNumThreads(), status.getElapsedMillis(), status.getDocsPerSecond(),
+            status.getNumFailed()));
+      }
+      return status;
+    } catch (IOException e) {
+      throw new LukeException(String.format("Failed to import documents from: %s", input.toString()), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LukeException("Document import was interrupted.", e);
+    }
+  }
+
+  @Override
+  public List<String> getImportColumns(@Nonnull Path input, @Nonnull ImportConfig.Format format) {
+    try (Reader in = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+      return DocumentImporter.readColumns(in, format);
+    } catch (IOException | IllegalArgumentException e) {
+      throw new LukeException(String.format("Failed to read columns from: %s", input.toString()), e);
+    }
+  }
+
   @Override
   public void deleteDocuments(@Nonnull Query query) {
     if (reader instanceof DirectoryReader) {
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.tools;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Minimal parser for JSON Lines records.
+ *
+ * Each line must be a JSON object. Nested objects are flattened into dotted field names,
+ * arrays become multiple values of the same field and null values are skipped.
+ * Numbers and booleans are returned as their literal text.
+ */
+final class JsonLinesParser {
+
+  private final String text;
+
+  private int pos;
+
+  /**
+   * Parses a line into a map of field names to values, keeping the order of the fields.
+   *
+   * @param line - a JSON object
+   * @return field values
+   * @throws IllegalArgumentException - if the line is not a valid JSON object
+   */
+  static Map<String, List<String>> parse(@Nonnull String line) {
+    JsonLinesParser parser = new JsonLinesParser(line);
+    Map<String, List<String>> record = new LinkedHashMap<>();
+    parser.skipWhitespace();
+    parser.parseObject("", record);
+    parser.skipWhitespace();
+    if (parser.pos < line.length()) {
+      throw parser.error("Unexpected trailing characters");
+    }
+    return record;
+  }
+
+  private JsonLinesParser(String text) {
+    this.text = text;
+  }
+
+  private void parseObject(String prefix, Map<String, List<String>> record) {
+    expect('{');
+    skipWhitespace();
+    if (peek() == '}') {
+      pos++;
+      return;
+    }
+    while (true) {
+      skipWhitespace();
+      String key = parseString();
+      skipWhitespace();
+      expect(':');
+      skipWhitespace();
+      parseValue(prefix + key, record);
+      skipWhitespace();
+      char c = next();
+      if (c == '}') {
+        return;
+      } else if (c != ',') {
+        pos--;
+        throw error("Expected ',' or '}'");
+      }
+    }
+  }
+
+  private void parseValue(String name, Map<String, List<String>> record) {
+    char c = peek();
+    if (c == '{') {
+      parseObject(name + ".", record);
+    } else if (c == '[') {
+      parseArray(name, record);
+    } else if (c == '"') {
+      addValue(name, parseString(), record);
+    } else {
+      String literal = parseLiteral();
+      if (!literal.equals("null")) {
+        addValue(name, literal, record);
+      }
+    }
+  }
+
+  private void parseArray(String name, Map<String, List<String>> record) {
+    expect('[');
+    skipWhitespace();
+    if (peek() == ']') {
+      pos++;
+      return;
+    }
+    while (true) {
+      skipWhitespace();
+      parseValue(name, record);
+      skipWhitespace();
+      char c = next();
+      if (c == ']') {
+        return;
+      } else if (c != ',') {
+        pos--;
+        throw error("Expected ',' or ']'");
+      }
+    }
+  }
+
+  private String parseString() {
+    expect('"');
+    StringBuilder sb = new StringBuilder();
+    while (true) {
+      char c = next();
+      if (c == '"') {
+        return sb.toString();
+      } else if (c == '\\') {
+        char e = next();
+        switch (e) {
+          case '"':
+          case '\\':
+          case '/':
+            sb.append(e);
+            break;
+          case 'b':
+            sb.append('\b');
+            break;
+          case 'f':
+            sb.append('\f');
+            break;
+          case 'n':
+            sb.append('\n');
+            break;
+          case 'r':
+            sb.append('\r');
+            break;
+          case 't':
+            sb.append('\t');
+            break;
+          case 'u':
+            if (pos + 4 > text.length()) {
+              throw error("Incomplete unicode escape");
+            }
+            try {
+              sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+            } catch (NumberFormatException ex) {
+              throw error("Invalid unicode escape");
+            }
+            pos += 4;
+            break;
+          default:
+            pos--;
+            throw error("Invalid escape character");
+        }
+      } else {
+        sb.append(c);
+      }
+    }
+  }
+
+  private String parseLiteral() {
+    int start = pos;
+    while (pos < text.length() && "{}[],: \t\r\n\"".indexOf(text.charAt(pos)) < 0) {
+      pos++;
+    }
+    String literal = text.substring(start, pos);
+    if (literal.equals("true") || literal.equals("false") || literal.equals("null")) {
+      return literal;
+    }
+    try {
+      Double.parseDouble(literal);
+    } catch (NumberFormatException e) {
+      pos = start;
+      throw error("Invalid value");
+    }
+    return literal;
+  }
+
+  private static void addValue(String name, String value, Map<String, List<String>> record) {
+    record.computeIfAbsent(name, k -> new ArrayList<>()).add(value);
+  }
+
+  private void skipWhitespace() {
+    while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+      pos++;
+    }
+  }
+
+  private char peek() {
+    if (pos >= text.length()) {
+      throw error("Unexpected end of line");
+    }
+    return text.charAt(pos);
+  }
+
+  private char next() {
+    char c = peek();
+    pos++;
+    return c;
+  }
+
+  private void expect(char expected) {
+    if (next() != expected) {
+      pos--;
+      throw error("Expected '" + expected + "'");
+    }
+  }
+
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException(String.format(Locale.ROOT, "%s at position %d", message, pos));
+  }
+}
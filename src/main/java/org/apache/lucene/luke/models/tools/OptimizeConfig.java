@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.tools;
+
+/**
+ * Configurations for optimizing (force merging) the index.
+ */
+public final class OptimizeConfig {
+
+  private final boolean expunge;
+
+  private final int maxNumSegments;
+
+  private final int maxMergeThreads;
+
+  private final double maxMergeMBPerSec;
+
+  public static class Builder {
+    private boolean expunge = false;
+    private int maxNumSegments = 1;
+    private int maxMergeThreads = 0;
+    private double maxMergeMBPerSec = 0;
+
+    public Builder expunge(boolean val) {
+      expunge = val;
+      return this;
+    }
+
+    public Builder maxNumSegments(int val) {
+      maxNumSegments = val;
+      return this;
+    }
+
+    public Builder maxMergeThreads(int val) {
+      maxMergeThreads = val;
+      return this;
+    }
+
+    public Builder maxMergeMBPerSec(double val) {
+      maxMergeMBPerSec = val;
+      return this;
+    }
+
+    public OptimizeConfig build() {
+      return new OptimizeConfig(this);
+    }
+  }
+
+  private OptimizeConfig(Builder builder) {
+    this.expunge = builder.expunge;
+    this.maxNumSegments = builder.maxNumSegments;
+    this.maxMergeThreads = builder.maxMergeThreads;
+    this.maxMergeMBPerSec = builder.maxMergeMBPerSec;
+  }
+
+  /**
+   * Returns true if only segments having deleted documents are merged.
+   */
+  public boolean isExpunge() {
+    return expunge;
+  }
+
+  public int getMaxNumSegments() {
+    return maxNumSegments;
+  }
+
+  /**
+   * Returns the max number of merge threads, zero or negative value means auto detection.
+   */
+  public int getMaxMergeThreads() {
+    return maxMergeThreads;
+  }
+
+  /**
+   * Returns the I/O rate limit of the merges in MB per second, zero or negative value means no limit.
+   */
+  public double getMaxMergeMBPerSec() {
+    return maxMergeMBPerSec;
+  }
+
+  @Override
+  public String toString() {
+    return "OptimizeConfig: [" +
+        String.format(" expunge=%s;", expunge) +
+        String.format(" max num segments=%d;", maxNumSegments) +
+        String.format(" max merge threads=%d;", maxMergeThreads) +
+        String.format(" max merge MB/s=%.1f;", maxMergeMBPerSec) +
+        "]";
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.tools;
+
+import org.apache.lucene.index.ConcurrentMergeScheduler;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.MergePolicy;
+import org.apache.lucene.luke.models.ProgressMonitor;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FilterDirectory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.store.RateLimitedIndexOutput;
+import org.apache.lucene.store.RateLimiter;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Merge scheduler that reports the bytes written by the running merges.
+ *
+ * The total is the sum of the estimated sizes of all merges started so far, so it grows
+ * when a forced merge needs more than one round (cascading merges).
+ */
+final class ProgressMergeScheduler extends ConcurrentMergeScheduler {
+
+  private static final long REPORT_INTERVAL_BYTES = 1024 * 1024;
+
+  private final ProgressMonitor monitor;
+
+  // bytes written by the running merges
+  private final Map<MergePolicy.OneMerge, AtomicLong> running = new ConcurrentHashMap<>();
+
+  private long finishedBytes;
+
+  private long totalBytes;
+
+  // write rate limit applied to every merge, or 0 for the default throttling of the scheduler
+  private volatile double mergeMBPerSec = 0;
+
+  ProgressMergeScheduler(@Nullable ProgressMonitor monitor) {
+    this.monitor = monitor;
+  }
+
+  /**
+   * Limits the write rate of every merge.
+   *
+   * The force merge rate of ConcurrentMergeScheduler only applies to merges with a target segment count,
+   * the merges of forceMergeDeletes are left to the auto IO throttle. This limit replaces both.
+   */
+  synchronized void setMergeMBPerSec(double mbPerSec) {
+    this.mergeMBPerSec = mbPerSec;
+    disableAutoIOThrottle();
+    setForceMergeMBPerSec(Double.POSITIVE_INFINITY);
+  }
+
+  @Override
+  protected void doMerge(IndexWriter writer, MergePolicy.OneMerge merge) throws IOException {
+    synchronized (this) {
+      totalBytes += merge.estimatedMergeBytes;
+    }
+    running.put(merge, new AtomicLong());
+    report();
+    try {
+      super.doMerge(writer, merge);
+    } finally {
+      running.remove(merge);
+      synchronized (this) {
+        finishedBytes += merge.estimatedMergeBytes;
+      }
+      report();
+    }
+  }
+
+  @Override
+  public Directory wrapForMerge(MergePolicy.OneMerge merge, Directory in) {
+    Directory wrapped = super.wrapForMerge(merge, in);
+    // one limiter per merge, shared by all files of the merge
+    RateLimiter limiter = mergeMBPerSec > 0 ? new MergeLimiter(merge, mergeMBPerSec) : null;
+    return new FilterDirectory(wrapped) {
+      @Override
+      public IndexOutput createOutput(String name, IOContext context) throws IOException {
+        IndexOutput out = in.createOutput(name, context);
+        if (limiter != null) {
+          out = new RateLimitedIndexOutput(limiter, out);
+        }
+        return new CountingIndexOutput(out, running.get(merge));
+      }
+    };
+  }
+
+  private void report() {
+    if (monitor == null) {
+      return;
+    }
+    long done;
+    long total;
+    synchronized (this) {
+      done = finishedBytes;
+      total = totalBytes;
+    }
+    for (Map.Entry<MergePolicy.OneMerge, AtomicLong> entry : running.entrySet()) {
+      // the estimation excludes deleted documents, the merged segment may be slightly larger
+      done += Math.min(entry.getValue().get(), entry.getKey().estimatedMergeBytes);
+    }
+    monitor.progress(Math.min(done, total), total);
+  }
+
+  /**
+   * Rate limiter which stops pausing once the merge is aborted, so that a rollback does not wait for it.
+   */
+  private static final class MergeLimiter extends RateLimiter {
+
+    private final MergePolicy.OneMerge merge;
+
+    private final RateLimiter.SimpleRateLimiter in;
+
+    MergeLimiter(MergePolicy.OneMerge merge, double mbPerSec) {
+      this.merge = merge;
+      this.in = new RateLimiter.SimpleRateLimiter(mbPerSec);
+    }
+
+    @Override
+    public void setMBPerSec(double mbPerSec) {
+      in.setMBPerSec(mbPerSec);
+    }
+
+    @Override
+    public double getMBPerSec() {
+      return in.getMBPerSec();
+    }
+
+    @Override
+    public long pause(long bytes) throws IOException {
+      merge.checkAborted();
+      return in.pause(bytes);
+    }
+
+    @Override
+    public long getMinPauseCheckBytes() {
+      return in.getMinPauseCheckBytes();
+    }
+  }
+
+  private final class CountingIndexOutput extends IndexOutput {
+
+    private final IndexOutput out;
+
+    private final AtomicLong mergeBytes;
+
+    private long unreported;
+
+    CountingIndexOutput(IndexOutput out, @Nullable AtomicLong mergeBytes) {
+      super("CountingIndexOutput(" + out.toString() + ")", out.getName());
+      this.out = out;
+      this.mergeBytes = mergeBytes == null ? new AtomicLong() : mergeBytes;
+    }
+
+    @Override
+    public void writeByte(byte b) throws IOException {
+      out.writeByte(b);
+      count(1);
+    }
+
+    @Override
+    public void writeBytes(byte[] b, int offset, int length) throws IOException {
+      out.writeBytes(b, offset, length);
+      count(length);
+    }
+
+    private void count(int length) {
+      mergeBytes.addAndGet(length);
+      unreported += length;
+      if (unreported >= REPORT_INTERVAL_BYTES) {
+        unreported = 0;
+        report();
+      }
+    }
+
+    @Override
+    public long getFilePointer() {
+      return out.getFilePointer();
+    }
+
+    @Override
+    public long getChecksum() throws IOException {
+      return out.getChecksum();
+    }
+
+    @Override
+    public void close() throws IOException {
+      out.close();
+    }
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.tools;
+
+import java.util.List;
+
+/**
+ * Callback for receiving the per-segment check results while the check is running.
+ * Methods may be called from non-UI threads, concurrently.
+ */
+public interface SegmentCheckListener {
+
+  /**
+   * Called once before the segments are checked.
+   *
+   * @param segmentNames - names of the segments to be checked
+   */
+  void started(List<String> segmentNames);
+
+  /**
+   * Called each time a segment has been checked.
+   *
+   * @param segment - check result for the segment
+   */
+  void checked(SegmentCheckReport.Segment segment);
+
+}
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.tools;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Holder for the result of the per-segment index check.
+ */
+public final class SegmentCheckReport {
+
+  /**
+   * Result of a segment check.
+   */
+  public enum State {
+    OK, FAILED
+  }
+
+  private long generation;
+
+  private int numThreads;
+
+  private long elapsedMillis;
+
+  private List<Segment> segments;
+
+  static SegmentCheckReport of(long generation, int numThreads, long elapsedMillis, @Nonnull List<Segment> segments) {
+    SegmentCheckReport res = new SegmentCheckReport();
+    res.generation = generation;
+    res.numThreads = numThreads;
+    res.elapsedMillis = elapsedMillis;
+    res.segments = ImmutableList.copyOf(segments);
+    return res;
+  }
+
+  /**
+   * Returns the generation of the checked commit.
+   */
+  public long getGeneration() {
+    return generation;
+  }
+
+  /**
+   * Returns the number of threads those checked the segments.
+   */
+  public int getNumThreads() {
+    return numThreads;
+  }
+
+  /**
+   * Returns the wall clock time of the whole check in milliseconds.
+   */
+  public long getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  /**
+   * Returns the results for all segments, in the order of the commit.
+   */
+  public List<Segment> getSegments() {
+    return ImmutableList.copyOf(segments);
+  }
+
+  /**
+   * Returns the number of segments those failed the check.
+   */
+  public int getNumBadSegments() {
+    return (int) segments.stream().filter(seg -> seg.getState() == State.FAILED).count();
+  }
+
+  /**
+   * Returns the number of documents those would be lost if the bad segments were removed.
+   */
+  public int getTotLoseDocCount() {
+    return segments.stream().mapToInt(Segment::getLoseDocCount).sum();
+  }
+
+  /**
+   * Returns true if all segments passed the check.
+   */
+  public boolean isClean() {
+    return getNumBadSegments() == 0;
+  }
+
+  private SegmentCheckReport() {
+  }
+
+  /**
+   * Holder for the check result of a segment.
+   */
+  public static final class Segment {
+
+    private String name;
+
+    private int maxDoc;
+
+    private State state;
+
+    private long elapsedMillis;
+
+    private String failedCheck;
+
+    private String error;
+
+    private int loseDocCount;
+
+    static Segment of(@Nonnull String name, int maxDoc, @Nonnull State state, long elapsedMillis,
+                      @Nonnull String failedCheck, @Nonnull String error, int loseDocCount) {
+      Segment res = new Segment();
+      res.name = name;
+      res.maxDoc = maxDoc;
+      res.state = state;
+      res.elapsedMillis = elapsedMillis;
+      res.failedCheck = failedCheck;
+      res.error = error;
+      res.loseDocCount = loseDocCount;
+      return res;
+    }
+
+    /**
+     * Returns the segment name.
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Returns the max doc of the segment.
+     */
+    public int getMaxDoc() {
+      return maxDoc;
+    }
+
+    /**
+     * Returns the result of the check.
+     */
+    public State getState() {
+      return state;
+    }
+
+    /**
+     * Returns the time spent for checking this segment in milliseconds.
+     */
+    public long getElapsedMillis() {
+      return elapsedMillis;
+    }
+
+    /**
+     * Returns the name of the sub-check that failed (e.g. "check integrity", "docvalues"), or empty string if passed.
+     */
+    public String getFailedCheck() {
+      return failedCheck;
+    }
+
+    /**
+     * Returns the error that made the check fail, or empty string if passed.
+     */
+    public String getError() {
+      return error;
+    }
+
+    /**
+     * Returns the number of live documents in the segment if it failed, otherwise 0.
+     */
+    public int getLoseDocCount() {
+      return loseDocCount;
+    }
+
+    private Segment() {
+    }
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.tools;
+
+import org.apache.lucene.index.CheckIndex;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.SegmentCommitInfo;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.luke.models.ParallelTasks;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.Lock;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+/**
+ * Runs {@link CheckIndex} on each segment of the latest commit concurrently.
+ *
+ * CheckIndex walks the segments one after another, but the segments are independent of each other.
+ * Every segment is checked by its own CheckIndex instance, all sharing one write lock that is held for the whole check.
+ */
+final class SegmentChecker {
+
+  private static final String TEST_PREFIX = "test: ";
+
+  private static final String EXCEPTION_MARKER = "full exception:";
+
+  private final Directory dir;
+
+  private final Lock writeLock;
+
+  private final PrintStream ps;
+
+  private final SegmentCheckListener listener;
+
+  static SegmentCheckReport check(@Nonnull Directory dir, int numThreads, @Nullable PrintStream ps,
+                                  @Nullable SegmentCheckListener listener) throws IOException, InterruptedException {
+    long start = System.currentTimeMillis();
+    try (Lock writeLock = dir.obtainLock(IndexWriter.WRITE_LOCK_NAME)) {
+      SegmentInfos infos = SegmentInfos.readLatestCommit(dir);
+      List<SegmentCheckReport.Segment> segments =
+          new SegmentChecker(dir, writeLock, ps, listener).run(infos, Math.max(1, numThreads));
+      return SegmentCheckReport.of(infos.getGeneration(), Math.max(1, numThreads),
+          System.currentTimeMillis() - start, segments);
+    }
+  }
+
+  private SegmentChecker(Directory dir, Lock writeLock, PrintStream ps, SegmentCheckListener listener) {
+    this.dir = dir;
+    this.writeLock = writeLock;
+    this.ps = ps;
+    this.listener = listener;
+  }
+
+  private List<SegmentCheckReport.Segment> run(SegmentInfos infos, int numThreads)
+      throws IOException, InterruptedException {
+    List<SegmentCommitInfo> segments = new ArrayList<>();
+    Map<String, Long> sizes = new HashMap<>();
+    for (SegmentCommitInfo info : infos) {
+      segments.add(info);
+      sizes.put(info.info.name, info.sizeInBytes());
+    }
+    if (listener != null) {
+      listener.started(segments.stream().map(info -> info.info.name).collect(Collectors.toList()));
+    }
+
+    // largest segments first, so that no thread is left with a huge segment at the end
+    List<SegmentCommitInfo> ordered = new ArrayList<>(segments);
+    ordered.sort(Comparator.comparingLong((SegmentCommitInfo info) -> sizes.get(info.info.name)).reversed());
+    List<Callable<SegmentCheckReport.Segment>> tasks = new ArrayList<>();
+    for (SegmentCommitInfo info : ordered) {
+      tasks.add(() -> checkSegment(info));
+    }
+
+    Map<String, SegmentCheckReport.Segment> results = new HashMap<>();
+    for (SegmentCheckReport.Segment result : ParallelTasks.runAll(tasks, numThreads, "luke-check-segment-%d")) {
+      results.put(result.getName(), result);
+    }
+
+    return segments.stream().map(info -> results.get(info.info.name)).collect(Collectors.toList());
+  }
+
+  private SegmentCheckReport.Segment checkSegment(SegmentCommitInfo info) throws IOException {
+    String name = info.info.name;
+    long start = System.currentTimeMillis();
+
+    ByteArrayOutputStream log = new ByteArrayOutputStream();
+    PrintStream segmentPs = new PrintStream(log, true, StandardCharsets.UTF_8.name());
+    // not closed: closing would release the write lock shared by all segment checks
+    CheckIndex checker = new CheckIndex(dir, writeLock);
+    checker.setInfoStream(segmentPs, false);
+    CheckIndex.Status st = checker.checkIndex(Collections.singletonList(name));
+    segmentPs.flush();
+    String text = log.toString(StandardCharsets.UTF_8.name());
+
+    SegmentCheckReport.Segment result;
+    long elapsed = System.currentTimeMillis() - start;
+    if (st.numBadSegments == 0 && !st.missingSegments && !st.cantOpenSegments) {
+      result = SegmentCheckReport.Segment.of(name, info.info.maxDoc(), SegmentCheckReport.State.OK, elapsed, "", "", 0);
+    } else {
+      CheckIndex.Status.SegmentInfoStatus sis = st.segmentInfos.isEmpty() ? null : st.segmentInfos.get(0);
+      result = SegmentCheckReport.Segment.of(name, info.info.maxDoc(), SegmentCheckReport.State.FAILED, elapsed,
+          failedCheck(text, sis), errorMessage(text, sis), st.totLoseDocCount);
+    }
+
+    if (ps != null) {
+      // keep the output of a segment together
+      synchronized (ps) {
+        ps.println(text);
+      }
+    }
+    if (listener != null) {
+      listener.checked(result);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the name of the last sub-check that was started, CheckIndex prints "test: name...." before each of them.
+   */
+  private static String failedCheck(String log, @Nullable CheckIndex.Status.SegmentInfoStatus sis) {
+    int idx = log.lastIndexOf(TEST_PREFIX);
+    if (idx >= 0) {
+      String rest = log.substring(idx + TEST_PREFIX.length());
+      int end = rest.indexOf("..");
+      if (end > 0) {
+        return rest.substring(0, end).trim();
+      }
+    }
+    if (sis != null && !sis.openReaderPassed) {
+      return "open reader";
+    }
+    return "unknown";
+  }
+
+  private static String errorMessage(String log, @Nullable CheckIndex.Status.SegmentInfoStatus sis) {
+    Throwable error = firstError(sis);
+    if (error != null) {
+      return error.toString();
+    }
+    // the exception is only printed to the info stream, its first line is the message
+    int idx = log.indexOf(EXCEPTION_MARKER);
+    if (idx >= 0) {
+      String rest = log.substring(idx + EXCEPTION_MARKER.length()).trim();
+      int end = rest.indexOf('\n');
+      return (end > 0 ? rest.substring(0, end) : rest).trim();
+    }
+    return "";
+  }
+
+  @Nullable
+  private static Throwable firstError(@Nullable CheckIndex.Status.SegmentInfoStatus sis) {
+    if (sis == null) {
+      return null;
+    }
+    if (sis.liveDocStatus != null && sis.liveDocStatus.error != null) {
+      return sis.liveDocStatus.error;
+    }
+    if (sis.fieldInfoStatus != null && sis.fieldInfoStatus.error != null) {
+      return sis.fieldInfoStatus.error;
+    }
+    if (sis.fieldNormStatus != null && sis.fieldNormStatus.error != null) {
+      return sis.fieldNormStatus.error;
+    }
+    if (sis.termIndexStatus != null && sis.termIndexStatus.error != null) {
+      return sis.termIndexStatus.error;
+    }
+    if (sis.storedFieldStatus != null && sis.storedFieldStatus.error != null) {
+      return sis.storedFieldStatus.error;
+    }
+    if (sis.termVectorStatus != null && sis.termVectorStatus.error != null) {
+      return sis.termVectorStatus.error;
+    }
+    if (sis.docValuesStatus != null && sis.docValuesStatus.error != null) {
+      return sis.docValuesStatus.error;
+    }
+    if (sis.pointsStatus != null && sis.pointsStatus.error != null) {
+      return sis.pointsStatus.error;
+    }
+    if (sis.indexSortStatus != null && sis.indexSortStatus.error != null) {
+      return sis.indexSortStatus.error;
+    }
+    return null;
+  }
+
+}
@@ -30,6 +30,7 @@ import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.KeepOnlyLastCommitDeletionPolicy;
+import org.apache.lucene.index.MergeScheduler;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.MultiDocValues;
 import org.apache.lucene.index.MultiFields;
@@ -228,6 +229,23 @@ public final class IndexUtils {
    */
   public static IndexWriter createWriter(@Nonnull Directory dir, Analyzer analyzer, boolean useCompound, boolean keepAllCommits,
                                          @Nullable PrintStream ps) throws IOException {
+    return createWriter(dir, analyzer, useCompound, keepAllCommits, ps, null);
+  }
+
+  /**
+   * Create an index writer with the merge scheduler.
+   *
+   * @param dir - index directory
+   * @param analyzer - analyser used by the index writer
+   * @param useCompound - if true, compound index files are used
+   * @param keepAllCommits - if true, all commit generations are kept
+   * @param ps - information stream
+   * @param scheduler - merge scheduler, the default scheduler is used if null
+   * @return new index writer
+   * @throws IOException
+   */
+  public static IndexWriter createWriter(@Nonnull Directory dir, Analyzer analyzer, boolean useCompound, boolean keepAllCommits,
+                                         @Nullable PrintStream ps, @Nullable MergeScheduler scheduler) throws IOException {
 
     IndexWriterConfig config = new IndexWriterConfig(analyzer == null ? new WhitespaceAnalyzer() : analyzer);
     config.setUseCompoundFile(useCompound);
@@ -239,6 +257,9 @@ public final class IndexUtils {
     } else {
       config.setIndexDeletionPolicy(new KeepOnlyLastCommitDeletionPolicy());
     }
+    if (scheduler != null) {
+      config.setMergeScheduler(scheduler);
+    }
 
     return new IndexWriter(dir, config);
   }
@@ -268,11 +289,32 @@ public final class IndexUtils {
    * @throws IOException
    */
   public static CheckIndex.Status checkIndex(@Nonnull Directory dir, @Nullable PrintStream ps) throws IOException {
+    return checkIndex(dir, false, false, null, ps);
+  }
+
+  /**
+   * Check the index status with the specified options.
+   *
+   * @param dir - index directory for checking
+   * @param checksumsOnly - if true, only the checksums of the segment files are verified
+   * @param crossCheckTermVectors - if true, term vectors are cross-checked against the postings
+   * @param onlySegments - names of the segments to be checked, all segments are checked if null or empty
+   * @param ps - information stream
+   * @throws IOException
+   */
+  public static CheckIndex.Status checkIndex(@Nonnull Directory dir, boolean checksumsOnly, boolean crossCheckTermVectors,
+                                             @Nullable List<String> onlySegments, @Nullable PrintStream ps)
+      throws IOException {
     try (CheckIndex ci = new CheckIndex(dir)) {
       if (ps != null) {
         ci.setInfoStream(ps);
       }
-      return ci.checkIndex();
+      ci.setChecksumsOnly(checksumsOnly);
+      ci.setCrossCheckTermVectors(crossCheckTermVectors);
+      if (onlySegments == null || onlySegments.isEmpty()) {
+        return ci.checkIndex();
+      }
+      return ci.checkIndex(onlySegments);
     }
   }
 
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models;
+
+import org.apache.lucene.util.LuceneTestCase;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ParallelTasksTest extends LuceneTestCase {
+
+  @Test
+  public void testRunAll() throws Exception {
+    List<Callable<Integer>> tasks = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      int value = i;
+      tasks.add(() -> value * 2);
+    }
+    List<Integer> results = ParallelTasks.runAll(tasks, 4, "test-parallel-%d");
+    assertEquals(20, results.size());
+    for (int i = 0; i < 20; i++) {
+      assertEquals(i * 2, results.get(i).intValue());
+    }
+  }
+
+  @Test
+  public void testRunAll_failure() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicBoolean interrupted = new AtomicBoolean();
+    CountDownLatch finished = new CountDownLatch(1);
+    List<Callable<Integer>> tasks = Arrays.asList(
+        () -> {
+          started.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            interrupted.set(true);
+          }
+          finished.countDown();
+          return 0;
+        },
+        () -> {
+          started.await();
+          throw new IOException("failed");
+        });
+
+    try {
+      ParallelTasks.runAll(tasks, 2, "test-parallel-%d");
+      fail("IOException should be thrown");
+    } catch (IOException e) {
+      assertEquals("failed", e.getMessage());
+    }
+
+    // the running task is not interrupted
+    release.countDown();
+    assertTrue(finished.await(10, TimeUnit.SECONDS));
+    assertFalse(interrupted.get());
+  }
+}
@@ -23,9 +23,15 @@ import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LogDocMergePolicy;
 import org.apache.lucene.index.NoDeletionPolicy;
+import org.apache.lucene.index.NoMergePolicy;
 import org.apache.lucene.index.RandomIndexWriter;
+import org.apache.lucene.index.SerialMergeScheduler;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.TieredMergePolicy;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.LuceneTestCase;
 import org.junit.After;
@@ -34,9 +40,11 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 public class CommitsImplTest extends LuceneTestCase {
 
@@ -208,4 +216,319 @@ public class CommitsImplTest extends LuceneTestCase {
     assertFalse(codec.isPresent());
 
   }
+
+  @Test
+  public void testDiff() {
+    CommitsImpl commits = new CommitsImpl(reader, indexDir.toString());
+    Optional<CommitDiff> diff = commits.diff(1, 2);
+    assertTrue(diff.isPresent());
+    assertEquals(1, diff.get().getFromGeneration());
+    assertEquals(2, diff.get().getToGeneration());
+
+    assertTrue(diff.get().getSegmentChanges().stream()
+        .anyMatch(seg -> seg.getType() == CommitDiff.ChangeType.ADDED));
+    assertTrue(diff.get().getBytesAdded() > 0);
+
+    List<String> oldFiles = commits.getFiles(1).stream().map(File::getFileName).collect(Collectors.toList());
+    List<String> newFiles = commits.getFiles(2).stream().map(File::getFileName).collect(Collectors.toList());
+    long bytesAdded = 0;
+    for (CommitDiff.FileChange change : diff.get().getFileChanges()) {
+      if (change.getType() == CommitDiff.ChangeType.ADDED) {
+        assertTrue(newFiles.contains(change.getFileName()));
+        assertFalse(oldFiles.contains(change.getFileName()));
+        bytesAdded += change.getSize();
+      } else {
+        assertTrue(oldFiles.contains(change.getFileName()));
+        assertFalse(newFiles.contains(change.getFileName()));
+      }
+    }
+    assertEquals(bytesAdded, diff.get().getBytesAdded());
+  }
+
+  @Test
+  public void testDiff_deletions() throws IOException {
+    Path indexDir = createTempDir();
+    try (Directory dir = newFSDirectory(indexDir)) {
+      IndexWriterConfig config = new IndexWriterConfig(new MockAnalyzer(random()));
+      config.setIndexDeletionPolicy(NoDeletionPolicy.INSTANCE);
+      config.setMergePolicy(NoMergePolicy.INSTANCE);
+      try (IndexWriter writer = new IndexWriter(dir, config)) {
+        for (int i = 0; i < 3; i++) {
+          Document doc = new Document();
+          doc.add(newStringField("f1", String.valueOf(i), Field.Store.NO));
+          writer.addDocument(doc);
+        }
+        writer.commit();
+        writer.deleteDocuments(new Term("f1", "1"));
+        writer.commit();
+      }
+
+      CommitsImpl commits = new CommitsImpl(dir, indexDir.toString());
+      CommitDiff diff = commits.diff(1, 2).get();
+      assertEquals(1, diff.getSegmentChanges().size());
+      CommitDiff.SegmentChange change = diff.getSegmentChanges().get(0);
+      assertEquals(CommitDiff.ChangeType.UPDATED, change.getType());
+      assertEquals(3, change.getMaxDoc());
+      assertEquals(-1, change.getOldDelGen());
+      assertEquals(1, change.getNewDelGen());
+      assertEquals(0, change.getOldDelCount());
+      assertEquals(1, change.getNewDelCount());
+
+      // the live docs file and the new segments file are written, the old segments file is no longer referenced
+      assertTrue(diff.getFileChanges().stream()
+          .anyMatch(f -> f.getType() == CommitDiff.ChangeType.ADDED && f.getFileName().endsWith(".liv")));
+      assertTrue(diff.getFileChanges().stream()
+          .anyMatch(f -> f.getType() == CommitDiff.ChangeType.REMOVED && f.getFileName().equals("segments_1")));
+      assertTrue(diff.getBytesRemoved() > 0);
+    }
+  }
+
+  @Test
+  public void testDiff_generation_notfound() {
+    CommitsImpl commits = new CommitsImpl(reader, indexDir.toString());
+    assertFalse(commits.diff(1, 3).isPresent());
+  }
+
+  @Test
+  public void testPrefetchSegments() {
+    CommitsImpl commits = new CommitsImpl(reader, indexDir.toString());
+    commits.prefetchSegments(2);
+    commits.prefetchSegments(3);
+    List<Segment> segments = commits.getSegments(2);
+
+    CommitsImpl expected = new CommitsImpl(reader, indexDir.toString());
+    List<Segment> expectedSegments = expected.getSegments(2);
+    assertEquals(expectedSegments.size(), segments.size());
+    for (int i = 0; i < segments.size(); i++) {
+      String name = segments.get(i).getName();
+      assertEquals(expectedSegments.get(i).getName(), name);
+      assertEquals(expectedSegments.get(i).getMaxDoc(), segments.get(i).getMaxDoc());
+      assertEquals(expected.getSegmentDiagnostics(2, name), commits.getSegmentDiagnostics(2, name));
+      assertEquals(expected.getSegmentAttributes(2, name), commits.getSegmentAttributes(2, name));
+    }
+  }
+
+  @Test
+  public void testGetFiles_sizes() throws IOException {
+    CommitsImpl commits = new CommitsImpl(reader, indexDir.toString());
+    for (File file : commits.getFiles(2)) {
+      assertEquals(dir.fileLength(file.getFileName()), file.getSize());
+    }
+  }
+
+  @Test
+  public void testFileStats_batches() throws Exception {
+    List<String> names = new ArrayList<>();
+    for (int i = 0; i < FileStats.BATCH_SIZE * 2 + 1; i++) {
+      names.add("missing_" + i);
+    }
+    String segmentsFile = reader.getIndexCommit().getSegmentsFileName();
+    names.add(segmentsFile);
+
+    Map<String, Long> lengths = FileStats.lengths(dir, names);
+    assertEquals(names, new ArrayList<>(lengths.keySet()));
+    assertEquals(-1L, (long) lengths.get("missing_0"));
+    assertEquals(dir.fileLength(segmentsFile), (long) lengths.get(segmentsFile));
+  }
+
+  @Test
+  public void testGetFileSizeRollup() throws IOException {
+    Path indexDir = createTempDir();
+    try (Directory dir = newFSDirectory(indexDir)) {
+      IndexWriterConfig config = new IndexWriterConfig(new MockAnalyzer(random()));
+      config.setUseCompoundFile(true);
+      config.setMergePolicy(NoMergePolicy.INSTANCE);
+      try (IndexWriter writer = new IndexWriter(dir, config)) {
+        for (int i = 0; i < 3; i++) {
+          Document doc = new Document();
+          doc.add(newStringField("f1", String.valueOf(i), Field.Store.YES));
+          writer.addDocument(doc);
+          writer.commit();
+        }
+      }
+
+      CommitsImpl commits = new CommitsImpl(dir, indexDir.toString());
+      long gen = commits.listCommits().get(0).getGeneration();
+      List<FileSizeRollup> rollups = commits.getFileSizeRollup(gen);
+
+      long totalBytes = 0;
+      for (File file : commits.getFiles(gen)) {
+        totalBytes += file.getSize();
+      }
+      assertEquals(totalBytes, rollups.stream().mapToLong(FileSizeRollup::getTotalBytes).sum());
+
+      Map<String, FileSizeRollup> byExt = rollups.stream()
+          .collect(Collectors.toMap(FileSizeRollup::getExtension, r -> r));
+      // stored fields are packed in the compound files, but rolled up by their own extension
+      assertEquals(FileSizeRollup.DataStructure.STORED_FIELDS, byExt.get("fdt").getDataStructure());
+      assertEquals(3, byExt.get("fdt").getNumFiles());
+      assertTrue(byExt.get("fdt").getTotalBytes() > 0);
+      assertEquals(3, byExt.get("cfs").getNumFiles());
+      assertEquals(FileSizeRollup.DataStructure.COMMIT, byExt.get("segments").getDataStructure());
+      assertEquals(1, byExt.get("segments").getNumFiles());
+
+      for (int i = 1; i < rollups.size(); i++) {
+        assertTrue(rollups.get(i - 1).getTotalBytes() >= rollups.get(i).getTotalBytes());
+      }
+    }
+  }
+
+  @Test
+  public void testSimulateMerges() throws IOException {
+    Path indexDir = createTempDir();
+    try (Directory dir = newFSDirectory(indexDir)) {
+      IndexWriterConfig config = new IndexWriterConfig(new MockAnalyzer(random()));
+      config.setMergePolicy(NoMergePolicy.INSTANCE);
+      try (IndexWriter writer = new IndexWriter(dir, config)) {
+        for (int i = 0; i < 12; i++) {
+          Document doc = new Document();
+          doc.add(newStringField("f1", String.valueOf(i), Field.Store.YES));
+          writer.addDocument(doc);
+          if (i == 0) {
+            Document extra = new Document();
+            extra.add(newStringField("f1", "extra", Field.Store.YES));
+            writer.addDocument(extra);
+          }
+          writer.commit();
+        }
+        writer.deleteDocuments(new Term("f1", "0"));
+        writer.commit();
+      }
+      String[] filesBefore = dir.listAll();
+
+      CommitsImpl commits = new CommitsImpl(dir, indexDir.toString());
+      long gen = commits.listCommits().get(0).getGeneration();
+      TieredMergePolicy policy = new TieredMergePolicy();
+      policy.setSegmentsPerTier(3);
+      policy.setMaxMergeAtOnce(3);
+      MergeSimulationConfig simConfig = new MergeSimulationConfig.Builder()
+          .flushRounds(5)
+          .maxForcedSegments(1)
+          .build();
+      Optional<MergeSimulation> simulation = commits.simulateMerges(gen, policy, simConfig);
+      assertTrue(simulation.isPresent());
+      MergeSimulation sim = simulation.get();
+
+      assertEquals(12, sim.getInitialSegmentCount());
+      assertFalse(sim.getInitialMerges().isEmpty());
+      assertTrue(sim.getInitialMerges().stream().allMatch(merge -> merge.getRound() == 0));
+      assertEquals(sim.getInitialBytesRewritten(),
+          sim.getInitialMerges().stream().mapToLong(MergeSimulation.Merge::getOutputBytes).sum());
+      assertFalse(sim.getMerges().isEmpty());
+      assertTrue(sim.getMerges().stream().allMatch(merge -> merge.getRound() >= 1));
+      assertTrue(sim.getProjectedSegmentCount() < 12 + 5);
+      assertEquals(sim.getBytesRewritten(),
+          sim.getMerges().stream().mapToLong(MergeSimulation.Merge::getOutputBytes).sum());
+      assertTrue(sim.getBytesFlushed() > 0);
+      assertTrue(sim.getWriteAmplification() > 1.0);
+      // the merges on the commit's backlog are not part of the write amplification
+      assertEquals((double) (sim.getBytesFlushed() + sim.getBytesRewritten()) / sim.getBytesFlushed(),
+          sim.getWriteAmplification(), 1e-9);
+      assertEquals(1, sim.getForcedSegmentCount());
+      assertTrue(sim.getForcedBytesRewritten() > 0);
+      List<MergeSimulation.Merge> forcedMerges = sim.getForcedMerges();
+      assertFalse(forcedMerges.isEmpty());
+      // the deleted document is dropped by the merge
+      assertEquals(12, forcedMerges.get(forcedMerges.size() - 1).getDocCount());
+
+      // nothing is written to the index
+      assertArrayEquals(filesBefore, dir.listAll());
+    }
+  }
+
+  @Test
+  public void testSimulateMerges_generation_notfound() {
+    CommitsImpl commits = new CommitsImpl(reader, indexDir.toString());
+    MergeSimulationConfig simConfig = new MergeSimulationConfig.Builder().build();
+    assertFalse(commits.simulateMerges(10, new TieredMergePolicy(), simConfig).isPresent());
+  }
+
+  @Test
+  public void testGetSegmentTimeline() throws IOException {
+    Path indexDir = createTempDir();
+    try (Directory dir = newFSDirectory(indexDir)) {
+      IndexWriterConfig config = new IndexWriterConfig(new MockAnalyzer(random()));
+      config.setIndexDeletionPolicy(NoDeletionPolicy.INSTANCE);
+      config.setMergePolicy(NoMergePolicy.INSTANCE);
+      try (IndexWriter writer = new IndexWriter(dir, config)) {
+        for (int i = 0; i < 6; i++) {
+          Document doc = new Document();
+          doc.add(newStringField("f1", String.valueOf(i), Field.Store.YES));
+          writer.addDocument(doc);
+          writer.commit();
+        }
+      }
+      IndexWriterConfig mergeConfig = new IndexWriterConfig(new MockAnalyzer(random()));
+      mergeConfig.setIndexDeletionPolicy(NoDeletionPolicy.INSTANCE);
+      try (IndexWriter writer = new IndexWriter(dir, mergeConfig)) {
+        writer.forceMerge(1);
+        writer.commit();
+      }
+
+      CommitsImpl commits = new CommitsImpl(dir, indexDir.toString());
+      long gen = commits.listCommits().get(0).getGeneration();
+      Optional<SegmentTimeline> timeline = commits.getSegmentTimeline(gen);
+      assertTrue(timeline.isPresent());
+
+      List<SegmentTimeline.Event> events = timeline.get().getEvents();
+      assertEquals(7, events.size());
+      SegmentTimeline.Event merged = events.get(6);
+      assertEquals(SegmentTimeline.Source.MERGE, merged.getSource());
+      assertEquals(6, merged.getMergeFactor());
+      assertEquals(6, merged.getMaxDoc());
+      assertTrue(merged.isLive());
+      for (SegmentTimeline.Event event : events.subList(0, 6)) {
+        assertEquals(SegmentTimeline.Source.FLUSH, event.getSource());
+        assertFalse(event.isLive());
+        assertTrue(event.getTimestamp() <= merged.getTimestamp());
+      }
+
+      List<SegmentTimeline.Bucket> buckets = timeline.get().getBuckets();
+      assertEquals(6, buckets.stream().mapToInt(SegmentTimeline.Bucket::getFlushCount).sum());
+      assertEquals(1, buckets.stream().mapToInt(SegmentTimeline.Bucket::getMergeCount).sum());
+
+      List<SegmentTimeline.Finding> findings = timeline.get().getFindings();
+      assertEquals(1, findings.size());
+      assertEquals(SegmentTimeline.FindingType.TINY_FLUSHES, findings.get(0).getType());
+      assertEquals(6, findings.get(0).getSegmentCount());
+
+      // the timeline of an older commit does not see the later segments
+      long firstGen = commits.listCommits().get(commits.listCommits().size() - 1).getGeneration();
+      assertEquals(1, commits.getSegmentTimeline(firstGen).get().getEvents().size());
+    }
+  }
+
+  @Test
+  public void testGetSegmentTimeline_mergeStorm() throws IOException {
+    Path indexDir = createTempDir();
+    try (Directory dir = newFSDirectory(indexDir)) {
+      IndexWriterConfig config = new IndexWriterConfig(new MockAnalyzer(random()));
+      config.setIndexDeletionPolicy(NoDeletionPolicy.INSTANCE);
+      LogDocMergePolicy mergePolicy = new LogDocMergePolicy();
+      mergePolicy.setMergeFactor(2);
+      mergePolicy.setMinMergeDocs(1);
+      config.setMergePolicy(mergePolicy);
+      config.setMergeScheduler(new SerialMergeScheduler());
+      try (IndexWriter writer = new IndexWriter(dir, config)) {
+        for (int i = 0; i < 16; i++) {
+          Document doc = new Document();
+          doc.add(newStringField("f1", String.valueOf(i), Field.Store.YES));
+          writer.addDocument(doc);
+          writer.commit();
+        }
+      }
+
+      CommitsImpl commits = new CommitsImpl(dir, indexDir.toString());
+      long gen = commits.listCommits().get(0).getGeneration();
+      List<SegmentTimeline.Finding> findings = commits.getSegmentTimeline(gen).get().getFindings();
+      assertTrue(findings.stream().anyMatch(finding -> finding.getType() == SegmentTimeline.FindingType.MERGE_STORM
+          && finding.getSegmentCount() >= SegmentTimeline.MERGE_STORM_MIN_MERGES));
+    }
+  }
+
+  @Test
+  public void testGetSegmentTimeline_generation_notfound() {
+    CommitsImpl commits = new CommitsImpl(reader, indexDir.toString());
+    assertFalse(commits.getSegmentTimeline(10).isPresent());
+  }
 }
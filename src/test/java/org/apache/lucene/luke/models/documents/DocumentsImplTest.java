@@ -122,6 +122,31 @@ public class DocumentsImplTest extends DocumentsTestBase {
     assertNull(f5.getNumericValue());
   }
 
+  @Test
+  public void testPrefetchAdjacentDocuments() {
+    DocumentsImpl documents = new DocumentsImpl(reader);
+    documents.prefetchAdjacentDocuments(2);
+
+    DocumentsImpl expected = new DocumentsImpl(reader);
+    for (int docid : new int[]{0, 1, 2, 3, 4}) {
+      List<DocumentField> fields = documents.getDocumentFields(docid);
+      List<DocumentField> expectedFields = expected.getDocumentFields(docid);
+      assertEquals(expectedFields.size(), fields.size());
+      for (int i = 0; i < fields.size(); i++) {
+        assertEquals(expectedFields.get(i).getName(), fields.get(i).getName());
+        assertEquals(expectedFields.get(i).getStringValue(), fields.get(i).getStringValue());
+      }
+    }
+  }
+
+  @Test
+  public void testPrefetchAdjacentDocuments_outOfRange() {
+    DocumentsImpl documents = new DocumentsImpl(reader);
+    documents.prefetchAdjacentDocuments(0);
+    documents.prefetchAdjacentDocuments(documents.getMaxDoc() - 1);
+    assertEquals(5, documents.getDocumentFields(documents.getMaxDoc() - 1).size());
+  }
+
   @Test
   public void testFirstTerm() {
     DocumentsImpl documents = new DocumentsImpl(reader);
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.lucene.luke.models.search;
+
+import org.apache.lucene.util.LuceneTestCase;
+import org.junit.Test;
+
+public class LatencyHistogramTest extends LuceneTestCase {
+
+  @Test
+  public void testBucketIndex() {
+    for (long v = 0; v < 1_000_000; v += 1 + random().nextInt(100)) {
+      int index = LatencyHistogram.bucketIndex(v);
+      long highest = LatencyHistogram.highestEquivalentValue(index);
+      assertTrue(highest >= v);
+      // relative error is bounded by 1/64
+      assertTrue((highest - v) <= Math.max(0, v / 64));
+      assertEquals(index, LatencyHistogram.bucketIndex(highest));
+    }
+    assertEquals(127, LatencyHistogram.bucketIndex(127));
+    assertEquals(128, LatencyHistogram.bucketIndex(128));
+    assertTrue(LatencyHistogram.bucketIndex(Long.MAX_VALUE) > 0);
+  }
+
+  @Test
+  public void testPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i);
+    }
+    assertEquals(100, histogram.getTotalCount());
+    assertEquals(1, histogram.getMin());
+    assertEquals(100, histogram.getMax());
+    assertEquals(50.5, histogram.getMean(), 0.001);
+    assertEquals(50, histogram.getValueAtPercentile(50));
+    assertEquals(90, histogram.getValueAtPercentile(90));
+    assertEquals(99, histogram.getValueAtPercentile(99));
+    assertEquals(100, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void testPercentilesLargeValues() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 0; i < 99; i++) {
+      histogram.record(1000);
+    }
+    histogram.record(1_000_000);
+    long p50 = histogram.getValueAtPercentile(50);
+    assertTrue(p50 >= 1000 && p50 <= 1000 + 1000 / 64);
+    assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void testEmpty() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getMin());
+    assertEquals(0, histogram.getMax());
+    assertEquals(0, histogram.getValueAtPercentile(99));
+  }
+}
@@ -32,24 +32,41 @@ import org.apache.lucene.document.SortedNumericDocValuesField;
 import org.apache.lucene.document.SortedSetDocValuesField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NoMergePolicy;
 import org.apache.lucene.index.RandomIndexWriter;
+import org.apache.lucene.index.SegmentReader;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.queries.function.FunctionScoreQuery;
 import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.DoubleValuesSource;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.PointRangeQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.SortedNumericSortField;
 import org.apache.lucene.search.SortedSetSortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopScoreDocCollector;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.LuceneTestCase;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -206,6 +223,105 @@ public class SearchImplTest extends LuceneTestCase {
     assertTrue(q instanceof PointRangeQuery);
   }
 
+  @Test
+  public void testParseQueryCached() {
+    SearchImpl search = new SearchImpl(reader);
+    StandardAnalyzer analyzer = new StandardAnalyzer();
+
+    Query q1 = search.parseQuery("app*", "f1", analyzer, new QueryParserConfig.Builder().build(), true);
+    Query q2 = search.parseQuery("app*", "f1", analyzer, new QueryParserConfig.Builder().build(), true);
+    assertSame(q1, q2);
+
+    // rewrite flag, parser config and analyzer instance are part of the key
+    Query q3 = search.parseQuery("app*", "f1", analyzer, new QueryParserConfig.Builder().build(), false);
+    assertNotSame(q1, q3);
+    assertFalse(q1.equals(q3));
+    Query q4 = search.parseQuery("app*", "f1", analyzer,
+        new QueryParserConfig.Builder().defaultOperator(QueryParserConfig.Operator.AND).build(), true);
+    assertNotSame(q1, q4);
+    Query q5 = search.parseQuery("app*", "f1", new StandardAnalyzer(), new QueryParserConfig.Builder().build(), true);
+    assertNotSame(q1, q5);
+    assertEquals(q1, q5);
+  }
+
+  @Test
+  public void testTermStatsCachingReader() throws Exception {
+    TermStatsCachingReader statsReader = new TermStatsCachingReader(reader);
+    assertEquals(reader.leaves().size(), statsReader.leaves().size());
+    for (int i = 0; i < reader.leaves().size(); i++) {
+      assertSame(reader.leaves().get(i).reader(), statsReader.leaves().get(i).reader());
+      assertEquals(reader.leaves().get(i).docBase, statsReader.leaves().get(i).docBase);
+    }
+    assertSame(reader.getReaderCacheHelper(), statsReader.getReaderCacheHelper());
+    assertEquals(reader.numDocs(), statsReader.numDocs());
+
+    Term term = new Term("f1", "pie");
+    assertEquals(reader.docFreq(term), statsReader.docFreq(term));
+    assertEquals(reader.docFreq(term), statsReader.docFreq(term));
+    assertEquals(1, statsReader.cachedTerms());
+  }
+
+  @Test
+  public void testAnalyzeScores() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    Query query = new QueryParser("f1", new StandardAnalyzer()).parse("apple pie");
+    SimilarityConfig simConfig = new SimilarityConfig.Builder().build();
+    SearchResults results = search.search(query, simConfig, null, 100);
+
+    ScoreStats stats = search.analyzeScores(query, simConfig, 10);
+    assertEquals(20, stats.getTotalHits());
+    assertEquals(results.getTotalHits(), stats.getTotalHits());
+    float min = Float.MAX_VALUE;
+    float max = 0;
+    double sum = 0;
+    for (SearchResults.Doc doc : results.getHits()) {
+      min = Math.min(min, doc.getScore());
+      max = Math.max(max, doc.getScore());
+      sum += doc.getScore();
+    }
+    assertEquals(min, stats.getMinScore(), 0.0f);
+    assertEquals(max, stats.getMaxScore(), 0.0f);
+    assertEquals(sum / 20, stats.getMeanScore(), 0.0001);
+
+    assertEquals(10, stats.getBuckets().size());
+    assertEquals(min, stats.getBuckets().get(0).getFrom(), 0.0001f);
+    assertEquals(max, stats.getBuckets().get(9).getTo(), 0.0001f);
+    assertEquals(20, stats.getBuckets().stream().mapToLong(ScoreStats.Bucket::getCount).sum());
+    assertEquals(reader.leaves().size(), stats.getSegments().size());
+    assertEquals(20, stats.getSegments().stream().mapToLong(ScoreStats.Segment::getNumHits).sum());
+  }
+
+  @Test
+  public void testAnalyzeScores_narrowRange() throws Exception {
+    Path narrowDir = createTempDir("narrowIndex");
+    try (Directory dir = newFSDirectory(narrowDir)) {
+      try (RandomIndexWriter writer = new RandomIndexWriter(random(), dir, new StandardAnalyzer())) {
+        // scores from 5.0 to 5.5
+        for (int i = 0; i < 100; i++) {
+          Document doc = new Document();
+          doc.add(new DoubleDocValuesField("score", 5.0 + i * 0.005));
+          writer.addDocument(doc);
+        }
+      }
+
+      try (IndexReader narrowReader = DirectoryReader.open(dir)) {
+        SearchImpl search = new SearchImpl(narrowReader);
+        Query query = new FunctionScoreQuery(new MatchAllDocsQuery(), DoubleValuesSource.fromDoubleField("score"));
+        ScoreStats stats = search.analyzeScores(query, new SimilarityConfig.Builder().build(), 10);
+
+        assertEquals(100, stats.getTotalHits());
+        assertEquals(5.0f, stats.getMinScore(), 0.0001f);
+        assertEquals(5.495f, stats.getMaxScore(), 0.0001f);
+        assertEquals(10, stats.getBuckets().size());
+        for (ScoreStats.Bucket bucket : stats.getBuckets()) {
+          // every bucket gets about 10 hits, give or take the hits on the bucket edges
+          assertTrue(bucket.getCount() + " hits in bucket", bucket.getCount() >= 8 && bucket.getCount() <= 12);
+        }
+        assertEquals(100, stats.getBuckets().stream().mapToLong(ScoreStats.Bucket::getCount).sum());
+      }
+    }
+  }
+
   @Test
   public void testGuessSortTypes() {
     SearchImpl search = new SearchImpl(reader);
@@ -353,6 +469,133 @@ public class SearchImplTest extends LuceneTestCase {
     assertFalse(search.nextPage().isPresent());
   }
 
+  @Test
+  public void testPrefetchNextPage() throws Exception {
+    Query query = new QueryParser("f1", new StandardAnalyzer()).parse("pie");
+
+    SearchImpl search = new SearchImpl(reader);
+    search.search(query, new SimilarityConfig.Builder().build(), null, 10);
+    SearchResults expected = search.nextPage().get();
+
+    SearchImpl prefetching = new SearchImpl(reader);
+    prefetching.search(query, new SimilarityConfig.Builder().build(), null, 10);
+    prefetching.prefetchNextPage();
+    SearchResults res = prefetching.nextPage().get();
+
+    assertEquals(expected.getTotalHits(), res.getTotalHits());
+    assertEquals(expected.getOffset(), res.getOffset());
+    assertEquals(expected.size(), res.size());
+    for (int i = 0; i < res.size(); i++) {
+      assertEquals(expected.getHits().get(i).getDocId(), res.getHits().get(i).getDocId());
+      assertEquals(expected.getHits().get(i).getScore(), res.getHits().get(i).getScore(), 0.0f);
+      assertEquals(expected.getHits().get(i).getFieldValues().keySet(), res.getHits().get(i).getFieldValues().keySet());
+    }
+
+    // pages are served from the cached hits when going back and forth
+    assertEquals(0, prefetching.prevPage().get().getOffset());
+    assertEquals(10, prefetching.nextPage().get().getOffset());
+  }
+
+  @Test
+  public void testPrefetchNextPageNoMoreResults() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    Query query = new QueryParser("f1", new StandardAnalyzer()).parse("pie");
+    search.search(query, new SimilarityConfig.Builder().build(), null, 10);
+    search.nextPage();
+    search.prefetchNextPage();
+    assertFalse(search.nextPage().isPresent());
+  }
+
+  @Test
+  public void testPrefetchNextPageDiscardedByNewSearch() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    search.search(new QueryParser("f1", new StandardAnalyzer()).parse("pie"),
+        new SimilarityConfig.Builder().build(), null, 10);
+    search.prefetchNextPage();
+
+    search.search(new MatchAllDocsQuery(), new SimilarityConfig.Builder().build(), null, 10);
+    SearchResults res = search.nextPage().get();
+    assertEquals(10, res.getOffset());
+    assertEquals(reader.numDocs(), res.getTotalHits());
+  }
+
+  @Test
+  public void testNewSession() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    Query pie = new QueryParser("f1", new StandardAnalyzer()).parse("pie");
+    search.search(pie, new SimilarityConfig.Builder().build(), null, 10);
+
+    SearchSession session = search.newSession();
+    assertNull(session.getCurrentQuery());
+    SearchResults res = session.search(new MatchAllDocsQuery(), new SimilarityConfig.Builder().build(), null, null, 5, 0);
+    assertEquals(reader.numDocs(), res.getTotalHits());
+    assertEquals(5, session.nextPage().get().getOffset());
+
+    // the default session is not affected by the other session
+    assertEquals(pie, search.getCurrentQuery());
+    SearchResults next = search.nextPage().get();
+    assertEquals(20, next.getTotalHits());
+    assertEquals(10, next.getOffset());
+    assertEquals(10, session.nextPage().get().getOffset());
+  }
+
+  @Test
+  public void testConcurrentSessions() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    Query query = new QueryParser("f1", new StandardAnalyzer()).parse("pie");
+    List<Integer> expected = new ArrayList<>();
+    SearchSession single = search.newSession();
+    Optional<SearchResults> page;
+    single.search(query, new SimilarityConfig.Builder().build(), null, null, 3, 0)
+        .getHits().forEach(doc -> expected.add(doc.getDocId()));
+    while ((page = single.nextPage()).isPresent()) {
+      page.get().getHits().forEach(doc -> expected.add(doc.getDocId()));
+    }
+
+    int numThreads = 4;
+    List<List<Integer>> actual = Collections.synchronizedList(new ArrayList<>());
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < numThreads; i++) {
+      Thread thread = new Thread(() -> {
+        SearchSession session = search.newSession();
+        List<Integer> docIds = new ArrayList<>();
+        session.search(query, new SimilarityConfig.Builder().build(), null, null, 3, 0)
+            .getHits().forEach(doc -> docIds.add(doc.getDocId()));
+        Optional<SearchResults> next;
+        while ((next = session.nextPage()).isPresent()) {
+          next.get().getHits().forEach(doc -> docIds.add(doc.getDocId()));
+        }
+        actual.add(docIds);
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(20, expected.size());
+    assertEquals(numThreads, actual.size());
+    for (List<Integer> docIds : actual) {
+      assertEquals(expected, docIds);
+    }
+  }
+
+  @Test
+  public void testSessionExplainUsesSessionSimilarity() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    Query query = new QueryParser("f1", new StandardAnalyzer()).parse("pie");
+    SearchSession classic = search.newSession();
+    SearchResults res = classic.search(query, new SimilarityConfig.Builder().useClassicSimilarity(true).build(),
+        null, null, 10, 0);
+    SearchSession bm25 = search.newSession();
+    bm25.search(query, new SimilarityConfig.Builder().build(), null, null, 10, 0);
+
+    int docid = res.getHits().get(0).getDocId();
+    assertEquals(res.getHits().get(0).getScore(), classic.explain(query, docid).getValue(), 1e-5f);
+    assertFalse(classic.explain(query, docid).toString().equals(bm25.explain(query, docid).toString()));
+  }
+
   @Test
   public void testPrevPage() throws Exception {
     SearchImpl search = new SearchImpl(reader);
@@ -383,6 +626,567 @@ public class SearchImplTest extends LuceneTestCase {
     assertFalse(search.prevPage().isPresent());
   }
 
+  @Test
+  public void testProfile() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    Query query = new QueryParser("f1", new StandardAnalyzer()).parse("apple AND pie");
+    QueryProfile profile = search.profile(query, new SimilarityConfig.Builder().build(), null, 10);
+
+    assertEquals("BooleanQuery", profile.getQueryType());
+    assertEquals(1, profile.getCount(QueryProfile.Timing.CREATE_WEIGHT));
+    assertTrue(profile.getCount(QueryProfile.Timing.BUILD_SCORER) > 0);
+    assertTrue(profile.getCount(QueryProfile.Timing.SCORE) >= 10);
+    assertFalse(profile.getLeaves().isEmpty());
+
+    assertEquals(2, profile.getChildren().size());
+    for (QueryProfile child : profile.getChildren()) {
+      assertEquals("TermQuery", child.getQueryType());
+      assertTrue(child.getCount(QueryProfile.Timing.NEXT_DOC) + child.getCount(QueryProfile.Timing.ADVANCE) > 0);
+      assertTrue(child.getTotalTime() > 0);
+    }
+  }
+
+  @Test
+  public void testProfileWithSort() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    Query query = new QueryParser("f1", new StandardAnalyzer()).parse("pie");
+    Sort sort = new Sort(new SortField("f2", SortField.Type.STRING, false));
+    QueryProfile profile = search.profile(query, new SimilarityConfig.Builder().build(), sort, 10);
+
+    assertEquals("TermQuery", profile.getQueryType());
+    assertEquals(0, profile.getCount(QueryProfile.Timing.SCORE));
+    long leafTotal = profile.getLeaves().stream().mapToLong(QueryProfile.LeafProfile::getTotalTime).sum();
+    assertEquals(profile.getTotalTime() - profile.getTime(QueryProfile.Timing.CREATE_WEIGHT), leafTotal);
+  }
+
+  @Test
+  public void testEstimateCost() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    QueryParser parser = new QueryParser("f1", new StandardAnalyzer());
+    Query query = parser.parse("pie AND p*");
+    QueryCost cost = search.estimateCost(query, new CostGuardConfig.Builder().build());
+
+    assertEquals("BooleanQuery", cost.getQueryType());
+    assertFalse(cost.exceedsThresholds());
+    assertEquals(reader.leaves().size(), cost.getLeafCosts().size());
+    assertEquals(2, cost.getChildren().size());
+
+    QueryCost termCost = cost.getChildren().get(0);
+    assertEquals(-1, termCost.getTermExpansion());
+    assertEquals(20, termCost.getTotalCost());
+
+    QueryCost prefixCost = cost.getChildren().get(1);
+    assertEquals("PrefixQuery", prefixCost.getQueryType());
+    assertTrue(prefixCost.getTermExpansion() >= 1);
+    assertTrue(prefixCost.getTermExpansion() <= reader.leaves().size());
+    assertFalse(prefixCost.isExpansionCapped());
+    assertEquals(20, prefixCost.getTotalCost());
+  }
+
+  @Test
+  public void testEstimateCostExceedsThresholds() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    QueryParser parser = new QueryParser("f1", new StandardAnalyzer());
+    parser.setAllowLeadingWildcard(true);
+    Query query = parser.parse("*e*");
+    CostGuardConfig config = new CostGuardConfig.Builder()
+        .maxExpansions(2)
+        .expansionCountCap(3)
+        .action(CostGuardConfig.Action.REFUSE)
+        .build();
+    QueryCost cost = search.estimateCost(query, config);
+
+    assertTrue(cost.isExpansionCapped());
+    assertEquals(3, cost.getTermExpansion());
+    assertFalse(cost.isCostEstimated());
+    assertTrue(cost.exceedsThresholds());
+    assertEquals(1, cost.getViolations().size());
+  }
+
+  @Test
+  public void testEstimateCostFromDocFreqs() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    QueryParser parser = new QueryParser("f1", new StandardAnalyzer());
+    Query query = parser.parse("pie AND p*");
+    CostGuardConfig config = new CostGuardConfig.Builder().maxExpansions(0).build();
+    QueryCost cost = search.estimateCost(query, config);
+
+    QueryCost prefixCost = cost.getChildren().get(1);
+    assertFalse(prefixCost.isExpansionCapped());
+    assertTrue(prefixCost.isCostEstimated());
+    assertEquals(20, prefixCost.getTotalCost());
+    assertTrue(cost.isCostEstimated());
+    assertEquals(20, cost.getTotalCost());
+    assertEquals(1, cost.getViolations().size());
+  }
+
+  @Test
+  public void testEstimateCostGuardDisabled() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    Query query = new QueryParser("f1", new StandardAnalyzer()).parse("pie");
+    CostGuardConfig config = new CostGuardConfig.Builder().enabled(false).maxCost(1).build();
+    QueryCost cost = search.estimateCost(query, config);
+
+    assertEquals(20, cost.getTotalCost());
+    assertFalse(cost.exceedsThresholds());
+  }
+
+  @Test
+  public void testSearchWithTimeout() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    Query query = new QueryParser("f1", new StandardAnalyzer()).parse("pie");
+    SearchResults res = search.search(query, new SimilarityConfig.Builder().build(), null, null, 10, 60_000);
+
+    assertFalse(res.isPartial());
+    assertEquals(20, res.getTotalHits());
+    assertEquals(10, res.size());
+
+    Optional<SearchResults> next = search.nextPage();
+    assertTrue(next.isPresent());
+    assertFalse(next.get().isPartial());
+    assertEquals(10, next.get().getOffset());
+  }
+
+  @Test
+  public void testCancelledCollection() throws Exception {
+    Query query = new QueryParser("f1", new StandardAnalyzer()).parse("pie");
+    SearchTimeout timeout = new SearchTimeout(0);
+    assertFalse(timeout.shouldExit());
+    timeout.cancel();
+    assertTrue(timeout.shouldExit());
+
+    TopScoreDocCollector collector = TopScoreDocCollector.create(10);
+    new IndexSearcher(reader).search(query, new CancellableCollector(collector, timeout));
+    assertEquals(0, collector.getTotalHits());
+  }
+
+  @Test
+  public void testTimedOut() throws Exception {
+    SearchTimeout timeout = new SearchTimeout(1);
+    Thread.sleep(10);
+    assertTrue(timeout.isTimedOut());
+    assertFalse(timeout.isCancelled());
+    assertTrue(timeout.shouldExit());
+  }
+
+  @Test
+  public void testBenchmark() throws Exception {
+    Path queryFile = createTempDir("benchmark").resolve("queries.txt");
+    Files.write(queryFile, Arrays.asList("# comment", "pie", "", "apple AND pie", "f1:brownie", "f1:(", "eclair"),
+        StandardCharsets.UTF_8);
+
+    SearchImpl search = new SearchImpl(reader);
+    BenchmarkConfig benchConfig = new BenchmarkConfig.Builder().warmupRounds(1).rounds(2).concurrency(2).build();
+    BenchmarkResult result = search.benchmark(queryFile, "f1", new StandardAnalyzer(),
+        new QueryParserConfig.Builder().build(), new SimilarityConfig.Builder().build(), benchConfig);
+
+    assertEquals(4, result.getNumQueries());
+    assertEquals(1, result.getNumSkipped());
+    assertEquals(8, result.getNumExecutions());
+    assertEquals(0, result.getNumErrors());
+    assertTrue(result.getP50Millis() <= result.getP90Millis());
+    assertTrue(result.getP90Millis() <= result.getP99Millis());
+    assertTrue(result.getP99Millis() <= result.getMaxMillis());
+    assertTrue(result.getQps() > 0);
+
+    String[] csv = result.toCsv().split("\n");
+    assertEquals(2, csv.length);
+    assertEquals(csv[0].split(",").length, csv[1].split(",").length);
+  }
+
+  @Test(expected = LukeException.class)
+  public void testBenchmarkNoQueries() throws Exception {
+    Path queryFile = createTempDir("benchmark").resolve("queries.txt");
+    Files.write(queryFile, Arrays.asList("# comment", ""), StandardCharsets.UTF_8);
+
+    SearchImpl search = new SearchImpl(reader);
+    search.benchmark(queryFile, "f1", new StandardAnalyzer(), new QueryParserConfig.Builder().build(),
+        new SimilarityConfig.Builder().build(), new BenchmarkConfig.Builder().build());
+  }
+
+  @Test
+  public void testExportJsonl() throws Exception {
+    Query query = new QueryParser("f1", new StandardAnalyzer()).parse("pie");
+    Path output = createTempDir("export").resolve("hits.jsonl");
+    ExportConfig config = new ExportConfig.Builder()
+        .format(ExportConfig.Format.JSONL)
+        .fields(Arrays.asList("f1", "f3", "f4", "f12"))
+        .build();
+    long[] progress = new long[2];
+
+    SearchImpl search = new SearchImpl(reader);
+    long count = search.export(query, config, output, (done, total) -> {
+      progress[0] = done;
+      progress[1] = total;
+    });
+
+    assertEquals(20, count);
+    assertEquals(reader.maxDoc(), progress[0]);
+    assertEquals(reader.maxDoc(), progress[1]);
+
+    List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+    assertEquals(20, lines.size());
+    int prevId = -1;
+    for (String line : lines) {
+      assertTrue(line, line.matches("\\{\"docid\":\\d+,\"f1\":\"(Apple|Chocolate) Pie\",\"f3\":\"[ac]\\d+\",\"f4\":\\d+}"));
+      int docid = Integer.parseInt(line.substring(9, line.indexOf(',')));
+      assertTrue(docid > prevId);
+      prevId = docid;
+    }
+  }
+
+  @Test
+  public void testExportCsv() throws Exception {
+    Query query = new QueryParser("f1", new StandardAnalyzer()).parse("brownie");
+    Path output = createTempDir("export").resolve("hits.csv");
+    ExportConfig config = new ExportConfig.Builder()
+        .format(ExportConfig.Format.CSV)
+        .fields(Arrays.asList("f1", "f7"))
+        .build();
+
+    SearchImpl search = new SearchImpl(reader);
+    long count = search.export(query, config, output, null);
+
+    assertEquals(10, count);
+    List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+    assertEquals(11, lines.size());
+    assertEquals("docid,f1,f7", lines.get(0));
+    for (String line : lines.subList(1, lines.size())) {
+      assertTrue(line, line.matches("\\d+,Brownie,\\d*2"));
+    }
+  }
+
+  @Test
+  public void testExportEscaping() {
+    StringBuilder json = new StringBuilder();
+    HitsExporter.appendJson("a\"b\\c\nd\u0001", json);
+    assertEquals("\"a\\\"b\\\\c\\nd\\u0001\"", json.toString());
+
+    StringBuilder csv = new StringBuilder();
+    HitsExporter.appendCsv("a,\"b\"", csv);
+    assertEquals("\"a,\"\"b\"\"\"", csv.toString());
+  }
+
+  @Test
+  public void testGetAggregatableFieldNames() {
+    SearchImpl search = new SearchImpl(reader);
+    assertEquals(Arrays.asList("f2", "f3"), search.getAggregatableFieldNames().stream().sorted().collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testAggregateTerms() throws Exception {
+    Path aggIndexDir = createTempDir("aggIndex");
+    Directory aggDir = newFSDirectory(aggIndexDir);
+    RandomIndexWriter writer = new RandomIndexWriter(random(), aggDir, new StandardAnalyzer());
+    String[] hosts = new String[]{"alpha", "beta", "gamma"};
+    for (int i = 0; i < 60; i++) {
+      Document doc = new Document();
+      doc.add(newTextField("body", i % 2 == 0 ? "even" : "odd", Field.Store.NO));
+      // alpha: 30, beta: 20, gamma: 10
+      String host = i % 6 < 3 ? hosts[0] : (i % 6 < 5 ? hosts[1] : hosts[2]);
+      doc.add(new SortedDocValuesField("host", new BytesRef(host)));
+      if (i % 10 != 0) {
+        doc.add(new SortedSetDocValuesField("tag", new BytesRef("t" + (i % 3))));
+        doc.add(new SortedSetDocValuesField("tag", new BytesRef("all")));
+      }
+      writer.addDocument(doc);
+      if (i % 17 == 0) {
+        writer.commit();
+      }
+    }
+    writer.commit();
+    writer.close();
+
+    try (IndexReader aggReader = DirectoryReader.open(aggDir)) {
+      SearchImpl search = new SearchImpl(aggReader);
+
+      TermsAggregation hosts1 = search.aggregateTerms(new MatchAllDocsQuery(), "host", 2);
+      assertEquals(60, hosts1.getNumHits());
+      assertEquals(0, hosts1.getNumMissing());
+      assertEquals(3, hosts1.getNumUniqueValues());
+      assertEquals(2, hosts1.getBuckets().size());
+      assertEquals("alpha", hosts1.getBuckets().get(0).getValue());
+      assertEquals(30, hosts1.getBuckets().get(0).getCount());
+      assertEquals("beta", hosts1.getBuckets().get(1).getValue());
+      assertEquals(20, hosts1.getBuckets().get(1).getCount());
+
+      Query even = new QueryParser("body", new StandardAnalyzer()).parse("even");
+      TermsAggregation tags = search.aggregateTerms(even, "tag", 10);
+      assertEquals(30, tags.getNumHits());
+      assertEquals(6, tags.getNumMissing());
+      assertEquals(4, tags.getNumUniqueValues());
+      assertEquals("all", tags.getBuckets().get(0).getValue());
+      assertEquals(24, tags.getBuckets().get(0).getCount());
+      assertEquals(24, tags.getBuckets().subList(1, 4).stream().mapToLong(TermsAggregation.Bucket::getCount).sum());
+    } finally {
+      aggDir.close();
+    }
+  }
+
+  @Test(expected = LukeException.class)
+  public void testAggregateTermsUnsupportedField() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    search.aggregateTerms(new MatchAllDocsQuery(), "f4", 10);
+  }
+
+  @Test
+  public void testGetHistogramFieldNames() {
+    SearchImpl search = new SearchImpl(reader);
+    assertEquals(Arrays.asList("f4", "f5", "f6", "f7"),
+        search.getHistogramFieldNames().stream().sorted().collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testAggregateHistogram() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    HistogramConfig config = new HistogramConfig.Builder().valueType(HistogramConfig.ValueType.LONG).interval(10).build();
+    HistogramAggregation histogram = search.aggregateHistogram(new MatchAllDocsQuery(), "f4", config);
+
+    assertEquals(50, histogram.getNumHits());
+    assertEquals(0, histogram.getNumMissing());
+    assertEquals(10, histogram.getBuckets().size());
+    for (int i = 0; i < 10; i++) {
+      HistogramAggregation.Bucket bucket = histogram.getBuckets().get(i);
+      assertEquals(i * 10, bucket.getFrom(), 0.0);
+      assertEquals(String.valueOf(i * 10), bucket.getLabel());
+      assertEquals(5, bucket.getCount());
+    }
+  }
+
+  @Test
+  public void testAggregateHistogramDouble() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    Query query = new QueryParser("f1", new StandardAnalyzer()).parse("pie");
+    HistogramConfig config = new HistogramConfig.Builder().valueType(HistogramConfig.ValueType.DOUBLE).interval(50).build();
+    HistogramAggregation histogram = search.aggregateHistogram(query, "f6", config);
+
+    assertEquals(20, histogram.getNumHits());
+    assertEquals(2, histogram.getBuckets().size());
+    assertEquals(10, histogram.getBuckets().get(0).getCount());
+    assertEquals(10, histogram.getBuckets().get(1).getCount());
+  }
+
+  @Test
+  public void testAggregateHistogramAutoInterval() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    HistogramConfig config = new HistogramConfig.Builder().valueType(HistogramConfig.ValueType.LONG).numBuckets(20).build();
+    HistogramAggregation histogram = search.aggregateHistogram(new MatchAllDocsQuery(), "f7", config);
+
+    // range 1..95 is split into buckets of 5
+    assertEquals(5, histogram.getInterval(), 0.0);
+    assertEquals(20, histogram.getBuckets().size());
+    assertEquals(50, histogram.getBuckets().stream().mapToLong(HistogramAggregation.Bucket::getCount).sum());
+
+    HistogramConfig dateConfig = new HistogramConfig.Builder().valueType(HistogramConfig.ValueType.DATE).build();
+    HistogramAggregation dates = search.aggregateHistogram(new MatchAllDocsQuery(), "f4", dateConfig);
+    assertEquals(1000, dates.getInterval(), 0.0);
+    assertEquals("1970-01-01T00:00:00Z", dates.getBuckets().get(0).getLabel());
+  }
+
+  @Test(expected = LukeException.class)
+  public void testAggregateHistogramTooManyBuckets() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    HistogramConfig config = new HistogramConfig.Builder().valueType(HistogramConfig.ValueType.DOUBLE).interval(0.001).build();
+    search.aggregateHistogram(new MatchAllDocsQuery(), "f6", config);
+  }
+
+  @Test
+  public void testSearchEarlyTerminatedByIndexSort() throws Exception {
+    Path sortedIndexDir = createTempDir("sortedIndex");
+    Directory sortedDir = newFSDirectory(sortedIndexDir);
+    Sort indexSort = new Sort(new SortField("ts", SortField.Type.LONG));
+    RandomIndexWriter writer = new RandomIndexWriter(random(), sortedDir,
+        newIndexWriterConfig(new StandardAnalyzer()).setIndexSort(indexSort));
+    for (int i = 0; i < 500; i++) {
+      Document doc = new Document();
+      doc.add(newTextField("body", "log", Field.Store.NO));
+      doc.add(new NumericDocValuesField("ts", random().nextInt(100000)));
+      writer.addDocument(doc);
+    }
+    writer.forceMerge(1);
+    writer.commit();
+    writer.close();
+
+    try (IndexReader sortedReader = DirectoryReader.open(sortedDir)) {
+      SearchImpl search = new SearchImpl(sortedReader);
+      SimilarityConfig simConfig = new SimilarityConfig.Builder().build();
+
+      SearchResults sorted = search.search(new MatchAllDocsQuery(), simConfig, indexSort, null, 10);
+      assertTrue(sorted.isEarlyTerminated());
+      assertEquals(10, sorted.size());
+      assertTrue(sorted.getTotalHits() >= 10);
+
+      Optional<SearchResults> next = search.nextPage();
+      assertTrue(next.isPresent());
+      assertEquals(10, next.get().size());
+      assertEquals(10, next.get().getOffset());
+
+      Sort reversed = new Sort(new SortField("ts", SortField.Type.LONG, true));
+      SearchResults notSorted = search.search(new MatchAllDocsQuery(), simConfig, reversed, null, 10);
+      assertFalse(notSorted.isEarlyTerminated());
+      assertEquals(500, notSorted.getTotalHits());
+    } finally {
+      sortedDir.close();
+    }
+  }
+
+  @Test
+  public void testIsIndexSortPrefix() {
+    Sort indexSort = new Sort(new SortField("ts", SortField.Type.LONG), new SortField("id", SortField.Type.STRING));
+    assertTrue(SearchImpl.isIndexSortPrefix(new Sort(new SortField("ts", SortField.Type.LONG)), indexSort));
+    assertTrue(SearchImpl.isIndexSortPrefix(indexSort, indexSort));
+    assertFalse(SearchImpl.isIndexSortPrefix(new Sort(new SortField("id", SortField.Type.STRING)), indexSort));
+    assertFalse(SearchImpl.isIndexSortPrefix(new Sort(new SortField("ts", SortField.Type.LONG, true)), indexSort));
+  }
+
+  @Test
+  public void testExplainTopHits() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    Query query = new QueryParser("f1", new StandardAnalyzer()).parse("apple pie");
+    search.search(query, new SimilarityConfig.Builder().build(), null, 10);
+
+    List<HitExplanation> explanations = search.explainTopHits(15);
+    assertEquals(15, explanations.size());
+    for (int i = 0; i < explanations.size(); i++) {
+      HitExplanation hit = explanations.get(i);
+      assertEquals(i + 1, hit.getRank());
+      assertEquals(hit.getScore(), hit.getExplanation().getValue(), 0.0001f);
+      if (i > 0) {
+        assertTrue(hit.getScore() <= explanations.get(i - 1).getScore());
+      }
+    }
+
+    Map<String, Float> components = explanations.get(0).getComponents();
+    assertTrue(components.containsKey("f1:apple"));
+    assertTrue(components.containsKey("f1:pie"));
+    assertTrue(components.containsKey("f1:apple : idf"));
+    assertTrue(components.containsKey("f1:pie : tfNorm"));
+  }
+
+  @Test(expected = LukeException.class)
+  public void testExplainTopHitsSearchNotStarted() {
+    SearchImpl search = new SearchImpl(reader);
+    search.explainTopHits(10);
+  }
+
+  @Test
+  public void testMltBatch() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    IndexSearcher searcher = new IndexSearcher(reader);
+    List<Integer> seeds = new ArrayList<>();
+    for (ScoreDoc scoreDoc : searcher.search(new TermQuery(new Term("f1", "apple")), 3).scoreDocs) {
+      seeds.add(scoreDoc.doc);
+    }
+    seeds.add(searcher.search(new TermQuery(new Term("f1", "brownie")), 1).scoreDocs[0].doc);
+
+    MLTConfig config = new MLTConfig.Builder().fields(Collections.singletonList("f1")).minTermFreq(1).build();
+    List<long[]> progress = new ArrayList<>();
+    List<SimilarDocs> results = search.mltBatch(seeds, config, new StandardAnalyzer(), 5,
+        (done, total) -> {
+          synchronized (progress) {
+            progress.add(new long[]{done, total});
+          }
+        });
+
+    assertEquals(4, results.size());
+    assertEquals(4, progress.size());
+    for (int i = 0; i < seeds.size(); i++) {
+      SimilarDocs similarDocs = results.get(i);
+      int seed = seeds.get(i);
+      assertEquals(seed, similarDocs.getSeedDocId());
+      assertEquals(search.mltQuery(seed, config, new StandardAnalyzer()), similarDocs.getQuery());
+      assertEquals(5, similarDocs.getHits().size());
+      for (SimilarDocs.Hit hit : similarDocs.getHits()) {
+        assertTrue(hit.getDocId() != seed);
+        String f1 = reader.document(hit.getDocId()).get("f1");
+        assertEquals(i < 3 ? "Apple Pie" : "Brownie", f1);
+      }
+    }
+  }
+
+  @Test(expected = LukeException.class)
+  public void testMltBatchInvalidDocId() {
+    SearchImpl search = new SearchImpl(reader);
+    MLTConfig config = new MLTConfig.Builder().fields(Collections.singletonList("f1")).build();
+    search.mltBatch(Collections.singletonList(reader.maxDoc()), config, new StandardAnalyzer(), 5, null);
+  }
+
+  @Test
+  public void testProfileSegments() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    Query query = new QueryParser("f1", new StandardAnalyzer()).parse("pie");
+    List<SegmentExecution> executions = search.profileSegments(query, new SimilarityConfig.Builder().build(), true);
+
+    assertEquals(reader.leaves().size(), executions.size());
+    assertEquals(20, executions.stream().mapToLong(SegmentExecution::getNumHits).sum());
+    for (int i = 0; i < executions.size(); i++) {
+      SegmentExecution execution = executions.get(i);
+      assertEquals(i, execution.getLeafOrd());
+      assertEquals(reader.leaves().get(i).reader().maxDoc(), execution.getMaxDoc());
+      assertTrue(execution.getCost() >= execution.getNumHits());
+      if (execution.getNumHits() > 0) {
+        assertTrue(execution.getBytesRead() > 0);
+      }
+    }
+  }
+
+  @Test
+  public void testProfileSegmentsWithoutBytesRead() throws Exception {
+    SearchImpl search = new SearchImpl(reader);
+    Query query = new QueryParser("f1", new StandardAnalyzer()).parse("pie");
+    List<SegmentExecution> executions = search.profileSegments(query, new SimilarityConfig.Builder().build(), false);
+
+    assertEquals(20, executions.stream().mapToLong(SegmentExecution::getNumHits).sum());
+    for (SegmentExecution execution : executions) {
+      assertEquals(-1, execution.getBytesRead());
+    }
+  }
+
+  @Test
+  public void testRestrictToSegment() throws Exception {
+    Path multiSegIndexDir = createTempDir("multiSegIndex");
+    Directory multiSegDir = newFSDirectory(multiSegIndexDir);
+    IndexWriter writer = new IndexWriter(multiSegDir,
+        newIndexWriterConfig(new StandardAnalyzer()).setMergePolicy(NoMergePolicy.INSTANCE));
+    for (int i = 0; i < 30; i++) {
+      Document doc = new Document();
+      doc.add(newTextField("body", "doc", Field.Store.NO));
+      writer.addDocument(doc);
+      if (i % 10 == 9) {
+        writer.commit();
+      }
+    }
+    writer.close();
+
+    try (IndexReader multiSegReader = DirectoryReader.open(multiSegDir)) {
+      assertEquals(3, multiSegReader.leaves().size());
+      SearchImpl search = new SearchImpl(multiSegReader);
+      SimilarityConfig simConfig = new SimilarityConfig.Builder().build();
+      LeafReaderContext leaf = multiSegReader.leaves().get(1);
+      String segName = ((SegmentReader) leaf.reader()).getSegmentName();
+
+      search.restrictToSegment(segName);
+      assertEquals(segName, search.getRestrictedSegment().orElse(null));
+      SearchResults results = search.search(new MatchAllDocsQuery(), simConfig, null, 100);
+      assertEquals(10, results.getTotalHits());
+      for (SearchResults.Doc doc : results.getHits()) {
+        assertTrue(doc.getDocId() >= leaf.docBase && doc.getDocId() < leaf.docBase + 10);
+      }
+
+      search.restrictToSegment(null);
+      assertFalse(search.getRestrictedSegment().isPresent());
+      assertEquals(30, search.search(new MatchAllDocsQuery(), simConfig, null, 100).getTotalHits());
+    } finally {
+      multiSegDir.close();
+    }
+  }
+
+  @Test(expected = LukeException.class)
+  public void testRestrictToUnknownSegment() {
+    SearchImpl search = new SearchImpl(reader);
+    search.restrictToSegment("_unknown");
+  }
+
   private void printResults(SearchResults res) {
     System.out.println("**search results**");
     System.out.println("total=" + res.getTotalHits());
@@ -0,0 +1,550 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.lucene.luke.models.tools;
+
+import org.apache.lucene.analysis.MockAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.CheckIndex;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.RandomIndexWriter;
+import org.apache.lucene.index.SegmentCommitInfo;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.luke.models.LukeException;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.BaseDirectoryWrapper;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.TestUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+public class IndexToolsImplTest extends LuceneTestCase {
+
+  private BaseDirectoryWrapper dir;
+
+  private Path indexDir;
+
+  @Override
+  @Before
+  public void setUp() throws Exception {
+    super.setUp();
+    indexDir = createIndex();
+    dir = newFSDirectory(indexDir);
+  }
+
+  private Path createIndex() throws IOException {
+    Path indexDir = createTempDir();
+
+    Directory dir = newFSDirectory(indexDir);
+    RandomIndexWriter writer = new RandomIndexWriter(random(), dir, new MockAnalyzer(random()));
+
+    for (int i = 0; i < 10; i++) {
+      Document doc = new Document();
+      doc.add(newTextField("f1", "apple banana " + i, Field.Store.YES));
+      doc.add(newStringField("f2", String.valueOf(i), Field.Store.YES));
+      writer.addDocument(doc);
+      if (i == 4) {
+        writer.commit();
+      }
+    }
+    writer.commit();
+
+    writer.close();
+    dir.close();
+
+    return indexDir;
+  }
+
+  @Override
+  @After
+  public void tearDown() throws Exception {
+    super.tearDown();
+    dir.close();
+  }
+
+  @Test
+  public void testCheckIndex_levels() {
+    IndexToolsImpl tools = new IndexToolsImpl(dir, false, false);
+    Map<String, Long> sizes = tools.getSegmentSizes();
+    assertFalse(sizes.isEmpty());
+    for (CheckIndexConfig.Level level : CheckIndexConfig.Level.values()) {
+      CheckIndexConfig config = new CheckIndexConfig.Builder().level(level).build();
+      CheckIndex.Status status = tools.checkIndex(config, null);
+      assertTrue(status.clean);
+      assertFalse(status.partial);
+      assertTrue(config.estimateMillis(sizes) >= 0);
+    }
+
+    long checksums = new CheckIndexConfig.Builder().level(CheckIndexConfig.Level.CHECKSUMS).build().estimateMillis(sizes);
+    long structure = new CheckIndexConfig.Builder().level(CheckIndexConfig.Level.STRUCTURE).build().estimateMillis(sizes);
+    long full = new CheckIndexConfig.Builder().level(CheckIndexConfig.Level.FULL).build().estimateMillis(sizes);
+    assertTrue(checksums <= structure);
+    assertTrue(structure <= full);
+  }
+
+  @Test
+  public void testCheckIndex_segments() throws IOException {
+    Path indexDir = createTempDir();
+    try (BaseDirectoryWrapper dir = newFSDirectory(indexDir)) {
+      createSegments(dir, 3);
+
+      IndexToolsImpl tools = new IndexToolsImpl(dir, false, false);
+      CheckIndexConfig config = new CheckIndexConfig.Builder()
+          .level(CheckIndexConfig.Level.FULL)
+          .segments(Collections.singletonList("_1"))
+          .build();
+      CheckIndex.Status status = tools.checkIndex(config, null);
+
+      assertTrue(status.clean);
+      assertTrue(status.partial);
+      assertEquals(Collections.singletonList("_1"), status.segmentsChecked);
+      assertEquals(1, status.segmentInfos.size());
+      assertEquals("_1", status.segmentInfos.get(0).name);
+
+      Map<String, Long> sizes = tools.getSegmentSizes();
+      assertEquals(3, sizes.size());
+      long all = new CheckIndexConfig.Builder().level(CheckIndexConfig.Level.FULL).build().estimateMillis(sizes);
+      assertTrue(config.estimateMillis(sizes) <= all);
+    }
+  }
+
+  @Test
+  public void testVerifyChecksums() {
+    IndexToolsImpl tools = new IndexToolsImpl(dir, false, false);
+    AtomicLong done = new AtomicLong();
+    AtomicLong total = new AtomicLong();
+    ChecksumStatus status = tools.verifyChecksums(2, null, (d, t) -> {
+      done.accumulateAndGet(d, Math::max);
+      total.set(t);
+    });
+
+    assertTrue(status.isClean());
+    assertTrue(status.getCorruptedFiles().isEmpty());
+    assertFalse(status.getFiles().isEmpty());
+    assertTrue(status.getFiles().stream().anyMatch(file -> file.getFileName().startsWith("segments_")));
+    long totalBytes = status.getFiles().stream().mapToLong(ChecksumStatus.FileChecksum::getLength).sum();
+    assertEquals(totalBytes, status.getTotalBytes());
+    assertEquals(totalBytes, total.get());
+    assertEquals(totalBytes, done.get());
+  }
+
+  @Test
+  public void testVerifyChecksums_corrupted() throws IOException {
+    IndexToolsImpl tools = new IndexToolsImpl(dir, false, false);
+
+    // flip a byte in the largest data file, the commit point and segment infos must still be readable
+    String target = null;
+    long targetLength = 0;
+    for (ChecksumStatus.FileChecksum file : tools.verifyChecksums(1, null, null).getFiles()) {
+      String name = file.getFileName();
+      if (!name.startsWith("segments") && !name.endsWith(".si") && file.getLength() > targetLength) {
+        target = name;
+        targetLength = file.getLength();
+      }
+    }
+    assertNotNull(target);
+    try (RandomAccessFile raf = new RandomAccessFile(indexDir.resolve(target).toFile(), "rw")) {
+      raf.seek(targetLength / 2);
+      int b = raf.read();
+      raf.seek(targetLength / 2);
+      raf.write(b ^ 0xff);
+    }
+    dir.setCheckIndexOnClose(false);
+
+    ChecksumStatus status = tools.verifyChecksums(4, null, null);
+
+    assertFalse(status.isClean());
+    assertEquals(1, status.getCorruptedFiles().size());
+    ChecksumStatus.FileChecksum corrupted = status.getCorruptedFiles().get(0);
+    assertEquals(target, corrupted.getFileName());
+    assertEquals(-1, corrupted.getChecksum());
+    assertFalse(corrupted.getError().isEmpty());
+  }
+
+  @Test
+  public void testCheckSegments() throws IOException {
+    Path indexDir = createTempDir();
+    try (BaseDirectoryWrapper dir = newFSDirectory(indexDir)) {
+      createSegments(dir, 3);
+
+      IndexToolsImpl tools = new IndexToolsImpl(dir, false, false);
+      List<String> started = new ArrayList<>();
+      List<String> checked = Collections.synchronizedList(new ArrayList<>());
+      SegmentCheckReport report = tools.checkSegments(2, null, new SegmentCheckListener() {
+        @Override
+        public void started(List<String> segmentNames) {
+          started.addAll(segmentNames);
+        }
+
+        @Override
+        public void checked(SegmentCheckReport.Segment segment) {
+          checked.add(segment.getName());
+        }
+      });
+
+      assertTrue(report.isClean());
+      assertEquals(3, report.getSegments().size());
+      assertEquals(started, report.getSegments().stream()
+          .map(SegmentCheckReport.Segment::getName).collect(Collectors.toList()));
+      assertEquals(3, checked.size());
+      for (SegmentCheckReport.Segment segment : report.getSegments()) {
+        assertEquals(SegmentCheckReport.State.OK, segment.getState());
+        assertEquals("", segment.getFailedCheck());
+        assertEquals(2, segment.getMaxDoc());
+      }
+    }
+  }
+
+  @Test
+  public void testCheckSegments_corrupted() throws IOException {
+    Path indexDir = createTempDir();
+    try (BaseDirectoryWrapper dir = newFSDirectory(indexDir)) {
+      createSegments(dir, 3);
+      dir.setCheckIndexOnClose(false);
+
+      // flip a byte in the stored fields data of the second segment
+      String target = Arrays.stream(dir.listAll())
+          .filter(name -> name.startsWith("_1") && name.endsWith(".fdt"))
+          .findFirst().orElse(null);
+      assertNotNull(target);
+      long length = dir.fileLength(target);
+      try (RandomAccessFile raf = new RandomAccessFile(indexDir.resolve(target).toFile(), "rw")) {
+        raf.seek(length / 2);
+        int b = raf.read();
+        raf.seek(length / 2);
+        raf.write(b ^ 0xff);
+      }
+
+      IndexToolsImpl tools = new IndexToolsImpl(dir, false, false);
+      SegmentCheckReport report = tools.checkSegments(3, null, null);
+
+      assertFalse(report.isClean());
+      assertEquals(1, report.getNumBadSegments());
+      assertEquals(2, report.getTotLoseDocCount());
+      for (SegmentCheckReport.Segment segment : report.getSegments()) {
+        if (segment.getName().equals("_1")) {
+          assertEquals(SegmentCheckReport.State.FAILED, segment.getState());
+          assertFalse(segment.getFailedCheck().isEmpty());
+          assertFalse(segment.getError().isEmpty());
+        } else {
+          assertEquals(SegmentCheckReport.State.OK, segment.getState());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testOptimize_progress() throws IOException {
+    Path indexDir = createTempDir();
+    try (BaseDirectoryWrapper dir = newFSDirectory(indexDir)) {
+      createSegments(dir, 5);
+
+      AtomicLong done = new AtomicLong();
+      AtomicLong total = new AtomicLong();
+      try (DirectoryReader reader = DirectoryReader.open(dir)) {
+        IndexToolsImpl tools = new IndexToolsImpl(reader, false, false);
+        OptimizeConfig config = new OptimizeConfig.Builder()
+            .maxNumSegments(1)
+            .maxMergeThreads(2)
+            .maxMergeMBPerSec(100)
+            .build();
+        tools.optimize(config, null, (d, t) -> {
+          done.set(d);
+          total.set(t);
+        });
+      }
+
+      assertTrue(total.get() > 0);
+      assertEquals(total.get(), done.get());
+      assertEquals(1, SegmentInfos.readLatestCommit(dir).size());
+    }
+  }
+
+  @Test
+  public void testOptimize_expungeThrottled() throws Exception {
+    Path indexDir = createTempDir();
+    try (BaseDirectoryWrapper dir = newFSDirectory(indexDir)) {
+      IndexWriterConfig iwc = new IndexWriterConfig(new MockAnalyzer(random()));
+      iwc.setMergePolicy(NoMergePolicy.INSTANCE);
+      iwc.setUseCompoundFile(false);
+      try (IndexWriter writer = new IndexWriter(dir, iwc)) {
+        for (int i = 0; i < 5; i++) {
+          for (int j = 0; j < 200; j++) {
+            Document doc = new Document();
+            doc.add(newStringField("id", i + "-" + j, Field.Store.YES));
+            doc.add(newTextField("f1", TestUtil.randomSimpleString(random(), 1000, 1000), Field.Store.YES));
+            writer.addDocument(doc);
+          }
+          writer.commit();
+        }
+        for (int i = 0; i < 5; i++) {
+          for (int j = 0; j < 200; j += 4) {
+            writer.deleteDocuments(new Term("id", i + "-" + j));
+          }
+        }
+        writer.commit();
+      }
+
+      double mbPerSec = 0.5;
+      long start = System.nanoTime();
+      try (DirectoryReader reader = DirectoryReader.open(dir)) {
+        IndexToolsImpl tools = new IndexToolsImpl(reader, false, false);
+        OptimizeConfig config = new OptimizeConfig.Builder().expunge(true).maxMergeMBPerSec(mbPerSec).build();
+        tools.optimize(config, null, null);
+      }
+      long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+      SegmentInfos infos = SegmentInfos.readLatestCommit(dir);
+      long bytes = 0;
+      for (SegmentCommitInfo info : infos) {
+        assertFalse(info.hasDeletions());
+        bytes += info.sizeInBytes();
+      }
+      // the merged segments are written at the configured rate, not at the auto IO throttle rate
+      long expectedMillis = (long) (bytes / (mbPerSec * 1024 * 1024) * 1000);
+      assertTrue("elapsed " + elapsedMillis + "ms for " + bytes + " bytes", elapsedMillis >= expectedMillis / 2);
+    }
+  }
+
+  @Test
+  public void testOptimize_abort() throws Exception {
+    Path indexDir = createTempDir();
+    try (BaseDirectoryWrapper dir = newFSDirectory(indexDir)) {
+      createSegments(dir, 5, 500);
+      long generation = SegmentInfos.readLatestCommit(dir).getGeneration();
+
+      CountDownLatch started = new CountDownLatch(1);
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try (DirectoryReader reader = DirectoryReader.open(dir)) {
+        IndexToolsImpl tools = new IndexToolsImpl(reader, false, false);
+        // throttle the merge so that it is still running when aborted
+        OptimizeConfig config = new OptimizeConfig.Builder().maxNumSegments(1).maxMergeMBPerSec(0.01).build();
+        Future<?> future = executor.submit(() -> tools.optimize(config, null, (d, t) -> started.countDown()));
+
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        tools.abortOptimize();
+
+        try {
+          future.get(10, TimeUnit.SECONDS);
+          fail("optimize should be aborted");
+        } catch (ExecutionException e) {
+          assertTrue(e.getCause() instanceof LukeException);
+          assertEquals("Optimize was aborted.", e.getCause().getMessage());
+        }
+      } finally {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+      }
+
+      SegmentInfos infos = SegmentInfos.readLatestCommit(dir);
+      assertEquals(generation, infos.getGeneration());
+      assertEquals(5, infos.size());
+    }
+  }
+
+  @Test
+  public void testImportDocuments_jsonl() throws IOException {
+    Path input = createTempFile("import", ".jsonl");
+    List<String> lines = new ArrayList<>();
+    for (int i = 0; i < 250; i++) {
+      lines.add(String.format(Locale.ROOT, "{\"id\": \"doc%d\", \"price\": %d, \"title\": \"apple \\\"%d\\\"\", " +
+          "\"tags\": [\"red\", \"tag%d\"], \"meta\": {\"lang\": \"en\", \"note\": null}}", i, i, i, i % 2));
+      if (i == 100) {
+        lines.add("");
+        lines.add("{\"id\": \"broken\"");
+        lines.add("{\"id\": \"nan\", \"price\": \"cheap\"}");
+      }
+    }
+    Files.write(input, lines, StandardCharsets.UTF_8);
+
+    Map<String, Class<? extends Field>> fieldTypes = new HashMap<>();
+    fieldTypes.put("id", StringField.class);
+    fieldTypes.put("price", IntPoint.class);
+    fieldTypes.put("tags", StringField.class);
+    fieldTypes.put("meta.lang", StringField.class);
+    ImportConfig config = new ImportConfig.Builder()
+        .format(ImportConfig.Format.JSONL)
+        .fieldTypes(fieldTypes)
+        .numThreads(3)
+        .ramBufferSizeMB(16)
+        .commitInterval(100)
+        .build();
+
+    AtomicLong done = new AtomicLong();
+    ImportStatus status;
+    try (DirectoryReader reader = DirectoryReader.open(dir)) {
+      IndexToolsImpl tools = new IndexToolsImpl(reader, false, false);
+      status = tools.importDocuments(input, config, null, null, (d, t) -> {
+        done.accumulateAndGet(d, Math::max);
+        assertEquals(-1, t);
+      });
+    }
+
+    assertEquals(250, status.getNumDocs());
+    assertEquals(2, status.getNumFailed());
+    assertEquals(2, status.getErrors().size());
+    assertTrue(status.getErrors().get(0).startsWith("line 103: "));
+    assertTrue(status.getErrors().get(1).startsWith("line 104: "));
+    assertEquals(3, status.getNumCommits());
+    assertEquals(250, done.get());
+
+    try (DirectoryReader reader = DirectoryReader.open(dir)) {
+      IndexSearcher searcher = new IndexSearcher(reader);
+      assertEquals(260, reader.numDocs());
+      assertEquals(50, searcher.count(IntPoint.newRangeQuery("price", 0, 49)));
+      assertEquals(250, searcher.count(new TermQuery(new Term("tags", "red"))));
+      assertEquals(125, searcher.count(new TermQuery(new Term("tags", "tag1"))));
+      assertEquals(250, searcher.count(new TermQuery(new Term("meta.lang", "en"))));
+      assertEquals(0, searcher.count(new TermQuery(new Term("id", "nan"))));
+      TopDocs topDocs = searcher.search(new TermQuery(new Term("id", "doc7")), 1);
+      assertEquals("apple \"7\"", searcher.doc(topDocs.scoreDocs[0].doc).get("title"));
+    }
+  }
+
+  @Test
+  public void testImportDocuments_csv() throws IOException {
+    Path input = createTempFile("import", ".csv");
+    String csv = "id,title,count\r\n" +
+        "a,\"apple, banana\",1\r\n" +
+        "b,\"multi\nline \"\"quoted\"\"\",2\r\n" +
+        "c,missing count\r\n" +
+        "d,,3\n" +
+        "\n" +
+        "e,cherry,x\n";
+    Files.write(input, csv.getBytes(StandardCharsets.UTF_8));
+
+    Map<String, Class<? extends Field>> fieldTypes = new HashMap<>();
+    fieldTypes.put("id", StringField.class);
+    fieldTypes.put("count", NumericDocValuesField.class);
+    ImportConfig config = new ImportConfig.Builder()
+        .format(ImportConfig.Format.CSV)
+        .fieldTypes(fieldTypes)
+        .numThreads(2)
+        .build();
+
+    ImportStatus status;
+    try (DirectoryReader reader = DirectoryReader.open(dir)) {
+      IndexToolsImpl tools = new IndexToolsImpl(reader, false, false);
+      assertEquals(Arrays.asList("id", "title", "count"), tools.getImportColumns(input, ImportConfig.Format.CSV));
+      status = tools.importDocuments(input, config, null, null, null);
+    }
+
+    assertEquals(3, status.getNumDocs());
+    assertEquals(2, status.getNumFailed());
+    assertTrue(status.getErrors().contains("line 5: Expected 3 values but found 2"));
+    assertEquals(1, status.getNumCommits());
+
+    try (DirectoryReader reader = DirectoryReader.open(dir)) {
+      IndexSearcher searcher = new IndexSearcher(reader);
+      assertEquals(13, reader.numDocs());
+      TopDocs a = searcher.search(new TermQuery(new Term("id", "a")), 1);
+      assertEquals("apple, banana", searcher.doc(a.scoreDocs[0].doc).get("title"));
+      TopDocs b = searcher.search(new TermQuery(new Term("id", "b")), 1);
+      assertEquals("multi\nline \"quoted\"", searcher.doc(b.scoreDocs[0].doc).get("title"));
+      TopDocs d = searcher.search(new TermQuery(new Term("id", "d")), 1);
+      assertNull(searcher.doc(d.scoreDocs[0].doc).get("title"));
+      assertEquals(0, searcher.count(new TermQuery(new Term("id", "e"))));
+    }
+  }
+
+  @Test
+  public void testImportDocuments_failure() throws IOException {
+    Path input = createTempFile("import", ".csv");
+    StringBuilder csv = new StringBuilder("id,title\n");
+    // more than one batch, so that some documents are added before the broken record is read
+    for (int i = 0; i < 250; i++) {
+      csv.append("doc").append(i).append(",apple\n");
+    }
+    csv.append("broken,\"unclosed\n");
+    Files.write(input, csv.toString().getBytes(StandardCharsets.UTF_8));
+    ImportConfig config = new ImportConfig.Builder().format(ImportConfig.Format.CSV).build();
+
+    try (DirectoryReader reader = DirectoryReader.open(dir)) {
+      IndexToolsImpl tools = new IndexToolsImpl(reader, false, false);
+      expectThrows(LukeException.class, () -> tools.importDocuments(input, config, null, null, null));
+    }
+
+    // nothing of the failed import is committed
+    try (DirectoryReader reader = DirectoryReader.open(dir)) {
+      assertEquals(10, reader.numDocs());
+    }
+  }
+
+  @Test
+  public void testGetImportColumns_jsonl() throws IOException {
+    Path input = createTempFile("import", ".jsonl");
+    Files.write(input, Arrays.asList("", "{\"b\": 1, \"a\": {\"x\": true, \"y\": [1, 2]}}", "{\"c\": 2}"),
+        StandardCharsets.UTF_8);
+
+    IndexToolsImpl tools = new IndexToolsImpl(dir, false, false);
+    assertEquals(Arrays.asList("b", "a.x", "a.y"), tools.getImportColumns(input, ImportConfig.Format.JSONL));
+  }
+
+  private void createSegments(Directory dir, int numSegments) throws IOException {
+    createSegments(dir, numSegments, 2);
+  }
+
+  private void createSegments(Directory dir, int numSegments, int docsPerSegment) throws IOException {
+    IndexWriterConfig config = new IndexWriterConfig(new MockAnalyzer(random()));
+    config.setUseCompoundFile(false);
+    config.setMergePolicy(NoMergePolicy.INSTANCE);
+    try (IndexWriter writer = new IndexWriter(dir, config)) {
+      for (int i = 0; i < numSegments; i++) {
+        for (int j = 0; j < docsPerSegment; j++) {
+          Document doc = new Document();
+          doc.add(newTextField("f1", "apple banana " + i, Field.Store.YES));
+          writer.addDocument(doc);
+        }
+        writer.commit();
+      }
+    }
+  }
+}